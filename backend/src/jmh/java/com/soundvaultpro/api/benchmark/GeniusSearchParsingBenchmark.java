@@ -0,0 +1,38 @@
+package com.soundvaultpro.api.benchmark;
+
+import com.soundvaultpro.api.config.JacksonConfig;
+import com.soundvaultpro.api.service.GeniusService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Genius /search response -> search hit maps, as done by GeniusService.searchSongs
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GeniusSearchParsingBenchmark {
+
+    private GeniusService geniusService;
+    private String body;
+
+    @Setup
+    public void setUp() {
+        geniusService = new GeniusService(null, new JacksonConfig().objectMapper(), null, null);
+        body = Payloads.load(Payloads.GENIUS_SEARCH);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> parseSearchResults() throws Exception {
+        return geniusService.parseSearchResults(body);
+    }
+}
@@ -0,0 +1,30 @@
+package com.soundvaultpro.api.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Recorded upstream payloads used as benchmark inputs
+ */
+final class Payloads {
+
+    static final String SUPABASE_PLAYLISTS = "payloads/supabase-playlists.json";
+    static final String GENIUS_SEARCH = "payloads/genius-search.json";
+    static final String SUPABASE_ACCESS_TOKEN = "payloads/supabase-access-token.txt";
+
+    private Payloads() {
+    }
+
+    static String load(String name) {
+        try (InputStream in = Payloads.class.getClassLoader().getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing benchmark payload " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.soundvaultpro.api.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soundvaultpro.api.config.JacksonConfig;
+import com.soundvaultpro.api.dto.PlaylistDto;
+import com.soundvaultpro.api.service.PlaylistService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Supabase playlists response -> PlaylistDto list, with the per-row timestamp parsing measured on its own
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PlaylistMappingBenchmark {
+
+    private PlaylistService playlistService;
+    private String body;
+    private List<String> timestamps;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+        playlistService = new PlaylistService(null, null, objectMapper, null, null, null, null, null);
+        body = Payloads.load(Payloads.SUPABASE_PLAYLISTS);
+
+        timestamps = new ArrayList<>();
+        for (JsonNode node : objectMapper.readTree(body)) {
+            timestamps.add(node.get("created_at").asText());
+            timestamps.add(node.get("updated_at").asText());
+        }
+    }
+
+    @Benchmark
+    public List<PlaylistDto> parsePlaylists() {
+        return playlistService.parsePlaylists(body);
+    }
+
+    @Benchmark
+    public void parseTimestamps(Blackhole blackhole) {
+        for (String timestamp : timestamps) {
+            blackhole.consume(LocalDateTime.parse(timestamp, DateTimeFormatter.ISO_DATE_TIME));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.soundvaultpro.api.benchmark;
+
+import com.soundvaultpro.api.security.RateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Permit checks as done by RateLimitFilter on every request, from several threads over many clients
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Threads(4)
+public class RateLimiterBenchmark {
+
+    private static final int CLIENTS = 10_000;
+
+    private RateLimiter rateLimiter;
+    private String[] clientKeys;
+
+    @Setup
+    public void setUp() {
+        rateLimiter = new RateLimiter(new SimpleMeterRegistry(), true, "20:40",
+                "/genius/search=1:5,/lyrics/search=1:5", 100_000, 60);
+        clientKeys = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clientKeys[i] = "ip:10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        String clientKey = clientKeys[ThreadLocalRandom.current().nextInt(CLIENTS)];
+        return rateLimiter.tryAcquire("/playlists", clientKey);
+    }
+
+    @Benchmark
+    public long tryAcquireLimitedRoute() {
+        String clientKey = clientKeys[ThreadLocalRandom.current().nextInt(CLIENTS)];
+        return rateLimiter.tryAcquire("/genius/search", clientKey);
+    }
+}
@@ -0,0 +1,92 @@
+package com.soundvaultpro.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soundvaultpro.api.config.JacksonConfig;
+import com.soundvaultpro.api.dto.ResponseDto;
+import com.soundvaultpro.api.dto.UserDto;
+import com.soundvaultpro.api.service.GeniusService;
+import com.soundvaultpro.api.service.PlaylistService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * ResponseDto serialization cost per endpoint payload and wire format.
+ * Setup prints the encoded and gzipped size of each combination, which is what goes on the wire.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseSerializationBenchmark {
+
+    @Param({"playlists", "user", "genius-search"})
+    public String payload;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectMapper mapper;
+    private ResponseDto<?> response;
+
+    @Setup
+    public void setUp() throws Exception {
+        JacksonConfig jacksonConfig = new JacksonConfig();
+        ObjectMapper objectMapper = jacksonConfig.objectMapper();
+        switch (format) {
+            case "cbor":
+                mapper = jacksonConfig.cborObjectMapper(objectMapper);
+                break;
+            case "smile":
+                mapper = jacksonConfig.smileObjectMapper(objectMapper);
+                break;
+            default:
+                mapper = objectMapper;
+        }
+
+        switch (payload) {
+            case "playlists":
+                PlaylistService playlistService = new PlaylistService(null, null, objectMapper, null, null, null, null, null);
+                response = ResponseDto.success(playlistService.parsePlaylists(Payloads.load(Payloads.SUPABASE_PLAYLISTS)));
+                break;
+            case "genius-search":
+                GeniusService geniusService = new GeniusService(null, objectMapper, null, null);
+                response = ResponseDto.success(geniusService.parseSearchResults(Payloads.load(Payloads.GENIUS_SEARCH)));
+                break;
+            default:
+                response = ResponseDto.success(UserDto.builder()
+                        .id(1L)
+                        .name("Alex Rivera")
+                        .email("alex.rivera@example.com")
+                        .profilePicture("https://lh3.googleusercontent.com/a/ACg8ocKexample=s96-c")
+                        .publicKey("q3Zk1m9yJc0nRkqH2f4lYw7uT8xVbN5sPaE6dGhIoLs=")
+                        .build());
+        }
+
+        byte[] encoded = mapper.writeValueAsBytes(response);
+        System.out.printf("%n[wire] payload=%s format=%s bytes=%d gzip=%d%n",
+                payload, format, encoded.length, gzipSize(encoded));
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return mapper.writeValueAsBytes(response);
+    }
+
+    private static int gzipSize(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.size();
+    }
+}
@@ -0,0 +1,37 @@
+package com.soundvaultpro.api.benchmark;
+
+import com.soundvaultpro.api.config.JacksonConfig;
+import com.soundvaultpro.api.service.SupabaseService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SupabaseService.validateToken runs on every authenticated request inside SupabaseAuthFilter
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SupabaseTokenBenchmark {
+
+    private SupabaseService supabaseService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        supabaseService = new SupabaseService(null, null, new JacksonConfig().objectMapper(), null);
+        token = Payloads.load(Payloads.SUPABASE_ACCESS_TOKEN);
+    }
+
+    @Benchmark
+    public Map<String, Object> validateToken() {
+        return supabaseService.validateToken(token);
+    }
+}
@@ -0,0 +1,50 @@
+package com.soundvaultpro.api.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Listener bookkeeping shared by the transports
+ */
+@Slf4j
+abstract class AbstractInvalidationBus implements InvalidationBus {
+
+    static final String LOCAL = "local";
+    static final String REMOTE = "remote";
+
+    private final List<InvalidationListener> listeners = new CopyOnWriteArrayList<>();
+    final MeterRegistry meterRegistry;
+
+    AbstractInvalidationBus(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void subscribe(InvalidationListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Hand an invalidation to every listener on this node
+     *
+     * @param source "local" if published on this node, "remote" if received from another
+     */
+    void deliver(String cache, String key, String source) {
+        Counter.builder("cache.invalidations")
+                .description("Cache keys invalidated, by where the write happened")
+                .tag("source", source)
+                .register(meterRegistry)
+                .increment();
+        for (InvalidationListener listener : listeners) {
+            try {
+                listener.invalidate(cache, key);
+            } catch (RuntimeException e) {
+                log.warn("Invalidation listener failed for {} {}: {}", cache, key, e.getMessage());
+            }
+        }
+    }
+}
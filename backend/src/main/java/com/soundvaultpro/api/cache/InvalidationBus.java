@@ -0,0 +1,24 @@
+package com.soundvaultpro.api.cache;
+
+/**
+ * Carries "this key changed" notices between the node-local caches of all replicas.
+ *
+ * A service that writes data some cache holds publishes the cache name and key after the write
+ * succeeded; every node, the publishing one included, then evicts that key. Delivery is best
+ * effort, so caches fed by the bus still need a maximum age of their own.
+ */
+public interface InvalidationBus {
+
+    /**
+     * Evict a key from the named cache on this node and, depending on the transport, on all others
+     *
+     * @param cache Cache name, e.g. "supabase.profiles"
+     * @param key The changed key, as a string
+     */
+    void publish(String cache, String key);
+
+    /**
+     * Register a listener that is called for every invalidation, local or remote
+     */
+    void subscribe(InvalidationListener listener);
+}
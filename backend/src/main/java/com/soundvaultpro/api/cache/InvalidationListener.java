@@ -0,0 +1,10 @@
+package com.soundvaultpro.api.cache;
+
+/**
+ * Evicts one key from a node-local cache when the {@link InvalidationBus} reports it changed
+ */
+@FunctionalInterface
+public interface InvalidationListener {
+
+    void invalidate(String cache, String key);
+}
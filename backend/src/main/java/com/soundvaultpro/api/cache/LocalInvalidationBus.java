@@ -0,0 +1,23 @@
+package com.soundvaultpro.api.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Invalidation bus for a single node: invalidations go straight to this process's listeners.
+ * Used when cache.invalidation.transport is local or unset, e.g. in development and tests.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.transport", havingValue = "local", matchIfMissing = true)
+public class LocalInvalidationBus extends AbstractInvalidationBus {
+
+    public LocalInvalidationBus(MeterRegistry meterRegistry) {
+        super(meterRegistry);
+    }
+
+    @Override
+    public void publish(String cache, String key) {
+        deliver(cache, key, LOCAL);
+    }
+}
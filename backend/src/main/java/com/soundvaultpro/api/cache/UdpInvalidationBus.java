@@ -0,0 +1,232 @@
+package com.soundvaultpro.api.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invalidation bus that sends every invalidation to the other replicas as one UDP datagram.
+ *
+ * {@code cache.invalidation.udp.peers} lists host:port pairs; each host is resolved to all of its
+ * addresses, so a single DNS name with one record per replica (a Kubernetes headless service,
+ * for example) covers the whole cluster, and names are resolved again every
+ * {@code cache.invalidation.udp.refresh-seconds} as replicas come and go. A node may list itself;
+ * it recognizes its own datagrams by a random node id and skips them. With
+ * {@code cache.invalidation.udp.secret} set, datagrams carry an HMAC-SHA256 and unsigned ones are
+ * dropped, so only nodes sharing the secret can evict entries.
+ *
+ * One datagram on a LAN arrives within a millisecond or is lost; there is no retry, so the
+ * caches' own maximum age bounds how long a lost invalidation leaves an entry stale.
+ *
+ * Meters: cache.invalidation.lag (timer) - time from publish to delivery on a receiving node,
+ * including clock skew between nodes, and cache.invalidation.dropped (counter; reason).
+ */
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.transport", havingValue = "udp")
+@Slf4j
+public class UdpInvalidationBus extends AbstractInvalidationBus {
+
+    private static final String VERSION = "v1";
+    private static final String HMAC = "HmacSHA256";
+    private static final int MAC_LENGTH = 32;
+    // Fits one Ethernet frame with IP and UDP headers, so datagrams are never fragmented
+    private static final int MAX_DATAGRAM = 1400;
+
+    private final ScheduledExecutorService resolver = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "cache-invalidation-resolver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final int port;
+    private final List<String> peerNames;
+    private final long refreshSeconds;
+    private final SecretKeySpec secret;
+    private final Timer lag;
+    private volatile List<InetSocketAddress> peers = List.of();
+    private DatagramSocket socket;
+
+    public UdpInvalidationBus(MeterRegistry meterRegistry,
+                              @Value("${cache.invalidation.udp.port:7946}") int port,
+                              @Value("${cache.invalidation.udp.peers:}") List<String> peerNames,
+                              @Value("${cache.invalidation.udp.refresh-seconds:30}") long refreshSeconds,
+                              @Value("${cache.invalidation.udp.secret:}") String secret) {
+        super(meterRegistry);
+        this.port = port;
+        this.peerNames = peerNames;
+        this.refreshSeconds = refreshSeconds;
+        this.secret = secret.isEmpty() ? null : new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC);
+        this.lag = Timer.builder("cache.invalidation.lag")
+                .description("Time from publishing an invalidation to delivering it on another node")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() throws SocketException {
+        socket = new DatagramSocket(port);
+        resolvePeers();
+        resolver.scheduleWithFixedDelay(this::resolvePeers, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+        Thread receiver = new Thread(this::receive, "cache-invalidation-receiver");
+        receiver.setDaemon(true);
+        receiver.start();
+        log.info("Cache invalidations on UDP port {} for peers {}", port, peerNames);
+    }
+
+    @PreDestroy
+    public void close() {
+        resolver.shutdownNow();
+        if (socket != null) {
+            socket.close();
+        }
+    }
+
+    @Override
+    public void publish(String cache, String key) {
+        deliver(cache, key, LOCAL);
+        byte[] datagram = encode(cache, key);
+        if (datagram.length > MAX_DATAGRAM) {
+            log.warn("Invalidation of {} {} is too large to send", cache, key);
+            dropped("too_large");
+            return;
+        }
+        for (InetSocketAddress peer : peers) {
+            try {
+                socket.send(new DatagramPacket(datagram, datagram.length, peer));
+            } catch (IOException e) {
+                log.debug("Could not send invalidation to {}: {}", peer, e.getMessage());
+                dropped("send_failed");
+            }
+        }
+    }
+
+    private void receive() {
+        byte[] buffer = new byte[MAX_DATAGRAM + MAC_LENGTH];
+        while (!socket.isClosed()) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                socket.receive(packet);
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    log.warn("Receiving invalidations failed: {}", e.getMessage());
+                }
+                continue;
+            }
+            byte[] payload = verify(Arrays.copyOfRange(packet.getData(), packet.getOffset(),
+                    packet.getOffset() + packet.getLength()));
+            if (payload == null) {
+                dropped("bad_signature");
+                continue;
+            }
+            // version, node id, sent at, cache, key; the key is last and may contain newlines
+            String[] fields = new String(payload, StandardCharsets.UTF_8).split("\n", 5);
+            if (fields.length != 5 || !VERSION.equals(fields[0])) {
+                dropped("malformed");
+                continue;
+            }
+            if (nodeId.equals(fields[1])) {
+                continue;
+            }
+            try {
+                lag.record(Math.max(0, System.currentTimeMillis() - Long.parseLong(fields[2])), TimeUnit.MILLISECONDS);
+            } catch (NumberFormatException e) {
+                dropped("malformed");
+                continue;
+            }
+            deliver(fields[3], fields[4], REMOTE);
+        }
+    }
+
+    private byte[] encode(String cache, String key) {
+        byte[] payload = String.join("\n", VERSION, nodeId, String.valueOf(System.currentTimeMillis()), cache, key)
+                .getBytes(StandardCharsets.UTF_8);
+        if (secret == null) {
+            return payload;
+        }
+        byte[] datagram = Arrays.copyOf(payload, payload.length + MAC_LENGTH);
+        System.arraycopy(mac(payload), 0, datagram, payload.length, MAC_LENGTH);
+        return datagram;
+    }
+
+    /**
+     * @return The payload without its signature, or null if a secret is set and it does not match
+     */
+    private byte[] verify(byte[] datagram) {
+        if (secret == null) {
+            return datagram;
+        }
+        if (datagram.length <= MAC_LENGTH) {
+            return null;
+        }
+        byte[] payload = Arrays.copyOf(datagram, datagram.length - MAC_LENGTH);
+        byte[] signature = Arrays.copyOfRange(datagram, payload.length, datagram.length);
+        return MessageDigest.isEqual(mac(payload), signature) ? payload : null;
+    }
+
+    private byte[] mac(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(secret);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    private void resolvePeers() {
+        List<InetSocketAddress> resolved = new ArrayList<>();
+        for (String peer : peerNames) {
+            int separator = peer.lastIndexOf(':');
+            String host = separator > 0 ? peer.substring(0, separator).trim() : peer.trim();
+            int peerPort = separator > 0 ? Integer.parseInt(peer.substring(separator + 1).trim()) : port;
+            if (host.isEmpty()) {
+                continue;
+            }
+            try {
+                for (InetAddress address : InetAddress.getAllByName(host)) {
+                    resolved.add(new InetSocketAddress(address, peerPort));
+                }
+            } catch (UnknownHostException e) {
+                log.warn("Could not resolve invalidation peer {}: {}", host, e.getMessage());
+            }
+        }
+        // A DNS hiccup should not cut this node off from peers it already knew
+        if (!resolved.isEmpty() || peers.isEmpty()) {
+            peers = List.copyOf(resolved);
+        }
+    }
+
+    private void dropped(String reason) {
+        Counter.builder("cache.invalidation.dropped")
+                .description("Invalidations not sent or not accepted")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+}
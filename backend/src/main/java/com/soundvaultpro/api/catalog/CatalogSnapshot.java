@@ -0,0 +1,20 @@
+package com.soundvaultpro.api.catalog;
+
+import com.soundvaultpro.api.dto.LibraryEntryDto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * On-disk form of a user's catalog
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CatalogSnapshot {
+    private String cursor;
+    private long version;
+    private List<LibraryEntryDto> entries;
+}
@@ -0,0 +1,22 @@
+package com.soundvaultpro.api.catalog;
+
+/**
+ * Lists a user's cloud folder and its changes. Listing is cursor based: a full listing ends with
+ * a cursor, and continuing from that cursor later returns only what changed since.
+ */
+public interface CloudFileClient {
+
+    /**
+     * Start a recursive listing of the user's whole library
+     *
+     * @param accessToken The user's token for the cloud provider
+     */
+    CloudListing list(String accessToken);
+
+    /**
+     * Continue a listing, or fetch the changes since a previous listing finished
+     *
+     * @throws CursorResetException if the cursor is no longer valid and a full listing is needed
+     */
+    CloudListing listContinue(String accessToken, String cursor);
+}
@@ -0,0 +1,30 @@
+package com.soundvaultpro.api.catalog;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of a cloud folder listing or delta, in Dropbox list_folder terms
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CloudFileEntry {
+
+    public static final String FILE = "file";
+    public static final String FOLDER = "folder";
+    public static final String DELETED = "deleted";
+
+    private String tag;
+    private String id;
+    private String name;
+    private String pathDisplay;
+    // Lowercased path; the stable key, since deletions carry no id
+    private String pathLower;
+    private String contentHash;
+    private long size;
+    private String serverModified;
+}
@@ -0,0 +1,19 @@
+package com.soundvaultpro.api.catalog;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a folder listing, plus the cursor to continue from or to poll for changes with
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CloudListing {
+    private List<CloudFileEntry> entries;
+    private String cursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,11 @@
+package com.soundvaultpro.api.catalog;
+
+/**
+ * Thrown when a listing cursor has expired or been invalidated by the provider
+ */
+public class CursorResetException extends RuntimeException {
+
+    public CursorResetException(String message) {
+        super(message);
+    }
+}
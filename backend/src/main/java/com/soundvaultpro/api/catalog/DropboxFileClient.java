@@ -0,0 +1,90 @@
+package com.soundvaultpro.api.catalog;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CloudFileClient backed by the Dropbox files/list_folder API. The user's access token is passed
+ * in per call and never stored.
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.client", havingValue = "dropbox", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class DropboxFileClient implements CloudFileClient {
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${dropbox.api.url:https://api.dropboxapi.com}")
+    private String dropboxApiUrl;
+
+    @Value("${catalog.page-size:2000}")
+    private int pageSize;
+
+    @Override
+    public CloudListing list(String accessToken) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("path", "");
+        body.put("recursive", true);
+        body.put("include_deleted", true);
+        body.put("limit", pageSize);
+        return call(accessToken, "/2/files/list_folder", body);
+    }
+
+    @Override
+    public CloudListing listContinue(String accessToken, String cursor) {
+        try {
+            return call(accessToken, "/2/files/list_folder/continue", Map.of("cursor", cursor));
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode() == HttpStatus.CONFLICT && e.getResponseBodyAsString().contains("reset")) {
+                throw new CursorResetException("Dropbox cursor was reset");
+            }
+            throw e;
+        }
+    }
+
+    private CloudListing call(String accessToken, String path, Map<String, Object> body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(accessToken);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        String response = restTemplate.postForObject(dropboxApiUrl + path, new HttpEntity<>(body, headers), String.class);
+        try {
+            JsonNode root = objectMapper.readTree(response);
+            List<CloudFileEntry> entries = new ArrayList<>();
+            for (JsonNode node : root.path("entries")) {
+                entries.add(CloudFileEntry.builder()
+                        .tag(node.path(".tag").asText())
+                        .id(node.path("id").asText(null))
+                        .name(node.path("name").asText())
+                        .pathDisplay(node.path("path_display").asText(null))
+                        .pathLower(node.path("path_lower").asText(null))
+                        .contentHash(node.path("content_hash").asText(null))
+                        .size(node.path("size").asLong())
+                        .serverModified(node.path("server_modified").asText(null))
+                        .build());
+            }
+            return new CloudListing(entries, root.path("cursor").asText(), root.path("has_more").asBoolean());
+        } catch (Exception e) {
+            log.error("Error parsing Dropbox listing: {}", e.getMessage());
+            throw new RuntimeException("Failed to parse Dropbox listing", e);
+        }
+    }
+}
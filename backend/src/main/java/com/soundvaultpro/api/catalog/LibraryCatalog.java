@@ -0,0 +1,220 @@
+package com.soundvaultpro.api.catalog;
+
+import com.soundvaultpro.api.dto.LibraryEntryDto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * In-memory index of one user's library. Writers (syncs) are serialized on the catalog; readers
+ * work on an immutable {@link View} swapped in after each change, so queries never lock and never
+ * see a half-applied delta. Each view lazily caches one sorted list per sort order.
+ */
+public class LibraryCatalog {
+
+    public static final List<String> SORT_FIELDS = List.of("name", "title", "artist", "album", "modified", "size");
+
+    private static final Map<String, Comparator<LibraryEntryDto>> COMPARATORS = Map.of(
+            "name", textOrder(LibraryEntryDto::getName),
+            "title", textOrder(e -> e.getTitle() != null ? e.getTitle() : e.getName()),
+            "artist", textOrder(LibraryEntryDto::getArtist),
+            "album", textOrder(LibraryEntryDto::getAlbum),
+            "modified", textOrder(LibraryEntryDto::getModified),
+            "size", Comparator.comparingLong(LibraryEntryDto::getSize));
+
+    // Keyed by lowercased path; only touched while holding the catalog lock
+    private final Map<String, LibraryEntryDto> entries = new HashMap<>();
+    private String cursor;
+    private volatile View view = new View(0, List.of());
+
+    public synchronized String getCursor() {
+        return cursor;
+    }
+
+    public synchronized void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public long getVersion() {
+        return view.version;
+    }
+
+    public int size() {
+        return view.entries.size();
+    }
+
+    /**
+     * Replace the whole catalog, as after a full listing
+     */
+    public synchronized void replaceAll(List<LibraryEntryDto> newEntries, String newCursor) {
+        entries.clear();
+        for (LibraryEntryDto entry : newEntries) {
+            entries.put(key(entry.getPath()), entry);
+        }
+        cursor = newCursor;
+        publish();
+    }
+
+    /**
+     * Insert or replace one entry
+     *
+     * @return true if the entry is new
+     */
+    public synchronized boolean put(LibraryEntryDto entry) {
+        return entries.put(key(entry.getPath()), entry) == null;
+    }
+
+    /**
+     * Remove an entry, or everything below it if it is a folder
+     *
+     * @return Number of entries removed
+     */
+    public synchronized int remove(String path) {
+        String key = key(path);
+        int removed = entries.remove(key) != null ? 1 : 0;
+        String prefix = key.endsWith("/") ? key : key + "/";
+        for (var it = entries.keySet().iterator(); it.hasNext(); ) {
+            if (it.next().startsWith(prefix)) {
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Make changes applied with put/remove visible to readers
+     */
+    public synchronized void publish() {
+        view = new View(view.version + 1, List.copyOf(entries.values()));
+    }
+
+    public synchronized CatalogSnapshot snapshot() {
+        return new CatalogSnapshot(cursor, view.version, new ArrayList<>(entries.values()));
+    }
+
+    public synchronized void restore(CatalogSnapshot snapshot) {
+        entries.clear();
+        for (LibraryEntryDto entry : snapshot.getEntries()) {
+            entries.put(key(entry.getPath()), entry);
+        }
+        cursor = snapshot.getCursor();
+        view = new View(snapshot.getVersion(), List.copyOf(entries.values()));
+    }
+
+    /**
+     * @param query Case-insensitive text matched against name, title, artist and album, or null
+     * @param extension File extension to keep, or null for all
+     * @param sort One of {@link #SORT_FIELDS}
+     * @param descending Reverse the sort order
+     * @param page Zero-based page number
+     * @param pageSize Entries per page
+     * @return The requested page of entries plus the total number of matches
+     */
+    public Page query(String query, String extension, String sort, boolean descending, int page, int pageSize) {
+        View current = view;
+        List<LibraryEntryDto> sorted = current.sorted(sort, descending);
+        String needle = query != null && !query.isBlank() ? query.toLowerCase(Locale.ROOT).trim() : null;
+        String ext = extension != null && !extension.isBlank() ? extension.toLowerCase(Locale.ROOT) : null;
+
+        if (needle == null && ext == null) {
+            return new Page(slice(sorted, page, pageSize), sorted.size(), current.version);
+        }
+        List<LibraryEntryDto> matches = new ArrayList<>();
+        for (LibraryEntryDto entry : sorted) {
+            if (ext != null && !ext.equals(entry.getExtension())) {
+                continue;
+            }
+            if (needle != null && !current.searchKey(entry).contains(needle)) {
+                continue;
+            }
+            matches.add(entry);
+        }
+        return new Page(slice(matches, page, pageSize), matches.size(), current.version);
+    }
+
+    private static List<LibraryEntryDto> slice(List<LibraryEntryDto> list, int page, int pageSize) {
+        int from = (int) Math.min((long) page * pageSize, list.size());
+        int to = Math.min(from + pageSize, list.size());
+        return list.subList(from, to);
+    }
+
+    private static String key(String path) {
+        return path.toLowerCase(Locale.ROOT);
+    }
+
+    private static Comparator<LibraryEntryDto> textOrder(Function<LibraryEntryDto, String> field) {
+        return Comparator.comparing(field, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                .thenComparing(LibraryEntryDto::getPath);
+    }
+
+    /**
+     * One page of query results
+     */
+    public static final class Page {
+        private final List<LibraryEntryDto> items;
+        private final int total;
+        private final long version;
+
+        private Page(List<LibraryEntryDto> items, int total, long version) {
+            this.items = items;
+            this.total = total;
+            this.version = version;
+        }
+
+        public List<LibraryEntryDto> getItems() {
+            return items;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+    }
+
+    private static final class View {
+        private final long version;
+        private final List<LibraryEntryDto> entries;
+        private final Map<String, List<LibraryEntryDto>> sortedCache = new ConcurrentHashMap<>();
+        // Built once per view and read-only afterwards
+        private final Map<LibraryEntryDto, String> searchKeys;
+
+        private View(long version, List<LibraryEntryDto> entries) {
+            this.version = version;
+            this.entries = entries;
+            this.searchKeys = new IdentityHashMap<>(entries.size());
+            for (LibraryEntryDto e : entries) {
+                searchKeys.put(e, String.join("\n",
+                        String.valueOf(e.getName()), String.valueOf(e.getTitle()),
+                        String.valueOf(e.getArtist()), String.valueOf(e.getAlbum())).toLowerCase(Locale.ROOT));
+            }
+        }
+
+        private List<LibraryEntryDto> sorted(String sort, boolean descending) {
+            Comparator<LibraryEntryDto> comparator = COMPARATORS.get(sort);
+            if (comparator == null) {
+                throw new IllegalArgumentException("Unknown sort field: " + sort);
+            }
+            return sortedCache.computeIfAbsent(sort + (descending ? ":desc" : ":asc"), key -> {
+                List<LibraryEntryDto> copy = new ArrayList<>(entries);
+                copy.sort(descending ? comparator.reversed() : comparator);
+                return Collections.unmodifiableList(copy);
+            });
+        }
+
+        private String searchKey(LibraryEntryDto entry) {
+            return searchKeys.get(entry);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.soundvaultpro.api.catalog;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Stand-in for a cloud provider that lists a local folder, for development and tests without
+ * Dropbox. The access token names a folder under catalog.local-root. Cursors refer to in-memory
+ * snapshots, so deltas are computed by diffing the folder against the snapshot; cursors do not
+ * survive a restart and then report a reset, as an expired Dropbox cursor would.
+ */
+@Component
+@ConditionalOnProperty(name = "catalog.client", havingValue = "local")
+public class LocalFolderFileClient implements CloudFileClient {
+
+    private static final Pattern SAFE_NAME = Pattern.compile("[A-Za-z0-9_-]{1,128}");
+    private static final int MAX_SNAPSHOTS = 256;
+
+    private final Path root;
+    private final Map<String, Map<String, CloudFileEntry>> snapshots = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Map<String, CloudFileEntry>> eldest) {
+                    return size() > MAX_SNAPSHOTS;
+                }
+            });
+
+    public LocalFolderFileClient(@Value("${catalog.local-root:${storage.root:./data}/library-local}") String localRoot) {
+        this.root = Paths.get(localRoot).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public CloudListing list(String accessToken) {
+        Map<String, CloudFileEntry> current = scan(accessToken);
+        return new CloudListing(new ArrayList<>(current.values()), remember(current), false);
+    }
+
+    @Override
+    public CloudListing listContinue(String accessToken, String cursor) {
+        Map<String, CloudFileEntry> previous = snapshots.get(cursor);
+        if (previous == null) {
+            throw new CursorResetException("Unknown cursor");
+        }
+        Map<String, CloudFileEntry> current = scan(accessToken);
+        List<CloudFileEntry> changes = new ArrayList<>();
+        for (CloudFileEntry entry : current.values()) {
+            CloudFileEntry before = previous.get(entry.getPathLower());
+            if (before == null || before.getSize() != entry.getSize()
+                    || !before.getServerModified().equals(entry.getServerModified())) {
+                changes.add(entry);
+            }
+        }
+        for (CloudFileEntry entry : previous.values()) {
+            if (!current.containsKey(entry.getPathLower())) {
+                changes.add(CloudFileEntry.builder()
+                        .tag(CloudFileEntry.DELETED)
+                        .name(entry.getName())
+                        .pathDisplay(entry.getPathDisplay())
+                        .pathLower(entry.getPathLower())
+                        .build());
+            }
+        }
+        return new CloudListing(changes, remember(current), false);
+    }
+
+    private String remember(Map<String, CloudFileEntry> snapshot) {
+        String cursor = UUID.randomUUID().toString();
+        snapshots.put(cursor, snapshot);
+        return cursor;
+    }
+
+    private Map<String, CloudFileEntry> scan(String accessToken) {
+        if (accessToken == null || !SAFE_NAME.matcher(accessToken).matches()) {
+            throw new IllegalArgumentException("Invalid local library name");
+        }
+        Path base = root.resolve(accessToken);
+        Map<String, CloudFileEntry> entries = new HashMap<>();
+        if (!Files.isDirectory(base)) {
+            return entries;
+        }
+        try (Stream<Path> files = Files.walk(base)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                try {
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    String path = "/" + base.relativize(file).toString().replace('\\', '/');
+                    entries.put(path.toLowerCase(Locale.ROOT), CloudFileEntry.builder()
+                            .tag(CloudFileEntry.FILE)
+                            .id("local:" + path)
+                            .name(file.getFileName().toString())
+                            .pathDisplay(path)
+                            .pathLower(path.toLowerCase(Locale.ROOT))
+                            .size(attributes.size())
+                            .serverModified(attributes.lastModifiedTime().toInstant().toString())
+                            .build());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return entries;
+    }
+}
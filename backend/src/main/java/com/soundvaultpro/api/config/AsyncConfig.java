@@ -0,0 +1,91 @@
+package com.soundvaultpro.api.config;
+
+import com.soundvaultpro.api.metrics.RequestTiming;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class AsyncConfig {
+
+    @Value("${upstream.executor.core-size:16}")
+    private int coreSize;
+
+    @Value("${upstream.executor.max-size:64}")
+    private int maxSize;
+
+    @Value("${upstream.executor.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${waveforms.workers:2}")
+    private int waveformWorkers;
+
+    @Value("${waveforms.queue-capacity:64}")
+    private int waveformQueueCapacity;
+
+    @Value("${prefetch.workers:2}")
+    private int prefetchWorkers;
+
+    @Value("${prefetch.queue-capacity:32}")
+    private int prefetchQueueCapacity;
+
+    /**
+     * Bounded pool for fanning out independent upstream calls within one request.
+     * When saturated the caller runs the task itself, which degrades to serial calls
+     * instead of rejecting the request.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor upstreamExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("upstream-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        // Fanned-out calls still show up in the request's Server-Timing
+        executor.setTaskDecorator(RequestTiming::wrap);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Small fixed pool for decoding tracks into waveform peaks. Threads run at low priority
+     * and a full queue rejects new work, so decoding never takes request threads or grows
+     * without bound.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor waveformExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(waveformWorkers);
+        executor.setMaxPoolSize(waveformWorkers);
+        executor.setQueueCapacity(waveformQueueCapacity);
+        executor.setThreadNamePrefix("waveform-");
+        executor.setThreadPriority(Thread.MIN_PRIORITY);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Small low-priority pool for speculative upstream calls. A full queue rejects new work,
+     * which the caller drops, so prefetching never competes with request threads.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor prefetchExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(prefetchWorkers);
+        executor.setMaxPoolSize(prefetchWorkers);
+        executor.setQueueCapacity(prefetchQueueCapacity);
+        executor.setThreadNamePrefix("prefetch-");
+        executor.setThreadPriority(Thread.MIN_PRIORITY);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,6 +1,14 @@
 package com.soundvaultpro.api.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soundvaultpro.api.metrics.UpstreamMetricsInterceptor;
+import com.soundvaultpro.api.metrics.UpstreamResolver;
+import com.soundvaultpro.api.resilience.AdaptiveTimeoutRequestFactory;
+import com.soundvaultpro.api.resilience.AdaptiveTimeouts;
+import com.soundvaultpro.api.resilience.RetryingRestTemplate;
+import com.soundvaultpro.api.resilience.UpstreamGuard;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
@@ -9,12 +17,37 @@ import org.springframework.web.client.RestTemplate;
 @Configuration
 public class RestTemplateConfig {
 
+    @Value("${timeouts.connect-ms:2000}")
+    private int connectTimeoutMs;
+
+    @Value("${retry.max-attempts:3}")
+    private int retryMaxAttempts;
+
+    @Value("${retry.base-backoff-ms:50}")
+    private long retryBaseBackoffMs;
+
+    @Value("${retry.max-backoff-ms:1000}")
+    private long retryMaxBackoffMs;
+
     @Bean
-    public RestTemplate restTemplate(ObjectMapper objectMapper) {
-        RestTemplate restTemplate = new RestTemplate();
+    public RestTemplate restTemplate(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                     UpstreamResolver upstreamResolver, UpstreamGuard upstreamGuard,
+                                     UpstreamMetricsInterceptor upstreamMetricsInterceptor,
+                                     AdaptiveTimeouts adaptiveTimeouts) {
+        RestTemplate restTemplate = new RetryingRestTemplate(upstreamResolver, meterRegistry,
+                retryMaxAttempts, retryBaseBackoffMs, retryMaxBackoffMs);
+        restTemplate.setRequestFactory(new AdaptiveTimeoutRequestFactory(upstreamResolver, adaptiveTimeouts, connectTimeoutMs));
         MappingJackson2HttpMessageConverter converter = new MappingJackson2HttpMessageConverter();
         converter.setObjectMapper(objectMapper);
-        restTemplate.getMessageConverters().add(0, converter);
+        // Replace the default Jackson converter in place; ahead of the String converter it would
+        // try to bind JSON bodies read as String and fail
+        restTemplate.getMessageConverters().replaceAll(existing ->
+                existing instanceof MappingJackson2HttpMessageConverter ? converter : existing);
+        // Outermost, so calls refused by a bulkhead or open breaker are not timed as upstream calls
+        restTemplate.getInterceptors().add(upstreamGuard);
+        restTemplate.getInterceptors().add(upstreamMetricsInterceptor);
+        // Innermost, so the latency that drives timeouts is just the network call
+        restTemplate.getInterceptors().add(adaptiveTimeouts);
         return restTemplate;
     }
 }
@@ -1,6 +1,12 @@
 package com.soundvaultpro.api.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soundvaultpro.api.security.IdempotencyFilter;
+import com.soundvaultpro.api.security.IdempotencyStore;
+import com.soundvaultpro.api.security.RateLimitFilter;
+import com.soundvaultpro.api.security.RateLimiter;
 import com.soundvaultpro.api.security.SupabaseAuthFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -32,9 +38,18 @@ public class SecurityConfig {
     private String exposedHeaders;
     
     private final SupabaseAuthFilter supabaseAuthFilter;
+    private final RateLimiter rateLimiter;
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
     
-    public SecurityConfig(SupabaseAuthFilter supabaseAuthFilter) {
+    public SecurityConfig(SupabaseAuthFilter supabaseAuthFilter, RateLimiter rateLimiter,
+                          IdempotencyStore idempotencyStore, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
         this.supabaseAuthFilter = supabaseAuthFilter;
+        this.rateLimiter = rateLimiter;
+        this.idempotencyStore = idempotencyStore;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean
@@ -49,7 +64,11 @@ public class SecurityConfig {
                     .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                     .anyRequest().permitAll() // Allow all requests for now, will implement proper authentication later
             )
-            .addFilterBefore(supabaseAuthFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(supabaseAuthFilter, UsernamePasswordAuthenticationFilter.class)
+            // After authentication, so signed-in users are limited by user rather than by IP
+            .addFilterAfter(new RateLimitFilter(rateLimiter, objectMapper), SupabaseAuthFilter.class)
+            // After rate limiting, so retries that are turned away do not wait on the original
+            .addFilterAfter(new IdempotencyFilter(idempotencyStore, objectMapper, meterRegistry), RateLimitFilter.class);
             
         return http.build();
     }
@@ -0,0 +1,88 @@
+package com.soundvaultpro.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soundvaultpro.api.dto.PlaylistDto;
+import com.soundvaultpro.api.dto.ResponseDto;
+import com.soundvaultpro.api.dto.UserDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds and caches the Jackson serializers for the hot response types at startup,
+ * so the first real request for each format does not pay for introspection.
+ */
+@Component
+@Slf4j
+public class SerializerWarmup implements ApplicationRunner {
+
+    private final List<ObjectMapper> mappers;
+
+    public SerializerWarmup(ObjectMapper objectMapper,
+                            @Qualifier("cborObjectMapper") ObjectMapper cborObjectMapper,
+                            @Qualifier("smileObjectMapper") ObjectMapper smileObjectMapper) {
+        this.mappers = List.of(objectMapper, cborObjectMapper, smileObjectMapper);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        List<Object> samples = samplePayloads();
+        for (ObjectMapper mapper : mappers) {
+            for (Object sample : samples) {
+                try {
+                    mapper.writeValueAsBytes(sample);
+                } catch (Exception e) {
+                    log.warn("Serializer warm-up failed for {}: {}", sample.getClass().getSimpleName(), e.getMessage());
+                }
+            }
+        }
+        log.info("Warmed up serializers in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Representative instances of every response body type the controllers return
+     */
+    public static List<Object> samplePayloads() {
+        LocalDateTime now = LocalDateTime.now();
+        PlaylistDto playlist = PlaylistDto.builder()
+                .id(1L)
+                .name("Warm-up")
+                .description("Warm-up playlist")
+                .userId("00000000-0000-0000-0000-000000000000")
+                .userName("Warm-up")
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        UserDto user = UserDto.builder()
+                .id(1L)
+                .name("Warm-up")
+                .email("warmup@example.com")
+                .profilePicture("https://example.com/p.png")
+                .publicKey("key")
+                .build();
+
+        Map<String, Object> song = new HashMap<>();
+        song.put("id", 1);
+        song.put("title", "Warm-up");
+        song.put("artist", "Warm-up");
+        song.put("imageUrl", "https://example.com/a.png");
+        song.put("lyricsUrl", "https://example.com/l");
+
+        return List.of(
+                ResponseDto.success(playlist),
+                ResponseDto.success(List.of(playlist)),
+                ResponseDto.success(user),
+                ResponseDto.success(List.of(song)),
+                ResponseDto.success(song),
+                ResponseDto.error("Warm-up")
+        );
+    }
+}
@@ -0,0 +1,244 @@
+package com.soundvaultpro.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.soundvaultpro.api.dto.ResponseDto;
+import com.soundvaultpro.api.metrics.UpstreamResolver;
+import com.soundvaultpro.api.service.GeniusService;
+import com.soundvaultpro.api.service.HistoryService;
+import com.soundvaultpro.api.service.PlaylistService;
+import com.soundvaultpro.api.service.PrefetchService;
+import com.soundvaultpro.api.service.SupabaseService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Warms connections, JIT-compiled mapping code and caches before the instance takes traffic.
+ *
+ * Runs as an ApplicationRunner, so it finishes before Spring Boot publishes the ready event:
+ * {@code /actuator/health/readiness} reports OUT_OF_SERVICE until then, while liveness is
+ * already UP. Three kinds of work run in parallel on the upstream executor:
+ * <ul>
+ *   <li>connections: {@code warmup.connections-per-upstream} concurrent HEAD requests to each
+ *   upstream leave that many TLS connections in the JDK keep-alive cache;</li>
+ *   <li>mapping: a Genius search and a Supabase playlists response, built in code in the shape
+ *   the upstreams return, are parsed and serialized {@code warmup.jit-iterations} times through
+ *   GeniusService and PlaylistService, so the first real requests run compiled code;</li>
+ *   <li>hot keys: song details for {@code warmup.song-ids} are loaded into the details cache
+ *   requests read from. The profile and playlists of {@code warmup.user-ids} plus the
+ *   {@code warmup.recent-users} most active users today are fetched once, which warms the
+ *   Supabase connections and query path; they have no read-through cache, so this only fills
+ *   the stale copies served while Supabase is down and later requests still go upstream.</li>
+ * </ul>
+ * Whatever has not finished after {@code warmup.timeout-ms} is abandoned and the instance
+ * becomes ready anyway; a failing upstream must not keep it out of service.
+ *
+ * Meter: warmup.duration (timer; step, result).
+ */
+@Component
+@Slf4j
+public class StartupWarmup implements ApplicationRunner {
+
+    private static final int WARMUP_HITS = 10;
+    private static final int WARMUP_PLAYLISTS = 50;
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final UpstreamResolver upstreamResolver;
+    private final GeniusService geniusService;
+    private final PlaylistService playlistService;
+    private final SupabaseService supabaseService;
+    private final PrefetchService prefetchService;
+    private final HistoryService historyService;
+    private final ThreadPoolTaskExecutor upstreamExecutor;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long timeoutMs;
+    private final int connectionsPerUpstream;
+    private final int jitIterations;
+    private final List<Integer> songIds;
+    private final List<String> userIds;
+    private final int recentUsers;
+
+    public StartupWarmup(RestTemplate restTemplate,
+                         ObjectMapper objectMapper,
+                         UpstreamResolver upstreamResolver,
+                         GeniusService geniusService,
+                         PlaylistService playlistService,
+                         SupabaseService supabaseService,
+                         PrefetchService prefetchService,
+                         HistoryService historyService,
+                         @Qualifier("upstreamExecutor") ThreadPoolTaskExecutor upstreamExecutor,
+                         MeterRegistry meterRegistry,
+                         @Value("${warmup.enabled:true}") boolean enabled,
+                         @Value("${warmup.timeout-ms:20000}") long timeoutMs,
+                         @Value("${warmup.connections-per-upstream:2}") int connectionsPerUpstream,
+                         @Value("${warmup.jit-iterations:1000}") int jitIterations,
+                         @Value("${warmup.song-ids:}") List<Integer> songIds,
+                         @Value("${warmup.user-ids:}") List<String> userIds,
+                         @Value("${warmup.recent-users:20}") int recentUsers) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.upstreamResolver = upstreamResolver;
+        this.geniusService = geniusService;
+        this.playlistService = playlistService;
+        this.supabaseService = supabaseService;
+        this.prefetchService = prefetchService;
+        this.historyService = historyService;
+        this.upstreamExecutor = upstreamExecutor;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.timeoutMs = timeoutMs;
+        this.connectionsPerUpstream = connectionsPerUpstream;
+        this.jitIterations = jitIterations;
+        this.songIds = songIds;
+        this.userIds = userIds;
+        this.recentUsers = recentUsers;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<Future<?>> tasks = new ArrayList<>();
+        for (URI base : upstreamResolver.baseUris().values()) {
+            for (int i = 0; i < connectionsPerUpstream; i++) {
+                tasks.add(submit("connections", () -> openConnection(base)));
+            }
+        }
+        tasks.add(submit("mapping", this::exerciseMapping));
+        for (Integer songId : songIds) {
+            tasks.add(submit("songs", () -> prefetchService.getSongDetails(songId)));
+        }
+        Set<String> users = new LinkedHashSet<>(userIds);
+        users.addAll(historyService.activeUsers(recentUsers));
+        users.remove("");
+        for (String userId : users) {
+            tasks.add(submit("users", () -> {
+                supabaseService.getUserProfile(userId);
+                playlistService.getPlaylistsByUser(userId);
+            }));
+        }
+
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        int unfinished = 0;
+        for (Future<?> task : tasks) {
+            try {
+                task.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                task.cancel(true);
+                unfinished++;
+            } catch (ExecutionException e) {
+                // Counted and logged by the task itself
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (unfinished > 0) {
+            log.warn("Warm-up gave up on {} of {} tasks after {} ms", unfinished, tasks.size(), timeoutMs);
+        }
+        log.info("Warm-up ran {} tasks ({} songs, {} users) in {} ms",
+                tasks.size(), songIds.size(), users.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private Future<?> submit(String step, Runnable work) {
+        return upstreamExecutor.submit(() -> {
+            long start = System.nanoTime();
+            String result = "success";
+            try {
+                work.run();
+            } catch (RuntimeException e) {
+                result = "failure";
+                log.debug("Warm-up step {} failed: {}", step, e.getMessage());
+            } finally {
+                Timer.builder("warmup.duration")
+                        .description("Time spent on each warm-up task at startup")
+                        .tag("step", step)
+                        .tag("result", result)
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    private void openConnection(URI base) {
+        try {
+            restTemplate.headForHeaders(base);
+        } catch (HttpStatusCodeException e) {
+            // Any status means the connection is open, which is all this is for
+        }
+    }
+
+    private void exerciseMapping() {
+        try {
+            String searchBody = objectMapper.writeValueAsString(searchPayload());
+            String playlistsBody = objectMapper.writeValueAsString(playlistsPayload());
+            for (int i = 0; i < jitIterations; i++) {
+                objectMapper.writeValueAsBytes(ResponseDto.success(geniusService.parseSearchResults(searchBody)));
+                objectMapper.writeValueAsBytes(ResponseDto.success(playlistService.parsePlaylists(playlistsBody)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ObjectNode searchPayload() {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.putObject("meta").put("status", 200);
+        ArrayNode hits = root.putObject("response").putArray("hits");
+        for (int i = 0; i < WARMUP_HITS; i++) {
+            ObjectNode hit = hits.addObject();
+            hit.put("index", "song");
+            hit.put("type", "song");
+            ObjectNode result = hit.putObject("result");
+            result.put("id", 1000 + i);
+            result.put("title", "Warm-up song " + i);
+            result.put("full_title", "Warm-up song " + i + " by Warm-up artist");
+            result.put("song_art_image_url", "https://images.genius.com/warmup-" + i + ".1000x1000x1.jpg");
+            result.put("url", "https://genius.com/warmup-song-" + i + "-lyrics");
+            result.putObject("primary_artist").put("id", i).put("name", "Warm-up artist");
+        }
+        return root;
+    }
+
+    private ArrayNode playlistsPayload() {
+        ArrayNode playlists = objectMapper.createArrayNode();
+        for (int i = 0; i < WARMUP_PLAYLISTS; i++) {
+            String timestamp = String.format("2024-01-%02dT00:00:00.339563+00:00", i % 28 + 1);
+            playlists.addObject()
+                    .put("id", 1000 + i)
+                    .put("user_id", "00000000-0000-0000-0000-000000000000")
+                    .put("name", "Playlist " + i)
+                    .put("description", i % 2 == 0 ? null : "Warm-up playlist " + i)
+                    .put("user_name", "Warm-up user")
+                    .put("created_at", timestamp)
+                    .put("updated_at", timestamp);
+        }
+        return playlists;
+    }
+}
@@ -1,8 +1,15 @@
 package com.soundvaultpro.api.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soundvaultpro.api.metrics.ServerTimingJsonConverter;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
@@ -27,6 +34,32 @@ public class WebConfig implements WebMvcConfigurer {
     @Value("${cors.exposed-headers}")
     private String[] exposedHeaders;
     
+    private final ObjectMapper cborObjectMapper;
+    private final ObjectMapper smileObjectMapper;
+    
+    public WebConfig(@Qualifier("cborObjectMapper") ObjectMapper cborObjectMapper,
+                     @Qualifier("smileObjectMapper") ObjectMapper smileObjectMapper) {
+        this.cborObjectMapper = cborObjectMapper;
+        this.smileObjectMapper = smileObjectMapper;
+    }
+    
+    /**
+     * Serve CBOR and Smile to clients that ask for them via Accept (or ?format=cbor|smile).
+     * MVC registers default binary converters when the dataformats are on the classpath,
+     * but those use their own mappers; replace them so dates and modules match the JSON output.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        converters.add(new MappingJackson2CborHttpMessageConverter(cborObjectMapper));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(smileObjectMapper));
+        // Same mapper, but serialization time shows up in Server-Timing
+        converters.replaceAll(converter -> converter.getClass() == MappingJackson2HttpMessageConverter.class
+                ? new ServerTimingJsonConverter(((MappingJackson2HttpMessageConverter) converter).getObjectMapper())
+                : converter);
+    }
+    
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
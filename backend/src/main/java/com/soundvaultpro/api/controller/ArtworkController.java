@@ -0,0 +1,69 @@
+package com.soundvaultpro.api.controller;
+
+import com.soundvaultpro.api.dto.ResponseDto;
+import com.soundvaultpro.api.service.ArtworkService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class ArtworkController {
+
+    private final ArtworkService artworkService;
+
+    /**
+     * Serve a cover thumbnail. Content never changes for a hash, so responses are cacheable
+     * forever. On success the image is written directly and null is returned.
+     *
+     * @param hash The artworkHash from the track's metadata
+     * @param size Wanted edge length in pixels; rounded up to a stored size
+     */
+    @GetMapping("/artwork/{hash}")
+    public ResponseEntity<ResponseDto<Void>> getArtwork(
+            @PathVariable String hash,
+            @RequestParam(defaultValue = "256") int size,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+        Path file;
+        try {
+            file = artworkService.thumbnail(hash, size);
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ResponseDto.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to get artwork: " + e.getMessage()));
+        }
+
+        String etag = "\"" + hash.toLowerCase(Locale.ROOT) + "-" + artworkService.sizeFor(size) + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable");
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return null;
+        }
+        response.setContentType(MediaType.IMAGE_JPEG_VALUE);
+        try {
+            response.setContentLengthLong(Files.size(file));
+            Files.copy(file, response.getOutputStream());
+        } catch (IOException e) {
+            log.debug("Artwork {} not fully sent: {}", hash, e.getMessage());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,183 @@
+package com.soundvaultpro.api.controller;
+
+import com.soundvaultpro.api.dto.ChunkHashesDto;
+import com.soundvaultpro.api.dto.CreateManifestRequestDto;
+import com.soundvaultpro.api.dto.ResponseDto;
+import com.soundvaultpro.api.dto.TrackManifestDto;
+import com.soundvaultpro.api.service.TrackManifestService;
+import com.soundvaultpro.api.storage.ByteRanges;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class BlobController {
+
+    private final TrackManifestService trackManifestService;
+
+    /**
+     * Ask which chunks need uploading
+     *
+     * @param supabaseId The uploading user; only chunks this user uploaded or references count as present
+     * @param request SHA-256 hashes of the file's chunks
+     * @return The hashes the user has to upload
+     */
+    @PostMapping("/blobs/missing")
+    public ResponseEntity<ResponseDto<List<String>>> findMissingChunks(
+            @RequestParam String supabaseId,
+            @RequestBody ChunkHashesDto request) {
+        try {
+            if (request.getHashes() == null) {
+                return ResponseEntity.badRequest().body(ResponseDto.error("Hashes are required"));
+            }
+            return ResponseEntity.ok(ResponseDto.success(trackManifestService.findMissingChunks(supabaseId, request.getHashes())));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to check chunks: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Upload one chunk. The body must hash to the SHA-256 in the path and is streamed to disk.
+     */
+    @PutMapping(value = "/blobs/{hash}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<ResponseDto<Void>> uploadChunk(
+            @PathVariable String hash,
+            @RequestParam String supabaseId,
+            HttpServletRequest request) {
+        try {
+            boolean stored = trackManifestService.putChunk(supabaseId, hash, request.getContentLengthLong(), request.getInputStream());
+            return ResponseEntity.ok(ResponseDto.success(stored ? "Chunk stored" : "Chunk already stored", null));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to store chunk: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Create or replace a track manifest once all its chunks are stored
+     */
+    @PutMapping("/manifests/{trackId}")
+    public ResponseEntity<ResponseDto<TrackManifestDto>> putManifest(
+            @PathVariable String trackId,
+            @RequestParam String supabaseId,
+            @RequestBody CreateManifestRequestDto request) {
+        try {
+            TrackManifestDto manifest = trackManifestService.putManifest(supabaseId, trackId, request);
+            return ResponseEntity.ok(ResponseDto.success("Manifest saved", manifest));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to save manifest: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/manifests")
+    public ResponseEntity<ResponseDto<List<TrackManifestDto>>> listManifests(@RequestParam String supabaseId) {
+        try {
+            return ResponseEntity.ok(ResponseDto.success(trackManifestService.listManifests(supabaseId)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to list manifests: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/manifests/{trackId}")
+    public ResponseEntity<ResponseDto<TrackManifestDto>> getManifest(
+            @PathVariable String trackId,
+            @RequestParam String supabaseId) {
+        try {
+            return ResponseEntity.ok(ResponseDto.success(trackManifestService.getManifest(supabaseId, trackId)));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ResponseDto.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to get manifest: " + e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/manifests/{trackId}")
+    public ResponseEntity<ResponseDto<Void>> deleteManifest(
+            @PathVariable String trackId,
+            @RequestParam String supabaseId) {
+        try {
+            trackManifestService.deleteManifest(supabaseId, trackId);
+            return ResponseEntity.ok(ResponseDto.success("Manifest deleted", null));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ResponseDto.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to delete manifest: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Stream a track by resolving its chunks, honouring a single byte range. Only the chunks
+     * overlapping the range are read. On success the body is written directly and null is returned.
+     */
+    @GetMapping("/manifests/{trackId}/content")
+    public ResponseEntity<ResponseDto<Void>> streamContent(
+            @PathVariable String trackId,
+            @RequestParam String supabaseId,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+        TrackManifestDto manifest;
+        try {
+            manifest = trackManifestService.getManifest(supabaseId, trackId);
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ResponseDto.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to stream track: " + e.getMessage()));
+        }
+
+        long size = manifest.getSize();
+        // Chunks are immutable, so the chunk list identifies the content
+        String etag = "\"" + trackManifestService.contentHash(manifest) + "\"";
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+
+        long start = 0;
+        long end = size - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            long[] requested = ByteRanges.parse(range, size);
+            if (requested == null) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                return null;
+            }
+            if (requested.length == 2) {
+                start = requested[0];
+                end = requested[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+        response.setContentLengthLong(end - start + 1);
+        if ("HEAD".equals(request.getMethod())) {
+            return null;
+        }
+
+        try {
+            trackManifestService.writeRange(manifest, start, end, response.getOutputStream());
+        } catch (IOException e) {
+            log.debug("Stream of manifest {} ended early: {}", trackId, e.getMessage());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,50 @@
+package com.soundvaultpro.api.controller;
+
+import com.soundvaultpro.api.dto.BootstrapDto;
+import com.soundvaultpro.api.dto.ResponseDto;
+import com.soundvaultpro.api.dto.UserDto;
+import com.soundvaultpro.api.service.BootstrapService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/bootstrap")
+@RequiredArgsConstructor
+public class BootstrapController {
+
+    private final BootstrapService bootstrapService;
+
+    /**
+     * Profile, playlists and key material of the signed-in user. The payload includes the
+     * encrypted private key, so it is only served to the user it belongs to.
+     */
+    @GetMapping("/{supabaseId}")
+    public ResponseEntity<ResponseDto<BootstrapDto>> bootstrap(@PathVariable String supabaseId) {
+        if (!isSignedInAs(supabaseId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(ResponseDto.error("Bootstrap is only available to the signed-in user"));
+        }
+        try {
+            BootstrapDto bootstrap = bootstrapService.bootstrap(supabaseId);
+            if (bootstrap.getUser() == null && bootstrap.getErrors() == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(ResponseDto.success(bootstrap));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to bootstrap user: " + e.getMessage()));
+        }
+    }
+
+    private static boolean isSignedInAs(String supabaseId) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof UserDto user
+                && user.getId() != null && String.valueOf(user.getId()).equals(supabaseId);
+    }
+}
@@ -1,9 +1,16 @@
 package com.soundvaultpro.api.controller;
 
 import com.soundvaultpro.api.dto.ResponseDto;
+import com.soundvaultpro.api.resilience.UpstreamUnavailableException;
+import com.soundvaultpro.api.security.ClientKeys;
+import com.soundvaultpro.api.security.RateLimiter;
 import com.soundvaultpro.api.service.GeniusService;
+import com.soundvaultpro.api.service.PrefetchService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -17,25 +24,58 @@ import java.util.Map;
 public class GeniusController {
     
     private final GeniusService geniusService;
+    private final PrefetchService prefetchService;
+    private final RateLimiter rateLimiter;
     
     /**
      * Search for songs on Genius
      * 
      * @param query The search query (title and optionally artist)
+     * @param request Identifies the client whose earlier prefetches this search replaces
      * @return List of search results
      */
     @GetMapping("/search")
-    public ResponseEntity<ResponseDto<List<Map<String, Object>>>> searchSongs(@RequestParam String query) {
+    public ResponseEntity<ResponseDto<List<Map<String, Object>>>> searchSongs(@RequestParam String query,
+                                                                             HttpServletRequest request) {
         log.info("Received request to search songs with query: {}", query);
         try {
             List<Map<String, Object>> results = geniusService.searchSongs(query);
+            prefetchService.prefetch(request.getRemoteAddr(), results);
             return ResponseEntity.ok(ResponseDto.success(results));
+        } catch (UpstreamUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(ResponseDto.error(e.getMessage()));
         } catch (Exception e) {
             log.error("Error searching songs: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().body(ResponseDto.error("Error searching songs: " + e.getMessage()));
         }
     }
     
+    /**
+     * Suggestions while typing, served from songs Genius returned before and falling back to
+     * a Genius search when there are too few. The fallback spends a permit of the client's
+     * /genius/search limit, and is skipped when none is left, so typeahead cannot be used to
+     * search Genius faster than /search allows.
+     * 
+     * @param q What the user has typed so far
+     * @param limit Maximum number of suggestions
+     * @return Search results in the same shape as /search
+     */
+    @GetMapping("/typeahead")
+    public ResponseEntity<ResponseDto<List<Map<String, Object>>>> typeahead(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit,
+            HttpServletRequest request) {
+        String client = ClientKeys.of(request);
+        try {
+            return ResponseEntity.ok(ResponseDto.success(geniusService.typeahead(q, limit,
+                    () -> !rateLimiter.isEnabled() || rateLimiter.tryAcquire("/genius/search", client) == 0)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Error getting suggestions: " + e.getMessage()));
+        }
+    }
+    
     /**
      * Get song details by Genius song ID
      * 
@@ -46,8 +86,12 @@ public class GeniusController {
     public ResponseEntity<ResponseDto<Map<String, Object>>> getSongDetails(@PathVariable int songId) {
         log.info("Received request to get song details for ID: {}", songId);
         try {
-            Map<String, Object> songDetails = geniusService.getSongDetails(songId);
+            Map<String, Object> songDetails = prefetchService.getSongDetails(songId);
             return ResponseEntity.ok(ResponseDto.success(songDetails));
+        } catch (UpstreamUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(ResponseDto.error(e.getMessage()));
         } catch (Exception e) {
             log.error("Error getting song details: {}", e.getMessage(), e);
             return ResponseEntity.badRequest().body(ResponseDto.error("Error getting song details: " + e.getMessage()));
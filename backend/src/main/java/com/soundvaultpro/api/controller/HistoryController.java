@@ -0,0 +1,64 @@
+package com.soundvaultpro.api.controller;
+
+import com.soundvaultpro.api.dto.HistoryStatsDto;
+import com.soundvaultpro.api.dto.PlayEventBatchDto;
+import com.soundvaultpro.api.dto.ResponseDto;
+import com.soundvaultpro.api.service.HistoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/history")
+@RequiredArgsConstructor
+public class HistoryController {
+
+    private final HistoryService historyService;
+
+    /**
+     * Record a batch of plays. Returns once the batch is on disk.
+     *
+     * @return Number of events recorded
+     */
+    @PostMapping("/events")
+    public ResponseEntity<ResponseDto<Integer>> recordPlays(
+            @RequestParam String supabaseId,
+            @RequestBody PlayEventBatchDto batch) {
+        try {
+            int recorded = historyService.record(supabaseId, batch.getEvents());
+            return ResponseEntity.ok(ResponseDto.success("Plays recorded", recorded));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(ResponseDto.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to record plays: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Play totals and top tracks and artists for a period
+     *
+     * @param period day, week (last 7 days), month (last 30 days) or all
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<ResponseDto<HistoryStatsDto>> getStats(
+            @RequestParam String supabaseId,
+            @RequestParam(defaultValue = "week") String period,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(ResponseDto.success(historyService.getStats(supabaseId, period, limit)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to get stats: " + e.getMessage()));
+        }
+    }
+}
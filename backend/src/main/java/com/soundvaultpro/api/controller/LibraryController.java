@@ -0,0 +1,61 @@
+package com.soundvaultpro.api.controller;
+
+import com.soundvaultpro.api.dto.LibraryPageDto;
+import com.soundvaultpro.api.dto.LibrarySyncResultDto;
+import com.soundvaultpro.api.dto.ResponseDto;
+import com.soundvaultpro.api.service.LibraryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/library")
+@RequiredArgsConstructor
+public class LibraryController {
+
+    private final LibraryService libraryService;
+
+    /**
+     * Sync a user's catalog with their Dropbox, applying only the changes since the last sync
+     *
+     * @param supabaseId The user whose catalog to sync
+     * @param dropboxToken The user's Dropbox access token
+     * @return Counts of what changed
+     */
+    @PostMapping("/sync")
+    public ResponseEntity<ResponseDto<LibrarySyncResultDto>> sync(
+            @RequestParam String supabaseId,
+            @RequestHeader("X-Dropbox-Token") String dropboxToken) {
+        try {
+            LibrarySyncResultDto result = libraryService.sync(supabaseId, dropboxToken);
+            return ResponseEntity.ok(ResponseDto.success("Library synced", result));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to sync library: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Get one page of a user's library, sorted and filtered
+     */
+    @GetMapping
+    public ResponseEntity<ResponseDto<LibraryPageDto>> getLibrary(
+            @RequestParam String supabaseId,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String extension,
+            @RequestParam(defaultValue = "name") String sort,
+            @RequestParam(defaultValue = "asc") String order,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "100") int size) {
+        try {
+            LibraryPageDto result = libraryService.query(supabaseId, q, extension, sort, "desc".equalsIgnoreCase(order), page, size);
+            return ResponseEntity.ok(ResponseDto.success(result));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to get library: " + e.getMessage()));
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.soundvaultpro.api.controller;
 
 import com.soundvaultpro.api.dto.ResponseDto;
-import com.soundvaultpro.api.service.LyricsService;
+import com.soundvaultpro.api.resilience.UpstreamUnavailableException;
+import com.soundvaultpro.api.service.PrefetchService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -17,7 +20,7 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class LyricsController {
 
-    private final LyricsService lyricsService;
+    private final PrefetchService prefetchService;
     
     @GetMapping("/search")
     public ResponseEntity<ResponseDto<Map<String, String>>> searchLyrics(
@@ -25,7 +28,7 @@ public class LyricsController {
             @RequestParam("artist") String artist) {
         
         try {
-            String lyrics = lyricsService.searchLyrics(trackName, artist);
+            String lyrics = prefetchService.getLyrics(trackName, artist);
             
             if (lyrics == null) {
                 return ResponseEntity.ok(ResponseDto.error("Lyrics not found"));
@@ -35,6 +38,10 @@ public class LyricsController {
             response.put("lyrics", lyrics);
             
             return ResponseEntity.ok(ResponseDto.success(response));
+        } catch (UpstreamUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(ResponseDto.error(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(ResponseDto.error("Error searching for lyrics: " + e.getMessage()));
         }
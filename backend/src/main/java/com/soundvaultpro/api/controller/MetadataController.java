@@ -0,0 +1,45 @@
+package com.soundvaultpro.api.controller;
+
+import com.soundvaultpro.api.dto.MetadataBatchRequestDto;
+import com.soundvaultpro.api.dto.ResponseDto;
+import com.soundvaultpro.api.dto.TrackMetadataDto;
+import com.soundvaultpro.api.service.MetadataService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/metadata")
+@RequiredArgsConstructor
+public class MetadataController {
+
+    private final MetadataService metadataService;
+
+    /**
+     * Read tags and duration for many tracks in one call, fetching only header and tag bytes
+     *
+     * @param supabaseId The user listing the tracks; cached results are kept per user
+     * @param request The tracks to resolve, each with a temporary link and content hash
+     * @return One result per track, in request order
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ResponseDto<List<TrackMetadataDto>>> getMetadataBatch(
+            @RequestParam String supabaseId,
+            @RequestBody MetadataBatchRequestDto request) {
+        try {
+            if (request.getTracks() == null || request.getTracks().isEmpty()) {
+                return ResponseEntity.badRequest().body(ResponseDto.error("At least one track is required"));
+            }
+            List<TrackMetadataDto> results = metadataService.getMetadataBatch(supabaseId, request.getTracks());
+            return ResponseEntity.ok(ResponseDto.success(results));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to read metadata: " + e.getMessage()));
+        }
+    }
+}
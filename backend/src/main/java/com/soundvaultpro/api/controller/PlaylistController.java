@@ -2,8 +2,11 @@ package com.soundvaultpro.api.controller;
 
 import com.soundvaultpro.api.dto.PlaylistDto;
 import com.soundvaultpro.api.dto.ResponseDto;
+import com.soundvaultpro.api.resilience.UpstreamUnavailableException;
 import com.soundvaultpro.api.service.PlaylistService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -22,6 +25,10 @@ public class PlaylistController {
         try {
             List<PlaylistDto> playlists = playlistService.getPlaylistsByUser(supabaseId);
             return ResponseEntity.ok(ResponseDto.success(playlists));
+        } catch (UpstreamUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(ResponseDto.error(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(ResponseDto.error("Failed to get playlists: " + e.getMessage()));
         }
@@ -77,4 +84,36 @@ public class PlaylistController {
             return ResponseEntity.badRequest().body(ResponseDto.error("Failed to delete playlist: " + e.getMessage()));
         }
     }
+    
+    @PostMapping("/{playlistId}/tracks")
+    public ResponseEntity<ResponseDto<Void>> addTrack(
+            @PathVariable Long playlistId,
+            @RequestParam String supabaseId,
+            @RequestBody Map<String, String> trackData) {
+        try {
+            String trackId = trackData.get("trackId");
+            
+            if (trackId == null || trackId.isBlank()) {
+                return ResponseEntity.badRequest().body(ResponseDto.error("Track ID is required"));
+            }
+            
+            playlistService.addTrack(supabaseId, playlistId, trackId);
+            return ResponseEntity.ok(ResponseDto.success("Track added to playlist", null));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to add track: " + e.getMessage()));
+        }
+    }
+    
+    @DeleteMapping("/{playlistId}/tracks/{trackId}")
+    public ResponseEntity<ResponseDto<Void>> removeTrack(
+            @PathVariable Long playlistId,
+            @PathVariable String trackId,
+            @RequestParam String supabaseId) {
+        try {
+            playlistService.removeTrack(supabaseId, playlistId, trackId);
+            return ResponseEntity.ok(ResponseDto.success("Track removed from playlist", null));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to remove track: " + e.getMessage()));
+        }
+    }
 }
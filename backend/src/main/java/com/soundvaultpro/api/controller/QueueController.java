@@ -0,0 +1,60 @@
+package com.soundvaultpro.api.controller;
+
+import com.soundvaultpro.api.dto.QueueDeltaDto;
+import com.soundvaultpro.api.dto.QueueSyncRequestDto;
+import com.soundvaultpro.api.dto.ResponseDto;
+import com.soundvaultpro.api.queue.QueueVersionConflictException;
+import com.soundvaultpro.api.service.QueueSyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/queue")
+@RequiredArgsConstructor
+public class QueueController {
+
+    private final QueueSyncService queueSyncService;
+
+    /**
+     * The ops since a version, or the whole queue when since is omitted or too old
+     */
+    @GetMapping
+    public ResponseEntity<ResponseDto<QueueDeltaDto>> getQueue(
+            @RequestParam String supabaseId,
+            @RequestParam(required = false) Long since) {
+        try {
+            return ResponseEntity.ok(ResponseDto.success(queueSyncService.get(supabaseId, since)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to get queue: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Apply ops made against baseVersion. A stale baseVersion answers 409 with the missing ops,
+     * which the client applies before rebasing and resending its own.
+     */
+    @PostMapping("/ops")
+    public ResponseEntity<ResponseDto<QueueDeltaDto>> applyOps(
+            @RequestParam String supabaseId,
+            @RequestBody QueueSyncRequestDto request) {
+        try {
+            QueueDeltaDto applied = queueSyncService.apply(supabaseId, request.getBaseVersion(), request.getOps());
+            return ResponseEntity.ok(ResponseDto.success(applied));
+        } catch (QueueVersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ResponseDto.<QueueDeltaDto>builder()
+                    .success(false)
+                    .message(e.getMessage())
+                    .data(e.getMissing())
+                    .build());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to update queue: " + e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.soundvaultpro.api.controller;
+
+import com.soundvaultpro.api.dto.ResponseDto;
+import com.soundvaultpro.api.dto.SimilarTrackDto;
+import com.soundvaultpro.api.service.RecommendationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/recommendations")
+@RequiredArgsConstructor
+public class RecommendationController {
+
+    private final RecommendationService recommendationService;
+
+    /**
+     * Tracks that most often share one of the user's playlists with the given track, best first
+     */
+    @GetMapping("/similar/{trackId}")
+    public ResponseEntity<ResponseDto<List<SimilarTrackDto>>> getSimilar(
+            @PathVariable String trackId,
+            @RequestParam String supabaseId,
+            @RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(ResponseDto.success(recommendationService.similar(supabaseId, trackId, limit)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to get similar tracks: " + e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.soundvaultpro.api.controller;
+
+import com.soundvaultpro.api.dto.ResponseDto;
+import com.soundvaultpro.api.dto.TrackContainerDto;
+import com.soundvaultpro.api.service.TrackStorageService;
+import com.soundvaultpro.api.storage.ByteRanges;
+import com.soundvaultpro.api.storage.ChunkedContainer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+@RestController
+@RequestMapping("/tracks")
+@RequiredArgsConstructor
+@Slf4j
+public class TrackStreamController {
+
+    // Request attributes understood by Tomcat's NIO connector for kernel sendfile
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final TrackStorageService trackStorageService;
+
+    /**
+     * Upload a chunked encrypted track container
+     *
+     * @param trackId The track the container belongs to
+     * @param supabaseId The owner of the track
+     * @param request Raw request; the body is streamed to disk without buffering it in memory
+     * @return Header summary of the stored container
+     */
+    @PutMapping(value = "/{trackId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<ResponseDto<TrackContainerDto>> uploadTrack(
+            @PathVariable String trackId,
+            @RequestParam String supabaseId,
+            HttpServletRequest request) {
+        try {
+            TrackContainerDto container = trackStorageService.store(supabaseId, trackId, request.getInputStream());
+            return ResponseEntity.ok(ResponseDto.success("Track stored successfully", container));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to store track: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Get the header summary of a stored container
+     */
+    @GetMapping("/{trackId}")
+    public ResponseEntity<ResponseDto<TrackContainerDto>> getTrack(
+            @PathVariable String trackId,
+            @RequestParam String supabaseId) {
+        try {
+            TrackContainerDto container = trackStorageService.describe(supabaseId, trackId);
+            if (container == null) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ResponseDto.error("Track not found"));
+            }
+            return ResponseEntity.ok(ResponseDto.success(container));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to get track: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Stream a container, honouring single byte-range requests. Ranges are widened to whole
+     * sealed chunks (or the whole header) and the actual range is reported in Content-Range.
+     * On success the body is written directly and null is returned so MVC writes nothing more.
+     */
+    @GetMapping("/{trackId}/stream")
+    public ResponseEntity<ResponseDto<Void>> streamTrack(
+            @PathVariable String trackId,
+            @RequestParam String supabaseId,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+        Path path;
+        try {
+            path = trackStorageService.resolve(supabaseId, trackId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to stream track: " + e.getMessage()));
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ChunkedContainer container = ChunkedContainer.read(channel);
+            long size = channel.size();
+            String etag = "\"" + Long.toHexString(size) + "-" + Long.toHexString(Files.getLastModifiedTime(path).toMillis()) + "\"";
+
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+            response.setHeader("X-Chunk-Size", String.valueOf(container.getChunkSize()));
+            response.setHeader("X-Header-Length", String.valueOf(container.headerLength()));
+            response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+
+            String range = request.getHeader(HttpHeaders.RANGE);
+            String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+            if (ifRange != null && !ifRange.equals(etag)) {
+                range = null;
+            }
+            if (range == null && etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return null;
+            }
+
+            long start = 0;
+            long end = size - 1;
+            if (range != null) {
+                long[] requested = ByteRanges.parse(range, size);
+                if (requested == null) {
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    return null;
+                }
+                if (requested.length == 2) {
+                    long[] aligned = container.align(requested[0], requested[1]);
+                    start = aligned[0];
+                    end = aligned[1];
+                    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+                }
+            }
+            long length = end - start + 1;
+            response.setContentLengthLong(length);
+
+            if ("HEAD".equals(request.getMethod()) || length == 0) {
+                return null;
+            }
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                // Tomcat streams the file itself once the request returns
+                request.setAttribute(SENDFILE_FILENAME, path.toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end + 1);
+            } else {
+                trackStorageService.transfer(channel, start, length, response.getOutputStream());
+            }
+            return null;
+        } catch (NoSuchFileException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ResponseDto.error("Track not found"));
+        } catch (IOException e) {
+            // Usually the client seeking away and closing the connection mid-transfer
+            log.debug("Stream of track {} ended early: {}", trackId, e.getMessage());
+            return null;
+        } catch (Exception e) {
+            if (response.isCommitted()) {
+                return null;
+            }
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to stream track: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Delete a stored container
+     */
+    @DeleteMapping("/{trackId}")
+    public ResponseEntity<ResponseDto<Void>> deleteTrack(
+            @PathVariable String trackId,
+            @RequestParam String supabaseId) {
+        try {
+            if (!trackStorageService.delete(supabaseId, trackId)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ResponseDto.error("Track not found"));
+            }
+            return ResponseEntity.ok(ResponseDto.success("Track deleted successfully", null));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to delete track: " + e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.soundvaultpro.api.controller;
+
+import com.soundvaultpro.api.dto.ChunkReceiptDto;
+import com.soundvaultpro.api.dto.CreateUploadRequestDto;
+import com.soundvaultpro.api.dto.ResponseDto;
+import com.soundvaultpro.api.dto.UploadSessionDto;
+import com.soundvaultpro.api.service.UploadSessionService;
+import com.soundvaultpro.api.storage.UploadBusyException;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.NoSuchElementException;
+
+@RestController
+@RequestMapping("/uploads")
+@RequiredArgsConstructor
+public class UploadController {
+
+    private final UploadSessionService uploadSessionService;
+
+    /**
+     * Open a resumable upload session
+     *
+     * @param supabaseId The uploading user
+     * @param request File name, total size and optional chunk size
+     * @return The session with the chunk layout the client must follow
+     */
+    @PostMapping
+    public ResponseEntity<ResponseDto<UploadSessionDto>> createUpload(
+            @RequestParam String supabaseId,
+            @RequestBody CreateUploadRequestDto request) {
+        try {
+            UploadSessionDto session = uploadSessionService.createSession(supabaseId, request);
+            return ResponseEntity.ok(ResponseDto.success("Upload session created", session));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to create upload: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Get the state of an upload, including which chunks have been received, so an interrupted
+     * client can resume by sending only the rest
+     */
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<ResponseDto<UploadSessionDto>> getUpload(
+            @PathVariable String uploadId,
+            @RequestParam String supabaseId) {
+        try {
+            return ResponseEntity.ok(ResponseDto.success(uploadSessionService.getSession(supabaseId, uploadId)));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ResponseDto.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to get upload: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Upload one chunk as a raw request body. The body is streamed to storage, never buffered whole.
+     *
+     * @param chunkSha256 Optional hex SHA-256 of the chunk; the chunk is rejected if it does not match
+     */
+    @PutMapping(value = "/{uploadId}/chunks/{index}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<ResponseDto<ChunkReceiptDto>> uploadChunk(
+            @PathVariable String uploadId,
+            @PathVariable int index,
+            @RequestParam String supabaseId,
+            @RequestHeader(value = "X-Chunk-SHA256", required = false) String chunkSha256,
+            HttpServletRequest request) {
+        try {
+            ChunkReceiptDto receipt = uploadSessionService.putChunk(supabaseId, uploadId, index, chunkSha256, request.getInputStream());
+            return ResponseEntity.ok(ResponseDto.success(receipt));
+        } catch (UploadBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(ResponseDto.error(e.getMessage()));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ResponseDto.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to upload chunk: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Assemble the received chunks into the final file
+     */
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<ResponseDto<UploadSessionDto>> completeUpload(
+            @PathVariable String uploadId,
+            @RequestParam String supabaseId) {
+        try {
+            UploadSessionDto session = uploadSessionService.completeSession(supabaseId, uploadId);
+            return ResponseEntity.ok(ResponseDto.success("Upload completed", session));
+        } catch (UploadBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(ResponseDto.error(e.getMessage()));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ResponseDto.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to complete upload: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Abort an upload and discard its chunks
+     */
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<ResponseDto<Void>> abortUpload(
+            @PathVariable String uploadId,
+            @RequestParam String supabaseId) {
+        try {
+            uploadSessionService.abortSession(supabaseId, uploadId);
+            return ResponseEntity.ok(ResponseDto.success("Upload aborted", null));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ResponseDto.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to abort upload: " + e.getMessage()));
+        }
+    }
+}
@@ -2,8 +2,11 @@ package com.soundvaultpro.api.controller;
 
 import com.soundvaultpro.api.dto.ResponseDto;
 import com.soundvaultpro.api.dto.UserDto;
+import com.soundvaultpro.api.resilience.UpstreamUnavailableException;
 import com.soundvaultpro.api.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -24,6 +27,10 @@ public class UserController {
                 return ResponseEntity.notFound().build();
             }
             return ResponseEntity.ok(ResponseDto.success(userDto));
+        } catch (UpstreamUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(ResponseDto.error(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(ResponseDto.error("Failed to get user: " + e.getMessage()));
         }
@@ -0,0 +1,130 @@
+package com.soundvaultpro.api.controller;
+
+import com.soundvaultpro.api.dto.ResponseDto;
+import com.soundvaultpro.api.dto.WaveformDto;
+import com.soundvaultpro.api.dto.WaveformUploadDto;
+import com.soundvaultpro.api.service.WaveformService;
+import com.soundvaultpro.api.waveform.WaveformPeaks;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/waveforms")
+@RequiredArgsConstructor
+@Slf4j
+public class WaveformController {
+
+    private final WaveformService waveformService;
+
+    /**
+     * Get the peaks level that best matches a display width. If none are stored and a temporary
+     * link is given, the computation is queued and 202 is returned; poll again after Retry-After.
+     * On success the binary peaks are written directly and null is returned.
+     *
+     * @param contentHash Content hash of the track
+     * @param width Display width in pixels; the coarsest level with at least this many buckets is sent
+     * @param supabaseId Optional user whose own submitted peaks are sent if the server has none
+     * @param url Optional temporary link the server may decode the track from
+     */
+    @GetMapping("/{contentHash}")
+    public ResponseEntity<ResponseDto<Void>> getWaveform(
+            @PathVariable String contentHash,
+            @RequestParam(defaultValue = "1024") int width,
+            @RequestParam(required = false) String supabaseId,
+            @RequestParam(required = false) String url,
+            HttpServletRequest request,
+            HttpServletResponse response) {
+        WaveformPeaks peaks;
+        boolean verified;
+        try {
+            switch (waveformService.request(contentHash, supabaseId, url)) {
+                case PENDING:
+                    return ResponseEntity.status(HttpStatus.ACCEPTED)
+                            .header(HttpHeaders.RETRY_AFTER, "2")
+                            .body(ResponseDto.success("Waveform is being computed", null));
+                case FAILED:
+                    return ResponseEntity.badRequest()
+                            .body(ResponseDto.error("Failed to compute waveform: " + waveformService.getFailure(contentHash)));
+                case MISSING:
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ResponseDto.error("Waveform not found"));
+                default:
+                    peaks = waveformService.get(contentHash);
+                    verified = peaks != null;
+                    if (peaks == null) {
+                        peaks = waveformService.getSubmitted(supabaseId, contentHash);
+                    }
+            }
+            if (peaks == null) {
+                // Removed since the status check
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ResponseDto.error("Waveform not found"));
+            }
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(ResponseDto.error("Waveform workers are busy, retry shortly"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to get waveform: " + e.getMessage()));
+        }
+
+        int level = peaks.levelFor(width);
+        byte[] body = peaks.encodeLevel(level);
+        String etag;
+        if (verified) {
+            etag = "\"" + contentHash.toLowerCase(Locale.ROOT) + "-" + level + "\"";
+            // Computed from the content itself, so they never change for a content hash
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable");
+        } else {
+            // The user's own peaks, which they may replace
+            etag = "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        }
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return null;
+        }
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setContentLength(body.length);
+        try {
+            response.getOutputStream().write(body);
+        } catch (IOException e) {
+            log.debug("Waveform {} not fully sent: {}", contentHash, e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Store peaks computed by the client, for formats or encrypted tracks the server cannot decode.
+     * They are served to this user only.
+     */
+    @PutMapping("/{contentHash}")
+    public ResponseEntity<ResponseDto<WaveformDto>> putWaveform(
+            @PathVariable String contentHash,
+            @RequestParam String supabaseId,
+            @RequestBody WaveformUploadDto upload) {
+        try {
+            return ResponseEntity.ok(ResponseDto.success("Waveform stored",
+                    waveformService.store(supabaseId, contentHash, upload)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(ResponseDto.error("Failed to store waveform: " + e.getMessage()));
+        }
+    }
+}
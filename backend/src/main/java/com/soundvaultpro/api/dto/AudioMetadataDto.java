@@ -0,0 +1,25 @@
+package com.soundvaultpro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AudioMetadataDto {
+    private String title;
+    private String artist;
+    private String album;
+    private String year;
+    private String genre;
+    private Double durationSeconds;
+    private String format;
+    private Integer sampleRate;
+    private Integer channels;
+    private Integer bitrate;
+    private boolean hasPicture;
+    private String artworkHash;
+}
@@ -0,0 +1,21 @@
+package com.soundvaultpro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BootstrapDto {
+    private UserDto user;
+    private List<PlaylistDto> playlists;
+    private KeyPairDto keys;
+    // Section name -> error message for any part that could not be loaded
+    private Map<String, String> errors;
+}
@@ -0,0 +1,21 @@
+package com.soundvaultpro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChangeEventDto {
+    private long id;
+    private String type;
+    private String userId;
+    private String entityId;
+    private Object data;
+    private LocalDateTime timestamp;
+}
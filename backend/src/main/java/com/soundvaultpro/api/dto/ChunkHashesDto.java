@@ -0,0 +1,14 @@
+package com.soundvaultpro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChunkHashesDto {
+    private List<String> hashes;
+}
@@ -0,0 +1,18 @@
+package com.soundvaultpro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ChunkReceiptDto {
+    private int index;
+    private long size;
+    private String sha256;
+    private int receivedCount;
+    private int chunkCount;
+}
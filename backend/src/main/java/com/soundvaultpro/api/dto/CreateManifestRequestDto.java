@@ -0,0 +1,17 @@
+package com.soundvaultpro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CreateManifestRequestDto {
+    private String fileName;
+    private long size;
+    private int chunkSize;
+    private List<String> chunks;
+}
@@ -0,0 +1,14 @@
+package com.soundvaultpro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CreateUploadRequestDto {
+    private String fileName;
+    private long totalSize;
+    private Integer chunkSize;
+}
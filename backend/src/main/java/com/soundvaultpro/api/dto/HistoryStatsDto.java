@@ -0,0 +1,20 @@
+package com.soundvaultpro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class HistoryStatsDto {
+    private String period;
+    private long plays;
+    private long listenedMs;
+    private List<PlayCountDto> topTracks;
+    private List<PlayCountDto> topArtists;
+}
@@ -0,0 +1,25 @@
+package com.soundvaultpro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+public class LibraryEntryDto {
+    private String id;
+    private String path;
+    private String name;
+    private String extension;
+    private long size;
+    private String modified;
+    private String contentHash;
+    private String title;
+    private String artist;
+    private String album;
+    private Double durationSeconds;
+    private String artworkHash;
+}
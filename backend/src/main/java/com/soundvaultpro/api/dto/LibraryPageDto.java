@@ -0,0 +1,21 @@
+package com.soundvaultpro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LibraryPageDto {
+    private List<LibraryEntryDto> items;
+    private int page;
+    private int size;
+    private int total;
+    // Changes whenever a sync modifies the catalog; clients can use it to drop stale pages
+    private long version;
+}
@@ -0,0 +1,20 @@
+package com.soundvaultpro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LibrarySyncResultDto {
+    private int added;
+    private int updated;
+    private int removed;
+    private int total;
+    private boolean fullResync;
+    private long version;
+    private long durationMs;
+}
@@ -0,0 +1,18 @@
+package com.soundvaultpro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PlayCountDto {
+    // Track id for tracks, artist name for artists
+    private String key;
+    private String title;
+    private String artist;
+    private long plays;
+}
@@ -0,0 +1,21 @@
+package com.soundvaultpro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PlayEventDto {
+    private String trackId;
+    private String title;
+    private String artist;
+    // When playback started; defaults to the time the event is received
+    private Instant playedAt;
+    private long listenedMs;
+}
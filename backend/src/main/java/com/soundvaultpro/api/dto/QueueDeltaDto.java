@@ -0,0 +1,24 @@
+package com.soundvaultpro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * What a client needs to go from fromVersion to version: the ops in between, or the whole
+ * queue when they are no longer kept
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class QueueDeltaDto {
+    private long fromVersion;
+    private long version;
+    private List<QueueOpDto> ops;
+    // Set instead of ops when the client is too far behind
+    private QueueStateDto state;
+}
@@ -0,0 +1,30 @@
+package com.soundvaultpro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One queue edit. Indexes refer to the queue as it is just before the op is applied.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class QueueOpDto {
+    // insert, remove, move or seek
+    private String type;
+    // insert: position of the first new track; remove, move: first track affected; seek: track to play
+    private Integer index;
+    // move: where the tracks go, counted after they are taken out
+    private Integer toIndex;
+    // remove, move: number of consecutive tracks (1 by default)
+    private Integer count;
+    // insert: the tracks to add
+    private List<String> trackIds;
+    // seek: playback position in the track
+    private Long positionMs;
+}
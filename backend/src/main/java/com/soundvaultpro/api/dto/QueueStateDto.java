@@ -0,0 +1,22 @@
+package com.soundvaultpro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class QueueStateDto {
+    private long version;
+    private List<String> trackIds;
+    // -1 when nothing is selected
+    private int currentIndex;
+    private long positionMs;
+    private Instant updatedAt;
+}
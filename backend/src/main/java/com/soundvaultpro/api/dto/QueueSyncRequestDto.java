@@ -0,0 +1,18 @@
+package com.soundvaultpro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class QueueSyncRequestDto {
+    // The queue version the ops were made against
+    private long baseVersion;
+    private List<QueueOpDto> ops;
+}
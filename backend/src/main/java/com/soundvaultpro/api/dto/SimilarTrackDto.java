@@ -0,0 +1,18 @@
+package com.soundvaultpro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SimilarTrackDto {
+    private String trackId;
+    // Playlists containing both tracks
+    private long sharedPlaylists;
+    // Shared playlists over the geometric mean of each track's playlist count, from 0 to 1
+    private double score;
+}
@@ -0,0 +1,19 @@
+package com.soundvaultpro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TrackContainerDto {
+    private String trackId;
+    private int chunkSize;
+    private long plaintextLength;
+    private int chunkCount;
+    private long headerLength;
+    private long size;
+}
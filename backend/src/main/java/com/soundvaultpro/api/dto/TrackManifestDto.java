@@ -0,0 +1,25 @@
+package com.soundvaultpro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TrackManifestDto {
+    private String trackId;
+    private String supabaseId;
+    private String fileName;
+    private long size;
+    // Every chunk except the last has exactly this size, so offsets follow from the index
+    private int chunkSize;
+    // SHA-256 of each chunk, in file order
+    private List<String> chunks;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,18 @@
+package com.soundvaultpro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TrackMetadataDto {
+    private String id;
+    private String contentHash;
+    private AudioMetadataDto metadata;
+    private boolean cached;
+    private String error;
+}
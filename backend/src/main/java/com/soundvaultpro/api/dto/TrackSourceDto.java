@@ -0,0 +1,19 @@
+package com.soundvaultpro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TrackSourceDto {
+    private String id;
+    private String name;
+    // Temporary download link, e.g. a Dropbox temporary link
+    private String url;
+    // Dropbox content_hash (or any stable hash of the file contents)
+    private String contentHash;
+}
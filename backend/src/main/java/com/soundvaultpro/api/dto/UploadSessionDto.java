@@ -0,0 +1,28 @@
+package com.soundvaultpro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder(toBuilder = true)
+@AllArgsConstructor
+@NoArgsConstructor
+public class UploadSessionDto {
+    private String uploadId;
+    private String supabaseId;
+    private String fileName;
+    private long totalSize;
+    private int chunkSize;
+    private int chunkCount;
+    // Chunk index -> hex SHA-256 of the received chunk
+    private Map<Integer, String> receivedChunks;
+    private boolean completed;
+    private String objectKey;
+    private LocalDateTime createdAt;
+    private LocalDateTime expiresAt;
+}
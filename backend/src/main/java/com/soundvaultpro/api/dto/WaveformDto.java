@@ -0,0 +1,20 @@
+package com.soundvaultpro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class WaveformDto {
+    private String contentHash;
+    private int sampleRate;
+    private int samplesPerBucket;
+    // Bucket count of each level, finest first
+    private List<Integer> levels;
+}
@@ -0,0 +1,17 @@
+package com.soundvaultpro.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class WaveformUploadDto {
+    private int sampleRate;
+    private int samplesPerBucket;
+    // Base64 of interleaved signed 8-bit min/max pairs
+    private byte[] peaks;
+}
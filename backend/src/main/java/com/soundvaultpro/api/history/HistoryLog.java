@@ -0,0 +1,322 @@
+package com.soundvaultpro.api.history;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of plays split into numbered segment files.
+ *
+ * Appends are queued and written by a single thread that drains everything waiting, writes it
+ * with one call and forces it to disk once (group commit), so the cost of fsync is shared by
+ * every batch that arrived while the previous one was being written. Each record is framed as
+ * {@code int length | int crc32 | payload}; a torn record at the end of the last segment after
+ * a crash is detected by its length or checksum and cut off when the log is opened. A
+ * {@link Position} marks the end of a commit, so a reader that saved its state there can
+ * reopen the log and replay only what came after.
+ */
+@Slf4j
+public class HistoryLog implements Closeable {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d{8})\\.log");
+    private static final int FRAME_HEADER = 8;
+    private static final int MAX_RECORD = 1 << 20;
+
+    private final Path dir;
+    private final long segmentSize;
+    private final int maxBatches;
+    private final BiConsumer<List<PlayRecord>, Position> onCommit;
+    private final BlockingQueue<PendingAppend> queue;
+    private final Thread writer;
+
+    private FileChannel channel;
+    private int segmentIndex;
+    private volatile boolean closed;
+    // Set when a failed commit could not be rolled back; nothing may be appended after its bytes
+    private IOException broken;
+
+    /**
+     * @param onCommit Called on the writer thread with every record once it is durable, in log
+     *                 order, and the position just past them
+     */
+    public HistoryLog(Path dir, long segmentSize, int queueCapacity, int maxBatches,
+                      BiConsumer<List<PlayRecord>, Position> onCommit) {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.maxBatches = maxBatches;
+        this.onCommit = onCommit;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writer = new Thread(this::writeLoop, "history-log-writer");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * Read the stored records in order, repair a torn tail and start accepting appends
+     *
+     * @param from Position to replay from, which {@link #contains} must accept, or null for all records
+     * @return The position just past the last record
+     */
+    public Position open(Position from, Consumer<PlayRecord> replay) throws IOException {
+        Files.createDirectories(dir);
+        List<Integer> segments = segments();
+        for (int i = 0; i < segments.size(); i++) {
+            int index = segments.get(i);
+            if (from != null && index < from.segment) {
+                continue;
+            }
+            long start = from != null && index == from.segment ? from.offset : 0;
+            boolean last = i == segments.size() - 1;
+            replaySegment(segmentPath(index), start, replay, last);
+        }
+        segmentIndex = segments.isEmpty() ? 1 : segments.get(segments.size() - 1);
+        openSegment(segmentIndex);
+        Position end = new Position(segmentIndex, channel.position());
+        writer.start();
+        return end;
+    }
+
+    /**
+     * @return Whether the stored log reaches the position, so replaying from it loses nothing
+     */
+    public boolean contains(Position position) throws IOException {
+        Path file = segmentPath(position.segment);
+        return Files.exists(file) && Files.size(file) >= position.offset;
+    }
+
+    /**
+     * Queue records for the next group commit
+     *
+     * @return Completes once the records are on disk
+     * @throws RejectedExecutionException if the queue is full
+     */
+    public CompletableFuture<Void> append(List<PlayRecord> records) {
+        PendingAppend pending = new PendingAppend(records);
+        if (closed || !queue.offer(pending)) {
+            throw new RejectedExecutionException("History log is busy");
+        }
+        return pending.future;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // The writer drains what is queued and stops; interrupting it could close the channel mid-write
+        closed = true;
+        try {
+            writer.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingAppend> batch = new ArrayList<>();
+        while (!closed || !queue.isEmpty()) {
+            try {
+                PendingAppend first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, maxBatches - batch.size());
+            commit(batch);
+            batch.clear();
+        }
+    }
+
+    private void commit(List<PendingAppend> batch) {
+        List<PlayRecord> records = new ArrayList<>();
+        Position end;
+        try {
+            List<byte[]> payloads = new ArrayList<>();
+            int length = 0;
+            for (PendingAppend pending : batch) {
+                for (PlayRecord record : pending.records) {
+                    byte[] payload = record.encode();
+                    payloads.add(payload);
+                    records.add(record);
+                    length += FRAME_HEADER + payload.length;
+                }
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            CRC32 crc = new CRC32();
+            for (byte[] payload : payloads) {
+                crc.reset();
+                crc.update(payload);
+                buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+            }
+            buffer.flip();
+            synchronized (this) {
+                if (broken != null) {
+                    throw new IOException("History log is unusable after a failed write", broken);
+                }
+                if (channel.position() >= segmentSize) {
+                    channel.close();
+                    openSegment(++segmentIndex);
+                }
+                long start = channel.position();
+                try {
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    channel.force(false);
+                } catch (IOException e) {
+                    rollBack(start, e);
+                    throw e;
+                }
+                end = new Position(segmentIndex, channel.position());
+            }
+        } catch (IOException e) {
+            log.error("Error writing {} play records: {}", records.size(), e.getMessage());
+            batch.forEach(pending -> pending.future.completeExceptionally(e));
+            return;
+        }
+
+        try {
+            onCommit.accept(records, end);
+        } catch (RuntimeException e) {
+            // The records are durable and will be counted on the next replay
+            log.error("Error applying committed play records: {}", e.getMessage());
+        }
+        batch.forEach(pending -> pending.future.complete(null));
+    }
+
+    /**
+     * Cut a failed commit off the segment. Its callers are told it failed, so it must not be
+     * replayed, and later commits must not land behind a torn frame that replay would stop at.
+     */
+    private void rollBack(long start, IOException cause) {
+        try {
+            channel.truncate(start);
+            channel.force(false);
+        } catch (IOException e) {
+            log.error("Could not roll back failed play records in segment {}: {}", segmentIndex, e.getMessage());
+            cause.addSuppressed(e);
+            broken = cause;
+        }
+    }
+
+    private void replaySegment(Path file, long start, Consumer<PlayRecord> replay, boolean last) throws IOException {
+        long size = Files.size(file);
+        long position = start;
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            in.skipNBytes(start);
+            while (size - position >= FRAME_HEADER) {
+                int length = in.readInt();
+                int checksum = in.readInt();
+                if (length < 0 || length > MAX_RECORD || size - position - FRAME_HEADER < length) {
+                    break;
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                replay.accept(PlayRecord.decode(payload));
+                position += FRAME_HEADER + length;
+            }
+        }
+        if (position < size) {
+            if (!last) {
+                throw new IOException("Corrupt record in " + file.getFileName() + " at " + position);
+            }
+            log.warn("Truncating torn play record in {} at {}", file.getFileName(), position);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.truncate(position);
+            }
+        }
+    }
+
+    private void openSegment(int index) throws IOException {
+        channel = FileChannel.open(segmentPath(index), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private List<Integer> segments() throws IOException {
+        List<Integer> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "segment-*.log")) {
+            for (Path file : files) {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    segments.add(Integer.parseInt(matcher.group(1)));
+                }
+            }
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    private Path segmentPath(int index) {
+        return dir.resolve(String.format("segment-%08d.log", index));
+    }
+
+    /**
+     * A place in the log between two commits: a segment and a byte offset within it
+     */
+    public static final class Position {
+        private final int segment;
+        private final long offset;
+
+        public Position(int segment, long offset) {
+            this.segment = segment;
+            this.offset = offset;
+        }
+
+        public int getSegment() {
+            return segment;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        @Override
+        public String toString() {
+            return "segment " + segment + " at " + offset;
+        }
+    }
+
+    private static final class PendingAppend {
+        private final List<PlayRecord> records;
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private PendingAppend(List<PlayRecord> records) {
+            this.records = records;
+        }
+    }
+}
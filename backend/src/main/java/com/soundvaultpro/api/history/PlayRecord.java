@@ -0,0 +1,54 @@
+package com.soundvaultpro.api.history;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * One play as stored in the history log
+ */
+@Data
+@AllArgsConstructor
+public class PlayRecord {
+
+    private static final int FORMAT = 1;
+
+    private String supabaseId;
+    private String trackId;
+    private String title;
+    private String artist;
+    private long playedAt;
+    private long listenedMs;
+
+    byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(FORMAT);
+        out.writeUTF(supabaseId);
+        out.writeUTF(trackId);
+        out.writeUTF(title != null ? title : "");
+        out.writeUTF(artist != null ? artist : "");
+        out.writeLong(playedAt);
+        out.writeLong(listenedMs);
+        return bytes.toByteArray();
+    }
+
+    static PlayRecord decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        int format = in.readUnsignedByte();
+        if (format != FORMAT) {
+            throw new IOException("Unknown play record format " + format);
+        }
+        return new PlayRecord(in.readUTF(), in.readUTF(), emptyToNull(in.readUTF()), emptyToNull(in.readUTF()),
+                in.readLong(), in.readLong());
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
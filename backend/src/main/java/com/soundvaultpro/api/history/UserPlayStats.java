@@ -0,0 +1,126 @@
+package com.soundvaultpro.api.history;
+
+import com.soundvaultpro.api.util.LongCounterMap;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Running play counts of one user, updated per event and never rebuilt from raw events.
+ *
+ * All-time counts are keyed by track or artist id. Daily counts are keyed by
+ * {@code epochDay << 32 | id}, so a period of recent days is the sum of its daily entries.
+ * Daily totals use {@code epochDay << 1} for plays and {@code epochDay << 1 | 1} for listened
+ * milliseconds. Callers synchronize on the instance.
+ */
+public class UserPlayStats {
+
+    private final LongCounterMap tracks;
+    private final LongCounterMap artists;
+    private final LongCounterMap dailyTracks;
+    private final LongCounterMap dailyArtists;
+    private final LongCounterMap dailyTotals;
+    private long plays;
+    private long listenedMs;
+
+    public UserPlayStats() {
+        this(new LongCounterMap(), new LongCounterMap(), new LongCounterMap(), new LongCounterMap(), new LongCounterMap());
+    }
+
+    private UserPlayStats(LongCounterMap tracks, LongCounterMap artists, LongCounterMap dailyTracks,
+                          LongCounterMap dailyArtists, LongCounterMap dailyTotals) {
+        this.tracks = tracks;
+        this.artists = artists;
+        this.dailyTracks = dailyTracks;
+        this.dailyArtists = dailyArtists;
+        this.dailyTotals = dailyTotals;
+    }
+
+    /**
+     * @param artistId Interned artist id, or -1 if unknown
+     */
+    public void add(long epochDay, int trackId, int artistId, long listened) {
+        plays++;
+        listenedMs += listened;
+        tracks.increment(trackId, 1);
+        dailyTracks.increment(dayKey(epochDay, trackId), 1);
+        if (artistId >= 0) {
+            artists.increment(artistId, 1);
+            dailyArtists.increment(dayKey(epochDay, artistId), 1);
+        }
+        dailyTotals.increment(epochDay << 1, 1);
+        dailyTotals.increment(epochDay << 1 | 1, listened);
+    }
+
+    /**
+     * @param fromDay First day to include, or Long.MIN_VALUE for all time
+     * @return Play counts per track id over the period
+     */
+    public LongCounterMap trackCounts(long fromDay) {
+        return fromDay == Long.MIN_VALUE ? tracks : sumSince(dailyTracks, fromDay);
+    }
+
+    public LongCounterMap artistCounts(long fromDay) {
+        return fromDay == Long.MIN_VALUE ? artists : sumSince(dailyArtists, fromDay);
+    }
+
+    /**
+     * @return Plays and listened milliseconds over the period
+     */
+    public long[] totals(long fromDay) {
+        if (fromDay == Long.MIN_VALUE) {
+            return new long[] {plays, listenedMs};
+        }
+        long[] totals = new long[2];
+        dailyTotals.forEach((key, value) -> {
+            if (key >> 1 >= fromDay) {
+                totals[(int) (key & 1)] += value;
+            }
+        });
+        return totals;
+    }
+
+    /**
+     * Drop daily counts before a day; all-time counts are kept
+     */
+    public void pruneBefore(long day) {
+        dailyTracks.removeIf(key -> key >>> 32 < day);
+        dailyArtists.removeIf(key -> key >>> 32 < day);
+        dailyTotals.removeIf(key -> key >> 1 < day);
+    }
+
+    public void write(DataOutputStream out) throws IOException {
+        out.writeLong(plays);
+        out.writeLong(listenedMs);
+        tracks.write(out);
+        artists.write(out);
+        dailyTracks.write(out);
+        dailyArtists.write(out);
+        dailyTotals.write(out);
+    }
+
+    public static UserPlayStats read(DataInputStream in) throws IOException {
+        long plays = in.readLong();
+        long listenedMs = in.readLong();
+        UserPlayStats user = new UserPlayStats(LongCounterMap.read(in), LongCounterMap.read(in),
+                LongCounterMap.read(in), LongCounterMap.read(in), LongCounterMap.read(in));
+        user.plays = plays;
+        user.listenedMs = listenedMs;
+        return user;
+    }
+
+    private static LongCounterMap sumSince(LongCounterMap daily, long fromDay) {
+        LongCounterMap sum = new LongCounterMap();
+        daily.forEach((key, value) -> {
+            if (key >>> 32 >= fromDay) {
+                sum.increment(key & 0xFFFFFFFFL, value);
+            }
+        });
+        return sum;
+    }
+
+    private static long dayKey(long epochDay, int id) {
+        return epochDay << 32 | (id & 0xFFFFFFFFL);
+    }
+}
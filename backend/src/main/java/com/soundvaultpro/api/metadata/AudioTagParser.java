@@ -0,0 +1,43 @@
+package com.soundvaultpro.api.metadata;
+
+import java.io.IOException;
+
+/**
+ * Entry point for header-only metadata extraction. Detects the container from its
+ * leading bytes and hands off to the matching reader; only tag and header regions
+ * are requested from the RangeSource.
+ */
+public final class AudioTagParser {
+
+    private AudioTagParser() {
+    }
+
+    /**
+     * @param source The file to read
+     * @param fileName Used only to label the format when the content is not recognised
+     * @return Parsed tags and stream properties; fields that could not be read are null
+     */
+    public static ParsedMetadata parse(RangeSource source, String fileName) throws IOException {
+        ParsedMetadata metadata = new ParsedMetadata();
+
+        // ID3v2 can precede both MPEG audio and (non-standard, but common) FLAC streams
+        long audioStart = Id3Reader.readV2(source, 0, metadata);
+
+        if (FlacReader.read(source, audioStart, metadata)) {
+            return metadata;
+        }
+        if (audioStart == 0 && Mp4Reader.read(source, metadata)) {
+            return metadata;
+        }
+
+        long audioEnd = source.size();
+        if (Id3Reader.readV1(source, metadata)) {
+            audioEnd -= 128;
+        }
+        if (!MpegReader.read(source, audioStart, audioEnd, metadata) && fileName != null) {
+            int dot = fileName.lastIndexOf('.');
+            metadata.setFormat(dot >= 0 ? fileName.substring(dot + 1).toLowerCase() : null);
+        }
+        return metadata;
+    }
+}
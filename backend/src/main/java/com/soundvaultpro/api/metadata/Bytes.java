@@ -0,0 +1,79 @@
+package com.soundvaultpro.api.metadata;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Integer and string decoding helpers for binary tag formats
+ */
+final class Bytes {
+
+    private Bytes() {
+    }
+
+    static int u8(byte[] b, int off) {
+        return b[off] & 0xFF;
+    }
+
+    static int u16be(byte[] b, int off) {
+        return (u8(b, off) << 8) | u8(b, off + 1);
+    }
+
+    static int u24be(byte[] b, int off) {
+        return (u8(b, off) << 16) | (u8(b, off + 1) << 8) | u8(b, off + 2);
+    }
+
+    static long u32be(byte[] b, int off) {
+        return ((long) u8(b, off) << 24) | (u8(b, off + 1) << 16) | (u8(b, off + 2) << 8) | u8(b, off + 3);
+    }
+
+    static long u64be(byte[] b, int off) {
+        return (u32be(b, off) << 32) | u32be(b, off + 4);
+    }
+
+    static long u32le(byte[] b, int off) {
+        return ((long) u8(b, off + 3) << 24) | (u8(b, off + 2) << 16) | (u8(b, off + 1) << 8) | u8(b, off);
+    }
+
+    /**
+     * ID3v2 28-bit integer stored in four 7-bit bytes
+     */
+    static int synchsafe(byte[] b, int off) {
+        return (u8(b, off) & 0x7F) << 21 | (u8(b, off + 1) & 0x7F) << 14 | (u8(b, off + 2) & 0x7F) << 7 | (u8(b, off + 3) & 0x7F);
+    }
+
+    static boolean startsWith(byte[] b, int off, String ascii) {
+        if (b.length < off + ascii.length()) {
+            return false;
+        }
+        for (int i = 0; i < ascii.length(); i++) {
+            if (b[off + i] != (byte) ascii.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String ascii(byte[] b, int off, int len) {
+        return new String(b, off, len, StandardCharsets.ISO_8859_1);
+    }
+
+    static String string(byte[] b, int off, int len, Charset charset) {
+        return new String(b, off, Math.max(0, Math.min(len, b.length - off)), charset);
+    }
+
+    /**
+     * Trim surrounding whitespace and trailing NULs; empty strings become null
+     */
+    static String clean(String value) {
+        if (value == null) {
+            return null;
+        }
+        int end = value.length();
+        while (end > 0 && (value.charAt(end - 1) == '\0' || Character.isWhitespace(value.charAt(end - 1)))) {
+            end--;
+        }
+        String trimmed = value.substring(0, end).trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
@@ -0,0 +1,34 @@
+package com.soundvaultpro.api.metadata;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Location of an embedded cover image inside an audio file. Only the position is recorded
+ * while parsing tags; the image bytes are read separately when they are actually needed.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmbeddedPicture {
+
+    public static final String FRONT_COVER = "Front Cover";
+
+    // ID3v2 APIC and FLAC PICTURE share the same picture type codes
+    private static final String[] TYPE_NAMES = {
+        "Other", "File Icon", "Other File Icon", FRONT_COVER, "Back Cover", "Leaflet Page", "Media",
+        "Lead Artist", "Artist", "Conductor", "Band", "Composer", "Lyricist", "Recording Location",
+        "During Recording", "During Performance", "Screen Capture", "Bright Fish", "Illustration",
+        "Band Logotype", "Publisher Logotype"
+    };
+
+    private String mimeType;
+    private String type;
+    private long offset;
+    private int length;
+
+    static String typeName(int code) {
+        return code >= 0 && code < TYPE_NAMES.length ? TYPE_NAMES[code] : TYPE_NAMES[0];
+    }
+}
@@ -0,0 +1,103 @@
+package com.soundvaultpro.api.metadata;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads FLAC metadata blocks: STREAMINFO for duration, VORBIS_COMMENT for tags and
+ * PICTURE for the location of embedded artwork. Audio frames are never read.
+ */
+final class FlacReader {
+
+    private static final int STREAMINFO = 0;
+    private static final int VORBIS_COMMENT = 4;
+    private static final int PICTURE = 6;
+
+    private static final int MAX_COMMENT_BLOCK = 1024 * 1024;
+
+    private FlacReader() {
+    }
+
+    /**
+     * @param start Position of the "fLaC" marker
+     * @return true if the stream is FLAC
+     */
+    static boolean read(RangeSource source, long start, ParsedMetadata metadata) throws IOException {
+        byte[] marker = source.read(start, 4);
+        if (!Bytes.startsWith(marker, 0, "fLaC")) {
+            return false;
+        }
+        metadata.setFormat("flac");
+
+        long pos = start + 4;
+        long audioStart = -1;
+        boolean last = false;
+        while (!last) {
+            byte[] header = source.read(pos, 4);
+            if (header.length < 4) {
+                break;
+            }
+            last = (Bytes.u8(header, 0) & 0x80) != 0;
+            int type = Bytes.u8(header, 0) & 0x7F;
+            int length = Bytes.u24be(header, 1);
+            long dataStart = pos + 4;
+
+            if (type == STREAMINFO && length >= 34) {
+                streamInfo(source.read(dataStart, 34), metadata);
+            } else if (type == VORBIS_COMMENT && length <= MAX_COMMENT_BLOCK) {
+                VorbisComments.read(source.read(dataStart, length), metadata);
+            } else if (type == PICTURE && metadata.getPicture() == null) {
+                metadata.setPicture(picture(source, dataStart, length));
+            }
+            pos = dataStart + length;
+            audioStart = pos;
+        }
+
+        if (audioStart > 0 && metadata.getDurationSeconds() != null && metadata.getDurationSeconds() > 0) {
+            long audioBytes = source.size() - audioStart;
+            metadata.setBitrate((int) (audioBytes * 8 / metadata.getDurationSeconds()));
+        }
+        return true;
+    }
+
+    private static void streamInfo(byte[] info, ParsedMetadata metadata) {
+        if (info.length < 18) {
+            return;
+        }
+        // Bytes 10..17: sample rate (20 bits), channels-1 (3), bits per sample-1 (5), total samples (36)
+        long packed = Bytes.u64be(info, 10);
+        int sampleRate = (int) (packed >>> 44);
+        int channels = (int) ((packed >>> 41) & 0x07) + 1;
+        long totalSamples = packed & 0xFFFFFFFFFL;
+        metadata.setSampleRate(sampleRate);
+        metadata.setChannels(channels);
+        if (sampleRate > 0 && totalSamples > 0) {
+            metadata.setDurationSeconds(totalSamples / (double) sampleRate);
+        }
+    }
+
+    private static EmbeddedPicture picture(RangeSource source, long dataStart, int length) throws IOException {
+        byte[] head = source.read(dataStart, Math.min(length, 8 * 1024));
+        if (head.length < 8) {
+            return null;
+        }
+        int pictureType = (int) Bytes.u32be(head, 0);
+        int mimeLength = (int) Bytes.u32be(head, 4);
+        if (8 + mimeLength + 4 > head.length) {
+            return null;
+        }
+        String mime = new String(head, 8, mimeLength, StandardCharsets.US_ASCII);
+        int pos = 8 + mimeLength;
+        int descLength = (int) Bytes.u32be(head, pos);
+        pos += 4 + descLength;
+        // width, height, depth, colors
+        pos += 16;
+        if (pos + 4 > head.length) {
+            return null;
+        }
+        int dataLength = (int) Bytes.u32be(head, pos);
+        pos += 4;
+        String type = EmbeddedPicture.typeName(pictureType);
+        return new EmbeddedPicture(mime.isEmpty() ? "image/jpeg" : mime, type, dataStart + pos, dataLength);
+    }
+}
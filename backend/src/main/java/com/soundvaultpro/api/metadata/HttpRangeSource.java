@@ -0,0 +1,154 @@
+package com.soundvaultpro.api.metadata;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * RangeSource over an HTTP URL using Range requests.
+ *
+ * Reads are rounded out to fixed-size blocks and the most recent blocks are kept, so a parser
+ * walking frame or atom headers costs one request per block rather than one per header.
+ * If the server ignores Range and answers 200, only the requested prefix is kept, and only near
+ * the start of the file. The HTTP client may still read the rest of that body before it releases
+ * the connection, so such servers cost a full download per block fetched.
+ */
+public class HttpRangeSource implements RangeSource {
+
+    private static final int MAX_CACHED_BLOCKS = 16;
+    private static final long MAX_SKIP_WITHOUT_RANGE = 1024 * 1024;
+
+    private final RestTemplate restTemplate;
+    private final URI uri;
+    private final int blockSize;
+    private final Map<Long, byte[]> blocks = new LinkedHashMap<>(MAX_CACHED_BLOCKS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+            return size() > MAX_CACHED_BLOCKS;
+        }
+    };
+
+    private long size = -1;
+    private long transferred;
+
+    public HttpRangeSource(RestTemplate restTemplate, URI uri, int blockSize) {
+        this.restTemplate = restTemplate;
+        this.uri = uri;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public long size() throws IOException {
+        if (size < 0) {
+            block(0);
+        }
+        return size;
+    }
+
+    @Override
+    public byte[] read(long position, int length) throws IOException {
+        if (length <= 0) {
+            return new byte[0];
+        }
+        byte[] result = new byte[length];
+        int copied = 0;
+        long pos = position;
+        while (copied < length) {
+            long index = pos / blockSize;
+            byte[] block = block(index);
+            int offset = (int) (pos - index * blockSize);
+            if (offset >= block.length) {
+                break;
+            }
+            int n = Math.min(block.length - offset, length - copied);
+            System.arraycopy(block, offset, result, copied, n);
+            copied += n;
+            pos += n;
+            if (block.length < blockSize) {
+                // Short block means end of file
+                break;
+            }
+        }
+        return copied == length ? result : Arrays.copyOf(result, copied);
+    }
+
+    @Override
+    public long bytesTransferred() {
+        return transferred;
+    }
+
+    private byte[] block(long index) throws IOException {
+        byte[] cached = blocks.get(index);
+        if (cached != null) {
+            return cached;
+        }
+        long start = index * blockSize;
+        if (size >= 0 && start >= size) {
+            return new byte[0];
+        }
+        long end = start + blockSize - 1;
+        if (size >= 0) {
+            end = Math.min(end, size - 1);
+        }
+        byte[] data = fetch(start, end);
+        blocks.put(index, data);
+        return data;
+    }
+
+    private byte[] fetch(long start, long end) throws IOException {
+        int wanted = (int) (end - start + 1);
+        byte[] data = restTemplate.execute(uri, HttpMethod.GET,
+                request -> request.getHeaders().set(HttpHeaders.RANGE, "bytes=" + start + "-" + end),
+                response -> {
+                    long skip = 0;
+                    if (response.getStatusCode().value() == HttpStatus.PARTIAL_CONTENT.value()) {
+                        parseContentRange(response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+                    } else if (response.getStatusCode().is2xxSuccessful()) {
+                        // Range ignored: the body starts at byte 0. Only tolerate that near the start of the file
+                        if (start > MAX_SKIP_WITHOUT_RANGE) {
+                            throw new IOException("Server does not support range requests");
+                        }
+                        size = response.getHeaders().getContentLength();
+                        skip = start;
+                    } else {
+                        throw new IOException("Unexpected status " + response.getStatusCode() + " for range request");
+                    }
+                    try (InputStream body = response.getBody()) {
+                        if (skip > 0) {
+                            body.skipNBytes(skip);
+                        }
+                        return body.readNBytes(wanted);
+                    }
+                });
+        if (data == null) {
+            throw new IOException("Empty response for range request");
+        }
+        transferred += data.length;
+        if (data.length < wanted && size < 0) {
+            size = start + data.length;
+        }
+        return data;
+    }
+
+    private void parseContentRange(String contentRange) {
+        // bytes 0-65535/12345678
+        if (contentRange == null) {
+            return;
+        }
+        int slash = contentRange.lastIndexOf('/');
+        if (slash >= 0 && slash < contentRange.length() - 1) {
+            String total = contentRange.substring(slash + 1).trim();
+            if (!"*".equals(total)) {
+                size = Long.parseLong(total);
+            }
+        }
+    }
+}
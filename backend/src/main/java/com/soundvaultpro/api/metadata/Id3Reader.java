@@ -0,0 +1,287 @@
+package com.soundvaultpro.api.metadata;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads ID3v2.2/2.3/2.4 tags at the start of a file and ID3v1 tags at the end.
+ * Frame headers are read one at a time and only text frames are fetched in full;
+ * picture frames are located but their image data is skipped.
+ */
+final class Id3Reader {
+
+    static final int HEADER_SIZE = 10;
+
+    private static final int MAX_TEXT_FRAME = 64 * 1024;
+    private static final int PICTURE_HEADER_PROBE = 512;
+
+    private static final String[] GENRES = {
+        "Blues", "Classic Rock", "Country", "Dance", "Disco", "Funk", "Grunge", "Hip-Hop", "Jazz", "Metal",
+        "New Age", "Oldies", "Other", "Pop", "R&B", "Rap", "Reggae", "Rock", "Techno", "Industrial",
+        "Alternative", "Ska", "Death Metal", "Pranks", "Soundtrack", "Euro-Techno", "Ambient", "Trip-Hop", "Vocal", "Jazz+Funk",
+        "Fusion", "Trance", "Classical", "Instrumental", "Acid", "House", "Game", "Sound Clip", "Gospel", "Noise",
+        "AlternRock", "Bass", "Soul", "Punk", "Space", "Meditative", "Instrumental Pop", "Instrumental Rock", "Ethnic", "Gothic",
+        "Darkwave", "Techno-Industrial", "Electronic", "Pop-Folk", "Eurodance", "Dream", "Southern Rock", "Comedy", "Cult", "Gangsta",
+        "Top 40", "Christian Rap", "Pop/Funk", "Jungle", "Native American", "Cabaret", "New Wave", "Psychadelic", "Rave", "Showtunes",
+        "Trailer", "Lo-Fi", "Tribal", "Acid Punk", "Acid Jazz", "Polka", "Retro", "Musical", "Rock & Roll", "Hard Rock"
+    };
+
+    private Id3Reader() {
+    }
+
+    /**
+     * Parse an ID3v2 tag starting at position
+     *
+     * @return The position just past the tag, or position itself if there is no tag there
+     */
+    static long readV2(RangeSource source, long position, ParsedMetadata metadata) throws IOException {
+        byte[] header = source.read(position, HEADER_SIZE);
+        if (header.length < HEADER_SIZE || !Bytes.startsWith(header, 0, "ID3")) {
+            return position;
+        }
+        int version = Bytes.u8(header, 3);
+        int flags = Bytes.u8(header, 5);
+        int tagSize = Bytes.synchsafe(header, 6);
+        boolean footer = version == 4 && (flags & 0x10) != 0;
+        long tagEnd = position + HEADER_SIZE + tagSize + (footer ? HEADER_SIZE : 0);
+
+        long pos = position + HEADER_SIZE;
+        if ((flags & 0x40) != 0 && version >= 3) {
+            byte[] ext = source.read(pos, 4);
+            if (ext.length < 4) {
+                return tagEnd;
+            }
+            // v2.4 counts the size field itself; v2.3 does not
+            pos += version == 4 ? Bytes.synchsafe(ext, 0) : Bytes.u32be(ext, 0) + 4;
+        }
+
+        int frameHeaderSize = version == 2 ? 6 : 10;
+        long framesEnd = position + HEADER_SIZE + tagSize;
+        while (pos + frameHeaderSize <= framesEnd) {
+            byte[] fh = source.read(pos, frameHeaderSize);
+            if (fh.length < frameHeaderSize || fh[0] == 0) {
+                // Padding
+                break;
+            }
+            String id;
+            int size;
+            int frameFlags = 0;
+            if (version == 2) {
+                id = Bytes.ascii(fh, 0, 3);
+                size = Bytes.u24be(fh, 3);
+            } else {
+                id = Bytes.ascii(fh, 0, 4);
+                size = version == 4 ? Bytes.synchsafe(fh, 4) : (int) Bytes.u32be(fh, 4);
+                frameFlags = Bytes.u16be(fh, 8);
+            }
+            long dataStart = pos + frameHeaderSize;
+            if (size <= 0 || dataStart + size > framesEnd) {
+                break;
+            }
+            // Skip compressed or encrypted frames (v2.3: 0x0080/0x0040, v2.4: 0x0008/0x0004)
+            boolean unreadable = version == 3 ? (frameFlags & 0x00C0) != 0 : version == 4 && (frameFlags & 0x000C) != 0;
+            if (!unreadable) {
+                readFrame(source, id, dataStart, size, metadata);
+            }
+            pos = dataStart + size;
+        }
+        return tagEnd;
+    }
+
+    /**
+     * Parse a 128-byte ID3v1 tag at the end of the file
+     *
+     * @return true if a tag was found
+     */
+    static boolean readV1(RangeSource source, ParsedMetadata metadata) throws IOException {
+        long size = source.size();
+        if (size < 128) {
+            return false;
+        }
+        byte[] tag = source.read(size - 128, 128);
+        if (tag.length < 128 || !Bytes.startsWith(tag, 0, "TAG")) {
+            return false;
+        }
+        ParsedMetadata v1 = new ParsedMetadata();
+        v1.setTitle(Bytes.clean(Bytes.string(tag, 3, 30, StandardCharsets.ISO_8859_1)));
+        v1.setArtist(Bytes.clean(Bytes.string(tag, 33, 30, StandardCharsets.ISO_8859_1)));
+        v1.setAlbum(Bytes.clean(Bytes.string(tag, 63, 30, StandardCharsets.ISO_8859_1)));
+        v1.setYear(Bytes.clean(Bytes.string(tag, 93, 4, StandardCharsets.ISO_8859_1)));
+        int genre = Bytes.u8(tag, 127);
+        if (genre < GENRES.length) {
+            v1.setGenre(GENRES[genre]);
+        }
+        metadata.fillFrom(v1);
+        return true;
+    }
+
+    /**
+     * @return The ID3v1 genre name for an index, or null if out of range
+     */
+    static String genreName(int index) {
+        return index >= 0 && index < GENRES.length ? GENRES[index] : null;
+    }
+
+    private static void readFrame(RangeSource source, String id, long dataStart, int size, ParsedMetadata metadata)
+            throws IOException {
+        switch (id) {
+            case "TIT2":
+            case "TT2":
+                metadata.setTitle(text(source, dataStart, size));
+                break;
+            case "TPE1":
+            case "TP1":
+                metadata.setArtist(text(source, dataStart, size));
+                break;
+            case "TALB":
+            case "TAL":
+                metadata.setAlbum(text(source, dataStart, size));
+                break;
+            case "TDRC":
+            case "TYER":
+            case "TYE":
+                String year = text(source, dataStart, size);
+                if (year != null && metadata.getYear() == null) {
+                    metadata.setYear(year.length() > 4 ? year.substring(0, 4) : year);
+                }
+                break;
+            case "TCON":
+            case "TCO":
+                metadata.setGenre(genre(text(source, dataStart, size)));
+                break;
+            case "TLEN":
+            case "TLE":
+                String millis = text(source, dataStart, size);
+                if (millis != null && millis.chars().allMatch(Character::isDigit) && metadata.getDurationSeconds() == null) {
+                    metadata.setDurationSeconds(Long.parseLong(millis) / 1000.0);
+                }
+                break;
+            case "APIC":
+            case "PIC":
+                // Prefer the front cover when a file carries several pictures
+                if (metadata.getPicture() == null || !EmbeddedPicture.FRONT_COVER.equals(metadata.getPicture().getType())) {
+                    EmbeddedPicture picture = picture(source, id, dataStart, size);
+                    if (picture != null && (metadata.getPicture() == null || EmbeddedPicture.FRONT_COVER.equals(picture.getType()))) {
+                        metadata.setPicture(picture);
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static String text(RangeSource source, long dataStart, int size) throws IOException {
+        if (size < 2 || size > MAX_TEXT_FRAME) {
+            return null;
+        }
+        byte[] data = source.read(dataStart, size);
+        String value = decode(data, 1, data.length - 1, Bytes.u8(data, 0));
+        if (value == null) {
+            return null;
+        }
+        // v2.4 separates multiple values with NUL; keep the first non-empty one
+        for (String part : value.split("\0")) {
+            String cleaned = Bytes.clean(part);
+            if (cleaned != null) {
+                return cleaned;
+            }
+        }
+        return null;
+    }
+
+    private static EmbeddedPicture picture(RangeSource source, String id, long dataStart, int size) throws IOException {
+        byte[] head = source.read(dataStart, Math.min(size, PICTURE_HEADER_PROBE));
+        if (head.length < 4) {
+            return null;
+        }
+        int encoding = Bytes.u8(head, 0);
+        int pos = 1;
+        String mime;
+        if ("PIC".equals(id)) {
+            // v2.2 uses a three-letter image format instead of a MIME type
+            String format = Bytes.ascii(head, 1, 3).toLowerCase();
+            mime = "png".equals(format) ? "image/png" : "image/jpeg";
+            pos = 4;
+        } else {
+            int end = indexOf(head, pos, 1);
+            if (end < 0) {
+                return null;
+            }
+            mime = Bytes.ascii(head, pos, end - pos);
+            pos = end + 1;
+        }
+        if (pos >= head.length) {
+            return null;
+        }
+        int pictureType = Bytes.u8(head, pos++);
+        int terminatorWidth = encoding == 1 || encoding == 2 ? 2 : 1;
+        int descEnd = indexOf(head, pos, terminatorWidth);
+        if (descEnd < 0) {
+            return null;
+        }
+        pos = descEnd + terminatorWidth;
+        if (mime.isEmpty() || "image/jpg".equalsIgnoreCase(mime)) {
+            mime = "image/jpeg";
+        }
+        String type = EmbeddedPicture.typeName(pictureType);
+        return new EmbeddedPicture(mime, type, dataStart + pos, size - pos);
+    }
+
+    private static int indexOf(byte[] data, int from, int width) {
+        for (int i = from; i + width <= data.length; i += width) {
+            boolean zero = true;
+            for (int j = 0; j < width; j++) {
+                zero &= data[i + j] == 0;
+            }
+            if (zero) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String decode(byte[] data, int off, int len, int encoding) {
+        Charset charset;
+        switch (encoding) {
+            case 0:
+                charset = StandardCharsets.ISO_8859_1;
+                break;
+            case 1:
+                charset = StandardCharsets.UTF_16;
+                break;
+            case 2:
+                charset = StandardCharsets.UTF_16BE;
+                break;
+            case 3:
+                charset = StandardCharsets.UTF_8;
+                break;
+            default:
+                return null;
+        }
+        return Bytes.string(data, off, len, charset);
+    }
+
+    /**
+     * Resolve ID3v1-style genre references such as "(17)" or "17"
+     */
+    private static String genre(String value) {
+        if (value == null) {
+            return null;
+        }
+        String ref = value;
+        if (ref.startsWith("(") && ref.indexOf(')') > 1) {
+            String rest = ref.substring(ref.indexOf(')') + 1).trim();
+            if (!rest.isEmpty()) {
+                return rest;
+            }
+            ref = ref.substring(1, ref.indexOf(')'));
+        }
+        if (!ref.isEmpty() && ref.chars().allMatch(Character::isDigit)) {
+            int index = Integer.parseInt(ref);
+            return index < GENRES.length ? GENRES[index] : value;
+        }
+        return value;
+    }
+}
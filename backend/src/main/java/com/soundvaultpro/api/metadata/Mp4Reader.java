@@ -0,0 +1,240 @@
+package com.soundvaultpro.api.metadata;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads MP4/M4A metadata by walking atom headers: moov/mvhd for duration,
+ * the first audio sample entry for stream properties and moov/udta/meta/ilst for tags.
+ * Sample tables and media data are skipped over, so a file with moov at the end
+ * costs one extra range read rather than a full download.
+ */
+final class Mp4Reader {
+
+    private static final int MAX_ITEM_SIZE = 64 * 1024;
+
+    private Mp4Reader() {
+    }
+
+    static boolean read(RangeSource source, ParsedMetadata metadata) throws IOException {
+        long size = source.size();
+        Atom first = atom(source, 0, size);
+        if (first == null || !"ftyp".equals(first.type)) {
+            return false;
+        }
+        metadata.setFormat("m4a");
+
+        long pos = 0;
+        while (pos < size) {
+            Atom atom = atom(source, pos, size);
+            if (atom == null) {
+                break;
+            }
+            if ("moov".equals(atom.type)) {
+                moov(source, atom, metadata);
+                break;
+            }
+            pos = atom.end;
+        }
+
+        if (metadata.getDurationSeconds() != null && metadata.getDurationSeconds() > 0) {
+            metadata.setBitrate((int) (size * 8 / metadata.getDurationSeconds()));
+        }
+        return true;
+    }
+
+    private static void moov(RangeSource source, Atom moov, ParsedMetadata metadata) throws IOException {
+        long pos = moov.dataStart;
+        while (pos < moov.end) {
+            Atom child = atom(source, pos, moov.end);
+            if (child == null) {
+                break;
+            }
+            switch (child.type) {
+                case "mvhd":
+                    mvhd(source.read(child.dataStart, 32), metadata);
+                    break;
+                case "trak":
+                    if (metadata.getSampleRate() == null) {
+                        Atom stsd = find(source, child, "mdia", "minf", "stbl", "stsd");
+                        if (stsd != null) {
+                            sampleEntry(source, stsd, metadata);
+                        }
+                    }
+                    break;
+                case "udta":
+                    Atom meta = find(source, child, "meta");
+                    if (meta != null) {
+                        // meta is a full box: 4 bytes of version and flags before its children
+                        Atom ilst = findChild(source, meta.dataStart + 4, meta.end, "ilst");
+                        if (ilst != null) {
+                            ilst(source, ilst, metadata);
+                        }
+                    }
+                    break;
+                default:
+                    break;
+            }
+            pos = child.end;
+        }
+    }
+
+    private static void mvhd(byte[] data, ParsedMetadata metadata) {
+        if (data.length < 20) {
+            return;
+        }
+        int version = Bytes.u8(data, 0);
+        long timescale;
+        long duration;
+        if (version == 1 && data.length >= 32) {
+            timescale = Bytes.u32be(data, 20);
+            duration = Bytes.u64be(data, 24);
+        } else {
+            timescale = Bytes.u32be(data, 12);
+            duration = Bytes.u32be(data, 16);
+        }
+        if (timescale > 0) {
+            metadata.setDurationSeconds(duration / (double) timescale);
+        }
+    }
+
+    private static void sampleEntry(RangeSource source, Atom stsd, ParsedMetadata metadata) throws IOException {
+        // stsd: version/flags (4), entry count (4), then the first sample entry atom
+        Atom entry = atom(source, stsd.dataStart + 8, stsd.end);
+        if (entry == null) {
+            return;
+        }
+        if ("alac".equals(entry.type)) {
+            metadata.setFormat("alac");
+        }
+        byte[] data = source.read(entry.dataStart, 28);
+        if (data.length < 28) {
+            return;
+        }
+        metadata.setChannels(Bytes.u16be(data, 16));
+        metadata.setSampleRate((int) (Bytes.u32be(data, 24) >>> 16));
+    }
+
+    private static void ilst(RangeSource source, Atom ilst, ParsedMetadata metadata) throws IOException {
+        long pos = ilst.dataStart;
+        while (pos < ilst.end) {
+            Atom item = atom(source, pos, ilst.end);
+            if (item == null) {
+                break;
+            }
+            Atom data = findChild(source, item.dataStart, item.end, "data");
+            if (data != null && data.end - data.dataStart > 8) {
+                long valueStart = data.dataStart + 8;
+                int valueLength = (int) (data.end - valueStart);
+                if ("covr".equals(item.type)) {
+                    if (metadata.getPicture() == null) {
+                        byte[] typeIndicator = source.read(data.dataStart, 4);
+                        String mime = Bytes.u8(typeIndicator, 3) == 14 ? "image/png" : "image/jpeg";
+                        metadata.setPicture(new EmbeddedPicture(mime, EmbeddedPicture.FRONT_COVER, valueStart, valueLength));
+                    }
+                } else if (valueLength <= MAX_ITEM_SIZE) {
+                    item(item.type, source.read(valueStart, valueLength), metadata);
+                }
+            }
+            pos = item.end;
+        }
+    }
+
+    private static void item(String type, byte[] value, ParsedMetadata metadata) {
+        switch (type) {
+            case "\u00A9nam":
+                metadata.setTitle(Bytes.clean(new String(value, StandardCharsets.UTF_8)));
+                break;
+            case "\u00A9ART":
+                metadata.setArtist(Bytes.clean(new String(value, StandardCharsets.UTF_8)));
+                break;
+            case "aART":
+                if (metadata.getArtist() == null) {
+                    metadata.setArtist(Bytes.clean(new String(value, StandardCharsets.UTF_8)));
+                }
+                break;
+            case "\u00A9alb":
+                metadata.setAlbum(Bytes.clean(new String(value, StandardCharsets.UTF_8)));
+                break;
+            case "\u00A9day":
+                String year = Bytes.clean(new String(value, StandardCharsets.UTF_8));
+                metadata.setYear(year != null && year.length() > 4 ? year.substring(0, 4) : year);
+                break;
+            case "\u00A9gen":
+                metadata.setGenre(Bytes.clean(new String(value, StandardCharsets.UTF_8)));
+                break;
+            case "gnre":
+                // ID3v1 genre index plus one
+                if (value.length >= 2 && metadata.getGenre() == null) {
+                    metadata.setGenre(Id3Reader.genreName(Bytes.u16be(value, 0) - 1));
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static Atom find(RangeSource source, Atom parent, String... path) throws IOException {
+        Atom current = parent;
+        for (String type : path) {
+            current = findChild(source, current.dataStart, current.end, type);
+            if (current == null) {
+                return null;
+            }
+        }
+        return current;
+    }
+
+    private static Atom findChild(RangeSource source, long start, long end, String type) throws IOException {
+        long pos = start;
+        while (pos < end) {
+            Atom atom = atom(source, pos, end);
+            if (atom == null) {
+                return null;
+            }
+            if (type.equals(atom.type)) {
+                return atom;
+            }
+            pos = atom.end;
+        }
+        return null;
+    }
+
+    private static Atom atom(RangeSource source, long position, long limit) throws IOException {
+        if (position + 8 > limit) {
+            return null;
+        }
+        byte[] header = source.read(position, 16);
+        if (header.length < 8) {
+            return null;
+        }
+        long size = Bytes.u32be(header, 0);
+        String type = Bytes.ascii(header, 4, 4);
+        long dataStart = position + 8;
+        if (size == 1) {
+            if (header.length < 16) {
+                return null;
+            }
+            size = Bytes.u64be(header, 8);
+            dataStart = position + 16;
+        } else if (size == 0) {
+            size = limit - position;
+        }
+        if (size < dataStart - position || position + size > limit) {
+            return null;
+        }
+        return new Atom(type, dataStart, position + size);
+    }
+
+    private static final class Atom {
+        private final String type;
+        private final long dataStart;
+        private final long end;
+
+        private Atom(String type, long dataStart, long end) {
+            this.type = type;
+            this.dataStart = dataStart;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.soundvaultpro.api.metadata;
+
+import java.io.IOException;
+
+/**
+ * Derives MP3 stream properties and duration from the first MPEG audio frame.
+ * Uses the Xing/Info or VBRI header when present and falls back to a constant
+ * bitrate estimate from the file size otherwise.
+ */
+final class MpegReader {
+
+    private static final int SYNC_SCAN_LIMIT = 64 * 1024;
+    private static final int SYNC_SCAN_STEP = 4 * 1024;
+
+    private static final int[][] BITRATES_V1 = {
+        {0, 32, 64, 96, 128, 160, 192, 224, 256, 288, 320, 352, 384, 416, 448},  // Layer I
+        {0, 32, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320, 384},     // Layer II
+        {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320}       // Layer III
+    };
+
+    private static final int[][] BITRATES_V2 = {
+        {0, 32, 48, 56, 64, 80, 96, 112, 128, 144, 160, 176, 192, 224, 256},     // Layer I
+        {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160},          // Layer II & III
+        {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160}
+    };
+
+    private static final int[][] SAMPLE_RATES = {
+        {11025, 12000, 8000},   // MPEG 2.5
+        {0, 0, 0},              // reserved
+        {22050, 24000, 16000},  // MPEG 2
+        {44100, 48000, 32000}   // MPEG 1
+    };
+
+    private MpegReader() {
+    }
+
+    /**
+     * @param audioStart First byte after any ID3v2 tag
+     * @param audioEnd Last byte of audio data (excluding a trailing ID3v1 tag)
+     * @return true if an MPEG frame was found
+     */
+    static boolean read(RangeSource source, long audioStart, long audioEnd, ParsedMetadata metadata) throws IOException {
+        // Junk or padding between the tag and the first frame is usually tiny, so scan in small steps
+        for (int scanned = 0; scanned < SYNC_SCAN_LIMIT; scanned += SYNC_SCAN_STEP) {
+            byte[] scan = source.read(audioStart + scanned, SYNC_SCAN_STEP + 3);
+            if (scan.length < 4) {
+                return false;
+            }
+            if (scanChunk(source, scan, audioStart + scanned, audioEnd, metadata)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean scanChunk(RangeSource source, byte[] scan, long scanStart, long audioEnd, ParsedMetadata metadata)
+            throws IOException {
+        for (int i = 0; i + 4 <= scan.length; i++) {
+            if (Bytes.u8(scan, i) != 0xFF || (Bytes.u8(scan, i + 1) & 0xE0) != 0xE0) {
+                continue;
+            }
+            int versionBits = (Bytes.u8(scan, i + 1) >> 3) & 0x03;
+            int layerBits = (Bytes.u8(scan, i + 1) >> 1) & 0x03;
+            int bitrateIndex = (Bytes.u8(scan, i + 2) >> 4) & 0x0F;
+            int sampleRateIndex = (Bytes.u8(scan, i + 2) >> 2) & 0x03;
+            int channelMode = (Bytes.u8(scan, i + 3) >> 6) & 0x03;
+            if (versionBits == 1 || layerBits == 0 || bitrateIndex == 0 || bitrateIndex == 15 || sampleRateIndex == 3) {
+                continue;
+            }
+
+            boolean mpeg1 = versionBits == 3;
+            int layer = 4 - layerBits;
+            int bitrate = (mpeg1 ? BITRATES_V1[layer - 1] : BITRATES_V2[layer - 1])[bitrateIndex] * 1000;
+            int sampleRate = SAMPLE_RATES[versionBits][sampleRateIndex];
+            int channels = channelMode == 3 ? 1 : 2;
+            int samplesPerFrame = layer == 1 ? 384 : (layer == 3 && !mpeg1 ? 576 : 1152);
+
+            metadata.setFormat("mp3");
+            metadata.setSampleRate(sampleRate);
+            metadata.setChannels(channels);
+
+            long frameStart = scanStart + i;
+            Long frames = vbrFrameCount(source, frameStart, mpeg1, channels);
+            if (frames != null && frames > 0) {
+                double duration = frames * (double) samplesPerFrame / sampleRate;
+                metadata.setDurationSeconds(duration);
+                metadata.setBitrate((int) ((audioEnd - frameStart) * 8 / Math.max(duration, 0.001)));
+            } else {
+                metadata.setBitrate(bitrate);
+                if (metadata.getDurationSeconds() == null && audioEnd > frameStart) {
+                    metadata.setDurationSeconds((audioEnd - frameStart) * 8.0 / bitrate);
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private static Long vbrFrameCount(RangeSource source, long frameStart, boolean mpeg1, int channels) throws IOException {
+        byte[] frame = source.read(frameStart, 192);
+        // Xing/Info header sits after the side information
+        int xingOffset = 4 + (mpeg1 ? (channels == 1 ? 17 : 32) : (channels == 1 ? 9 : 17));
+        if (frame.length >= xingOffset + 12
+                && (Bytes.startsWith(frame, xingOffset, "Xing") || Bytes.startsWith(frame, xingOffset, "Info"))) {
+            long flags = Bytes.u32be(frame, xingOffset + 4);
+            if ((flags & 0x01) != 0) {
+                return Bytes.u32be(frame, xingOffset + 8);
+            }
+            return null;
+        }
+        // VBRI header is always 32 bytes after the frame header
+        if (frame.length >= 36 + 18 && Bytes.startsWith(frame, 36, "VBRI")) {
+            return Bytes.u32be(frame, 36 + 14);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,39 @@
+package com.soundvaultpro.api.metadata;
+
+import lombok.Data;
+
+/**
+ * Tag values and stream properties read from an audio file header
+ */
+@Data
+public class ParsedMetadata {
+    private String format;
+    private String title;
+    private String artist;
+    private String album;
+    private String year;
+    private String genre;
+    private Double durationSeconds;
+    private Integer sampleRate;
+    private Integer channels;
+    private Integer bitrate;
+    private EmbeddedPicture picture;
+    // Set once thumbnails of the picture are stored, see ArtworkService
+    private String artworkHash;
+
+    /**
+     * Fill any field still unset from another source, e.g. ID3v1 after ID3v2
+     */
+    public void fillFrom(ParsedMetadata other) {
+        if (title == null) title = other.title;
+        if (artist == null) artist = other.artist;
+        if (album == null) album = other.album;
+        if (year == null) year = other.year;
+        if (genre == null) genre = other.genre;
+        if (durationSeconds == null) durationSeconds = other.durationSeconds;
+        if (sampleRate == null) sampleRate = other.sampleRate;
+        if (channels == null) channels = other.channels;
+        if (bitrate == null) bitrate = other.bitrate;
+        if (picture == null) picture = other.picture;
+    }
+}
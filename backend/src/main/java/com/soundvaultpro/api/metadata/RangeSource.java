@@ -0,0 +1,32 @@
+package com.soundvaultpro.api.metadata;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Random-access view over an audio file that only transfers the bytes asked for.
+ * Tag parsers use it to read headers and tag regions without touching the audio data.
+ */
+public interface RangeSource extends Closeable {
+
+    /**
+     * @return Total size of the file in bytes, or -1 if unknown
+     */
+    long size() throws IOException;
+
+    /**
+     * Read up to length bytes starting at position
+     *
+     * @return The bytes read; shorter than length only at end of file
+     */
+    byte[] read(long position, int length) throws IOException;
+
+    /**
+     * @return Number of bytes actually transferred from the underlying file or network so far
+     */
+    long bytesTransferred();
+
+    @Override
+    default void close() throws IOException {
+    }
+}
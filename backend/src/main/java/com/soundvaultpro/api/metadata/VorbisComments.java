@@ -0,0 +1,66 @@
+package com.soundvaultpro.api.metadata;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Parses a Vorbis comment block (as used by FLAC and Ogg) into tag fields
+ */
+final class VorbisComments {
+
+    private VorbisComments() {
+    }
+
+    static void read(byte[] block, ParsedMetadata metadata) {
+        if (block.length < 8) {
+            return;
+        }
+        int pos = 0;
+        long vendorLength = Bytes.u32le(block, pos);
+        pos += 4 + (int) vendorLength;
+        if (pos + 4 > block.length) {
+            return;
+        }
+        long count = Bytes.u32le(block, pos);
+        pos += 4;
+        for (long i = 0; i < count && pos + 4 <= block.length; i++) {
+            int length = (int) Bytes.u32le(block, pos);
+            pos += 4;
+            if (length < 0 || pos + length > block.length) {
+                return;
+            }
+            String comment = new String(block, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+
+            int eq = comment.indexOf('=');
+            if (eq <= 0) {
+                continue;
+            }
+            String key = comment.substring(0, eq).toUpperCase(Locale.ROOT);
+            String value = Bytes.clean(comment.substring(eq + 1));
+            if (value == null) {
+                continue;
+            }
+            switch (key) {
+                case "TITLE":
+                    if (metadata.getTitle() == null) metadata.setTitle(value);
+                    break;
+                case "ARTIST":
+                    if (metadata.getArtist() == null) metadata.setArtist(value);
+                    break;
+                case "ALBUM":
+                    if (metadata.getAlbum() == null) metadata.setAlbum(value);
+                    break;
+                case "DATE":
+                case "YEAR":
+                    if (metadata.getYear() == null) metadata.setYear(value.length() > 4 ? value.substring(0, 4) : value);
+                    break;
+                case "GENRE":
+                    metadata.setGenre(metadata.getGenre() == null ? value : metadata.getGenre() + ", " + value);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+}
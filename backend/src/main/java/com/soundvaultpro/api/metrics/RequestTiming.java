@@ -0,0 +1,137 @@
+package com.soundvaultpro.api.metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Spans of the current request, for the Server-Timing header and trace logs.
+ *
+ * {@link ServerTimingFilter} binds an instance to the request thread when timing is enabled;
+ * otherwise {@link #current()} is null and {@link #record} returns after a thread-local read,
+ * so instrumented code pays next to nothing. Spans are summed per name for the header, and
+ * kept individually with their start offset only when a trace log was asked for. Work handed
+ * to another thread can carry the instance along with {@link #wrap}.
+ */
+public final class RequestTiming {
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, long[]> totals = new LinkedHashMap<>();
+    private final List<Span> spans;
+    private final boolean headerEnabled;
+
+    RequestTiming(boolean keepSpans, boolean headerEnabled) {
+        this.spans = keepSpans ? new ArrayList<>() : null;
+        this.headerEnabled = headerEnabled;
+    }
+
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @return Whether the spans are sent back in a Server-Timing header, not just logged
+     */
+    public boolean isHeaderEnabled() {
+        return headerEnabled;
+    }
+
+    static void bind(RequestTiming timing) {
+        if (timing != null) {
+            CURRENT.set(timing);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Record a span that started at startNanos and ends now, if the request is being timed
+     *
+     * @param name A Server-Timing metric name, e.g. "auth" or "genius"
+     */
+    public static void record(String name, long startNanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.add(name, startNanos, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Run the task with the calling thread's timing bound, so spans it records count for the request
+     */
+    public static Runnable wrap(Runnable task) {
+        RequestTiming timing = CURRENT.get();
+        if (timing == null) {
+            return task;
+        }
+        return () -> {
+            RequestTiming previous = CURRENT.get();
+            CURRENT.set(timing);
+            try {
+                task.run();
+            } finally {
+                bind(previous);
+            }
+        };
+    }
+
+    synchronized void add(String name, long startNanos, long durationNanos) {
+        long[] total = totals.computeIfAbsent(name, key -> new long[2]);
+        total[0]++;
+        total[1] += durationNanos;
+        if (spans != null) {
+            spans.add(new Span(name, startNanos - this.startNanos, durationNanos));
+        }
+    }
+
+    /**
+     * @return Server-Timing value with a summed entry per span name and the time so far as "app"
+     */
+    public synchronized String header() {
+        StringBuilder header = new StringBuilder(64);
+        for (Map.Entry<String, long[]> entry : totals.entrySet()) {
+            long[] total = entry.getValue();
+            header.append(entry.getKey());
+            if (total[0] > 1) {
+                header.append(";desc=\"").append(total[0]).append(" calls\"");
+            }
+            header.append(";dur=").append(millis(total[1])).append(", ");
+        }
+        return header.append("app;dur=").append(millis(System.nanoTime() - startNanos)).toString();
+    }
+
+    /**
+     * @return key=value pairs for a trace log line: each span as name=duration@offset in milliseconds
+     */
+    synchronized String trace() {
+        StringBuilder trace = new StringBuilder(128);
+        trace.append("total=").append(millis(System.nanoTime() - startNanos));
+        if (spans != null) {
+            for (Span span : spans) {
+                trace.append(' ').append(span.name).append('=').append(millis(span.durationNanos))
+                        .append('@').append(millis(span.offsetNanos));
+            }
+        }
+        return trace.toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+
+    private static final class Span {
+        private final String name;
+        private final long offsetNanos;
+        private final long durationNanos;
+
+        private Span(String name, long offsetNanos, long durationNanos) {
+            this.name = name;
+            this.offsetNanos = offsetNanos;
+            this.durationNanos = durationNanos;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.soundvaultpro.api.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Times each request and reports where the time went.
+ *
+ * Runs ahead of every other filter, including Spring Security, so the "auth" span from
+ * SupabaseAuthFilter, one span per upstream from UpstreamMetricsInterceptor and the
+ * "serialize" span from {@link ServerTimingJsonConverter} all land in the same
+ * {@link RequestTiming}. JSON responses get the Server-Timing header from the converter, once
+ * serialization is done; other responses get it here if nothing was sent yet. With
+ * {@code timing.trace-log} every request is also logged with its individual spans.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    private final boolean headerEnabled;
+    private final boolean traceLog;
+
+    public ServerTimingFilter(@Value("${timing.server-timing:false}") boolean headerEnabled,
+                              @Value("${timing.trace-log:false}") boolean traceLog) {
+        this.headerEnabled = headerEnabled;
+        this.traceLog = traceLog;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !headerEnabled && !traceLog;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestTiming timing = new RequestTiming(traceLog, headerEnabled);
+        RequestTiming.bind(timing);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTiming.bind(null);
+            if (headerEnabled && !response.isCommitted() && !response.containsHeader(SERVER_TIMING)) {
+                response.setHeader(SERVER_TIMING, timing.header());
+            }
+            if (traceLog) {
+                log.info("trace method={} path={} status={} {}", request.getMethod(), request.getRequestURI(),
+                        response.getStatus(), timing.trace());
+            }
+        }
+    }
+}
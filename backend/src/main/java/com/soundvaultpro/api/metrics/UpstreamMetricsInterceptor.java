@@ -0,0 +1,96 @@
+package com.soundvaultpro.api.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records latency, status and in-flight count for every call made through the shared RestTemplate,
+ * and adds each call to the request's {@link RequestTiming} as a span named after the upstream.
+ *
+ * Meters: upstream.requests (timer; upstream, operation, status - the HTTP status or io_error,
+ * outcome - success, client_error, server_error or error) and
+ * upstream.inflight (gauge; upstream).
+ */
+@Component
+public class UpstreamMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final UpstreamResolver upstreamResolver;
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    public UpstreamMetricsInterceptor(MeterRegistry meterRegistry, UpstreamResolver upstreamResolver) {
+        this.meterRegistry = meterRegistry;
+        this.upstreamResolver = upstreamResolver;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String upstream = upstreamResolver.resolve(request.getURI());
+        String operation = upstreamResolver.operation(request.getMethod(), request.getURI());
+        AtomicInteger gauge = inFlightGauge(upstream);
+
+        gauge.incrementAndGet();
+        long start = System.nanoTime();
+        String status = "io_error";
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            status = Integer.toString(response.getStatusCode().value());
+            return response;
+        } finally {
+            gauge.decrementAndGet();
+            RequestTiming.record(upstream, start);
+            Timer.builder("upstream.requests")
+                    .description("Latency of calls to external services")
+                    .tags(Tags.of(
+                            Tag.of("upstream", upstream),
+                            Tag.of("operation", operation),
+                            Tag.of("status", status),
+                            Tag.of("outcome", outcome(status))))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * @return Calls to the upstream currently in flight
+     */
+    public int getInFlight(String upstream) {
+        AtomicInteger gauge = inFlight.get(upstream);
+        return gauge != null ? gauge.get() : 0;
+    }
+
+    private AtomicInteger inFlightGauge(String upstream) {
+        return inFlight.computeIfAbsent(upstream, name -> meterRegistry.gauge(
+                "upstream.inflight", Tags.of("upstream", name), new AtomicInteger()));
+    }
+
+    private static String outcome(String status) {
+        if (status.length() != 3) {
+            return "error";
+        }
+        switch (status.charAt(0)) {
+            case '2':
+            case '3':
+                return "success";
+            case '4':
+                return "client_error";
+            default:
+                return "server_error";
+        }
+    }
+}
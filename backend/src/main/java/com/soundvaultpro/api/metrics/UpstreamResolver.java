@@ -0,0 +1,77 @@
+package com.soundvaultpro.api.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Maps outgoing request URIs to a named upstream (supabase, genius, musixmatch, dropbox) and a
+ * low-cardinality operation name, so metrics can be tagged without leaking ids or queries.
+ */
+@Component
+public class UpstreamResolver {
+
+    public static final String SUPABASE = "supabase";
+    public static final String GENIUS = "genius";
+    public static final String MUSIXMATCH = "musixmatch";
+    public static final String DROPBOX = "dropbox";
+    public static final String OTHER = "other";
+
+    private static final Pattern ID_SEGMENT = Pattern.compile("/(\\d+|[0-9a-fA-F-]{32,36})(?=/|$)");
+
+    private final Map<String, URI> baseUris = new LinkedHashMap<>();
+
+    public UpstreamResolver(@Value("${supabase.url}") String supabaseUrl,
+                            @Value("${genius.api.url:https://api.genius.com}") String geniusApiUrl,
+                            @Value("${lyrics.api.url:https://api.musixmatch.com/ws/1.1}") String lyricsApiUrl,
+                            @Value("${dropbox.api.url:https://api.dropboxapi.com}") String dropboxApiUrl) {
+        baseUris.put(SUPABASE, URI.create(supabaseUrl));
+        baseUris.put(GENIUS, URI.create(geniusApiUrl));
+        baseUris.put(MUSIXMATCH, URI.create(lyricsApiUrl));
+        baseUris.put(DROPBOX, URI.create(dropboxApiUrl));
+    }
+
+    /**
+     * @return The upstream name for a request URI, or "other" if it matches none
+     */
+    public String resolve(URI uri) {
+        for (Map.Entry<String, URI> entry : baseUris.entrySet()) {
+            if (matches(entry.getValue(), uri)) {
+                return entry.getKey();
+            }
+        }
+        return OTHER;
+    }
+
+    /**
+     * @return Base URI of each named upstream
+     */
+    public Map<String, URI> baseUris() {
+        return Collections.unmodifiableMap(baseUris);
+    }
+
+    /**
+     * @return "METHOD /path" relative to the upstream base, with id segments replaced by {id}
+     */
+    public String operation(HttpMethod method, URI uri) {
+        String path = uri.getPath() != null ? uri.getPath() : "";
+        URI base = baseUris.get(resolve(uri));
+        if (base != null && base.getPath() != null && path.startsWith(base.getPath())) {
+            path = path.substring(base.getPath().length());
+        }
+        path = ID_SEGMENT.matcher(path).replaceAll("/{id}");
+        return method.name() + " " + (path.isEmpty() ? "/" : path);
+    }
+
+    private boolean matches(URI base, URI uri) {
+        return base.getHost() != null
+                && base.getHost().equalsIgnoreCase(uri.getHost())
+                && base.getPort() == uri.getPort();
+    }
+}
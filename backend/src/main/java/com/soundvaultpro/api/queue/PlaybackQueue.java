@@ -0,0 +1,216 @@
+package com.soundvaultpro.api.queue;
+
+import com.soundvaultpro.api.dto.QueueDeltaDto;
+import com.soundvaultpro.api.dto.QueueOpDto;
+import com.soundvaultpro.api.dto.QueueStateDto;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * One user's play queue and position, changed only by versioned ops.
+ *
+ * Every applied op bumps the version by one and is kept in a bounded history, so a device that
+ * is behind gets just the ops it missed; only a device further behind than the history gets
+ * the whole queue. The current index follows the track it points at as tracks are inserted,
+ * removed and moved around it. Not thread-safe; callers guard it.
+ */
+public class PlaybackQueue {
+
+    public static final String INSERT = "insert";
+    public static final String REMOVE = "remove";
+    public static final String MOVE = "move";
+    public static final String SEEK = "seek";
+
+    private final List<String> trackIds = new ArrayList<>();
+    // Ops in version order; the last one produced the current version
+    private final ArrayDeque<QueueOpDto> history = new ArrayDeque<>();
+    private int currentIndex = -1;
+    private long positionMs;
+    private long version;
+    private Instant updatedAt = Instant.EPOCH;
+
+    public static PlaybackQueue restore(QueueStateDto state) {
+        PlaybackQueue queue = new PlaybackQueue();
+        queue.trackIds.addAll(state.getTrackIds());
+        queue.currentIndex = state.getCurrentIndex();
+        queue.positionMs = state.getPositionMs();
+        queue.version = state.getVersion();
+        queue.updatedAt = state.getUpdatedAt() != null ? state.getUpdatedAt() : Instant.EPOCH;
+        return queue;
+    }
+
+    /**
+     * Apply a batch of ops made against baseVersion, all or nothing
+     *
+     * @return The new version
+     * @throws QueueVersionConflictException if the queue has moved past baseVersion
+     * @throws IllegalArgumentException if an op is malformed or out of range
+     */
+    public long apply(long baseVersion, List<QueueOpDto> ops, int maxSize, int historySize) {
+        if (baseVersion != version) {
+            throw new QueueVersionConflictException(baseVersion, since(baseVersion));
+        }
+        // Indexes only depend on the length, so checking against a running length is enough
+        int size = trackIds.size();
+        for (QueueOpDto op : ops) {
+            size = check(op, size);
+            if (size > maxSize) {
+                throw new IllegalArgumentException("Queue would exceed " + maxSize + " tracks");
+            }
+        }
+        for (QueueOpDto op : ops) {
+            applyOne(op);
+            history.addLast(op);
+            if (history.size() > historySize) {
+                history.removeFirst();
+            }
+        }
+        version += ops.size();
+        updatedAt = Instant.now();
+        return version;
+    }
+
+    /**
+     * What a client at fromVersion is missing
+     */
+    public QueueDeltaDto since(long fromVersion) {
+        QueueDeltaDto.QueueDeltaDtoBuilder delta = QueueDeltaDto.builder().fromVersion(fromVersion).version(version);
+        long behind = version - fromVersion;
+        if (behind < 0 || behind > history.size()) {
+            return delta.state(state()).build();
+        }
+        List<QueueOpDto> ops = new ArrayList<>((int) behind);
+        Iterator<QueueOpDto> newestFirst = history.descendingIterator();
+        for (long i = 0; i < behind; i++) {
+            ops.add(newestFirst.next());
+        }
+        return delta.ops(reversed(ops)).build();
+    }
+
+    public QueueStateDto state() {
+        return QueueStateDto.builder()
+                .version(version)
+                .trackIds(new ArrayList<>(trackIds))
+                .currentIndex(currentIndex)
+                .positionMs(positionMs)
+                .updatedAt(updatedAt)
+                .build();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return trackIds.size();
+    }
+
+    /**
+     * @return The queue length after the op
+     */
+    private static int check(QueueOpDto op, int size) {
+        if (op == null || op.getType() == null) {
+            throw new IllegalArgumentException("Op type is required");
+        }
+        int index = op.getIndex() != null ? op.getIndex() : -1;
+        int count = op.getCount() != null ? op.getCount() : 1;
+        switch (op.getType()) {
+            case INSERT:
+                if (op.getTrackIds() == null || op.getTrackIds().isEmpty()
+                        || op.getTrackIds().stream().anyMatch(id -> id == null || id.isBlank())) {
+                    throw new IllegalArgumentException("Insert needs track ids");
+                }
+                checkRange(index, 0, size, "Insert index");
+                return size + op.getTrackIds().size();
+            case REMOVE:
+                checkCount(count, index, size);
+                return size - count;
+            case MOVE:
+                checkCount(count, index, size);
+                checkRange(op.getToIndex() != null ? op.getToIndex() : -1, 0, size - count, "Move target");
+                return size;
+            case SEEK:
+                if (op.getIndex() != null) {
+                    checkRange(index, 0, size - 1, "Seek index");
+                }
+                if (op.getPositionMs() != null && op.getPositionMs() < 0) {
+                    throw new IllegalArgumentException("Position must not be negative");
+                }
+                return size;
+            default:
+                throw new IllegalArgumentException("Unknown op type: " + op.getType());
+        }
+    }
+
+    private void applyOne(QueueOpDto op) {
+        int index = op.getIndex() != null ? op.getIndex() : -1;
+        int count = op.getCount() != null ? op.getCount() : 1;
+        switch (op.getType()) {
+            case INSERT:
+                trackIds.addAll(index, op.getTrackIds());
+                if (currentIndex >= index) {
+                    currentIndex += op.getTrackIds().size();
+                }
+                break;
+            case REMOVE:
+                trackIds.subList(index, index + count).clear();
+                if (currentIndex >= index + count) {
+                    currentIndex -= count;
+                } else if (currentIndex >= index) {
+                    // The current track is gone; the one that took its place starts from the top
+                    currentIndex = trackIds.isEmpty() ? -1 : Math.min(index, trackIds.size() - 1);
+                    positionMs = 0;
+                }
+                break;
+            case MOVE:
+                int to = op.getToIndex();
+                List<String> range = trackIds.subList(index, index + count);
+                List<String> moved = new ArrayList<>(range);
+                range.clear();
+                trackIds.addAll(to, moved);
+                if (currentIndex >= index && currentIndex < index + count) {
+                    currentIndex = to + currentIndex - index;
+                } else if (currentIndex >= 0) {
+                    int remaining = currentIndex >= index + count ? currentIndex - count : currentIndex;
+                    currentIndex = remaining >= to ? remaining + count : remaining;
+                }
+                break;
+            case SEEK:
+                if (op.getIndex() != null && index != currentIndex) {
+                    currentIndex = index;
+                    positionMs = 0;
+                }
+                if (op.getPositionMs() != null) {
+                    positionMs = op.getPositionMs();
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown op type: " + op.getType());
+        }
+    }
+
+    private static void checkCount(int count, int index, int size) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Count must be positive");
+        }
+        checkRange(index, 0, size - count, "Index");
+    }
+
+    private static void checkRange(int value, int min, int max, String name) {
+        if (value < min || value > max) {
+            throw new IllegalArgumentException(name + " " + value + " is outside 0.." + max);
+        }
+    }
+
+    private static <T> List<T> reversed(List<T> list) {
+        List<T> result = new ArrayList<>(list.size());
+        for (int i = list.size() - 1; i >= 0; i--) {
+            result.add(list.get(i));
+        }
+        return result;
+    }
+}
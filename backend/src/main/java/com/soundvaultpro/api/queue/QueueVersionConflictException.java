@@ -0,0 +1,21 @@
+package com.soundvaultpro.api.queue;
+
+import com.soundvaultpro.api.dto.QueueDeltaDto;
+
+/**
+ * Thrown when ops are sent against an older queue version. Carries what the client is missing,
+ * so it can rebase its ops and retry.
+ */
+public class QueueVersionConflictException extends RuntimeException {
+
+    private final QueueDeltaDto missing;
+
+    public QueueVersionConflictException(long baseVersion, QueueDeltaDto missing) {
+        super("Queue is at version " + missing.getVersion() + ", ops were made against " + baseVersion);
+        this.missing = missing;
+    }
+
+    public QueueDeltaDto getMissing() {
+        return missing;
+    }
+}
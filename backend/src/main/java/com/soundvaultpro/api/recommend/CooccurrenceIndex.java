@@ -0,0 +1,316 @@
+package com.soundvaultpro.api.recommend;
+
+import com.soundvaultpro.api.dto.SimilarTrackDto;
+import com.soundvaultpro.api.util.LongCounterMap;
+import com.soundvaultpro.api.util.StringIds;
+import com.soundvaultpro.api.util.TopK;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Sparse track-to-track co-occurrence counts: how many playlists contain both tracks.
+ *
+ * Track ids are interned to ints and each track has one {@link LongCounterMap} row of
+ * neighbour id to count, so memory grows with the number of non-zero pairs. Adding a track to
+ * a playlist of n tracks touches 2n cells; removing it undoes exactly that, so the matrix is
+ * never rebuilt for a single change. Similarity is the count normalized by both tracks'
+ * playlist counts (cosine over playlist membership), which keeps tracks that are in every
+ * playlist from topping every list.
+ */
+public class CooccurrenceIndex {
+
+    private static final int MAGIC = 0x53565231; // "SVR1"
+    private static final int VERSION = 1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final StringIds tracks = new StringIds();
+    // Playlist id to its tracks, used as a set (every value is 1)
+    private final Map<Long, LongCounterMap> playlists = new HashMap<>();
+    // Number of playlists containing each track
+    private final LongCounterMap playlistCounts = new LongCounterMap();
+    private LongCounterMap[] rows = new LongCounterMap[64];
+    private long pairs;
+
+    /**
+     * @return false if the playlist already contained the track
+     */
+    public boolean add(long playlistId, String trackId) {
+        lock.writeLock().lock();
+        try {
+            int track = tracks.idOf(trackId);
+            LongCounterMap members = playlists.computeIfAbsent(playlistId, id -> new LongCounterMap());
+            if (members.get(track) != 0) {
+                return false;
+            }
+            members.forEach((other, ignored) -> link((int) other, track, 1));
+            members.increment(track, 1);
+            playlistCounts.increment(track, 1);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return false if the playlist did not contain the track
+     */
+    public boolean remove(long playlistId, String trackId) {
+        lock.writeLock().lock();
+        try {
+            int track = tracks.find(trackId);
+            LongCounterMap members = playlists.get(playlistId);
+            if (track < 0 || members == null || members.remove(track) == 0) {
+                return false;
+            }
+            members.forEach((other, ignored) -> link((int) other, track, -1));
+            if (members.size() == 0) {
+                playlists.remove(playlistId);
+            }
+            decrement(playlistCounts, track);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return Number of tracks the playlist had
+     */
+    public int removePlaylist(long playlistId) {
+        lock.writeLock().lock();
+        try {
+            LongCounterMap members = playlists.remove(playlistId);
+            if (members == null) {
+                return 0;
+            }
+            long[] ids = keys(members);
+            for (int i = 0; i < ids.length; i++) {
+                for (int j = i + 1; j < ids.length; j++) {
+                    link((int) ids[i], (int) ids[j], -1);
+                }
+                decrement(playlistCounts, ids[i]);
+            }
+            return ids.length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The tracks that most often share a playlist with the given track, best first
+     */
+    public List<SimilarTrackDto> similar(String trackId, int limit) {
+        lock.readLock().lock();
+        try {
+            int track = tracks.find(trackId);
+            if (track < 0 || track >= rows.length || rows[track] == null) {
+                return List.of();
+            }
+            double own = playlistCounts.get(track);
+            LongCounterMap counts = playlistCounts;
+            TopK top = new TopK(limit);
+            // Scores are scaled to longs so the primitive heap can rank them
+            rows[track].forEach((other, count) ->
+                    top.offer(other, (long) (count / Math.sqrt(own * counts.get(other)) * 1e9)));
+            long[][] ranked = top.drainDescending();
+            List<SimilarTrackDto> result = new ArrayList<>(ranked[0].length);
+            for (int i = 0; i < ranked[0].length; i++) {
+                int other = (int) ranked[0][i];
+                result.add(SimilarTrackDto.builder()
+                        .trackId(tracks.valueOf(other))
+                        .sharedPlaylists(rows[track].get(other))
+                        .score(ranked[1][i] / 1e9)
+                        .build());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int trackCount() {
+        lock.readLock().lock();
+        try {
+            return playlistCounts.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int playlistCount() {
+        lock.readLock().lock();
+        try {
+            return playlists.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Number of distinct track pairs that share at least one playlist
+     */
+    public long pairCount() {
+        lock.readLock().lock();
+        try {
+            return pairs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Write the interned ids, playlist membership and matrix rows, so loading does not
+     * recount pairs
+     */
+    public void write(DataOutputStream out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            int trackTotal = tracks.size();
+            out.writeInt(trackTotal);
+            for (int id = 0; id < trackTotal; id++) {
+                out.writeUTF(tracks.valueOf(id));
+            }
+            out.writeInt(playlists.size());
+            for (Map.Entry<Long, LongCounterMap> entry : playlists.entrySet()) {
+                out.writeLong(entry.getKey());
+                long[] ids = keys(entry.getValue());
+                out.writeInt(ids.length);
+                for (long id : ids) {
+                    out.writeInt((int) id);
+                }
+            }
+            int rowTotal = 0;
+            for (LongCounterMap row : rows) {
+                if (row != null && row.size() > 0) {
+                    rowTotal++;
+                }
+            }
+            out.writeInt(rowTotal);
+            for (int id = 0; id < rows.length; id++) {
+                LongCounterMap row = rows[id];
+                if (row == null || row.size() == 0) {
+                    continue;
+                }
+                out.writeInt(id);
+                out.writeInt(row.size());
+                IOException[] failure = new IOException[1];
+                row.forEach((other, count) -> {
+                    try {
+                        out.writeInt((int) other);
+                        out.writeInt((int) count);
+                    } catch (IOException e) {
+                        failure[0] = e;
+                    }
+                });
+                if (failure[0] != null) {
+                    throw failure[0];
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static CooccurrenceIndex read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a co-occurrence snapshot");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported co-occurrence snapshot version " + version);
+        }
+        CooccurrenceIndex index = new CooccurrenceIndex();
+        int trackTotal = in.readInt();
+        for (int id = 0; id < trackTotal; id++) {
+            // Ids are assigned in order, so they match the ones written
+            index.tracks.idOf(in.readUTF());
+        }
+        int playlistTotal = in.readInt();
+        for (int i = 0; i < playlistTotal; i++) {
+            long playlistId = in.readLong();
+            int size = in.readInt();
+            LongCounterMap members = new LongCounterMap(size);
+            for (int j = 0; j < size; j++) {
+                int track = checkTrack(in.readInt(), trackTotal);
+                members.increment(track, 1);
+                index.playlistCounts.increment(track, 1);
+            }
+            index.playlists.put(playlistId, members);
+        }
+        int rowTotal = in.readInt();
+        for (int i = 0; i < rowTotal; i++) {
+            int track = checkTrack(in.readInt(), trackTotal);
+            int size = in.readInt();
+            LongCounterMap row = new LongCounterMap(size);
+            for (int j = 0; j < size; j++) {
+                row.increment(checkTrack(in.readInt(), trackTotal), in.readInt());
+            }
+            index.ensureRow(track);
+            index.rows[track] = row;
+            index.pairs += size;
+        }
+        // Every pair is stored in both rows
+        index.pairs /= 2;
+        return index;
+    }
+
+    private void link(int a, int b, int delta) {
+        ensureRow(Math.max(a, b));
+        if (rows[a] == null) {
+            rows[a] = new LongCounterMap(4);
+        }
+        if (rows[b] == null) {
+            rows[b] = new LongCounterMap(4);
+        }
+        if (delta > 0) {
+            if (rows[a].increment(b, delta) == delta) {
+                pairs++;
+            }
+            rows[b].increment(a, delta);
+        } else if (rows[a].increment(b, delta) <= 0) {
+            // Drop the cell instead of keeping a zero, so rows only hold live pairs
+            rows[a].remove(b);
+            rows[b].remove(a);
+            pairs--;
+        } else {
+            rows[b].increment(a, delta);
+        }
+    }
+
+    private void ensureRow(int track) {
+        if (track >= rows.length) {
+            rows = Arrays.copyOf(rows, Math.max(track + 1, rows.length * 2));
+        }
+    }
+
+    private static void decrement(LongCounterMap map, long key) {
+        if (map.increment(key, -1) <= 0) {
+            map.remove(key);
+        }
+    }
+
+    private static long[] keys(LongCounterMap map) {
+        long[] keys = new long[map.size()];
+        int[] next = new int[1];
+        map.forEach((key, ignored) -> keys[next[0]++] = key);
+        return keys;
+    }
+
+    private static int checkTrack(int track, int trackTotal) throws IOException {
+        if (track < 0 || track >= trackTotal) {
+            throw new IOException("Track id out of range in snapshot: " + track);
+        }
+        return track;
+    }
+}
@@ -0,0 +1,35 @@
+package com.soundvaultpro.api.resilience;
+
+import com.soundvaultpro.api.metrics.UpstreamResolver;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URISyntaxException;
+
+/**
+ * Opens connections with the read timeout {@link AdaptiveTimeouts} currently gives their upstream
+ */
+public class AdaptiveTimeoutRequestFactory extends SimpleClientHttpRequestFactory {
+
+    private final UpstreamResolver upstreamResolver;
+    private final AdaptiveTimeouts adaptiveTimeouts;
+
+    public AdaptiveTimeoutRequestFactory(UpstreamResolver upstreamResolver, AdaptiveTimeouts adaptiveTimeouts,
+                                         int connectTimeoutMs) {
+        this.upstreamResolver = upstreamResolver;
+        this.adaptiveTimeouts = adaptiveTimeouts;
+        setConnectTimeout(connectTimeoutMs);
+    }
+
+    @Override
+    protected void prepareConnection(HttpURLConnection connection, String httpMethod) throws IOException {
+        super.prepareConnection(connection, httpMethod);
+        try {
+            String upstream = upstreamResolver.resolve(connection.getURL().toURI());
+            connection.setReadTimeout(adaptiveTimeouts.timeoutMs(upstream));
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid upstream URL: " + connection.getURL(), e);
+        }
+    }
+}
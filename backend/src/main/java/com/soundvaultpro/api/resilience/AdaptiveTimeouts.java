@@ -0,0 +1,122 @@
+package com.soundvaultpro.api.resilience;
+
+import com.soundvaultpro.api.metrics.UpstreamResolver;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read timeouts per upstream that follow its recent latency.
+ *
+ * Every call that reaches the network is recorded in the upstream's {@link LatencyHistogram},
+ * including calls that timed out, and the timeout is {@code timeouts.percentile} of recent
+ * latency plus {@code timeouts.headroom-percent}, kept between the upstream's min and max. A fast
+ * Genius therefore gets a tight timeout that frees threads quickly, while Supabase writes that are
+ * normally slower keep the room they need. Until {@code timeouts.min-samples} calls were seen the
+ * max is used. Calls that time out land at the top of the histogram, so an upstream that slows
+ * down for good pushes its timeout up rather than failing forever.
+ *
+ * Meter: upstream.timeout (gauge; upstream) - the current read timeout in milliseconds.
+ */
+@Component
+public class AdaptiveTimeouts implements ClientHttpRequestInterceptor {
+
+    private final UpstreamResolver upstreamResolver;
+    private final Map<String, Bounds> bounds;
+    private final Map<String, LatencyHistogram> histograms;
+    private final long defaultTimeoutMs;
+    private final double percentile;
+    private final int headroomPercent;
+    private final long minSamples;
+
+    public AdaptiveTimeouts(MeterRegistry meterRegistry,
+                            UpstreamResolver upstreamResolver,
+                            @Value("${timeouts.default-ms:10000}") long defaultTimeoutMs,
+                            @Value("${timeouts.percentile:0.99}") double percentile,
+                            @Value("${timeouts.headroom-percent:50}") int headroomPercent,
+                            @Value("${timeouts.min-samples:50}") long minSamples,
+                            @Value("${timeouts.window-seconds:300}") long windowSeconds,
+                            @Value("${timeouts.supabase.min-ms:1000}") long supabaseMinMs,
+                            @Value("${timeouts.supabase.max-ms:10000}") long supabaseMaxMs,
+                            @Value("${timeouts.genius.min-ms:500}") long geniusMinMs,
+                            @Value("${timeouts.genius.max-ms:5000}") long geniusMaxMs,
+                            @Value("${timeouts.musixmatch.min-ms:500}") long musixmatchMinMs,
+                            @Value("${timeouts.musixmatch.max-ms:5000}") long musixmatchMaxMs,
+                            @Value("${timeouts.dropbox.min-ms:1000}") long dropboxMinMs,
+                            @Value("${timeouts.dropbox.max-ms:30000}") long dropboxMaxMs) {
+        this.upstreamResolver = upstreamResolver;
+        this.defaultTimeoutMs = defaultTimeoutMs;
+        this.percentile = percentile;
+        this.headroomPercent = headroomPercent;
+        this.minSamples = minSamples;
+        this.bounds = Map.of(
+                UpstreamResolver.SUPABASE, new Bounds(supabaseMinMs, supabaseMaxMs),
+                UpstreamResolver.GENIUS, new Bounds(geniusMinMs, geniusMaxMs),
+                UpstreamResolver.MUSIXMATCH, new Bounds(musixmatchMinMs, musixmatchMaxMs),
+                UpstreamResolver.DROPBOX, new Bounds(dropboxMinMs, dropboxMaxMs));
+        long windowMs = TimeUnit.SECONDS.toMillis(windowSeconds);
+        this.histograms = Map.of(
+                UpstreamResolver.SUPABASE, new LatencyHistogram(windowMs),
+                UpstreamResolver.GENIUS, new LatencyHistogram(windowMs),
+                UpstreamResolver.MUSIXMATCH, new LatencyHistogram(windowMs),
+                UpstreamResolver.DROPBOX, new LatencyHistogram(windowMs));
+        for (String upstream : bounds.keySet()) {
+            Gauge.builder("upstream.timeout", this, timeouts -> timeouts.timeoutMs(upstream))
+                    .description("Current read timeout for calls to the upstream")
+                    .tags(Tags.of("upstream", upstream))
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        LatencyHistogram histogram = histograms.get(upstreamResolver.resolve(request.getURI()));
+        if (histogram == null) {
+            return execution.execute(request, body);
+        }
+        long start = System.nanoTime();
+        try {
+            return execution.execute(request, body);
+        } finally {
+            histogram.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * @return The read timeout to use for the upstream now
+     */
+    public int timeoutMs(String upstream) {
+        Bounds limits = bounds.get(upstream);
+        if (limits == null) {
+            return (int) defaultTimeoutMs;
+        }
+        LatencyHistogram histogram = histograms.get(upstream);
+        if (histogram.count() < minSamples) {
+            return (int) limits.maxMs;
+        }
+        long observed = histogram.percentileMs(percentile) * (100 + headroomPercent) / 100;
+        return (int) Math.max(limits.minMs, Math.min(limits.maxMs, observed));
+    }
+
+    private static final class Bounds {
+        private final long minMs;
+        private final long maxMs;
+
+        private Bounds(long minMs, long maxMs) {
+            this.minMs = minMs;
+            this.maxMs = maxMs;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.soundvaultpro.api.resilience;
+
+import java.util.function.Consumer;
+
+/**
+ * Count-based circuit breaker over the outcomes of the last few calls.
+ *
+ * Closed, it lets every call through and opens once at least minCalls of the last windowSize
+ * calls were made and failureRatePercent of them failed. Open, it rejects calls until openMs
+ * has passed, then half-opens and lets halfOpenCalls trial calls through: if they all succeed
+ * it closes with an empty window, and the first failure opens it again.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final int windowSize;
+    private final int minCalls;
+    private final int failureRatePercent;
+    private final long openMs;
+    private final int halfOpenCalls;
+    private final Consumer<State> onTransition;
+
+    // Ring of the last windowSize outcomes while closed; true is a failure
+    private final boolean[] window;
+    private int windowNext;
+    private int windowCount;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    public CircuitBreaker(int windowSize, int minCalls, int failureRatePercent, long openMs, int halfOpenCalls,
+                          Consumer<State> onTransition) {
+        if (windowSize < 1 || minCalls < 1 || minCalls > windowSize || halfOpenCalls < 1) {
+            throw new IllegalArgumentException("Invalid circuit breaker settings");
+        }
+        this.windowSize = windowSize;
+        this.minCalls = minCalls;
+        this.failureRatePercent = failureRatePercent;
+        this.openMs = openMs;
+        this.halfOpenCalls = halfOpenCalls;
+        this.onTransition = onTransition;
+        this.window = new boolean[windowSize];
+    }
+
+    /**
+     * Ask to make a call
+     *
+     * @return The state the call was let through in, to pass to {@link #onResult}; null if rejected
+     */
+    public synchronized State tryAcquire(long nowMs) {
+        if (state == State.OPEN && nowMs - openedAt >= openMs) {
+            transition(State.HALF_OPEN);
+            trialsStarted = 0;
+            trialsSucceeded = 0;
+        }
+        switch (state) {
+            case CLOSED:
+                return State.CLOSED;
+            case HALF_OPEN:
+                if (trialsStarted >= halfOpenCalls) {
+                    return null;
+                }
+                trialsStarted++;
+                return State.HALF_OPEN;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Record how a call let through by {@link #tryAcquire} went
+     */
+    public synchronized void onResult(State acquiredIn, boolean success, long nowMs) {
+        if (acquiredIn != state) {
+            // Started before the last transition; it says nothing about the current state
+            return;
+        }
+        switch (state) {
+            case CLOSED:
+                if (windowCount == windowSize) {
+                    windowFailures -= window[windowNext] ? 1 : 0;
+                } else {
+                    windowCount++;
+                }
+                window[windowNext] = !success;
+                windowFailures += success ? 0 : 1;
+                windowNext = (windowNext + 1) % windowSize;
+                if (windowCount >= minCalls && windowFailures * 100 >= failureRatePercent * windowCount) {
+                    open(nowMs);
+                }
+                break;
+            case HALF_OPEN:
+                if (!success) {
+                    open(nowMs);
+                } else if (++trialsSucceeded >= halfOpenCalls) {
+                    windowNext = 0;
+                    windowCount = 0;
+                    windowFailures = 0;
+                    transition(State.CLOSED);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return How long until an open breaker lets trial calls through, 0 if it is not open
+     */
+    public synchronized long remainingOpenMs(long nowMs) {
+        return state == State.OPEN ? Math.max(0, openedAt + openMs - nowMs) : 0;
+    }
+
+    private void open(long nowMs) {
+        openedAt = nowMs;
+        transition(State.OPEN);
+    }
+
+    private void transition(State next) {
+        state = next;
+        onTransition.accept(next);
+    }
+}
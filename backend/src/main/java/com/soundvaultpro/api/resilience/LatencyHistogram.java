@@ -0,0 +1,111 @@
+package com.soundvaultpro.api.resilience;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Rolling latency histogram with logarithmic buckets, each 20% wider than the one before.
+ *
+ * Samples go into the current window; when it is older than windowMs it becomes the previous
+ * window and a fresh one starts, so percentiles cover between one and two windows of recent
+ * calls and old behaviour ages out. Recording is a single atomic increment.
+ */
+public class LatencyHistogram {
+
+    private static final double GROWTH = 1.2;
+    // Upper bounds from 1ms to a little over two minutes
+    private static final int BUCKETS = 66;
+    private static final long[] UPPER_BOUNDS_MS = new long[BUCKETS];
+
+    static {
+        double bound = 1;
+        for (int i = 0; i < BUCKETS; i++) {
+            UPPER_BOUNDS_MS[i] = Math.round(bound);
+            bound *= GROWTH;
+        }
+    }
+
+    private final long windowMs;
+    private volatile AtomicLongArray current = new AtomicLongArray(BUCKETS);
+    private volatile AtomicLongArray previous = new AtomicLongArray(BUCKETS);
+    private volatile long windowStart;
+
+    public LatencyHistogram(long windowMs) {
+        this.windowMs = windowMs;
+        this.windowStart = System.currentTimeMillis();
+    }
+
+    public void record(long latencyMs) {
+        rotateIfDue();
+        current.incrementAndGet(bucket(latencyMs));
+    }
+
+    /**
+     * @return Samples in the current and previous windows
+     */
+    public long count() {
+        rotateIfDue();
+        AtomicLongArray now = current;
+        AtomicLongArray before = previous;
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += now.get(i) + before.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * @param quantile Between 0 and 1
+     * @return Upper bound of the bucket holding the quantile, or 0 with no samples
+     */
+    public long percentileMs(double quantile) {
+        rotateIfDue();
+        AtomicLongArray now = current;
+        AtomicLongArray before = previous;
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = now.get(i) + before.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return UPPER_BOUNDS_MS[i];
+            }
+        }
+        return UPPER_BOUNDS_MS[BUCKETS - 1];
+    }
+
+    private void rotateIfDue() {
+        long now = System.currentTimeMillis();
+        if (now - windowStart < windowMs) {
+            return;
+        }
+        synchronized (this) {
+            if (now - windowStart < windowMs) {
+                return;
+            }
+            // After two idle windows the previous one is just as stale as the current
+            previous = now - windowStart < 2 * windowMs ? current : new AtomicLongArray(BUCKETS);
+            current = new AtomicLongArray(BUCKETS);
+            windowStart = now;
+        }
+    }
+
+    private static int bucket(long latencyMs) {
+        if (latencyMs <= 1) {
+            return 0;
+        }
+        int index = (int) Math.ceil(Math.log(latencyMs) / Math.log(GROWTH));
+        // Rounding of the bounds can put a sample one bucket low
+        while (index < BUCKETS - 1 && UPPER_BOUNDS_MS[index] < latencyMs) {
+            index++;
+        }
+        return Math.min(index, BUCKETS - 1);
+    }
+}
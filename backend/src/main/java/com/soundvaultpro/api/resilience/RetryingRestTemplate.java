@@ -0,0 +1,104 @@
+package com.soundvaultpro.api.resilience;
+
+import com.soundvaultpro.api.metrics.UpstreamResolver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * RestTemplate that retries GETs after transient failures with exponential backoff and full jitter.
+ *
+ * Only GETs are retried: writes to Supabase are not idempotent, and repeating one after a
+ * timeout could apply it twice. A failure is transient if the connection could not be opened,
+ * timed out or was reset, or the upstream answered 502, 503 or 504. Other I/O errors are not
+ * retried: many come from a ResponseExtractor rejecting the response (a server that ignores
+ * Range, audio with no samples), which a second attempt would only repeat. A call refused by
+ * {@link UpstreamGuard} is not retried either, since the breaker or bulkhead would refuse the
+ * retry too. Each attempt passes
+ * through the interceptors again, so it is metered, timed and guarded like a first call.
+ *
+ * Meter: upstream.retries (counter; upstream).
+ */
+public class RetryingRestTemplate extends RestTemplate {
+
+    private final UpstreamResolver upstreamResolver;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+
+    public RetryingRestTemplate(UpstreamResolver upstreamResolver, MeterRegistry meterRegistry,
+                                int maxAttempts, long baseBackoffMs, long maxBackoffMs) {
+        this.upstreamResolver = upstreamResolver;
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    @Override
+    protected <T> T doExecute(URI url, @Nullable String uriTemplate, @Nullable HttpMethod method,
+                              @Nullable RequestCallback requestCallback,
+                              @Nullable ResponseExtractor<T> responseExtractor) throws RestClientException {
+        if (!HttpMethod.GET.equals(method)) {
+            return super.doExecute(url, uriTemplate, method, requestCallback, responseExtractor);
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return super.doExecute(url, uriTemplate, method, requestCallback, responseExtractor);
+            } catch (RestClientException e) {
+                if (attempt >= maxAttempts || !isTransient(e)) {
+                    throw e;
+                }
+            }
+            Counter.builder("upstream.retries")
+                    .description("GETs repeated after a transient upstream failure")
+                    .tag("upstream", upstreamResolver.resolve(url))
+                    .register(meterRegistry)
+                    .increment();
+            long ceiling = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt - 1, 20));
+            try {
+                Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+                throw new ResourceAccessException("Interrupted before retrying " + url);
+            }
+        }
+    }
+
+    private static boolean isTransient(RestClientException e) {
+        if (e instanceof UpstreamUnavailableException) {
+            return false;
+        }
+        if (e instanceof ResourceAccessException) {
+            Throwable cause = e.getCause();
+            return cause instanceof ConnectException
+                    || cause instanceof NoRouteToHostException
+                    || cause instanceof SocketTimeoutException
+                    || cause instanceof SocketException && isConnectionReset(cause.getMessage());
+        }
+        if (e instanceof HttpServerErrorException serverError) {
+            int status = serverError.getStatusCode().value();
+            return status == 502 || status == 503 || status == 504;
+        }
+        return false;
+    }
+
+    private static boolean isConnectionReset(String message) {
+        return message != null && message.startsWith("Connection reset");
+    }
+}
@@ -0,0 +1,103 @@
+package com.soundvaultpro.api.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The last good result of an upstream read per key, served only when the upstream cannot answer.
+ *
+ * Unlike a cache it never short-circuits a working upstream; it just remembers what each read
+ * returned, least recently used first out, and hands that back when the circuit is open, the
+ * bulkhead is full, the connection fails or the upstream answers 5xx.
+ */
+public class StaleCache<K, V> {
+
+    private final int maxSize;
+    private final long maxAgeMs;
+    private final Counter served;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    StaleCache(int maxSize, long maxAgeMs, Counter served) {
+        this.maxSize = maxSize;
+        this.maxAgeMs = maxAgeMs;
+        this.served = served;
+    }
+
+    /**
+     * Read through the loader, falling back to the last good value if the upstream is failing
+     *
+     * @throws UpstreamUnavailableException if the upstream was not called and nothing is remembered
+     */
+    public V get(K key, Supplier<V> loader) {
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException e) {
+            if (!isUpstreamFailure(e)) {
+                throw e;
+            }
+            Entry<V> stale;
+            synchronized (this) {
+                stale = entries.get(key);
+            }
+            if (stale != null && System.currentTimeMillis() - stale.storedAt <= maxAgeMs) {
+                served.increment();
+                return stale.value;
+            }
+            throw unavailable(e);
+        }
+        if (value != null) {
+            synchronized (this) {
+                entries.put(key, new Entry<>(value, System.currentTimeMillis()));
+                if (entries.size() > maxSize) {
+                    entries.remove(entries.keySet().iterator().next());
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Forget the value remembered for a key, e.g. because it was just written
+     */
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    private static boolean isUpstreamFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ResourceAccessException
+                    || cause instanceof HttpServerErrorException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Services wrap client exceptions; unwrap a fail-fast rejection so callers can answer 503
+     */
+    private static RuntimeException unavailable(RuntimeException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof UpstreamUnavailableException unavailable) {
+                return unavailable;
+            }
+        }
+        return e;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long storedAt;
+
+        private Entry(V value, long storedAt) {
+            this.value = value;
+            this.storedAt = storedAt;
+        }
+    }
+}
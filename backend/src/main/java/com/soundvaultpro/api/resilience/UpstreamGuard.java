@@ -0,0 +1,267 @@
+package com.soundvaultpro.api.resilience;
+
+import com.soundvaultpro.api.cache.InvalidationBus;
+import com.soundvaultpro.api.metrics.UpstreamResolver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bulkhead and circuit breaker per upstream for every call made through the shared RestTemplate.
+ *
+ * Each upstream gets its own semaphore, so a slow Genius can hold at most its share of request
+ * threads while Supabase calls carry on, and callers that cannot get a permit within
+ * {@code resilience.bulkhead.max-wait-ms} fail fast. Calls that fail with an I/O error, answer
+ * 5xx or 429, or take longer than {@code resilience.breaker.slow-call-ms} count as failures
+ * towards the upstream's {@link CircuitBreaker}; while it is open, calls are rejected without
+ * touching the network. Rejections throw {@link UpstreamUnavailableException}, which services
+ * answer from a {@link StaleCache} where they have one. Keys published on the
+ * {@link InvalidationBus} are evicted from the stale cache of that name, so a write on any node
+ * keeps the others from falling back to the value it replaced.
+ *
+ * A call holds its bulkhead permit, and counts towards the slow-call limit, until its response
+ * is closed: execute returns once the headers arrive, and the body is read after that.
+ *
+ * Meters: upstream.breaker.state (gauge; upstream; 0 closed, 1 half-open, 2 open),
+ * upstream.breaker.transitions (counter; upstream, state), upstream.bulkhead.available (gauge;
+ * upstream), upstream.rejected (counter; upstream, reason) and upstream.stale (counter; cache).
+ */
+@Component
+public class UpstreamGuard implements ClientHttpRequestInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final UpstreamResolver upstreamResolver;
+    private final Map<String, Guard> guards = new ConcurrentHashMap<>();
+    private final Map<String, StaleCache<?, ?>> staleCaches = new ConcurrentHashMap<>();
+    private final Map<String, Integer> maxConcurrent;
+    private final long maxWaitMs;
+    private final long slowCallMs;
+    private final int windowSize;
+    private final int minCalls;
+    private final int failureRatePercent;
+    private final long openMs;
+    private final int halfOpenCalls;
+    private final int staleMaxEntries;
+    private final long staleMaxAgeMs;
+
+    public UpstreamGuard(MeterRegistry meterRegistry,
+                         UpstreamResolver upstreamResolver,
+                         InvalidationBus invalidationBus,
+                         @Value("${resilience.bulkhead.supabase:32}") int supabaseConcurrent,
+                         @Value("${resilience.bulkhead.genius:16}") int geniusConcurrent,
+                         @Value("${resilience.bulkhead.musixmatch:8}") int musixmatchConcurrent,
+                         @Value("${resilience.bulkhead.dropbox:8}") int dropboxConcurrent,
+                         @Value("${resilience.bulkhead.max-wait-ms:100}") long maxWaitMs,
+                         @Value("${resilience.breaker.slow-call-ms:5000}") long slowCallMs,
+                         @Value("${resilience.breaker.window-size:20}") int windowSize,
+                         @Value("${resilience.breaker.min-calls:10}") int minCalls,
+                         @Value("${resilience.breaker.failure-rate-percent:50}") int failureRatePercent,
+                         @Value("${resilience.breaker.open-ms:30000}") long openMs,
+                         @Value("${resilience.breaker.half-open-calls:3}") int halfOpenCalls,
+                         @Value("${resilience.stale.max-entries:1000}") int staleMaxEntries,
+                         @Value("${resilience.stale.max-age-hours:24}") long staleMaxAgeHours) {
+        this.meterRegistry = meterRegistry;
+        this.upstreamResolver = upstreamResolver;
+        this.maxConcurrent = Map.of(
+                UpstreamResolver.SUPABASE, supabaseConcurrent,
+                UpstreamResolver.GENIUS, geniusConcurrent,
+                UpstreamResolver.MUSIXMATCH, musixmatchConcurrent,
+                UpstreamResolver.DROPBOX, dropboxConcurrent);
+        this.maxWaitMs = maxWaitMs;
+        this.slowCallMs = slowCallMs;
+        this.windowSize = windowSize;
+        this.minCalls = minCalls;
+        this.failureRatePercent = failureRatePercent;
+        this.openMs = openMs;
+        this.halfOpenCalls = halfOpenCalls;
+        this.staleMaxEntries = staleMaxEntries;
+        this.staleMaxAgeMs = TimeUnit.HOURS.toMillis(staleMaxAgeHours);
+        maxConcurrent.keySet().forEach(this::guard);
+        invalidationBus.subscribe(this::invalidate);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String upstream = upstreamResolver.resolve(request.getURI());
+        if (!maxConcurrent.containsKey(upstream)) {
+            return execution.execute(request, body);
+        }
+        Guard guard = guard(upstream);
+
+        if (!acquire(guard.bulkhead)) {
+            reject(upstream, "bulkhead");
+            throw new UpstreamUnavailableException(upstream, "too many concurrent calls", 1);
+        }
+        CircuitBreaker.State permit = guard.breaker.tryAcquire(System.currentTimeMillis());
+        if (permit == null) {
+            guard.bulkhead.release();
+            reject(upstream, "open");
+            long retryAfterMs = guard.breaker.remainingOpenMs(System.currentTimeMillis());
+            throw new UpstreamUnavailableException(upstream, "circuit open",
+                    Math.max(1, TimeUnit.MILLISECONDS.toSeconds(retryAfterMs + 999)));
+        }
+
+        long start = System.nanoTime();
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            guard.bulkhead.release();
+            guard.breaker.onResult(permit, false, System.currentTimeMillis());
+            throw e;
+        }
+        return new GuardedResponse(response, guard, permit, start);
+    }
+
+    /**
+     * The named stale cache, created on first use
+     *
+     * @param name Tags the upstream.stale counter, e.g. "genius.search"
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> StaleCache<K, V> staleCache(String name) {
+        return (StaleCache<K, V>) staleCaches.computeIfAbsent(name, cache -> new StaleCache<>(staleMaxEntries, staleMaxAgeMs,
+                Counter.builder("upstream.stale")
+                        .description("Reads answered with a previous result because the upstream failed")
+                        .tag("cache", cache)
+                        .register(meterRegistry)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void invalidate(String cache, String key) {
+        // Keys travel as strings, so only caches keyed by string can be invalidated
+        StaleCache<String, ?> stale = (StaleCache<String, ?>) staleCaches.get(cache);
+        if (stale != null) {
+            stale.invalidate(key);
+        }
+    }
+
+    public CircuitBreaker.State getState(String upstream) {
+        Guard guard = guards.get(upstream);
+        return guard != null ? guard.breaker.getState() : CircuitBreaker.State.CLOSED;
+    }
+
+    private boolean acquire(Semaphore bulkhead) throws IOException {
+        try {
+            return bulkhead.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for an upstream permit", e);
+        }
+    }
+
+    private void reject(String upstream, String reason) {
+        Counter.builder("upstream.rejected")
+                .description("Upstream calls refused without touching the network")
+                .tags("upstream", upstream, "reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private Guard guard(String upstream) {
+        return guards.computeIfAbsent(upstream, name -> {
+            Semaphore bulkhead = new Semaphore(maxConcurrent.get(name));
+            CircuitBreaker breaker = new CircuitBreaker(windowSize, minCalls, failureRatePercent, openMs, halfOpenCalls,
+                    state -> Counter.builder("upstream.breaker.transitions")
+                            .tags("upstream", name, "state", state.name().toLowerCase(Locale.ROOT))
+                            .register(meterRegistry)
+                            .increment());
+            Gauge.builder("upstream.breaker.state", breaker, b -> b.getState().ordinal())
+                    .description("0 closed, 1 half-open, 2 open")
+                    .tags(Tags.of("upstream", name))
+                    .register(meterRegistry);
+            Gauge.builder("upstream.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                    .tags(Tags.of("upstream", name))
+                    .register(meterRegistry);
+            return new Guard(bulkhead, breaker);
+        });
+    }
+
+    private static final class Guard {
+        private final Semaphore bulkhead;
+        private final CircuitBreaker breaker;
+
+        private Guard(Semaphore bulkhead, CircuitBreaker breaker) {
+            this.bulkhead = bulkhead;
+            this.breaker = breaker;
+        }
+    }
+
+    /**
+     * Releases the call's bulkhead permit and reports it to the breaker when closed, once
+     */
+    private final class GuardedResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final Guard guard;
+        private final CircuitBreaker.State permit;
+        private final long start;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private GuardedResponse(ClientHttpResponse delegate, Guard guard, CircuitBreaker.State permit, long start) {
+            this.delegate = delegate;
+            this.guard = guard;
+            this.permit = permit;
+            this.start = start;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            boolean success = false;
+            try {
+                int status = delegate.getStatusCode().value();
+                success = status < 500 && status != HttpStatus.TOO_MANY_REQUESTS.value();
+                delegate.close();
+            } catch (IOException e) {
+                // No status to judge by, so the call failed
+                delegate.close();
+            } finally {
+                success &= TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) <= slowCallMs;
+                guard.bulkhead.release();
+                guard.breaker.onResult(permit, success, System.currentTimeMillis());
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.soundvaultpro.api.resilience;
+
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * Thrown instead of calling an upstream whose circuit breaker is open or whose bulkhead is full.
+ * A kind of ResourceAccessException, so code that already treats I/O failures as the upstream
+ * being down handles it the same way.
+ */
+public class UpstreamUnavailableException extends ResourceAccessException {
+
+    private final String upstream;
+    private final long retryAfterSeconds;
+
+    public UpstreamUnavailableException(String upstream, String reason, long retryAfterSeconds) {
+        super(upstream + " is unavailable: " + reason);
+        this.upstream = upstream;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public String getUpstream() {
+        return upstream;
+    }
+
+    /**
+     * @return When it is worth trying again, for a Retry-After header
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
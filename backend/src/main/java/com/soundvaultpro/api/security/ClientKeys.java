@@ -0,0 +1,26 @@
+package com.soundvaultpro.api.security;
+
+import com.soundvaultpro.api.dto.UserDto;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Who a request comes from, for per-client state kept by the filters after authentication
+ */
+public final class ClientKeys {
+
+    private ClientKeys() {
+    }
+
+    /**
+     * @return "user:{id}" for signed-in users, otherwise "ip:{address}"
+     */
+    public static String of(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserDto user) {
+            return "user:" + user.getId();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,257 @@
+package com.soundvaultpro.api.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soundvaultpro.api.dto.ResponseDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs a POST carrying an Idempotency-Key at most once per client and replays its response to retries.
+ *
+ * Applies to the paths in {@code idempotency.paths}. Keys are scoped to the client as the rate
+ * limiter sees it (user, else IP address), and the request is fingerprinted by method, path,
+ * query and body: reusing a key for a different request is answered 422. A retry that arrives
+ * while the first request is still running waits up to {@code idempotency.max-wait-ms} for its
+ * response, then gets 409 with Retry-After. Only 2xx responses are kept, since the controllers
+ * answer upstream failures with 400 as well; after any other outcome the key is given up and
+ * the next retry runs for real. Replays carry {@code Idempotent-Replayed: true}.
+ *
+ * Not a bean of its own, for the same reason as {@link RateLimitFilter}.
+ *
+ * Meter: idempotency.requests (counter; result - executed, replayed, in_progress, mismatch).
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public IdempotencyFilter(IdempotencyStore store, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!store.isEnabled() || !HttpMethod.POST.matches(request.getMethod())
+                || request.getHeader(IDEMPOTENCY_KEY) == null) {
+            return true;
+        }
+        String path = path(request);
+        for (String pattern : store.getPaths()) {
+            if (pathMatcher.match(pattern, path)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY).trim();
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            error(response, HttpStatus.BAD_REQUEST, "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        if (request.getContentLengthLong() > store.getMaxBodyBytes()) {
+            error(response, HttpStatus.PAYLOAD_TOO_LARGE, "Request body is too large for an Idempotency-Key");
+            return;
+        }
+        byte[] body = request.getInputStream().readNBytes(store.getMaxBodyBytes() + 1);
+        if (body.length > store.getMaxBodyBytes()) {
+            error(response, HttpStatus.PAYLOAD_TOO_LARGE, "Request body is too large for an Idempotency-Key");
+            return;
+        }
+        String key = ClientKeys.of(request) + '|' + idempotencyKey;
+        String fingerprint = fingerprint(request, body);
+        HttpServletRequest cachedRequest = new CachedBodyRequest(request, body);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(store.getMaxWaitMs());
+        while (true) {
+            IdempotencyStore.Claim claim = store.claim(key, fingerprint);
+            if (!claim.matches(fingerprint)) {
+                count("mismatch");
+                error(response, HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key was already used for a different request");
+                return;
+            }
+            if (claim.isOwner()) {
+                count("executed");
+                execute(cachedRequest, response, filterChain, key, claim);
+                return;
+            }
+            IdempotencyStore.StoredResponse stored;
+            try {
+                stored = claim.getResponse().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                count("in_progress");
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                error(response, HttpStatus.CONFLICT, "A request with this Idempotency-Key is still in progress");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException("Interrupted while waiting for the original request", e);
+            } catch (ExecutionException e) {
+                // Never completed exceptionally; treat like a released key
+                stored = null;
+            }
+            if (stored != null) {
+                count("replayed");
+                response.setStatus(stored.getStatus());
+                if (stored.getContentType() != null) {
+                    response.setContentType(stored.getContentType());
+                }
+                response.setHeader(IDEMPOTENT_REPLAYED, "true");
+                response.setContentLength(stored.getBody().length);
+                response.getOutputStream().write(stored.getBody());
+                return;
+            }
+            // The original request gave the key up; claim it and run this one
+        }
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                         String key, IdempotencyStore.Claim claim) throws ServletException, IOException {
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        boolean kept = false;
+        try {
+            filterChain.doFilter(request, captured);
+            byte[] content = captured.getContentAsByteArray();
+            int status = captured.getStatus();
+            if (status >= 200 && status < 300 && content.length <= store.getMaxBodyBytes()) {
+                store.complete(claim, new IdempotencyStore.StoredResponse(status, captured.getContentType(), content));
+                kept = true;
+            }
+            captured.copyBodyToResponse();
+        } finally {
+            if (!kept) {
+                store.release(key, claim);
+            }
+        }
+    }
+
+    private static String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + ' ' + path(request) + '?' + request.getQueryString() + '\n')
+                    .getBytes(StandardCharsets.UTF_8));
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private void error(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ResponseDto.error(message));
+    }
+
+    private void count(String result) {
+        Counter.builder("idempotency.requests")
+                .description("POSTs with an Idempotency-Key, by how they were answered")
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * The request with its body already read, so it can be fingerprinted and still reach the controller
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException("Body is already buffered");
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+                    encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
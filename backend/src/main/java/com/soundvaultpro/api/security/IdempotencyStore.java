@@ -0,0 +1,194 @@
+package com.soundvaultpro.api.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First responses of requests sent with an Idempotency-Key, kept for replay to retries.
+ *
+ * A key is claimed by the first request that carries it; until that request finishes, later ones
+ * with the same key wait on its future instead of running the write a second time. A finished
+ * request either stores its response, which then answers every retry for
+ * {@code idempotency.ttl-seconds}, or gives the key up, which wakes the waiters so one of them
+ * can claim it and try for real. At most {@code idempotency.max-entries} keys are held, least
+ * recently used first out; keys are only as durable as this node, so a retry that lands on
+ * another replica runs again.
+ */
+@Component
+public class IdempotencyStore {
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlMs;
+    private final long maxWaitMs;
+    private final int maxBodyBytes;
+    private final List<String> paths;
+
+    public IdempotencyStore(MeterRegistry meterRegistry,
+                            @Value("${idempotency.enabled:true}") boolean enabled,
+                            @Value("${idempotency.max-entries:10000}") int maxEntries,
+                            @Value("${idempotency.ttl-seconds:86400}") long ttlSeconds,
+                            @Value("${idempotency.max-wait-ms:10000}") long maxWaitMs,
+                            @Value("${idempotency.max-body-bytes:65536}") int maxBodyBytes,
+                            @Value("${idempotency.paths:/auth/register,/playlists,/playlists/*/tracks,/users/*/keys}") List<String> paths) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttlMs = TimeUnit.SECONDS.toMillis(ttlSeconds);
+        this.maxWaitMs = maxWaitMs;
+        this.maxBodyBytes = maxBodyBytes;
+        this.paths = List.copyOf(paths);
+        Gauge.builder("idempotency.entries", this, IdempotencyStore::size)
+                .description("Idempotency keys held, in flight or with a stored response")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return Ant-style patterns of the POST paths that honour Idempotency-Key
+     */
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    public long getMaxWaitMs() {
+        return maxWaitMs;
+    }
+
+    public int getMaxBodyBytes() {
+        return maxBodyBytes;
+    }
+
+    /**
+     * Claim a key for a request, or find the request that already has it
+     *
+     * @param fingerprint Digest of the request, so a key reused for a different request is caught
+     * @return A claim owned by the caller if the key was free, otherwise the existing entry's
+     */
+    public synchronized Claim claim(String key, String fingerprint) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.response.isDone() && now - entry.storedAt > ttlMs) {
+            entries.remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            entry = new Entry(fingerprint);
+            entries.put(key, entry);
+            evict();
+            return new Claim(entry, true);
+        }
+        return new Claim(entry, false);
+    }
+
+    /**
+     * Keep the response of a claimed key for retries and hand it to requests waiting on it
+     */
+    public synchronized void complete(Claim claim, StoredResponse response) {
+        claim.entry.storedAt = System.currentTimeMillis();
+        claim.entry.response.complete(response);
+    }
+
+    /**
+     * Give up a claimed key without a response to keep, so the next request with it runs again
+     */
+    public synchronized void release(String key, Claim claim) {
+        // Only if still ours: the entry may have been evicted and the key claimed again since
+        entries.remove(key, claim.entry);
+        claim.entry.response.complete(null);
+    }
+
+    private void evict() {
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            Entry entry = eldest.next();
+            // Requests in flight keep their key; a full store of them only grows until they finish
+            if (entry.response.isDone()) {
+                eldest.remove();
+            }
+        }
+    }
+
+    private synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * A request's hold on, or view of, the entry for its key
+     */
+    public static final class Claim {
+        private final Entry entry;
+        private final boolean owner;
+
+        private Claim(Entry entry, boolean owner) {
+            this.entry = entry;
+            this.owner = owner;
+        }
+
+        /**
+         * @return Whether the caller claimed the key and must complete or release it
+         */
+        public boolean isOwner() {
+            return owner;
+        }
+
+        public boolean matches(String fingerprint) {
+            return entry.fingerprint.equals(fingerprint);
+        }
+
+        /**
+         * Completes with the stored response, or with null if the owner released the key
+         */
+        public CompletableFuture<StoredResponse> getResponse() {
+            return entry.response;
+        }
+    }
+
+    /**
+     * Status, content type and body of a response as first sent
+     */
+    public static final class StoredResponse {
+        private final int status;
+        private final String contentType;
+        private final byte[] body;
+
+        public StoredResponse(int status, String contentType, byte[] body) {
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final CompletableFuture<StoredResponse> response = new CompletableFuture<>();
+        private long storedAt;
+
+        private Entry(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.soundvaultpro.api.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets per client and route.
+ *
+ * Each bucket is a single AtomicLong holding its theoretical arrival time (the GCRA form of a
+ * token bucket): a request is allowed if that time is no more than a burst's worth of intervals
+ * ahead of now, and then pushes it one interval further with a compare-and-set, so checks never
+ * lock. Buckets live in a fixed number of stripes, each capped at its share of
+ * {@code rate-limit.max-keys}. A bucket whose arrival time has passed is exactly as full as a
+ * new one, so such buckets are dropped by a periodic sweep, and by a stripe that is full before
+ * it gives up; keys that still do not fit share the stripe's overflow bucket, which limits
+ * them together rather than not at all.
+ */
+@Component
+public class RateLimiter {
+
+    private static final int STRIPES = 64;
+
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "rate-limit-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final List<Route> routes = new ArrayList<>();
+    private final Route defaultRoute;
+    private final boolean enabled;
+    private final int maxKeysPerStripe;
+    private final long sweepIntervalSeconds;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimiter(MeterRegistry meterRegistry,
+                       @Value("${rate-limit.enabled:true}") boolean enabled,
+                       @Value("${rate-limit.default:20:40}") String defaultLimit,
+                       @Value("${rate-limit.routes:}") String routeLimits,
+                       @Value("${rate-limit.max-keys:100000}") int maxKeys,
+                       @Value("${rate-limit.sweep-interval-seconds:60}") long sweepIntervalSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.maxKeysPerStripe = Math.max(1, maxKeys / STRIPES);
+        this.sweepIntervalSeconds = sweepIntervalSeconds;
+        this.defaultRoute = Route.parse("*", defaultLimit);
+        for (String entry : routeLimits.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.indexOf('=');
+            if (separator < 1) {
+                throw new IllegalArgumentException("Expected prefix=rate:burst in rate-limit.routes: " + entry);
+            }
+            routes.add(Route.parse(entry.substring(0, separator).trim(), entry.substring(separator + 1).trim()));
+        }
+        // Longest prefix first, so /genius/search wins over /genius
+        routes.sort(Comparator.comparingInt((Route route) -> route.prefix.length()).reversed());
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+        Gauge.builder("ratelimit.buckets", this, RateLimiter::size)
+                .description("Client buckets currently held")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        sweeper.scheduleWithFixedDelay(this::sweep, sweepIntervalSeconds, sweepIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void close() {
+        sweeper.shutdownNow();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Take a permit for the client on the route the path belongs to
+     *
+     * @param path Request path below the context path
+     * @param clientKey Who is asking, e.g. "user:{id}" or "ip:{address}"
+     * @return 0 if allowed, otherwise nanoseconds until a permit is available
+     */
+    public long tryAcquire(String path, String clientKey) {
+        Route route = route(path);
+        if (route.intervalNanos == 0) {
+            return 0;
+        }
+        String key = route.prefix + '|' + clientKey;
+        long waitNanos = acquire(bucket(key), route, System.nanoTime());
+        if (waitNanos > 0) {
+            route.rejected(meterRegistry).increment();
+        }
+        return waitNanos;
+    }
+
+    private static long acquire(AtomicLong bucket, Route route, long now) {
+        while (true) {
+            long arrival = bucket.get();
+            long start = arrival - now > 0 ? arrival : now;
+            long ahead = start - now;
+            if (ahead > route.toleranceNanos) {
+                return ahead - route.toleranceNanos;
+            }
+            if (bucket.compareAndSet(arrival, start + route.intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    private Route route(String path) {
+        for (Route route : routes) {
+            if (path.startsWith(route.prefix)) {
+                return route;
+            }
+        }
+        return defaultRoute;
+    }
+
+    private AtomicLong bucket(String key) {
+        Stripe stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+        AtomicLong bucket = stripe.buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (stripe.buckets.size() >= maxKeysPerStripe) {
+            long now = System.nanoTime();
+            // At most once a second, so a flood of new clients does not turn into a flood of sweeps
+            if (now - stripe.sweptAt > TimeUnit.SECONDS.toNanos(1)) {
+                stripe.sweptAt = now;
+                sweep(stripe, now);
+            }
+            if (stripe.buckets.size() >= maxKeysPerStripe) {
+                return stripe.overflow;
+            }
+        }
+        // A new bucket starts full: its arrival time is already in the past
+        return stripe.buckets.computeIfAbsent(key, k -> new AtomicLong(System.nanoTime() - 1));
+    }
+
+    private void sweep() {
+        long now = System.nanoTime();
+        for (Stripe stripe : stripes) {
+            sweep(stripe, now);
+        }
+    }
+
+    private static void sweep(Stripe stripe, long now) {
+        stripe.buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+
+    private int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.buckets.size();
+        }
+        return size;
+    }
+
+    private static final class Stripe {
+        private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final AtomicLong overflow = new AtomicLong(System.nanoTime() - 1);
+        private volatile long sweptAt = System.nanoTime();
+    }
+
+    private static final class Route {
+        private final String prefix;
+        // 0 means unlimited
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private volatile Counter rejected;
+
+        private Route(String prefix, long intervalNanos, long toleranceNanos) {
+            this.prefix = prefix;
+            this.intervalNanos = intervalNanos;
+            this.toleranceNanos = toleranceNanos;
+        }
+
+        /**
+         * @param limit "rate:burst", requests per second and how many may come at once; a rate of 0 means unlimited
+         */
+        private static Route parse(String prefix, String limit) {
+            String[] parts = limit.split(":");
+            double rate = Double.parseDouble(parts[0].trim());
+            int burst = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+            if (rate < 0 || burst < 1) {
+                throw new IllegalArgumentException("Invalid rate limit for " + prefix + ": " + limit);
+            }
+            if (rate == 0) {
+                return new Route(prefix, 0, 0);
+            }
+            long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+            return new Route(prefix, interval, interval * (burst - 1));
+        }
+
+        private Counter rejected(MeterRegistry meterRegistry) {
+            Counter counter = rejected;
+            if (counter == null) {
+                counter = Counter.builder("ratelimit.rejected")
+                        .description("Requests answered 429")
+                        .tag("route", prefix)
+                        .register(meterRegistry);
+                rejected = counter;
+            }
+            return counter;
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.soundvaultpro.api.security;
 
 import com.soundvaultpro.api.dto.UserDto;
+import com.soundvaultpro.api.metrics.RequestTiming;
 import com.soundvaultpro.api.service.SupabaseService;
 import com.soundvaultpro.api.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -27,6 +30,7 @@ public class SupabaseAuthFilter extends OncePerRequestFilter {
 
     private final SupabaseService supabaseService;
     private final UserService userService;
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -35,6 +39,9 @@ public class SupabaseAuthFilter extends OncePerRequestFilter {
         String token = extractTokenFromRequest(request);
         
         if (StringUtils.hasText(token)) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            long start = System.nanoTime();
+            String outcome = "invalid_token";
             try {
                 // Validate token with Supabase
                 Map<String, Object> userData = supabaseService.validateToken(token);
@@ -55,12 +62,22 @@ public class SupabaseAuthFilter extends OncePerRequestFilter {
                         // Set authentication in context
                         SecurityContextHolder.getContext().setAuthentication(auth);
                         log.debug("User authenticated: {}", supabaseId);
+                        outcome = "authenticated";
                     } else {
                         log.warn("User with Supabase ID {} not found in database", supabaseId);
+                        outcome = "unknown_user";
                     }
                 }
             } catch (Exception e) {
                 log.error("Could not authenticate user: {}", e.getMessage());
+                outcome = "error";
+            } finally {
+                RequestTiming.record("auth", start);
+                sample.stop(Timer.builder("auth.filter")
+                        .description("Time spent validating the bearer token and loading the user")
+                        .tag("outcome", outcome)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
             }
         }
         
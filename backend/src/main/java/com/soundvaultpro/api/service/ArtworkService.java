@@ -0,0 +1,235 @@
+package com.soundvaultpro.api.service;
+
+import com.soundvaultpro.api.metadata.EmbeddedPicture;
+import com.soundvaultpro.api.metadata.RangeSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Pattern;
+
+/**
+ * Cover art thumbnails. Embedded pictures are read once, while the tags are parsed, and
+ * scaled to a few fixed sizes. Thumbnails are stored under the SHA-256 of the original image,
+ * so the same cover shared by a whole album is decoded and stored once and can be served
+ * with immutable cache headers.
+ */
+@Service
+@Slf4j
+public class ArtworkService {
+
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private final Path root;
+    private final int[] sizes;
+    private final int maxSourceSize;
+    // Decoding full-size covers is memory hungry; bound how many run at once
+    private final Semaphore decodePermits;
+    private final Counter generated;
+    private final Counter reused;
+
+    public ArtworkService(MeterRegistry meterRegistry,
+                          @Value("${storage.root:./data}") String storageRoot,
+                          @Value("${artwork.sizes:64,256,512}") int[] sizes,
+                          @Value("${artwork.max-source-size:8388608}") int maxSourceSize,
+                          @Value("${artwork.max-concurrent-decodes:4}") int maxConcurrentDecodes) throws IOException {
+        this.root = Paths.get(storageRoot, "artwork").toAbsolutePath().normalize();
+        this.sizes = Arrays.stream(sizes).sorted().toArray();
+        this.maxSourceSize = maxSourceSize;
+        this.decodePermits = new Semaphore(maxConcurrentDecodes);
+        this.generated = Counter.builder("artwork.thumbnails").tag("result", "generated").register(meterRegistry);
+        this.reused = Counter.builder("artwork.thumbnails").tag("result", "reused").register(meterRegistry);
+        Files.createDirectories(root);
+    }
+
+    /**
+     * Read an embedded picture and make sure its thumbnails exist
+     *
+     * @return Hash identifying the thumbnails, or null if the picture is too large or not a
+     *         format ImageIO can decode
+     */
+    public String extract(RangeSource source, EmbeddedPicture picture) throws IOException, InterruptedException {
+        if (picture.getLength() <= 0 || picture.getLength() > maxSourceSize) {
+            return null;
+        }
+        byte[] image = source.read(picture.getOffset(), picture.getLength());
+        if (image.length != picture.getLength()) {
+            throw new IOException("Embedded picture is truncated");
+        }
+        String hash = sha256(image);
+        if (isStored(hash)) {
+            reused.increment();
+            return hash;
+        }
+
+        decodePermits.acquire();
+        try {
+            BufferedImage decoded = decode(image, sizes[sizes.length - 1]);
+            if (decoded == null) {
+                return null;
+            }
+            Path dir = directory(hash);
+            Files.createDirectories(dir);
+            for (int size : sizes) {
+                write(scale(decoded, size), dir.resolve(size + ".jpg"));
+            }
+        } finally {
+            decodePermits.release();
+        }
+        generated.increment();
+        return hash;
+    }
+
+    /**
+     * @param size Requested edge length; the smallest stored size at least this large is used
+     * @return The thumbnail file
+     * @throws NoSuchElementException if no artwork is stored under the hash
+     */
+    public Path thumbnail(String hash, int size) {
+        String normalized = hash != null ? hash.toLowerCase(Locale.ROOT) : "";
+        if (!SHA256_HEX.matcher(normalized).matches()) {
+            throw new IllegalArgumentException("Invalid artwork hash: " + hash);
+        }
+        Path file = directory(normalized).resolve(sizeFor(size) + ".jpg");
+        if (!Files.exists(file)) {
+            throw new NoSuchElementException("Artwork not found");
+        }
+        return file;
+    }
+
+    public int sizeFor(int requested) {
+        for (int size : sizes) {
+            if (size >= requested) {
+                return size;
+            }
+        }
+        return sizes[sizes.length - 1];
+    }
+
+    private boolean isStored(String hash) {
+        Path dir = directory(hash);
+        for (int size : sizes) {
+            if (!Files.exists(dir.resolve(size + ".jpg"))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Path directory(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    /**
+     * Decode an image, subsampling while reading when it is far larger than the biggest
+     * thumbnail so a 3000px cover never has to be held at full resolution
+     */
+    private static BufferedImage decode(byte[] image, int largest) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(image))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int shortEdge = Math.min(reader.getWidth(0), reader.getHeight(0));
+                // Keep at least twice the target resolution for the final smooth scale
+                int step = Math.max(1, shortEdge / (largest * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Fit an image within size x size, halving repeatedly for quality, never enlarging it
+     */
+    private static BufferedImage scale(BufferedImage source, int size) {
+        double ratio = Math.min(1.0, (double) size / Math.max(source.getWidth(), source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                // JPEG has no alpha; flatten transparent PNG covers onto white
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, width, height);
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private static void write(BufferedImage image, Path file) throws IOException {
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+                writer.setOutput(output);
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            // Same hash means same content, so a concurrent writer of the same cover is harmless
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.soundvaultpro.api.service;
+
+import com.soundvaultpro.api.dto.BootstrapDto;
+import com.soundvaultpro.api.dto.KeyPairDto;
+import com.soundvaultpro.api.dto.PlaylistDto;
+import com.soundvaultpro.api.dto.UserDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Resolves everything the frontend needs on app load in one round trip.
+ * The profile, playlists and keys are independent Supabase reads, so they run
+ * concurrently and the response waits only for the slowest of them.
+ */
+@Service
+@Slf4j
+public class BootstrapService {
+
+    private final UserService userService;
+    private final PlaylistService playlistService;
+    private final ThreadPoolTaskExecutor upstreamExecutor;
+    private final long timeoutMs;
+
+    public BootstrapService(UserService userService,
+                            PlaylistService playlistService,
+                            @Qualifier("upstreamExecutor") ThreadPoolTaskExecutor upstreamExecutor,
+                            @Value("${bootstrap.timeout-ms:5000}") long timeoutMs) {
+        this.userService = userService;
+        this.playlistService = playlistService;
+        this.upstreamExecutor = upstreamExecutor;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Load profile, playlists and key material for a user in parallel
+     *
+     * @param supabaseId The user to bootstrap
+     * @return The combined payload; sections that failed are null and listed in errors
+     */
+    public BootstrapDto bootstrap(String supabaseId) {
+        CompletableFuture<UserDto> user = supplyAsync(() -> userService.findBySupabaseId(supabaseId));
+        CompletableFuture<List<PlaylistDto>> playlists = supplyAsync(() -> playlistService.getPlaylistsByUser(supabaseId));
+        CompletableFuture<KeyPairDto> keys = supplyAsync(() -> userService.findKeyPair(supabaseId));
+
+        // All three share one deadline rather than each getting the full timeout
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        Map<String, String> errors = new LinkedHashMap<>();
+
+        return BootstrapDto.builder()
+                .user(await("user", user, deadline, errors))
+                .playlists(await("playlists", playlists, deadline, errors))
+                .keys(await("keys", keys, deadline, errors))
+                .errors(errors.isEmpty() ? null : errors)
+                .build();
+    }
+
+    private <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        return CompletableFuture.supplyAsync(supplier, upstreamExecutor);
+    }
+
+    private <T> T await(String section, CompletableFuture<T> future, long deadline, Map<String, String> errors) {
+        try {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            return future.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            errors.put(section, "Timed out");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.error("Error loading bootstrap {}: {}", section, cause.getMessage());
+            errors.put(section, cause.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errors.put(section, "Interrupted");
+        }
+        return null;
+    }
+}
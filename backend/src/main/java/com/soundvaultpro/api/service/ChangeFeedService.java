@@ -0,0 +1,295 @@
+package com.soundvaultpro.api.service;
+
+import com.soundvaultpro.api.dto.ChangeEventDto;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user Server-Sent Events feed for playlist and profile changes.
+ *
+ * Emitters are held as async servlet responses, so an idle subscriber costs a socket
+ * and a few objects rather than a thread. A single scheduler keeps connections alive
+ * and a small pool fans events out, so slow clients never block the writing request.
+ *
+ * Each subscriber has its own queue, drained by at most one pool task at a time, so a
+ * feed receives its events in the order they were published; a subscriber that falls
+ * more than {@code events.replay-buffer-size} events behind is closed and resumes with
+ * Last-Event-ID like any other reconnect.
+ */
+@Service
+@Slf4j
+public class ChangeFeedService {
+
+    public static final String PLAYLIST_CREATED = "playlist.created";
+    public static final String PLAYLIST_UPDATED = "playlist.updated";
+    public static final String PLAYLIST_DELETED = "playlist.deleted";
+    public static final String PROFILE_UPDATED = "profile.updated";
+    public static final String LIBRARY_UPDATED = "library.updated";
+    public static final String QUEUE_UPDATED = "queue.updated";
+    public static final String RESYNC = "resync";
+
+    private final Map<String, UserFeed> feeds = new ConcurrentHashMap<>();
+
+    // Seeded from the clock so ids keep increasing across restarts
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    private final ScheduledExecutorService heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "change-feed-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Events a subscriber is sent per dispatch task before it yields the thread to other feeds
+    private static final int DRAIN_BATCH = 32;
+
+    private final ExecutorService dispatcher = Executors.newFixedThreadPool(2, r -> {
+        Thread thread = new Thread(r, "change-feed-dispatch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final long emitterTimeoutMs;
+    private final int replayBufferSize;
+
+    public ChangeFeedService(
+            MeterRegistry meterRegistry,
+            @Value("${events.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+            @Value("${events.heartbeat-interval-ms:25000}") long heartbeatIntervalMs,
+            @Value("${events.replay-buffer-size:256}") int replayBufferSize) {
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.replayBufferSize = replayBufferSize;
+        heartbeatScheduler.scheduleAtFixedRate(this::heartbeat, heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+        Gauge.builder("events.subscribers", this, ChangeFeedService::getSubscriberCount)
+                .description("Open change feed connections")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a feed for a user, replaying buffered events newer than lastEventId
+     *
+     * @param supabaseId The user to subscribe to
+     * @param lastEventId The last event id seen by the client, or null for a fresh subscription
+     * @return The emitter backing the SSE response
+     */
+    public SseEmitter subscribe(String supabaseId, Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        UserFeed feed = feeds.computeIfAbsent(supabaseId, id -> new UserFeed(sequence.get()));
+        Subscriber subscriber = new Subscriber(feed, emitter);
+
+        emitter.onCompletion(() -> feed.subscribers.remove(subscriber));
+        emitter.onTimeout(() -> feed.subscribers.remove(subscriber));
+        emitter.onError(e -> feed.subscribers.remove(subscriber));
+
+        // Register and queue the replay under the feed lock, so no event is missed or sent twice
+        // and live events follow the replayed ones
+        synchronized (feed) {
+            feed.subscribers.add(subscriber);
+            if (lastEventId != null) {
+                List<ChangeEventDto> missed = feed.eventsAfter(lastEventId);
+                if (missed == null) {
+                    // The client is further behind than the buffer; it has to refetch
+                    subscriber.enqueue(ChangeEventDto.builder()
+                            .id(sequence.get())
+                            .type(RESYNC)
+                            .userId(supabaseId)
+                            .timestamp(LocalDateTime.now())
+                            .build());
+                } else {
+                    for (ChangeEventDto event : missed) {
+                        subscriber.enqueue(event);
+                    }
+                }
+            }
+        }
+
+        log.debug("Change feed subscriber added for {} ({} open)", supabaseId, feed.subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Publish a change event to every open feed of a user
+     */
+    public void publish(String supabaseId, String type, String entityId, Object data) {
+        UserFeed feed = feeds.computeIfAbsent(supabaseId, id -> new UserFeed(sequence.get()));
+        // Numbered and queued under the feed lock, so ids and delivery follow publish order
+        synchronized (feed) {
+            ChangeEventDto event = ChangeEventDto.builder()
+                    .id(sequence.incrementAndGet())
+                    .type(type)
+                    .userId(supabaseId)
+                    .entityId(entityId)
+                    .data(data)
+                    .timestamp(LocalDateTime.now())
+                    .build();
+            feed.append(event, replayBufferSize);
+            for (Subscriber subscriber : feed.subscribers) {
+                subscriber.enqueue(event);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        int count = 0;
+        for (UserFeed feed : feeds.values()) {
+            count += feed.subscribers.size();
+        }
+        return count;
+    }
+
+    private void heartbeat() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<String, UserFeed>> it = feeds.entrySet().iterator();
+        while (it.hasNext()) {
+            UserFeed feed = it.next().getValue();
+            if (feed.subscribers.isEmpty()) {
+                // Keep the replay buffer around only as long as a client could still reconnect to it
+                if (now - feed.lastActivity > emitterTimeoutMs) {
+                    it.remove();
+                }
+                continue;
+            }
+            feed.lastActivity = now;
+            for (Subscriber subscriber : feed.subscribers) {
+                try {
+                    subscriber.emitter.send(SseEmitter.event().comment("keep-alive"));
+                } catch (IOException | IllegalStateException e) {
+                    subscriber.close(e);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeatScheduler.shutdownNow();
+        dispatcher.shutdownNow();
+        for (UserFeed feed : feeds.values()) {
+            for (Subscriber subscriber : feed.subscribers) {
+                subscriber.emitter.complete();
+            }
+        }
+    }
+
+    /**
+     * One open feed connection and the events queued for it, sent in order by one task at a time
+     */
+    private final class Subscriber {
+        private final UserFeed feed;
+        private final SseEmitter emitter;
+        private final ArrayDeque<ChangeEventDto> pending = new ArrayDeque<>();
+        private boolean draining;
+
+        Subscriber(UserFeed feed, SseEmitter emitter) {
+            this.feed = feed;
+            this.emitter = emitter;
+        }
+
+        void enqueue(ChangeEventDto event) {
+            synchronized (this) {
+                if (pending.size() >= replayBufferSize) {
+                    // Too slow to keep up; reconnecting replays or resyncs from where it got to
+                    pending.clear();
+                    feed.subscribers.remove(this);
+                    emitter.complete();
+                    return;
+                }
+                pending.addLast(event);
+                if (draining) {
+                    return;
+                }
+                draining = true;
+            }
+            dispatcher.execute(this::drain);
+        }
+
+        private void drain() {
+            for (int sent = 0; sent < DRAIN_BATCH; sent++) {
+                ChangeEventDto event;
+                synchronized (this) {
+                    event = pending.pollFirst();
+                    if (event == null) {
+                        draining = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(event.getId()))
+                            .name(event.getType())
+                            .data(event, MediaType.APPLICATION_JSON));
+                } catch (IOException | IllegalStateException e) {
+                    close(e);
+                    return;
+                }
+            }
+            // More to send: go to the back of the pool's queue rather than hold a thread
+            dispatcher.execute(this::drain);
+        }
+
+        void close(Throwable cause) {
+            synchronized (this) {
+                pending.clear();
+            }
+            feed.subscribers.remove(this);
+            emitter.completeWithError(cause);
+        }
+    }
+
+    private static class UserFeed {
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private final ArrayDeque<ChangeEventDto> recent = new ArrayDeque<>();
+        private volatile long lastActivity = System.currentTimeMillis();
+
+        // Highest event id this feed can no longer replay
+        private long floor;
+
+        UserFeed(long floor) {
+            this.floor = floor;
+        }
+
+        synchronized void append(ChangeEventDto event, int capacity) {
+            if (recent.size() >= capacity) {
+                floor = recent.pollFirst().getId();
+            }
+            recent.addLast(event);
+            lastActivity = System.currentTimeMillis();
+        }
+
+        /**
+         * @return Events newer than the given id, or null if the buffer no longer reaches back that far
+         */
+        synchronized List<ChangeEventDto> eventsAfter(long lastEventId) {
+            if (lastEventId < floor) {
+                return null;
+            }
+            List<ChangeEventDto> result = new ArrayList<>();
+            for (ChangeEventDto event : recent) {
+                if (event.getId() > lastEventId) {
+                    result.add(event);
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -1,7 +1,10 @@
 package com.soundvaultpro.api.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soundvaultpro.api.resilience.StaleCache;
+import com.soundvaultpro.api.resilience.UpstreamGuard;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,8 +18,12 @@ import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
 
 @Service
 @RequiredArgsConstructor
@@ -25,6 +32,8 @@ public class GeniusService {
     
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final TypeaheadService typeaheadService;
+    private final UpstreamGuard upstreamGuard;
     
     @Value("${genius.api.url:https://api.genius.com}")
     private String geniusApiUrl;
@@ -32,13 +41,24 @@ public class GeniusService {
     @Value("${genius.access.token:p38MQWLSReGkHxRoaKh6LKbqYVUWplF5DU5O_xMZLjUyMfBC8jAC7F7h31QUqp8u}")
     private String geniusAccessToken;
     
+    @Value("${typeahead.min-local-results:5}")
+    private int minLocalResults;
+    
+    @Value("${typeahead.min-remote-query-length:3}")
+    private int minRemoteQueryLength;
+    
     /**
      * Search for songs on Genius by title and artist
      * 
      * @param query The search query (title and optionally artist)
-     * @return List of search results
+     * @return List of search results, or the previous results for the query while Genius is failing
      */
     public List<Map<String, Object>> searchSongs(String query) {
+        StaleCache<String, List<Map<String, Object>>> stale = upstreamGuard.staleCache("genius.search");
+        return stale.get(query.trim().toLowerCase(Locale.ROOT), () -> fetchSearch(query));
+    }
+    
+    private List<Map<String, Object>> fetchSearch(String query) {
         log.info("Searching for song with query: {}", query);
         
         HttpHeaders headers = new HttpHeaders();
@@ -46,36 +66,21 @@ public class GeniusService {
         
         UriComponentsBuilder uriBuilder = UriComponentsBuilder
             .fromHttpUrl(geniusApiUrl + "/search")
-            .queryParam("q", query);
+            // A URI variable, so '&', '+' and the like are encoded as part of the value
+            .queryParam("q", "{q}");
             
         HttpEntity<?> entity = new HttpEntity<>(headers);
         
         try {
             ResponseEntity<String> response = restTemplate.exchange(
-                uriBuilder.toUriString(),
+                uriBuilder.encode().buildAndExpand(query).toUri(),
                 HttpMethod.GET,
                 entity,
                 String.class
             );
             
-            JsonNode rootNode = objectMapper.readTree(response.getBody());
-            JsonNode hitsNode = rootNode.path("response").path("hits");
-            
-            List<Map<String, Object>> results = new ArrayList<>();
-            
-            for (JsonNode hit : hitsNode) {
-                JsonNode result = hit.path("result");
-                
-                Map<String, Object> songData = new HashMap<>();
-                songData.put("id", result.path("id").asInt());
-                songData.put("title", result.path("title").asText());
-                songData.put("artist", result.path("primary_artist").path("name").asText());
-                songData.put("imageUrl", result.path("song_art_image_url").asText());
-                songData.put("lyricsUrl", result.path("url").asText());
-                
-                results.add(songData);
-            }
-            
+            List<Map<String, Object>> results = parseSearchResults(response.getBody());
+            typeaheadService.addAll(results);
             return results;
         } catch (Exception e) {
             log.error("Error searching Genius API: {}", e.getMessage(), e);
@@ -83,13 +88,90 @@ public class GeniusService {
         }
     }
     
+    /**
+     * Suggestions for a partly typed query, answered from the local index when it has enough
+     * matches and from Genius otherwise
+     * 
+     * @param query What the user has typed so far
+     * @param limit Maximum number of suggestions
+     * @param remoteAllowed Asked only before searching Genius; false answers with the local matches
+     * @return Search results, local matches first
+     */
+    public List<Map<String, Object>> typeahead(String query, int limit, BooleanSupplier remoteAllowed) {
+        if (limit < 1 || limit > 50) {
+            throw new IllegalArgumentException("Limit must be between 1 and 50");
+        }
+        List<Map<String, Object>> local = typeaheadService.lookup(query, limit);
+        if (local.size() >= Math.min(limit, minLocalResults) || query.trim().length() < minRemoteQueryLength
+                || !remoteAllowed.getAsBoolean()) {
+            typeaheadService.recordServed(false);
+            return local;
+        }
+        
+        List<Map<String, Object>> remote;
+        try {
+            remote = searchSongs(query);
+        } catch (RuntimeException e) {
+            // Whatever we have locally beats an error while typing
+            typeaheadService.recordServed(false);
+            return local;
+        }
+        typeaheadService.recordServed(true);
+        
+        List<Map<String, Object>> merged = new ArrayList<>(local);
+        Set<Object> seen = new HashSet<>();
+        local.forEach(song -> seen.add(song.get("id")));
+        for (Map<String, Object> song : remote) {
+            if (merged.size() >= limit) {
+                break;
+            }
+            if (seen.add(song.get("id"))) {
+                merged.add(song);
+            }
+        }
+        return merged;
+    }
+    
+    /**
+     * Map a Genius search response body to the search result shape returned to clients
+     * 
+     * @param body The raw Genius /search response
+     * @return List of search results
+     */
+    public List<Map<String, Object>> parseSearchResults(String body) throws JsonProcessingException {
+        JsonNode rootNode = objectMapper.readTree(body);
+        JsonNode hitsNode = rootNode.path("response").path("hits");
+        
+        List<Map<String, Object>> results = new ArrayList<>();
+        
+        for (JsonNode hit : hitsNode) {
+            JsonNode result = hit.path("result");
+            
+            Map<String, Object> songData = new HashMap<>();
+            songData.put("id", result.path("id").asInt());
+            songData.put("title", result.path("title").asText());
+            songData.put("artist", result.path("primary_artist").path("name").asText());
+            songData.put("imageUrl", result.path("song_art_image_url").asText());
+            songData.put("lyricsUrl", result.path("url").asText());
+            
+            results.add(songData);
+        }
+        
+        return results;
+    }
+    
     /**
      * Get song details by Genius song ID
      * 
      * @param songId The Genius song ID
-     * @return Song details
+     * @return Song details, or the previous details while Genius is failing
      */
     public Map<String, Object> getSongDetails(int songId) {
+        StaleCache<Integer, Map<String, Object>> stale = upstreamGuard.staleCache("genius.songs");
+        return stale.get(songId, () -> fetchSongDetails(songId));
+    }
+    
+    private Map<String, Object> fetchSongDetails(int songId) {
         log.info("Getting song details for ID: {}", songId);
         
         HttpHeaders headers = new HttpHeaders();
@@ -122,6 +204,7 @@ public class GeniusService {
                 songDetails.put("lyricsState", songNode.path("lyrics_state").asText());
             }
             
+            typeaheadService.add(songDetails);
             return songDetails;
         } catch (Exception e) {
             log.error("Error getting song details from Genius API: {}", e.getMessage(), e);
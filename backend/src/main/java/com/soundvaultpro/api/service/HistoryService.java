@@ -0,0 +1,464 @@
+package com.soundvaultpro.api.service;
+
+import com.soundvaultpro.api.dto.HistoryStatsDto;
+import com.soundvaultpro.api.dto.PlayCountDto;
+import com.soundvaultpro.api.dto.PlayEventDto;
+import com.soundvaultpro.api.history.HistoryLog;
+import com.soundvaultpro.api.history.PlayRecord;
+import com.soundvaultpro.api.history.UserPlayStats;
+import com.soundvaultpro.api.util.LongCounterMap;
+import com.soundvaultpro.api.util.StringIds;
+import com.soundvaultpro.api.util.TopK;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+/**
+ * Listening history. Play events are appended to a local segment log with group commit and
+ * folded into per-user counters as they are committed, so ingesting is a sequential write and
+ * stats are answered from the counters without reading the log. Every
+ * {@code history.checkpoint-interval-seconds}, and on shutdown, the counters are written to a
+ * checkpoint together with the log position they include; startup loads the checkpoint and
+ * replays only the log after it, or the whole log if there is no usable checkpoint.
+ */
+@Service
+@Slf4j
+public class HistoryService {
+
+    public static final Map<String, Integer> PERIOD_DAYS = Map.of("day", 1, "week", 7, "month", 30);
+    public static final String ALL_TIME = "all";
+
+    private static final Pattern SAFE_ID = Pattern.compile("[A-Za-z0-9_-]{1,128}");
+    private static final int MAX_FIELD_LENGTH = 512;
+    // Longest period plus a day of slack for clients in other time zones
+    private static final int DAILY_RETENTION_DAYS = 31;
+    private static final int CHECKPOINT_MAGIC = 0x53564831; // "SVH1"
+    private static final int CHECKPOINT_VERSION = 1;
+
+    private final Map<String, UserPlayStats> stats = new ConcurrentHashMap<>();
+    private final StringIds trackIds = new StringIds();
+    private final StringIds artistIds = new StringIds();
+    // Latest title and artist seen per track id, for display
+    private final Map<Integer, String> trackTitles = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> trackArtists = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "history-maintenance");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Held while committed records are applied, so a checkpoint sees them and their position together
+    private final Object applyLock = new Object();
+    private HistoryLog.Position applied;
+    private HistoryLog.Position checkpointed;
+
+    private final HistoryLog historyLog;
+    private final Path checkpointFile;
+    private final long checkpointIntervalSeconds;
+    private final int maxBatchSize;
+    private final long commitTimeoutMs;
+    private final Counter eventsIngested;
+    private final Timer commitTimer;
+
+    public HistoryService(MeterRegistry meterRegistry,
+                          @Value("${storage.root:./data}") String storageRoot,
+                          @Value("${history.segment-size:67108864}") long segmentSize,
+                          @Value("${history.queue-capacity:4096}") int queueCapacity,
+                          @Value("${history.max-batch-size:1000}") int maxBatchSize,
+                          @Value("${history.commit-timeout-ms:5000}") long commitTimeoutMs,
+                          @Value("${history.checkpoint-interval-seconds:300}") long checkpointIntervalSeconds) {
+        this.maxBatchSize = maxBatchSize;
+        this.commitTimeoutMs = commitTimeoutMs;
+        this.checkpointIntervalSeconds = checkpointIntervalSeconds;
+        Path dir = Paths.get(storageRoot, "history").toAbsolutePath().normalize();
+        this.checkpointFile = dir.resolve("checkpoint.bin");
+        this.historyLog = new HistoryLog(dir, segmentSize, queueCapacity, 256, (records, end) -> {
+            synchronized (applyLock) {
+                records.forEach(this::apply);
+                applied = end;
+            }
+        });
+        this.eventsIngested = Counter.builder("history.events").register(meterRegistry);
+        this.commitTimer = Timer.builder("history.commit")
+                .description("Time from receiving a batch of plays until it is on disk")
+                .register(meterRegistry);
+        Gauge.builder("history.queue", historyLog, HistoryLog::getQueueSize)
+                .description("Play batches waiting for the next group commit")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        long started = System.nanoTime();
+        HistoryLog.Position from = loadCheckpoint();
+        long[] count = new long[1];
+        HistoryLog.Position end = historyLog.open(from, record -> {
+            apply(record);
+            count[0]++;
+        });
+        synchronized (applyLock) {
+            applied = end;
+            checkpointed = count[0] == 0 && from != null ? end : null;
+        }
+        pruneDaily();
+        maintenance.scheduleAtFixedRate(this::pruneDaily, 1, 1, TimeUnit.HOURS);
+        maintenance.scheduleWithFixedDelay(this::checkpoint, checkpointIntervalSeconds, checkpointIntervalSeconds,
+                TimeUnit.SECONDS);
+        log.info("Replayed {} plays {} for {} users in {}ms", count[0],
+                from != null ? "after the checkpoint" : "from the start", stats.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        maintenance.shutdownNow();
+        historyLog.close();
+        checkpoint();
+    }
+
+    /**
+     * Durably record a batch of plays
+     *
+     * @return Number of events recorded
+     * @throws java.util.concurrent.RejectedExecutionException if the log is saturated
+     */
+    public int record(String supabaseId, List<PlayEventDto> events) throws IOException, InterruptedException {
+        checkId(supabaseId);
+        if (events == null || events.isEmpty()) {
+            throw new IllegalArgumentException("Events are required");
+        }
+        if (events.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch size exceeds maximum of " + maxBatchSize);
+        }
+        Instant now = Instant.now();
+        List<PlayRecord> records = new ArrayList<>(events.size());
+        for (PlayEventDto event : events) {
+            Instant playedAt = event.getPlayedAt() != null ? event.getPlayedAt() : now;
+            if (playedAt.isAfter(now.plus(Duration.ofDays(1))) || playedAt.getEpochSecond() < 0) {
+                throw new IllegalArgumentException("Play time is out of range: " + playedAt);
+            }
+            records.add(new PlayRecord(supabaseId,
+                    checkField(event.getTrackId(), "Track id", true),
+                    checkField(event.getTitle(), "Title", false),
+                    checkField(event.getArtist(), "Artist", false),
+                    playedAt.toEpochMilli(),
+                    Math.max(0, event.getListenedMs())));
+        }
+
+        long started = System.nanoTime();
+        try {
+            historyLog.append(records).get(commitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new IOException("Plays could not be written: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new IOException("Plays were not confirmed in time; they may still be recorded");
+        }
+        commitTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        eventsIngested.increment(records.size());
+        return records.size();
+    }
+
+    /**
+     * @param period day, week, month or all
+     * @param limit Number of top tracks and artists to return
+     */
+    public HistoryStatsDto getStats(String supabaseId, String period, int limit) {
+        checkId(supabaseId);
+        if (limit < 1 || limit > 100) {
+            throw new IllegalArgumentException("Limit must be between 1 and 100");
+        }
+        long fromDay;
+        if (ALL_TIME.equals(period)) {
+            fromDay = Long.MIN_VALUE;
+        } else if (PERIOD_DAYS.containsKey(period)) {
+            fromDay = LocalDate.now(ZoneOffset.UTC).toEpochDay() - PERIOD_DAYS.get(period) + 1;
+        } else {
+            throw new IllegalArgumentException("Period must be one of day, week, month, all");
+        }
+
+        HistoryStatsDto.HistoryStatsDtoBuilder result = HistoryStatsDto.builder().period(period);
+        UserPlayStats user = stats.get(supabaseId);
+        if (user == null) {
+            return result.topTracks(List.of()).topArtists(List.of()).build();
+        }
+        long[][] topTracks;
+        long[][] topArtists;
+        long[] totals;
+        synchronized (user) {
+            topTracks = TopK.of(user.trackCounts(fromDay), limit).drainDescending();
+            topArtists = TopK.of(user.artistCounts(fromDay), limit).drainDescending();
+            totals = user.totals(fromDay);
+        }
+
+        List<PlayCountDto> tracks = new ArrayList<>(topTracks[0].length);
+        for (int i = 0; i < topTracks[0].length; i++) {
+            int id = (int) topTracks[0][i];
+            Integer artist = trackArtists.get(id);
+            tracks.add(PlayCountDto.builder()
+                    .key(trackIds.valueOf(id))
+                    .title(trackTitles.get(id))
+                    .artist(artist != null ? artistIds.valueOf(artist) : null)
+                    .plays(topTracks[1][i])
+                    .build());
+        }
+        List<PlayCountDto> artists = new ArrayList<>(topArtists[0].length);
+        for (int i = 0; i < topArtists[0].length; i++) {
+            String name = artistIds.valueOf((int) topArtists[0][i]);
+            artists.add(PlayCountDto.builder().key(name).artist(name).plays(topArtists[1][i]).build());
+        }
+        return result.plays(totals[0]).listenedMs(totals[1]).topTracks(tracks).topArtists(artists).build();
+    }
+
+    /**
+     * Users with the most plays today (UTC), e.g. to warm their caches after a restart
+     *
+     * @return Up to limit user ids, most plays first
+     */
+    public List<String> activeUsers(int limit) {
+        if (limit < 1) {
+            return List.of();
+        }
+        long today = LocalDate.now(ZoneOffset.UTC).toEpochDay();
+        List<String> users = new ArrayList<>(stats.keySet());
+        TopK top = new TopK(limit);
+        for (int i = 0; i < users.size(); i++) {
+            UserPlayStats user = stats.get(users.get(i));
+            if (user == null) {
+                continue;
+            }
+            long plays;
+            synchronized (user) {
+                plays = user.totals(today)[0];
+            }
+            if (plays > 0) {
+                top.offer(i, plays);
+            }
+        }
+        long[] keys = top.drainDescending()[0];
+        List<String> result = new ArrayList<>(keys.length);
+        for (long key : keys) {
+            result.add(users.get((int) key));
+        }
+        return result;
+    }
+
+    private void apply(PlayRecord record) {
+        int trackId = trackIds.idOf(record.getTrackId());
+        int artistId = record.getArtist() != null ? artistIds.idOf(record.getArtist()) : -1;
+        if (record.getTitle() != null) {
+            trackTitles.put(trackId, record.getTitle());
+        }
+        if (artistId >= 0) {
+            trackArtists.put(trackId, artistId);
+        }
+        long epochDay = Math.floorDiv(record.getPlayedAt(), 86_400_000L);
+        UserPlayStats user = stats.computeIfAbsent(record.getSupabaseId(), id -> new UserPlayStats());
+        synchronized (user) {
+            user.add(epochDay, trackId, artistId, record.getListenedMs());
+        }
+    }
+
+    /**
+     * Write the counters and the log position they include, unless nothing was committed since
+     * the last checkpoint. The counters are serialized under the apply lock, so commits wait for
+     * that but not for the file to be written.
+     */
+    private synchronized void checkpoint() {
+        byte[] data;
+        HistoryLog.Position position;
+        synchronized (applyLock) {
+            if (applied == null || applied == checkpointed) {
+                return;
+            }
+            position = applied;
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(buffer)) {
+                writeCheckpoint(out, position);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            data = buffer.toByteArray();
+        }
+        Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try {
+            Files.write(temp, data);
+            Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            synchronized (applyLock) {
+                checkpointed = position;
+            }
+        } catch (IOException e) {
+            log.error("Error writing history checkpoint: {}", e.getMessage());
+        }
+    }
+
+    private void writeCheckpoint(DataOutputStream out, HistoryLog.Position position) throws IOException {
+        out.writeInt(CHECKPOINT_MAGIC);
+        out.writeInt(CHECKPOINT_VERSION);
+        out.writeInt(position.getSegment());
+        out.writeLong(position.getOffset());
+        writeIds(out, trackIds);
+        writeIds(out, artistIds);
+        out.writeInt(trackTitles.size());
+        for (Map.Entry<Integer, String> entry : trackTitles.entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeUTF(entry.getValue());
+        }
+        out.writeInt(trackArtists.size());
+        for (Map.Entry<Integer, Integer> entry : trackArtists.entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeInt(entry.getValue());
+        }
+        out.writeInt(stats.size());
+        for (Map.Entry<String, UserPlayStats> entry : stats.entrySet()) {
+            out.writeUTF(entry.getKey());
+            synchronized (entry.getValue()) {
+                entry.getValue().write(out);
+            }
+        }
+    }
+
+    private static void writeIds(DataOutputStream out, StringIds ids) throws IOException {
+        int size = ids.size();
+        out.writeInt(size);
+        for (int id = 0; id < size; id++) {
+            out.writeUTF(ids.valueOf(id));
+        }
+    }
+
+    /**
+     * Fill the counters from the checkpoint if there is one the log still reaches
+     *
+     * @return The position to replay the log from, or null to replay all of it
+     */
+    private HistoryLog.Position loadCheckpoint() throws IOException {
+        Files.createDirectories(checkpointFile.getParent());
+        Checkpoint checkpoint;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(checkpointFile), 1 << 16))) {
+            checkpoint = Checkpoint.read(in);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.error("History checkpoint {} could not be loaded, replaying the whole log: {}", checkpointFile, e.getMessage());
+            return null;
+        }
+        if (!historyLog.contains(checkpoint.position)) {
+            log.warn("History log does not reach the checkpoint at {}, replaying the whole log", checkpoint.position);
+            return null;
+        }
+        // Fresh ids are assigned in order, so they come out as they were written
+        checkpoint.trackIds.forEach(trackIds::idOf);
+        checkpoint.artistIds.forEach(artistIds::idOf);
+        trackTitles.putAll(checkpoint.trackTitles);
+        trackArtists.putAll(checkpoint.trackArtists);
+        stats.putAll(checkpoint.stats);
+        return checkpoint.position;
+    }
+
+    private void pruneDaily() {
+        long cutoff = LocalDate.now(ZoneOffset.UTC).toEpochDay() - DAILY_RETENTION_DAYS;
+        for (UserPlayStats user : stats.values()) {
+            synchronized (user) {
+                user.pruneBefore(cutoff);
+            }
+        }
+    }
+
+    private static String checkField(String value, String name, boolean required) {
+        if (value == null || value.isBlank()) {
+            if (required) {
+                throw new IllegalArgumentException(name + " is required");
+            }
+            return null;
+        }
+        if (value.length() > MAX_FIELD_LENGTH) {
+            throw new IllegalArgumentException(name + " is longer than " + MAX_FIELD_LENGTH + " characters");
+        }
+        return value;
+    }
+
+    private static void checkId(String id) {
+        if (id == null || !SAFE_ID.matcher(id).matches()) {
+            throw new IllegalArgumentException("Invalid id: " + id);
+        }
+    }
+
+    /**
+     * A checkpoint read in full before any of it is used, so a damaged file leaves no partial counters
+     */
+    private static final class Checkpoint {
+        private HistoryLog.Position position;
+        private final List<String> trackIds = new ArrayList<>();
+        private final List<String> artistIds = new ArrayList<>();
+        private final Map<Integer, String> trackTitles = new HashMap<>();
+        private final Map<Integer, Integer> trackArtists = new HashMap<>();
+        private final Map<String, UserPlayStats> stats = new HashMap<>();
+
+        private static Checkpoint read(DataInputStream in) throws IOException {
+            if (in.readInt() != CHECKPOINT_MAGIC) {
+                throw new IOException("Not a history checkpoint");
+            }
+            int version = in.readInt();
+            if (version != CHECKPOINT_VERSION) {
+                throw new IOException("Unsupported history checkpoint version " + version);
+            }
+            Checkpoint checkpoint = new Checkpoint();
+            checkpoint.position = new HistoryLog.Position(in.readInt(), in.readLong());
+            readIds(in, checkpoint.trackIds);
+            readIds(in, checkpoint.artistIds);
+            int titles = in.readInt();
+            for (int i = 0; i < titles; i++) {
+                checkpoint.trackTitles.put(in.readInt(), in.readUTF());
+            }
+            int artists = in.readInt();
+            for (int i = 0; i < artists; i++) {
+                checkpoint.trackArtists.put(in.readInt(), in.readInt());
+            }
+            int users = in.readInt();
+            for (int i = 0; i < users; i++) {
+                checkpoint.stats.put(in.readUTF(), UserPlayStats.read(in));
+            }
+            return checkpoint;
+        }
+
+        private static void readIds(DataInputStream in, List<String> ids) throws IOException {
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                ids.add(in.readUTF());
+            }
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.soundvaultpro.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soundvaultpro.api.catalog.CatalogSnapshot;
+import com.soundvaultpro.api.catalog.CloudFileClient;
+import com.soundvaultpro.api.catalog.CloudFileEntry;
+import com.soundvaultpro.api.catalog.CloudListing;
+import com.soundvaultpro.api.catalog.CursorResetException;
+import com.soundvaultpro.api.catalog.LibraryCatalog;
+import com.soundvaultpro.api.dto.LibraryEntryDto;
+import com.soundvaultpro.api.dto.LibraryPageDto;
+import com.soundvaultpro.api.dto.LibrarySyncResultDto;
+import com.soundvaultpro.api.metadata.ParsedMetadata;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Per-user library catalog kept in sync with the user's cloud folder.
+ *
+ * The first sync lists the whole folder; later syncs continue from the stored cursor and apply
+ * only the changes since. Catalogs are persisted with their cursor, so a restart does not force
+ * a full re-listing. Reads are served from the in-memory index and never call the provider.
+ */
+@Service
+@Slf4j
+public class LibraryService {
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final Pattern SAFE_ID = Pattern.compile("[A-Za-z0-9_-]{1,128}");
+    private static final Pattern MUSIC_FILE = Pattern.compile(".*\\.(mp3|m4a|wav|ogg|flac|opus)$");
+
+    private final Map<String, LibraryCatalog> catalogs = new ConcurrentHashMap<>();
+
+    private final CloudFileClient cloudFileClient;
+    private final MetadataService metadataService;
+    private final ChangeFeedService changeFeedService;
+    private final ObjectMapper objectMapper;
+    private final Path root;
+    private final Timer syncTimer;
+    private final Counter deltaSyncs;
+    private final Counter fullSyncs;
+
+    public LibraryService(CloudFileClient cloudFileClient,
+                          MetadataService metadataService,
+                          ChangeFeedService changeFeedService,
+                          ObjectMapper objectMapper,
+                          MeterRegistry meterRegistry,
+                          @Value("${storage.root:./data}") String storageRoot) throws IOException {
+        this.cloudFileClient = cloudFileClient;
+        this.metadataService = metadataService;
+        this.changeFeedService = changeFeedService;
+        this.objectMapper = objectMapper;
+        this.root = Paths.get(storageRoot, "catalog").toAbsolutePath().normalize();
+        this.syncTimer = Timer.builder("library.sync").register(meterRegistry);
+        this.deltaSyncs = Counter.builder("library.syncs").tag("type", "delta").register(meterRegistry);
+        this.fullSyncs = Counter.builder("library.syncs").tag("type", "full").register(meterRegistry);
+        Files.createDirectories(root);
+    }
+
+    /**
+     * Bring a user's catalog up to date with their cloud folder
+     *
+     * @param supabaseId The user whose catalog to sync
+     * @param accessToken The user's cloud provider token
+     */
+    public LibrarySyncResultDto sync(String supabaseId, String accessToken) throws IOException {
+        if (accessToken == null || accessToken.isBlank()) {
+            throw new IllegalArgumentException("Access token is required");
+        }
+        LibraryCatalog catalog = catalog(supabaseId);
+        long started = System.nanoTime();
+        LibrarySyncResultDto result;
+
+        // One sync per user at a time; queries keep reading the previous view meanwhile
+        synchronized (catalog) {
+            long previousVersion = catalog.getVersion();
+            String cursor = catalog.getCursor();
+            boolean full = cursor == null;
+            int added = 0;
+            int updated = 0;
+            int removed = 0;
+
+            if (!full) {
+                try {
+                    CloudListing page;
+                    do {
+                        page = cloudFileClient.listContinue(accessToken, cursor);
+                        for (CloudFileEntry entry : page.getEntries()) {
+                            if (CloudFileEntry.DELETED.equals(entry.getTag())) {
+                                removed += catalog.remove(entry.getPathLower());
+                            } else if (isMusic(entry)) {
+                                if (catalog.put(toEntry(supabaseId, entry))) {
+                                    added++;
+                                } else {
+                                    updated++;
+                                }
+                            }
+                        }
+                        cursor = page.getCursor();
+                    } while (page.isHasMore());
+                    catalog.setCursor(cursor);
+                    if (added + updated + removed > 0) {
+                        catalog.publish();
+                    }
+                    deltaSyncs.increment();
+                } catch (CursorResetException e) {
+                    log.info("Library cursor for {} was reset, listing again", supabaseId);
+                    full = true;
+                }
+            }
+
+            if (full) {
+                int before = catalog.size();
+                List<LibraryEntryDto> entries = new ArrayList<>();
+                CloudListing page = cloudFileClient.list(accessToken);
+                while (true) {
+                    for (CloudFileEntry entry : page.getEntries()) {
+                        if (CloudFileEntry.FILE.equals(entry.getTag()) && isMusic(entry)) {
+                            entries.add(toEntry(supabaseId, entry));
+                        }
+                    }
+                    if (!page.isHasMore()) {
+                        break;
+                    }
+                    page = cloudFileClient.listContinue(accessToken, page.getCursor());
+                }
+                catalog.replaceAll(entries, page.getCursor());
+                added = entries.size();
+                removed = before;
+                fullSyncs.increment();
+            }
+
+            // Persist even when nothing changed, since the cursor has moved
+            persist(supabaseId, catalog);
+            result = LibrarySyncResultDto.builder()
+                    .added(added)
+                    .updated(updated)
+                    .removed(removed)
+                    .total(catalog.size())
+                    .fullResync(full)
+                    .version(catalog.getVersion())
+                    .durationMs((System.nanoTime() - started) / 1_000_000)
+                    .build();
+            if (catalog.getVersion() != previousVersion) {
+                changeFeedService.publish(supabaseId, ChangeFeedService.LIBRARY_UPDATED, null, result);
+            }
+        }
+        syncTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        log.debug("Synced library of {}: {}", supabaseId, result);
+        return result;
+    }
+
+    /**
+     * Get one page of a user's library from the local index
+     */
+    public LibraryPageDto query(String supabaseId, String query, String extension,
+                                String sort, boolean descending, int page, int size) {
+        if (!LibraryCatalog.SORT_FIELDS.contains(sort)) {
+            throw new IllegalArgumentException("Sort must be one of " + LibraryCatalog.SORT_FIELDS);
+        }
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page must be 0 or more and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        LibraryCatalog.Page result = catalog(supabaseId).query(query, extension, sort, descending, page, size);
+        return LibraryPageDto.builder()
+                .items(result.getItems())
+                .page(page)
+                .size(size)
+                .total(result.getTotal())
+                .version(result.getVersion())
+                .build();
+    }
+
+    private LibraryCatalog catalog(String supabaseId) {
+        checkId(supabaseId);
+        return catalogs.computeIfAbsent(supabaseId, this::load);
+    }
+
+    private LibraryCatalog load(String supabaseId) {
+        LibraryCatalog catalog = new LibraryCatalog();
+        Path file = root.resolve(supabaseId + ".json");
+        if (Files.exists(file)) {
+            try {
+                catalog.restore(objectMapper.readValue(file.toFile(), CatalogSnapshot.class));
+            } catch (IOException e) {
+                // A full listing on the next sync rebuilds it
+                log.error("Library catalog {} could not be loaded: {}", file, e.getMessage());
+            }
+        }
+        return catalog;
+    }
+
+    private void persist(String supabaseId, LibraryCatalog catalog) throws IOException {
+        Path file = root.resolve(supabaseId + ".json");
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        objectMapper.writeValue(temp.toFile(), catalog.snapshot());
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private LibraryEntryDto toEntry(String supabaseId, CloudFileEntry entry) {
+        String name = entry.getName();
+        int dot = name.lastIndexOf('.');
+        LibraryEntryDto.LibraryEntryDtoBuilder builder = LibraryEntryDto.builder()
+                .id(entry.getId())
+                .path(entry.getPathDisplay() != null ? entry.getPathDisplay() : entry.getPathLower())
+                .name(name)
+                .extension(dot >= 0 ? name.substring(dot + 1).toLowerCase(Locale.ROOT) : "")
+                .size(entry.getSize())
+                .modified(entry.getServerModified())
+                .contentHash(entry.getContentHash());
+
+        ParsedMetadata metadata = metadataService.getCached(supabaseId, entry.getContentHash());
+        if (metadata != null) {
+            builder.title(metadata.getTitle())
+                    .artist(metadata.getArtist())
+                    .album(metadata.getAlbum())
+                    .durationSeconds(metadata.getDurationSeconds())
+                    .artworkHash(metadata.getArtworkHash());
+        }
+        return builder.build();
+    }
+
+    private static boolean isMusic(CloudFileEntry entry) {
+        return CloudFileEntry.FILE.equals(entry.getTag())
+                && entry.getName() != null
+                && MUSIC_FILE.matcher(entry.getName().toLowerCase(Locale.ROOT)).matches();
+    }
+
+    private static void checkId(String id) {
+        if (id == null || !SAFE_ID.matcher(id).matches()) {
+            throw new IllegalArgumentException("Invalid id: " + id);
+        }
+    }
+}
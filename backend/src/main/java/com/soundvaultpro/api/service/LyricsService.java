@@ -2,6 +2,8 @@ package com.soundvaultpro.api.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soundvaultpro.api.resilience.StaleCache;
+import com.soundvaultpro.api.resilience.UpstreamGuard;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -10,9 +12,14 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.net.URI;
+import java.util.Locale;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -20,6 +27,7 @@ public class LyricsService {
 
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final UpstreamGuard upstreamGuard;
     
     @Value("${lyrics.api.key:dummy_key_for_development}")
     private String lyricsApiKey;
@@ -32,9 +40,14 @@ public class LyricsService {
      * 
      * @param trackName The name of the track
      * @param artist The artist name
-     * @return The lyrics if found, null otherwise
+     * @return The lyrics if found, null otherwise; the previous lyrics while Musixmatch is failing
      */
     public String searchLyrics(String trackName, String artist) {
+        StaleCache<String, String> stale = upstreamGuard.staleCache("musixmatch.lyrics");
+        return stale.get((trackName + "\n" + artist).toLowerCase(Locale.ROOT), () -> fetchLyrics(trackName, artist));
+    }
+    
+    private String fetchLyrics(String trackName, String artist) {
         try {
             // First search for the track to get the track ID
             String trackId = searchTrack(trackName, artist);
@@ -45,6 +58,9 @@ public class LyricsService {
             
             // Then get the lyrics using the track ID
             return getLyricsByTrackId(trackId);
+        } catch (ResourceAccessException | HttpServerErrorException e) {
+            // Musixmatch itself is failing, which is not the same as no lyrics
+            throw e;
         } catch (Exception e) {
             log.error("Error searching for lyrics: {}", e.getMessage(), e);
             return null;
@@ -60,12 +76,13 @@ public class LyricsService {
      */
     private String searchTrack(String trackName, String artist) {
         try {
-            String url = UriComponentsBuilder.fromHttpUrl(lyricsApiUrl + "/matcher.track.get")
-                    .queryParam("apikey", lyricsApiKey)
-                    .queryParam("q_track", trackName)
-                    .queryParam("q_artist", artist)
-                    .build()
-                    .toUriString();
+            URI url = UriComponentsBuilder.fromHttpUrl(lyricsApiUrl + "/matcher.track.get")
+                    .queryParam("apikey", "{apikey}")
+                    .queryParam("q_track", "{track}")
+                    .queryParam("q_artist", "{artist}")
+                    .encode()
+                    .buildAndExpand(lyricsApiKey, trackName, artist)
+                    .toUri();
             
             HttpHeaders headers = new HttpHeaders();
             HttpEntity<String> entity = new HttpEntity<>(headers);
@@ -86,6 +103,8 @@ public class LyricsService {
             }
             
             return body.path("track").path("track_id").asText();
+        } catch (ResourceAccessException | HttpServerErrorException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error searching for track: {}", e.getMessage(), e);
             return null;
@@ -100,11 +119,12 @@ public class LyricsService {
      */
     private String getLyricsByTrackId(String trackId) {
         try {
-            String url = UriComponentsBuilder.fromHttpUrl(lyricsApiUrl + "/track.lyrics.get")
-                    .queryParam("apikey", lyricsApiKey)
-                    .queryParam("track_id", trackId)
-                    .build()
-                    .toUriString();
+            URI url = UriComponentsBuilder.fromHttpUrl(lyricsApiUrl + "/track.lyrics.get")
+                    .queryParam("apikey", "{apikey}")
+                    .queryParam("track_id", "{trackId}")
+                    .encode()
+                    .buildAndExpand(lyricsApiKey, trackId)
+                    .toUri();
             
             HttpHeaders headers = new HttpHeaders();
             HttpEntity<String> entity = new HttpEntity<>(headers);
@@ -125,6 +145,8 @@ public class LyricsService {
             }
             
             return body.path("lyrics").path("lyrics_body").asText();
+        } catch (ResourceAccessException | HttpServerErrorException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error getting lyrics: {}", e.getMessage(), e);
             return null;
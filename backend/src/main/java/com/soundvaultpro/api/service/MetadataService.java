@@ -0,0 +1,319 @@
+package com.soundvaultpro.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.soundvaultpro.api.dto.AudioMetadataDto;
+import com.soundvaultpro.api.dto.TrackMetadataDto;
+import com.soundvaultpro.api.dto.TrackSourceDto;
+import com.soundvaultpro.api.metadata.AudioTagParser;
+import com.soundvaultpro.api.metadata.FileRangeSource;
+import com.soundvaultpro.api.metadata.HttpRangeSource;
+import com.soundvaultpro.api.metadata.ParsedMetadata;
+import com.soundvaultpro.api.metadata.RangeSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts track metadata on the server by reading only the tag and header regions of each file.
+ * Results are cached by user and content hash in memory and in an append-only file, so a track
+ * is parsed once no matter how many times it is listed. Only the most recently used
+ * metadata.cache-max-entries are held in memory; an evicted track is parsed again when next listed.
+ *
+ * The content hash is supplied by the client and cannot be checked without downloading the whole
+ * file, so a user's entries are only ever served back to that user: nobody can seed metadata for
+ * a hash another user will look up.
+ */
+@Service
+@Slf4j
+public class MetadataService {
+
+    private static final Pattern CONTENT_HASH = Pattern.compile("[0-9a-fA-F]{16,128}");
+    private static final Pattern SAFE_ID = Pattern.compile("[A-Za-z0-9_-]{1,128}");
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor upstreamExecutor;
+    private final ArtworkService artworkService;
+    private final Map<String, ParsedMetadata> cache;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+
+    @Value("${metadata.cache-file:./data/metadata/metadata-cache.jsonl}")
+    private String cacheFile;
+
+    @Value("${metadata.range-block-size:65536}")
+    private int rangeBlockSize;
+
+    @Value("${metadata.max-batch-size:200}")
+    private int maxBatchSize;
+
+    @Value("${metadata.allowed-hosts:.dropboxusercontent.com,content.dropboxapi.com}")
+    private String[] allowedHosts;
+
+    private BufferedWriter cacheWriter;
+
+    public MetadataService(RestTemplate restTemplate,
+                           ObjectMapper objectMapper,
+                           @Qualifier("upstreamExecutor") ThreadPoolTaskExecutor upstreamExecutor,
+                           ArtworkService artworkService,
+                           MeterRegistry meterRegistry,
+                           @Value("${metadata.cache-max-entries:50000}") int cacheMaxEntries) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.upstreamExecutor = upstreamExecutor;
+        this.artworkService = artworkService;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ParsedMetadata> eldest) {
+                return size() > cacheMaxEntries;
+            }
+        });
+        this.cacheHits = Counter.builder("metadata.cache").tag("result", "hit").register(meterRegistry);
+        this.cacheMisses = Counter.builder("metadata.cache").tag("result", "miss").register(meterRegistry);
+        meterRegistry.gaugeMapSize("metadata.cache.size", List.of(), cache);
+    }
+
+    @PostConstruct
+    public void loadCache() throws IOException {
+        Path path = Paths.get(cacheFile);
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        if (Files.exists(path)) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    try {
+                        JsonNode entry = objectMapper.readTree(line);
+                        if (!entry.hasNonNull("owner")) {
+                            // Written before entries were kept per user; nothing vouches for it
+                            continue;
+                        }
+                        cache.put(cacheKey(entry.get("owner").asText(), entry.get("hash").asText()),
+                                objectMapper.treeToValue(entry.get("metadata"), ParsedMetadata.class));
+                    } catch (Exception e) {
+                        // A torn last line after a crash is expected; skip it
+                        log.warn("Skipping unreadable metadata cache entry");
+                    }
+                }
+            }
+        }
+        cacheWriter = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        log.info("Loaded {} cached metadata entries from {}", cache.size(), path);
+    }
+
+    @PreDestroy
+    public void closeCache() throws IOException {
+        synchronized (this) {
+            if (cacheWriter != null) {
+                cacheWriter.close();
+            }
+        }
+    }
+
+    /**
+     * Extract metadata for many tracks at once. Tracks are resolved concurrently and a failure
+     * on one track is reported on that entry rather than failing the batch.
+     *
+     * @param supabaseId The user listing the tracks, whose cache entries are used
+     * @param tracks The tracks to resolve
+     * @return One result per requested track, in request order
+     */
+    public List<TrackMetadataDto> getMetadataBatch(String supabaseId, List<TrackSourceDto> tracks) {
+        checkId(supabaseId);
+        if (tracks.size() > maxBatchSize) {
+            throw new IllegalArgumentException("Batch size exceeds maximum of " + maxBatchSize);
+        }
+        List<CompletableFuture<TrackMetadataDto>> futures = new ArrayList<>(tracks.size());
+        for (TrackSourceDto track : tracks) {
+            futures.add(CompletableFuture.supplyAsync(() -> getMetadata(supabaseId, track), upstreamExecutor));
+        }
+        List<TrackMetadataDto> results = new ArrayList<>(tracks.size());
+        for (CompletableFuture<TrackMetadataDto> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    /**
+     * Extract metadata for a single remote track, consulting the content-hash cache first
+     */
+    public TrackMetadataDto getMetadata(String supabaseId, TrackSourceDto track) {
+        checkId(supabaseId);
+        String hash = normalizeHash(track.getContentHash());
+        TrackMetadataDto.TrackMetadataDtoBuilder result = TrackMetadataDto.builder()
+                .id(track.getId())
+                .contentHash(hash);
+
+        if (hash != null) {
+            ParsedMetadata cached = cache.get(cacheKey(supabaseId, hash));
+            if (cached != null) {
+                cacheHits.increment();
+                return result.metadata(toDto(cached, track.getName())).cached(true).build();
+            }
+        }
+        cacheMisses.increment();
+
+        try {
+            URI uri = validateUrl(track.getUrl());
+            ParsedMetadata parsed;
+            try (RangeSource source = new HttpRangeSource(restTemplate, uri, rangeBlockSize)) {
+                parsed = AudioTagParser.parse(source, track.getName());
+                attachArtwork(source, parsed, track.getId());
+                log.debug("Read {} bytes of {} for metadata of {}", source.bytesTransferred(), source.size(), track.getId());
+            }
+            if (hash != null) {
+                remember(supabaseId, hash, parsed);
+            }
+            return result.metadata(toDto(parsed, track.getName())).build();
+        } catch (Exception e) {
+            log.error("Error extracting metadata for {}: {}", track.getId(), e.getMessage());
+            return result.error(e.getMessage()).build();
+        }
+    }
+
+    /**
+     * Extract metadata from a file stored on local disk using positional reads
+     */
+    public ParsedMetadata extract(String supabaseId, Path file, String contentHash) throws IOException {
+        checkId(supabaseId);
+        String hash = normalizeHash(contentHash);
+        ParsedMetadata cached = hash != null ? cache.get(cacheKey(supabaseId, hash)) : null;
+        if (cached != null) {
+            cacheHits.increment();
+            return cached;
+        }
+        cacheMisses.increment();
+        try (RangeSource source = new FileRangeSource(file)) {
+            ParsedMetadata parsed = AudioTagParser.parse(source, file.getFileName().toString());
+            attachArtwork(source, parsed, file.getFileName().toString());
+            if (hash != null) {
+                remember(supabaseId, hash, parsed);
+            }
+            return parsed;
+        }
+    }
+
+    /**
+     * @return The user's cached parse result for a content hash, or null
+     */
+    public ParsedMetadata getCached(String supabaseId, String contentHash) {
+        String hash = normalizeHash(contentHash);
+        return hash != null && supabaseId != null ? cache.get(cacheKey(supabaseId, hash)) : null;
+    }
+
+    /**
+     * Read the embedded cover while the source is open, so the thumbnails are made in the same pass
+     */
+    private void attachArtwork(RangeSource source, ParsedMetadata parsed, String id) {
+        if (parsed.getPicture() == null) {
+            return;
+        }
+        try {
+            parsed.setArtworkHash(artworkService.extract(source, parsed.getPicture()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // Tags are still useful without a thumbnail
+            log.warn("Error extracting artwork for {}: {}", id, e.getMessage());
+        }
+    }
+
+    private void remember(String supabaseId, String hash, ParsedMetadata parsed) {
+        if (cache.putIfAbsent(cacheKey(supabaseId, hash), parsed) != null) {
+            return;
+        }
+        try {
+            ObjectNode entry = objectMapper.createObjectNode();
+            entry.put("owner", supabaseId);
+            entry.put("hash", hash);
+            entry.set("metadata", objectMapper.valueToTree(parsed));
+            String line = objectMapper.writeValueAsString(entry);
+            synchronized (this) {
+                cacheWriter.write(line);
+                cacheWriter.newLine();
+                cacheWriter.flush();
+            }
+        } catch (IOException e) {
+            log.error("Error persisting metadata cache entry: {}", e.getMessage());
+        }
+    }
+
+    private AudioMetadataDto toDto(ParsedMetadata parsed, String fileName) {
+        return AudioMetadataDto.builder()
+                .title(parsed.getTitle() != null ? parsed.getTitle() : fileName)
+                .artist(parsed.getArtist() != null ? parsed.getArtist() : "Unknown Artist")
+                .album(parsed.getAlbum() != null ? parsed.getAlbum() : "Unknown Album")
+                .year(parsed.getYear() != null ? parsed.getYear() : "")
+                .genre(parsed.getGenre() != null ? parsed.getGenre() : "")
+                .durationSeconds(parsed.getDurationSeconds())
+                .format(parsed.getFormat())
+                .sampleRate(parsed.getSampleRate())
+                .channels(parsed.getChannels())
+                .bitrate(parsed.getBitrate())
+                .hasPicture(parsed.getPicture() != null)
+                .artworkHash(parsed.getArtworkHash())
+                .build();
+    }
+
+    /**
+     * @throws IllegalArgumentException unless the URL is https and on metadata.allowed-hosts
+     */
+    URI validateUrl(String url) {
+        if (url == null) {
+            throw new IllegalArgumentException("Track URL is required");
+        }
+        URI uri = URI.create(url);
+        String host = uri.getHost() != null ? uri.getHost().toLowerCase(Locale.ROOT) : "";
+        boolean allowed = "https".equalsIgnoreCase(uri.getScheme()) && Arrays.stream(allowedHosts)
+                .map(h -> h.trim().toLowerCase(Locale.ROOT))
+                .anyMatch(h -> h.startsWith(".") ? host.endsWith(h) : host.equals(h));
+        if (!allowed) {
+            throw new IllegalArgumentException("Track URL host is not allowed");
+        }
+        return uri;
+    }
+
+    private static String cacheKey(String supabaseId, String hash) {
+        return supabaseId + '/' + hash;
+    }
+
+    private static void checkId(String supabaseId) {
+        if (supabaseId == null || !SAFE_ID.matcher(supabaseId).matches()) {
+            throw new IllegalArgumentException("Invalid user id");
+        }
+    }
+
+    private static String normalizeHash(String contentHash) {
+        if (contentHash == null || !CONTENT_HASH.matcher(contentHash).matches()) {
+            return null;
+        }
+        return contentHash.toLowerCase(Locale.ROOT);
+    }
+}
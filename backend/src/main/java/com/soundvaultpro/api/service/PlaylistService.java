@@ -5,8 +5,11 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.soundvaultpro.api.cache.InvalidationBus;
 import com.soundvaultpro.api.dto.PlaylistDto;
 import com.soundvaultpro.api.config.SupabaseConfig;
+import com.soundvaultpro.api.resilience.StaleCache;
+import com.soundvaultpro.api.resilience.UpstreamGuard;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -14,7 +17,9 @@ import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -24,15 +29,29 @@ import java.util.List;
 @RequiredArgsConstructor
 public class PlaylistService {
     
+    /**
+     * Stale cache of each user's playlists, invalidated cluster-wide when they change
+     */
+    public static final String PLAYLISTS_CACHE = "supabase.playlists";
+    
     private final RestTemplate restTemplate;
     private final SupabaseConfig supabaseConfig;
     private final ObjectMapper objectMapper;
     private final UserService userService;
+    private final ChangeFeedService changeFeedService;
+    private final RecommendationService recommendationService;
+    private final UpstreamGuard upstreamGuard;
+    private final InvalidationBus invalidationBus;
     
     /**
-     * Get all playlists for a user
+     * Get all playlists for a user, or the previous list while Supabase is failing
      */
     public List<PlaylistDto> getPlaylistsByUser(String supabaseId) {
+        StaleCache<String, List<PlaylistDto>> stale = upstreamGuard.staleCache(PLAYLISTS_CACHE);
+        return stale.get(supabaseId, () -> fetchPlaylistsByUser(supabaseId));
+    }
+    
+    private List<PlaylistDto> fetchPlaylistsByUser(String supabaseId) {
         HttpHeaders headers = createHeaders();
         HttpEntity<String> entity = new HttpEntity<>(headers);
         
@@ -44,22 +63,20 @@ public class PlaylistService {
             String.class
         );
         
+        return parsePlaylists(response.getBody());
+    }
+    
+    /**
+     * Map a Supabase playlists response body to DTOs
+     */
+    public List<PlaylistDto> parsePlaylists(String body) {
         try {
-            JsonNode jsonNode = objectMapper.readTree(response.getBody());
+            JsonNode jsonNode = objectMapper.readTree(body);
             List<PlaylistDto> playlists = new ArrayList<>();
             
             if (jsonNode.isArray()) {
                 for (JsonNode node : jsonNode) {
-                    PlaylistDto dto = PlaylistDto.builder()
-                            .id(node.get("id").asLong())
-                            .name(node.get("name").asText())
-                            .description(node.has("description") ? node.get("description").asText() : null)
-                            .userId(node.get("user_id").asText())
-                            .userName(node.has("user_name") ? node.get("user_name").asText() : "")
-                            .createdAt(LocalDateTime.parse(node.get("created_at").asText(), DateTimeFormatter.ISO_DATE_TIME))
-                            .updatedAt(LocalDateTime.parse(node.get("updated_at").asText(), DateTimeFormatter.ISO_DATE_TIME))
-                            .build();
-                    playlists.add(dto);
+                    playlists.add(toPlaylistDto(node));
                 }
             }
             
@@ -110,15 +127,11 @@ public class PlaylistService {
             );
             
             JsonNode jsonNode = objectMapper.readTree(response.getBody());
-            return PlaylistDto.builder()
-                    .id(jsonNode.get("id").asLong())
-                    .name(jsonNode.get("name").asText())
-                    .description(jsonNode.has("description") ? jsonNode.get("description").asText() : null)
-                    .userId(jsonNode.get("user_id").asText())
-                    .userName(jsonNode.has("user_name") ? jsonNode.get("user_name").asText() : "")
-                    .createdAt(LocalDateTime.parse(jsonNode.get("created_at").asText(), DateTimeFormatter.ISO_DATE_TIME))
-                    .updatedAt(LocalDateTime.parse(jsonNode.get("updated_at").asText(), DateTimeFormatter.ISO_DATE_TIME))
-                    .build();
+            PlaylistDto playlist = toPlaylistDto(jsonNode);
+            
+            invalidationBus.publish(PLAYLISTS_CACHE, supabaseId);
+            changeFeedService.publish(supabaseId, ChangeFeedService.PLAYLIST_CREATED, String.valueOf(playlist.getId()), playlist);
+            return playlist;
             
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Error processing JSON", e);
@@ -155,7 +168,10 @@ public class PlaylistService {
             );
             
             // Get the updated playlist
-            return getPlaylist(playlistId);
+            PlaylistDto playlist = getPlaylist(playlistId);
+            invalidationBus.publish(PLAYLISTS_CACHE, supabaseId);
+            changeFeedService.publish(supabaseId, ChangeFeedService.PLAYLIST_UPDATED, String.valueOf(playlistId), playlist);
+            return playlist;
             
         } catch (JsonProcessingException e) {
             throw new RuntimeException("Error processing JSON", e);
@@ -179,6 +195,68 @@ public class PlaylistService {
             entity, 
             String.class
         );
+        
+        recommendationService.playlistDeleted(playlistId);
+        invalidationBus.publish(PLAYLISTS_CACHE, supabaseId);
+        changeFeedService.publish(supabaseId, ChangeFeedService.PLAYLIST_DELETED, String.valueOf(playlistId), null);
+    }
+    
+    /**
+     * Add a track to a playlist
+     */
+    public void addTrack(String supabaseId, Long playlistId, String trackId) {
+        try {
+            verifyPlaylistOwnership(supabaseId, playlistId);
+            
+            HttpHeaders headers = createHeaders();
+            
+            ObjectNode requestBody = objectMapper.createObjectNode();
+            requestBody.put("playlist_id", playlistId);
+            requestBody.put("track_id", trackId);
+            requestBody.put("added_at", LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
+            
+            HttpEntity<String> entity = new HttpEntity<>(objectMapper.writeValueAsString(requestBody), headers);
+            
+            String url = supabaseConfig.getSupabaseUrl() + "/rest/v1/playlist_tracks";
+            restTemplate.exchange(
+                url, 
+                HttpMethod.POST, 
+                entity, 
+                String.class
+            );
+            
+            recommendationService.trackAdded(supabaseId, playlistId, trackId);
+            changeFeedService.publish(supabaseId, ChangeFeedService.PLAYLIST_UPDATED, String.valueOf(playlistId), null);
+            
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error processing JSON", e);
+        }
+    }
+    
+    /**
+     * Remove a track from a playlist
+     */
+    public void removeTrack(String supabaseId, Long playlistId, String trackId) {
+        verifyPlaylistOwnership(supabaseId, playlistId);
+        
+        HttpHeaders headers = createHeaders();
+        HttpEntity<String> entity = new HttpEntity<>(headers);
+        
+        URI uri = UriComponentsBuilder.fromHttpUrl(supabaseConfig.getSupabaseUrl() + "/rest/v1/playlist_tracks")
+                .queryParam("playlist_id", "eq." + playlistId)
+                .queryParam("track_id", "eq." + trackId)
+                .encode()
+                .build()
+                .toUri();
+        restTemplate.exchange(
+            uri, 
+            HttpMethod.DELETE, 
+            entity, 
+            String.class
+        );
+        
+        recommendationService.trackRemoved(supabaseId, playlistId, trackId);
+        changeFeedService.publish(supabaseId, ChangeFeedService.PLAYLIST_UPDATED, String.valueOf(playlistId), null);
     }
     
     /**
@@ -199,16 +277,7 @@ public class PlaylistService {
         try {
             JsonNode jsonNode = objectMapper.readTree(response.getBody());
             if (jsonNode.isArray() && jsonNode.size() > 0) {
-                JsonNode node = jsonNode.get(0);
-                return PlaylistDto.builder()
-                        .id(node.get("id").asLong())
-                        .name(node.get("name").asText())
-                        .description(node.has("description") ? node.get("description").asText() : null)
-                        .userId(node.get("user_id").asText())
-                        .userName(node.has("user_name") ? node.get("user_name").asText() : "")
-                        .createdAt(LocalDateTime.parse(node.get("created_at").asText(), DateTimeFormatter.ISO_DATE_TIME))
-                        .updatedAt(LocalDateTime.parse(node.get("updated_at").asText(), DateTimeFormatter.ISO_DATE_TIME))
-                        .build();
+                return toPlaylistDto(jsonNode.get(0));
             }
             throw new RuntimeException("Playlist not found");
         } catch (JsonProcessingException e) {
@@ -241,6 +310,21 @@ public class PlaylistService {
         }
     }
     
+    /**
+     * Map a single Supabase playlist row to a DTO
+     */
+    private PlaylistDto toPlaylistDto(JsonNode node) {
+        return PlaylistDto.builder()
+                .id(node.get("id").asLong())
+                .name(node.get("name").asText())
+                .description(node.has("description") ? node.get("description").asText() : null)
+                .userId(node.get("user_id").asText())
+                .userName(node.has("user_name") ? node.get("user_name").asText() : "")
+                .createdAt(LocalDateTime.parse(node.get("created_at").asText(), DateTimeFormatter.ISO_DATE_TIME))
+                .updatedAt(LocalDateTime.parse(node.get("updated_at").asText(), DateTimeFormatter.ISO_DATE_TIME))
+                .build();
+    }
+    
     /**
      * Create HTTP headers for Supabase API requests
      */
@@ -0,0 +1,290 @@
+package com.soundvaultpro.api.service;
+
+import com.soundvaultpro.api.metrics.UpstreamMetricsInterceptor;
+import com.soundvaultpro.api.metrics.UpstreamResolver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Speculative fetching of song details, and optionally lyrics, for the first hits of a search.
+ *
+ * Users usually open one of the first few hits, so warming them turns that click into a cache
+ * hit. Prefetches run on the low-priority {@code prefetchExecutor} and are skipped rather than
+ * queued when an upstream is over its budget: too many calls in flight, or too many prefetches
+ * in the current second. A newer search from the same client cancels prefetches of the older
+ * one that have not started, and a task that waited longer than {@code prefetch.max-queue-ms}
+ * is dropped. Details and lyrics are read through the same bounded caches, so hit rates can be
+ * told apart by whether an entry was prefetched.
+ */
+@Service
+@Slf4j
+public class PrefetchService {
+
+    private static final String DETAILS = "details";
+    private static final String LYRICS = "lyrics";
+
+    private final GeniusService geniusService;
+    private final LyricsService lyricsService;
+    private final ThreadPoolTaskExecutor prefetchExecutor;
+    private final UpstreamMetricsInterceptor upstreamMetrics;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final boolean prefetchLyrics;
+    private final int topK;
+    private final long maxQueueMs;
+    private final int maxUpstreamInFlight;
+    private final Map<String, Budget> budgets = new ConcurrentHashMap<>();
+    private final int maxPerSecond;
+    private final PrefetchCache detailsCache;
+    private final PrefetchCache lyricsCache;
+    // Prefetches of each client's latest search, cancelled when the client searches again
+    private final Map<String, List<Future<?>>> pendingByClient = new ConcurrentHashMap<>();
+
+    public PrefetchService(GeniusService geniusService,
+                           LyricsService lyricsService,
+                           @Qualifier("prefetchExecutor") ThreadPoolTaskExecutor prefetchExecutor,
+                           UpstreamMetricsInterceptor upstreamMetrics,
+                           MeterRegistry meterRegistry,
+                           @Value("${prefetch.enabled:false}") boolean enabled,
+                           @Value("${prefetch.lyrics:false}") boolean prefetchLyrics,
+                           @Value("${prefetch.top-k:3}") int topK,
+                           @Value("${prefetch.max-queue-ms:2000}") long maxQueueMs,
+                           @Value("${prefetch.max-upstream-inflight:8}") int maxUpstreamInFlight,
+                           @Value("${prefetch.max-per-second:5}") int maxPerSecond,
+                           @Value("${prefetch.cache-size:1000}") int cacheSize,
+                           @Value("${prefetch.cache-ttl-seconds:600}") long cacheTtlSeconds) {
+        this.geniusService = geniusService;
+        this.lyricsService = lyricsService;
+        this.prefetchExecutor = prefetchExecutor;
+        this.upstreamMetrics = upstreamMetrics;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.prefetchLyrics = prefetchLyrics;
+        this.topK = topK;
+        this.maxQueueMs = maxQueueMs;
+        this.maxUpstreamInFlight = maxUpstreamInFlight;
+        this.maxPerSecond = maxPerSecond;
+        this.detailsCache = new PrefetchCache(DETAILS, cacheSize, cacheTtlSeconds * 1000);
+        this.lyricsCache = new PrefetchCache(LYRICS, cacheSize, cacheTtlSeconds * 1000);
+    }
+
+    /**
+     * Queue prefetches for the first hits of a search, replacing the client's earlier ones
+     *
+     * @param clientId Who searched; a newer search by the same client makes these stale
+     * @param hits Search results in the shape GeniusService returns them
+     */
+    public void prefetch(String clientId, List<Map<String, Object>> hits) {
+        if (!enabled || hits.isEmpty()) {
+            return;
+        }
+        List<Future<?>> futures = new ArrayList<>();
+        long queuedAt = System.currentTimeMillis();
+        for (Map<String, Object> hit : hits.subList(0, Math.min(topK, hits.size()))) {
+            if (!(hit.get("id") instanceof Number id)) {
+                continue;
+            }
+            String title = String.valueOf(hit.get("title"));
+            String artist = String.valueOf(hit.get("artist"));
+            try {
+                futures.add(prefetchExecutor.submit(() -> run(id.intValue(), title, artist, queuedAt)));
+            } catch (RejectedExecutionException e) {
+                count(DETAILS, "dropped");
+            }
+        }
+        List<Future<?>> previous = pendingByClient.put(clientId, futures);
+        if (previous != null) {
+            for (Future<?> future : previous) {
+                // Only tasks still queued; a call already in flight finishes and fills the cache
+                if (future.cancel(false)) {
+                    count(DETAILS, "cancelled");
+                }
+            }
+        }
+        try {
+            // Forget the client once its prefetches are done, unless it searched again meanwhile
+            prefetchExecutor.execute(() -> pendingByClient.remove(clientId, futures));
+        } catch (RejectedExecutionException e) {
+            // Left for the client's next search to replace
+        }
+    }
+
+    /**
+     * Song details, from the cache when they were fetched or prefetched recently
+     */
+    public Map<String, Object> getSongDetails(int songId) {
+        return detailsCache.get(String.valueOf(songId), () -> geniusService.getSongDetails(songId));
+    }
+
+    /**
+     * Lyrics, from the cache when they were fetched or prefetched recently
+     *
+     * @return The lyrics, or null if none were found
+     */
+    public String getLyrics(String trackName, String artist) {
+        return lyricsCache.get(lyricsKey(trackName, artist), () -> lyricsService.searchLyrics(trackName, artist));
+    }
+
+    private void run(int songId, String title, String artist, long queuedAt) {
+        if (System.currentTimeMillis() - queuedAt > maxQueueMs) {
+            count(DETAILS, "stale");
+            return;
+        }
+        warm(detailsCache, DETAILS, UpstreamResolver.GENIUS, String.valueOf(songId),
+                () -> geniusService.getSongDetails(songId));
+        if (prefetchLyrics && !Thread.currentThread().isInterrupted()) {
+            warm(lyricsCache, LYRICS, UpstreamResolver.MUSIXMATCH, lyricsKey(title, artist),
+                    () -> lyricsService.searchLyrics(title, artist));
+        }
+    }
+
+    private void warm(PrefetchCache cache, String type, String upstream, String key, Supplier<Object> loader) {
+        if (cache.contains(key)) {
+            count(type, "cached");
+            return;
+        }
+        if (upstreamMetrics.getInFlight(upstream) >= maxUpstreamInFlight
+                || !budgets.computeIfAbsent(upstream, name -> new Budget()).tryAcquire(maxPerSecond)) {
+            count(type, "over_budget");
+            return;
+        }
+        try {
+            Object value = loader.get();
+            if (value != null) {
+                cache.put(key, value, true);
+            }
+            count(type, "issued");
+        } catch (RuntimeException e) {
+            count(type, "failed");
+            log.debug("Prefetch of {} {} failed: {}", type, key, e.getMessage());
+        }
+    }
+
+    private void count(String type, String result) {
+        Counter.builder("prefetch.tasks").tag("type", type).tag("result", result).register(meterRegistry).increment();
+    }
+
+    private static String lyricsKey(String trackName, String artist) {
+        return (trackName + "\n" + artist).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Prefetches allowed per upstream in the current one-second window
+     */
+    private static final class Budget {
+        private long windowStart;
+        private int used;
+
+        private synchronized boolean tryAcquire(int perSecond) {
+            long now = System.currentTimeMillis();
+            if (now - windowStart >= 1000) {
+                windowStart = now;
+                used = 0;
+            }
+            if (used >= perSecond) {
+                return false;
+            }
+            used++;
+            return true;
+        }
+    }
+
+    /**
+     * Bounded LRU cache with expiry that remembers whether each entry was prefetched, so reads
+     * can be counted as prefetch hits and unused prefetches as waste
+     */
+    private final class PrefetchCache {
+        private final String type;
+        private final long ttlMs;
+        private final LinkedHashMap<String, Entry> entries;
+
+        private PrefetchCache(String type, int maxSize, long ttlMs) {
+            this.type = type;
+            this.ttlMs = ttlMs;
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    if (size() <= maxSize) {
+                        return false;
+                    }
+                    discarded(eldest.getValue());
+                    return true;
+                }
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T get(String key, Supplier<T> loader) {
+            Entry entry;
+            synchronized (this) {
+                entry = entries.get(key);
+                if (entry != null && entry.expiresAt < System.currentTimeMillis()) {
+                    entries.remove(key);
+                    discarded(entry);
+                    entry = null;
+                }
+                if (entry != null) {
+                    read(entry.prefetched && !entry.used ? "prefetch_hit" : "hit");
+                    entry.used = true;
+                    return (T) entry.value;
+                }
+            }
+            read("miss");
+            T value = loader.get();
+            if (value != null) {
+                put(key, value, false);
+            }
+            return value;
+        }
+
+        private synchronized boolean contains(String key) {
+            Entry entry = entries.get(key);
+            return entry != null && entry.expiresAt >= System.currentTimeMillis();
+        }
+
+        private synchronized void put(String key, Object value, boolean prefetched) {
+            Entry previous = entries.put(key, new Entry(value, prefetched, System.currentTimeMillis() + ttlMs));
+            if (previous != null) {
+                discarded(previous);
+            }
+        }
+
+        private void discarded(Entry entry) {
+            if (entry.prefetched && !entry.used) {
+                read("wasted");
+            }
+        }
+
+        private void read(String result) {
+            Counter.builder("prefetch.cache").tag("type", type).tag("result", result).register(meterRegistry).increment();
+        }
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final boolean prefetched;
+        private final long expiresAt;
+        private boolean used;
+
+        private Entry(Object value, boolean prefetched, long expiresAt) {
+            this.value = value;
+            this.prefetched = prefetched;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
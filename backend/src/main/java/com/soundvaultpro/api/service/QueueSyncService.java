@@ -0,0 +1,194 @@
+package com.soundvaultpro.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soundvaultpro.api.dto.QueueDeltaDto;
+import com.soundvaultpro.api.dto.QueueOpDto;
+import com.soundvaultpro.api.dto.QueueStateDto;
+import com.soundvaultpro.api.queue.PlaybackQueue;
+import com.soundvaultpro.api.queue.QueueVersionConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Cross-device play queues.
+ *
+ * Devices send small versioned ops instead of whole queues, and other devices receive the same
+ * ops on the change feed as {@code queue.updated}, so a change to a queue of thousands of
+ * tracks costs a few bytes each way. Queues are guarded by a fixed array of lock stripes
+ * rather than a lock per user, and written to {@code storage.root/queues} in the background
+ * only when they changed since the last write.
+ */
+@Service
+@Slf4j
+public class QueueSyncService {
+
+    private static final Pattern SAFE_ID = Pattern.compile("[A-Za-z0-9_-]{1,128}");
+    private static final int STRIPES = 64;
+
+    private final Map<String, PlaybackQueue> queues = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final Object[] stripes = new Object[STRIPES];
+
+    private final ScheduledExecutorService persister = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "queue-persister");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ChangeFeedService changeFeedService;
+    private final ObjectMapper objectMapper;
+    private final Path root;
+    private final int maxSize;
+    private final int maxOps;
+    private final int historySize;
+    private final long persistIntervalMs;
+    private final Counter opsApplied;
+    private final Counter conflicts;
+
+    public QueueSyncService(ChangeFeedService changeFeedService,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry,
+                            @Value("${storage.root:./data}") String storageRoot,
+                            @Value("${queue.max-size:10000}") int maxSize,
+                            @Value("${queue.max-ops:500}") int maxOps,
+                            @Value("${queue.history-size:256}") int historySize,
+                            @Value("${queue.persist-interval-ms:5000}") long persistIntervalMs) throws IOException {
+        this.changeFeedService = changeFeedService;
+        this.objectMapper = objectMapper;
+        this.root = Paths.get(storageRoot, "queues").toAbsolutePath().normalize();
+        this.maxSize = maxSize;
+        this.maxOps = maxOps;
+        this.historySize = historySize;
+        this.persistIntervalMs = persistIntervalMs;
+        this.opsApplied = Counter.builder("queue.ops").register(meterRegistry);
+        this.conflicts = Counter.builder("queue.conflicts")
+                .description("Op batches rejected because they were made against an old version")
+                .register(meterRegistry);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+        Files.createDirectories(root);
+    }
+
+    @PostConstruct
+    public void start() {
+        persister.scheduleWithFixedDelay(this::persistDirty, persistIntervalMs, persistIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void close() {
+        persister.shutdownNow();
+        persistDirty();
+    }
+
+    /**
+     * Apply ops made against baseVersion and forward them to the user's other devices
+     *
+     * @return The ops applied and the new version
+     * @throws QueueVersionConflictException if the queue has moved on
+     */
+    public QueueDeltaDto apply(String supabaseId, long baseVersion, List<QueueOpDto> ops) {
+        checkId(supabaseId);
+        if (ops == null || ops.isEmpty()) {
+            throw new IllegalArgumentException("Ops are required");
+        }
+        if (ops.size() > maxOps) {
+            throw new IllegalArgumentException("At most " + maxOps + " ops per request");
+        }
+        QueueDeltaDto delta;
+        synchronized (stripe(supabaseId)) {
+            PlaybackQueue queue = queue(supabaseId);
+            try {
+                long version = queue.apply(baseVersion, ops, maxSize, historySize);
+                delta = QueueDeltaDto.builder().fromVersion(baseVersion).version(version).ops(ops).build();
+            } catch (QueueVersionConflictException e) {
+                conflicts.increment();
+                throw e;
+            }
+            dirty.add(supabaseId);
+            // Published under the stripe: the change feed delivers a user's events in publish order
+            changeFeedService.publish(supabaseId, ChangeFeedService.QUEUE_UPDATED, String.valueOf(delta.getVersion()), delta);
+        }
+        opsApplied.increment(ops.size());
+        return delta;
+    }
+
+    /**
+     * @param since The version the device has, or null for the whole queue
+     */
+    public QueueDeltaDto get(String supabaseId, Long since) {
+        checkId(supabaseId);
+        synchronized (stripe(supabaseId)) {
+            PlaybackQueue queue = queue(supabaseId);
+            if (since == null) {
+                return QueueDeltaDto.builder().version(queue.getVersion()).state(queue.state()).build();
+            }
+            return queue.since(since);
+        }
+    }
+
+    private PlaybackQueue queue(String supabaseId) {
+        return queues.computeIfAbsent(supabaseId, this::load);
+    }
+
+    private PlaybackQueue load(String supabaseId) {
+        Path file = root.resolve(supabaseId + ".json");
+        if (Files.exists(file)) {
+            try {
+                return PlaybackQueue.restore(objectMapper.readValue(file.toFile(), QueueStateDto.class));
+            } catch (IOException e) {
+                log.error("Queue {} could not be loaded: {}", file, e.getMessage());
+            }
+        }
+        return new PlaybackQueue();
+    }
+
+    private synchronized void persistDirty() {
+        for (String supabaseId : dirty) {
+            dirty.remove(supabaseId);
+            QueueStateDto state;
+            synchronized (stripe(supabaseId)) {
+                state = queues.get(supabaseId).state();
+            }
+            // Written outside the stripe so a slow disk never holds up edits
+            Path file = root.resolve(supabaseId + ".json");
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try {
+                objectMapper.writeValue(temp.toFile(), state);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                dirty.add(supabaseId);
+                log.error("Error writing queue of {}: {}", supabaseId, e.getMessage());
+            }
+        }
+    }
+
+    private Object stripe(String supabaseId) {
+        return stripes[(supabaseId.hashCode() & 0x7fffffff) % STRIPES];
+    }
+
+    private static void checkId(String id) {
+        if (id == null || !SAFE_ID.matcher(id).matches()) {
+            throw new IllegalArgumentException("Invalid id: " + id);
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.soundvaultpro.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soundvaultpro.api.config.SupabaseConfig;
+import com.soundvaultpro.api.dto.SimilarTrackDto;
+import com.soundvaultpro.api.recommend.CooccurrenceIndex;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * "Similar tracks" from playlist co-occurrence.
+ *
+ * Playlists are private and track ids are per-account Dropbox ids, so co-occurrence is kept per
+ * user: tracks are indexed as {@code supabaseId/trackId}, and since a playlist has one owner,
+ * a user's tracks are only ever paired with their own.
+ *
+ * Playlist track changes made through the API update the {@link CooccurrenceIndex} in place.
+ * The index is snapshotted to {@code storage.root/recommendations} when it has changed and on
+ * shutdown, and loaded from there at startup. It is rebuilt from Supabase's
+ * {@code playlist_tracks} when there is no snapshot and every
+ * {@code recommendations.rebuild-interval-hours}, to pick up changes made around the API.
+ */
+@Service
+@Slf4j
+public class RecommendationService {
+
+    public static final int MAX_LIMIT = 100;
+
+    private static final int MAX_TRACK_ID_LENGTH = 512;
+    private static final Pattern SAFE_ID = Pattern.compile("[A-Za-z0-9_-]{1,128}");
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "recommendations");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final RestTemplate restTemplate;
+    private final SupabaseConfig supabaseConfig;
+    private final ObjectMapper objectMapper;
+    private final Path snapshotFile;
+    private final long snapshotIntervalSeconds;
+    private final long rebuildIntervalHours;
+    private final int rebuildPageSize;
+    private final Timer queryTimer;
+    private final Timer rebuildTimer;
+
+    private volatile CooccurrenceIndex index = new CooccurrenceIndex();
+    private volatile boolean dirty;
+    // Changes made while a rebuild is reading Supabase, applied to the new index before it is swapped in
+    private List<Consumer<CooccurrenceIndex>> changesDuringRebuild;
+
+    public RecommendationService(RestTemplate restTemplate,
+                                 SupabaseConfig supabaseConfig,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${storage.root:./data}") String storageRoot,
+                                 @Value("${recommendations.snapshot-interval-seconds:300}") long snapshotIntervalSeconds,
+                                 @Value("${recommendations.rebuild-interval-hours:24}") long rebuildIntervalHours,
+                                 @Value("${recommendations.rebuild-page-size:1000}") int rebuildPageSize) {
+        this.restTemplate = restTemplate;
+        this.supabaseConfig = supabaseConfig;
+        this.objectMapper = objectMapper;
+        this.snapshotFile = Paths.get(storageRoot, "recommendations", "cooccurrence.bin").toAbsolutePath().normalize();
+        this.snapshotIntervalSeconds = snapshotIntervalSeconds;
+        this.rebuildIntervalHours = rebuildIntervalHours;
+        this.rebuildPageSize = rebuildPageSize;
+        this.queryTimer = Timer.builder("recommendations.query").register(meterRegistry);
+        this.rebuildTimer = Timer.builder("recommendations.rebuild").register(meterRegistry);
+        Gauge.builder("recommendations.tracks", this, service -> service.index.trackCount())
+                .description("Tracks in at least one playlist")
+                .register(meterRegistry);
+        Gauge.builder("recommendations.pairs", this, service -> service.index.pairCount())
+                .description("Track pairs sharing at least one playlist")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(snapshotFile.getParent());
+        boolean loaded = load();
+        if (!loaded) {
+            scheduler.execute(this::rebuildQuietly);
+        }
+        if (rebuildIntervalHours > 0) {
+            scheduler.scheduleWithFixedDelay(this::rebuildQuietly, rebuildIntervalHours, rebuildIntervalHours, TimeUnit.HOURS);
+        }
+        scheduler.scheduleWithFixedDelay(this::snapshotQuietly, snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void close() {
+        scheduler.shutdownNow();
+        snapshotQuietly();
+    }
+
+    public void trackAdded(String supabaseId, Long playlistId, String trackId) {
+        String key = key(supabaseId, trackId);
+        change(index -> index.add(playlistId, key));
+    }
+
+    public void trackRemoved(String supabaseId, Long playlistId, String trackId) {
+        String key = key(supabaseId, trackId);
+        change(index -> index.remove(playlistId, key));
+    }
+
+    public void playlistDeleted(Long playlistId) {
+        change(index -> index.removePlaylist(playlistId));
+    }
+
+    /**
+     * Tracks that most often share one of the user's playlists with the given one, best first
+     */
+    public List<SimilarTrackDto> similar(String supabaseId, String trackId, int limit) {
+        String key = key(supabaseId, trackId);
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+        long started = System.nanoTime();
+        String prefix = supabaseId + '/';
+        List<SimilarTrackDto> similar = new ArrayList<>();
+        for (SimilarTrackDto track : index.similar(key, limit)) {
+            if (track.getTrackId().startsWith(prefix)) {
+                track.setTrackId(track.getTrackId().substring(prefix.length()));
+                similar.add(track);
+            }
+        }
+        queryTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return similar;
+    }
+
+    /**
+     * Replace the index with one built from every row of {@code playlist_tracks} and the owner
+     * of its playlist
+     *
+     * @return Number of playlist entries read
+     */
+    public int rebuild() {
+        synchronized (this) {
+            if (changesDuringRebuild != null) {
+                throw new IllegalStateException("A rebuild is already running");
+            }
+            changesDuringRebuild = new ArrayList<>();
+        }
+        long started = System.nanoTime();
+        CooccurrenceIndex rebuilt = new CooccurrenceIndex();
+        int entries = 0;
+        try {
+            HttpEntity<String> entity = new HttpEntity<>(createHeaders());
+            for (int offset = 0; ; offset += rebuildPageSize) {
+                String url = supabaseConfig.getSupabaseUrl() + "/rest/v1/playlist_tracks"
+                        + "?select=playlist_id,track_id,playlists(user_id)"
+                        + "&order=playlist_id.asc,track_id.asc&limit=" + rebuildPageSize + "&offset=" + offset;
+                JsonNode page = objectMapper.readTree(restTemplate.exchange(url, HttpMethod.GET, entity, String.class).getBody());
+                if (page == null || !page.isArray() || page.isEmpty()) {
+                    break;
+                }
+                for (JsonNode row : page) {
+                    String owner = row.path("playlists").path("user_id").asText(null);
+                    if (row.hasNonNull("playlist_id") && row.hasNonNull("track_id")
+                            && owner != null && SAFE_ID.matcher(owner).matches()) {
+                        rebuilt.add(row.get("playlist_id").asLong(), owner + '/' + row.get("track_id").asText());
+                        entries++;
+                    }
+                }
+                if (page.size() < rebuildPageSize) {
+                    break;
+                }
+            }
+            synchronized (this) {
+                changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+                index = rebuilt;
+                dirty = true;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error processing JSON", e);
+        } finally {
+            // On failure the current index is kept; it already has every change
+            synchronized (this) {
+                changesDuringRebuild = null;
+            }
+        }
+        rebuildTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        log.info("Rebuilt co-occurrence index from {} playlist entries: {} tracks, {} pairs",
+                entries, rebuilt.trackCount(), rebuilt.pairCount());
+        return entries;
+    }
+
+    private synchronized void change(Consumer<CooccurrenceIndex> change) {
+        change.accept(index);
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.add(change);
+        }
+        dirty = true;
+    }
+
+    private boolean load() {
+        long started = System.nanoTime();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile), 1 << 16))) {
+            index = CooccurrenceIndex.read(in);
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            // Rebuilt from Supabase instead
+            log.error("Co-occurrence snapshot {} could not be loaded: {}", snapshotFile, e.getMessage());
+            return false;
+        }
+        log.info("Loaded co-occurrence index with {} tracks and {} pairs in {}ms",
+                index.trackCount(), index.pairCount(), (System.nanoTime() - started) / 1_000_000);
+        return true;
+    }
+
+    private void snapshotQuietly() {
+        if (!dirty) {
+            return;
+        }
+        // Cleared first, so a change made while writing marks the index dirty again
+        dirty = false;
+        Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                index.write(out);
+            }
+            Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty = true;
+            log.error("Error writing co-occurrence snapshot: {}", e.getMessage());
+        }
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Error rebuilding co-occurrence index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return The user's track as it is keyed in the index
+     */
+    private static String key(String supabaseId, String trackId) {
+        if (supabaseId == null || !SAFE_ID.matcher(supabaseId).matches()) {
+            throw new IllegalArgumentException("Invalid user id");
+        }
+        if (trackId == null || trackId.isBlank() || trackId.length() > MAX_TRACK_ID_LENGTH) {
+            throw new IllegalArgumentException("Invalid track id");
+        }
+        return supabaseId + '/' + trackId;
+    }
+
+    /**
+     * Create HTTP headers for Supabase API requests
+     */
+    private HttpHeaders createHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("apikey", supabaseConfig.getSupabaseKey());
+        headers.set("Authorization", "Bearer " + supabaseConfig.getSupabaseKey());
+        return headers;
+    }
+}
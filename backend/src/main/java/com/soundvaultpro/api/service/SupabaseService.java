@@ -5,7 +5,10 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.soundvaultpro.api.config.SupabaseConfig;
+import com.soundvaultpro.api.dto.KeyPairDto;
 import com.soundvaultpro.api.dto.UserDto;
+import com.soundvaultpro.api.resilience.StaleCache;
+import com.soundvaultpro.api.resilience.UpstreamGuard;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
@@ -21,14 +24,22 @@ import java.util.Map;
 @Service
 public class SupabaseService {
 
+    /**
+     * Stale cache of user profiles, invalidated cluster-wide when one is saved
+     */
+    public static final String PROFILES_CACHE = "supabase.profiles";
+
     private final RestTemplate restTemplate;
     private final SupabaseConfig supabaseConfig;
     private final ObjectMapper objectMapper;
+    private final UpstreamGuard upstreamGuard;
 
-    public SupabaseService(RestTemplate restTemplate, SupabaseConfig supabaseConfig, ObjectMapper objectMapper) {
+    public SupabaseService(RestTemplate restTemplate, SupabaseConfig supabaseConfig, ObjectMapper objectMapper,
+                           UpstreamGuard upstreamGuard) {
         this.restTemplate = restTemplate;
         this.supabaseConfig = supabaseConfig;
         this.objectMapper = objectMapper;
+        this.upstreamGuard = upstreamGuard;
     }
 
     /**
@@ -83,9 +94,14 @@ public class SupabaseService {
     }
     
     /**
-     * Get user profile from Supabase by supabaseId
+     * Get user profile from Supabase by supabaseId, or the previous profile while Supabase is failing
      */
     public UserDto getUserProfile(String supabaseId) {
+        StaleCache<String, UserDto> stale = upstreamGuard.staleCache(PROFILES_CACHE);
+        return stale.get(supabaseId, () -> fetchUserProfile(supabaseId));
+    }
+    
+    private UserDto fetchUserProfile(String supabaseId) {
         HttpHeaders headers = createHeaders();
         HttpEntity<String> entity = new HttpEntity<>(headers);
         
@@ -115,6 +131,37 @@ public class SupabaseService {
         }
     }
     
+    /**
+     * Get user encryption keys from Supabase by supabaseId
+     */
+    public KeyPairDto getUserKeys(String supabaseId) {
+        HttpHeaders headers = createHeaders();
+        HttpEntity<String> entity = new HttpEntity<>(headers);
+        
+        String url = supabaseConfig.getSupabaseUrl() + "/rest/v1/user_profiles?id=eq." + supabaseId
+                + "&select=public_key,encrypted_private_key";
+        ResponseEntity<String> response = restTemplate.exchange(
+            url, 
+            HttpMethod.GET, 
+            entity, 
+            String.class
+        );
+        
+        try {
+            JsonNode jsonNode = objectMapper.readTree(response.getBody());
+            if (jsonNode.isArray() && jsonNode.size() > 0) {
+                JsonNode keyNode = jsonNode.get(0);
+                return KeyPairDto.builder()
+                        .publicKey(keyNode.hasNonNull("public_key") ? keyNode.get("public_key").asText() : null)
+                        .encryptedPrivateKey(keyNode.hasNonNull("encrypted_private_key") ? keyNode.get("encrypted_private_key").asText() : null)
+                        .build();
+            }
+            return null;
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error processing JSON", e);
+        }
+    }
+    
     /**
      * Save user encryption keys to Supabase
      */
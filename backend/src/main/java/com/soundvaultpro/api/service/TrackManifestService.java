@@ -0,0 +1,314 @@
+package com.soundvaultpro.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soundvaultpro.api.dto.CreateManifestRequestDto;
+import com.soundvaultpro.api.dto.TrackManifestDto;
+import com.soundvaultpro.api.storage.BlobStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Tracks stored as manifests: an ordered list of content-addressed chunks in the {@link BlobStore}.
+ * Clients hash a file in fixed-size chunks, ask which hashes the server is missing, upload only
+ * those and then commit a manifest. Identical chunks across re-uploads, albums and users are
+ * stored once.
+ *
+ * Knowing a hash is not enough to use a chunk. A user may only put chunks in a manifest that
+ * they uploaded themselves or that one of their manifests already references, and the missing
+ * check answers for that user's chunks alone, so it reveals nothing about what others stored.
+ * Uploads are therefore deduplicated per user while disk space is shared across users.
+ * Possession is rebuilt from the manifests at startup; chunks uploaded but not yet in a
+ * manifest have to be sent again after a restart.
+ */
+@Service
+@Slf4j
+public class TrackManifestService {
+
+    private static final Pattern SAFE_ID = Pattern.compile("[A-Za-z0-9_-]{1,128}");
+
+    // Chunks each user has shown they hold, by uploading them or referencing them in a manifest
+    private final Map<String, Set<String>> possession = new ConcurrentHashMap<>();
+
+    private final BlobStore blobStore;
+    private final ObjectMapper objectMapper;
+    private final Path root;
+    private final long maxChunkSize;
+    private final Counter chunksRequested;
+    private final Counter chunksDeduplicated;
+
+    public TrackManifestService(BlobStore blobStore,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${storage.root:./data}") String storageRoot,
+                                @Value("${blobs.max-chunk-size:33554432}") long maxChunkSize) {
+        this.blobStore = blobStore;
+        this.objectMapper = objectMapper;
+        this.root = Paths.get(storageRoot, "manifests").toAbsolutePath().normalize();
+        this.maxChunkSize = maxChunkSize;
+        this.chunksRequested = Counter.builder("blobs.lookups").tag("result", "requested").register(meterRegistry);
+        this.chunksDeduplicated = Counter.builder("blobs.lookups").tag("result", "deduplicated").register(meterRegistry);
+    }
+
+    /**
+     * Rebuild chunk reference counts from the manifests on disk
+     */
+    @PostConstruct
+    public void loadManifests() throws IOException {
+        Files.createDirectories(root);
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            // Left by a write the process never finished; the manifest it replaced is intact
+            for (Path temp : (Iterable<Path>) files.filter(f -> f.toString().endsWith(".json.tmp"))::iterator) {
+                Files.deleteIfExists(temp);
+            }
+        }
+        int count = 0;
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            for (Path file : (Iterable<Path>) files.filter(f -> f.toString().endsWith(".json"))::iterator) {
+                try {
+                    TrackManifestDto manifest = objectMapper.readValue(file.toFile(), TrackManifestDto.class);
+                    blobStore.retain(manifest.getChunks());
+                    possessed(manifest.getSupabaseId()).addAll(manifest.getChunks());
+                    count++;
+                } catch (Exception e) {
+                    log.error("Manifest {} could not be loaded: {}", file, e.getMessage());
+                }
+            }
+        }
+        log.info("Loaded {} track manifests", count);
+    }
+
+    /**
+     * @return Hashes the user must upload: those they have not uploaded or referenced before, or
+     * that are no longer stored. De-duplicated, in input order.
+     */
+    public List<String> findMissingChunks(String supabaseId, Collection<String> hashes) {
+        Set<String> held = possessed(checkId(supabaseId));
+        List<String> missing = new ArrayList<>();
+        for (String hash : new LinkedHashSet<>(hashes)) {
+            String normalized = BlobStore.normalize(hash);
+            if (!held.contains(normalized) || !blobStore.contains(normalized)) {
+                missing.add(normalized);
+            }
+        }
+        chunksRequested.increment(hashes.size());
+        chunksDeduplicated.increment(hashes.size() - missing.size());
+        return missing;
+    }
+
+    /**
+     * Store one chunk for a user. The bytes are always read and verified against the hash, even
+     * if the chunk is already stored, since that is what lets the user reference it.
+     *
+     * @return true if the chunk was new
+     */
+    public boolean putChunk(String supabaseId, String hash, long length, InputStream data) throws IOException {
+        Set<String> held = possessed(checkId(supabaseId));
+        if (length <= 0 || length > maxChunkSize) {
+            throw new IllegalArgumentException("Chunk length must be between 1 and " + maxChunkSize + " bytes");
+        }
+        boolean stored = blobStore.put(hash, length, data);
+        held.add(BlobStore.normalize(hash));
+        return stored;
+    }
+
+    /**
+     * Create or replace the manifest of a track. All chunks must already be stored.
+     */
+    public synchronized TrackManifestDto putManifest(String supabaseId, String trackId, CreateManifestRequestDto request)
+            throws IOException {
+        Path file = resolve(supabaseId, trackId);
+        List<String> chunks = new ArrayList<>();
+        for (String hash : request.getChunks() != null ? request.getChunks() : List.<String>of()) {
+            chunks.add(BlobStore.normalize(hash));
+        }
+        if (chunks.isEmpty() || request.getChunkSize() <= 0) {
+            throw new IllegalArgumentException("Manifest needs a chunk size and at least one chunk");
+        }
+        if (request.getFileName() == null || request.getFileName().isBlank()) {
+            throw new IllegalArgumentException("File name is required");
+        }
+        Set<String> held = possessed(supabaseId);
+        for (String hash : chunks) {
+            if (!held.contains(hash)) {
+                throw new IllegalArgumentException("Chunk " + hash + " has not been uploaded");
+            }
+        }
+
+        blobStore.retain(chunks);
+        try {
+            long size = 0;
+            for (int i = 0; i < chunks.size(); i++) {
+                long chunkLength = blobStore.size(chunks.get(i));
+                boolean last = i == chunks.size() - 1;
+                if (last ? chunkLength > request.getChunkSize() : chunkLength != request.getChunkSize()) {
+                    throw new IllegalArgumentException("Chunk " + i + " does not match the chunk size");
+                }
+                size += chunkLength;
+            }
+            if (size != request.getSize()) {
+                throw new IllegalArgumentException("Chunks add up to " + size + " bytes, expected " + request.getSize());
+            }
+
+            TrackManifestDto previous = read(file);
+            TrackManifestDto manifest = TrackManifestDto.builder()
+                    .trackId(trackId)
+                    .supabaseId(supabaseId)
+                    .fileName(request.getFileName())
+                    .size(size)
+                    .chunkSize(request.getChunkSize())
+                    .chunks(chunks)
+                    .createdAt(LocalDateTime.now())
+                    .build();
+            write(file, manifest);
+            if (previous != null) {
+                blobStore.release(previous.getChunks());
+            }
+            return manifest;
+        } catch (IOException | RuntimeException e) {
+            blobStore.unretain(chunks);
+            throw e;
+        }
+    }
+
+    public TrackManifestDto getManifest(String supabaseId, String trackId) throws IOException {
+        TrackManifestDto manifest = read(resolve(supabaseId, trackId));
+        if (manifest == null) {
+            throw new NoSuchElementException("Track not found");
+        }
+        return manifest;
+    }
+
+    public List<TrackManifestDto> listManifests(String supabaseId) throws IOException {
+        Path dir = root.resolve(checkId(supabaseId));
+        List<TrackManifestDto> manifests = new ArrayList<>();
+        if (!Files.isDirectory(dir)) {
+            return manifests;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.json")) {
+            for (Path file : files) {
+                manifests.add(objectMapper.readValue(file.toFile(), TrackManifestDto.class));
+            }
+        }
+        return manifests;
+    }
+
+    /**
+     * Delete a manifest and release its chunks; chunks no other manifest uses are deleted
+     */
+    public synchronized void deleteManifest(String supabaseId, String trackId) throws IOException {
+        Path file = resolve(supabaseId, trackId);
+        TrackManifestDto manifest = read(file);
+        if (manifest == null) {
+            throw new NoSuchElementException("Track not found");
+        }
+        Files.delete(file);
+        blobStore.release(manifest.getChunks());
+    }
+
+    /**
+     * @return Hex SHA-256 over the manifest's size and chunk hashes, which identifies its content
+     */
+    public String contentHash(TrackManifestDto manifest) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(Long.toString(manifest.getSize()).getBytes(StandardCharsets.US_ASCII));
+            for (String hash : manifest.getChunks()) {
+                digest.update((byte) '\n');
+                digest.update(hash.getBytes(StandardCharsets.US_ASCII));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Write bytes start..end (inclusive) of a track to out, reading only the chunks that overlap
+     * the range and copying each with FileChannel.transferTo
+     */
+    public void writeRange(TrackManifestDto manifest, long start, long end, OutputStream out) throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        int chunkSize = manifest.getChunkSize();
+        int index = (int) (start / chunkSize);
+        long position = start;
+        while (position <= end) {
+            long chunkStart = (long) index * chunkSize;
+            try (FileChannel channel = FileChannel.open(blobStore.path(manifest.getChunks().get(index)), StandardOpenOption.READ)) {
+                long offset = position - chunkStart;
+                long remaining = Math.min(channel.size() - offset, end - position + 1);
+                while (remaining > 0) {
+                    long sent = channel.transferTo(offset, remaining, target);
+                    if (sent <= 0) {
+                        throw new IOException("Unexpected end of chunk " + index);
+                    }
+                    offset += sent;
+                    position += sent;
+                    remaining -= sent;
+                }
+            }
+            index++;
+        }
+        out.flush();
+    }
+
+    private Set<String> possessed(String supabaseId) {
+        return possession.computeIfAbsent(supabaseId, id -> ConcurrentHashMap.newKeySet());
+    }
+
+    private Path resolve(String supabaseId, String trackId) {
+        return root.resolve(checkId(supabaseId)).resolve(checkId(trackId) + ".json");
+    }
+
+    private TrackManifestDto read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        return objectMapper.readValue(file.toFile(), TrackManifestDto.class);
+    }
+
+    private void write(Path file, TrackManifestDto manifest) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        objectMapper.writeValue(temp.toFile(), manifest);
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String checkId(String id) {
+        if (id == null || !SAFE_ID.matcher(id).matches()) {
+            throw new IllegalArgumentException("Invalid id: " + id);
+        }
+        return id;
+    }
+}
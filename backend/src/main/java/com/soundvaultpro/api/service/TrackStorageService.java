@@ -0,0 +1,146 @@
+package com.soundvaultpro.api.service;
+
+import com.soundvaultpro.api.dto.TrackContainerDto;
+import com.soundvaultpro.api.storage.ChunkedContainer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Pattern;
+
+/**
+ * Stores chunked encrypted track containers on local disk and serves byte ranges of them.
+ * Containers are opaque to the server apart from their header; see {@link ChunkedContainer}.
+ */
+@Service
+@Slf4j
+public class TrackStorageService {
+
+    private static final Pattern SAFE_ID = Pattern.compile("[A-Za-z0-9_-]{1,128}");
+    private static final String EXTENSION = ".svc";
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final long maxUploadSize;
+
+    public TrackStorageService(@Value("${storage.root:./data}") String storageRoot,
+                               @Value("${tracks.max-upload-size:1073741824}") long maxUploadSize) throws IOException {
+        this.root = Paths.get(storageRoot, "tracks").toAbsolutePath().normalize();
+        this.maxUploadSize = maxUploadSize;
+        Files.createDirectories(root);
+    }
+
+    /**
+     * Store a container streamed from the client. The body is written to a temporary file and
+     * only moved into place once its header and total length check out.
+     */
+    public TrackContainerDto store(String supabaseId, String trackId, InputStream body) throws IOException {
+        Path target = resolve(supabaseId, trackId);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), trackId, ".part");
+        try {
+            long written = copyBounded(body, temp);
+            ChunkedContainer container;
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.READ)) {
+                container = ChunkedContainer.read(channel);
+            }
+            if (container.containerLength() != written) {
+                throw new IllegalArgumentException("Container length " + written
+                        + " does not match header (expected " + container.containerLength() + ")");
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Stored track container {} for user {} ({} bytes)", trackId, supabaseId, written);
+            return toDto(trackId, container, written);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * @return Header summary of a stored container, or null if it does not exist
+     */
+    public TrackContainerDto describe(String supabaseId, String trackId) throws IOException {
+        Path path = resolve(supabaseId, trackId);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return toDto(trackId, ChunkedContainer.read(channel), channel.size());
+        }
+    }
+
+    public boolean delete(String supabaseId, String trackId) throws IOException {
+        return Files.deleteIfExists(resolve(supabaseId, trackId));
+    }
+
+    /**
+     * Resolve the on-disk path of a container. Both ids are restricted to a safe alphabet so
+     * they can never escape the storage root.
+     */
+    public Path resolve(String supabaseId, String trackId) {
+        if (supabaseId == null || !SAFE_ID.matcher(supabaseId).matches()) {
+            throw new IllegalArgumentException("Invalid user id");
+        }
+        if (trackId == null || !SAFE_ID.matcher(trackId).matches()) {
+            throw new IllegalArgumentException("Invalid track id");
+        }
+        return root.resolve(supabaseId).resolve(trackId + EXTENSION);
+    }
+
+    /**
+     * Copy a byte range of a file to an output stream with FileChannel.transferTo, which lets
+     * the kernel move the bytes without passing them through the Java heap where it can.
+     */
+    public void transfer(FileChannel channel, long position, long count, OutputStream out) throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        long pos = position;
+        long remaining = count;
+        while (remaining > 0) {
+            long sent = channel.transferTo(pos, remaining, target);
+            if (sent <= 0) {
+                throw new IOException("Unexpected end of container at " + pos);
+            }
+            pos += sent;
+            remaining -= sent;
+        }
+        out.flush();
+    }
+
+    private long copyBounded(InputStream in, Path target) throws IOException {
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        long total = 0;
+        try (OutputStream out = Files.newOutputStream(target, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                total += n;
+                if (total > maxUploadSize) {
+                    throw new IllegalArgumentException("Container exceeds maximum size of " + maxUploadSize + " bytes");
+                }
+                out.write(buffer, 0, n);
+            }
+        }
+        return total;
+    }
+
+    private TrackContainerDto toDto(String trackId, ChunkedContainer container, long size) {
+        return TrackContainerDto.builder()
+                .trackId(trackId)
+                .chunkSize(container.getChunkSize())
+                .plaintextLength(container.getPlaintextLength())
+                .chunkCount(container.getChunkCount())
+                .headerLength(container.headerLength())
+                .size(size)
+                .build();
+    }
+}
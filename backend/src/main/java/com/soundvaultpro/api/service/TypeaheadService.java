@@ -0,0 +1,146 @@
+package com.soundvaultpro.api.service;
+
+import com.soundvaultpro.api.typeahead.SongIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local typeahead over every song Genius has returned to us.
+ *
+ * Search hits and song details are added to a {@link SongIndex} as they pass through
+ * {@link GeniusService}, so repeated and incremental queries are answered without an upstream
+ * call. The index is snapshotted to {@code storage.root/typeahead} when it has changed and on
+ * shutdown, and loaded at startup.
+ */
+@Service
+@Slf4j
+public class TypeaheadService {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "typeahead-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path snapshotFile;
+    private final int maxSongs;
+    private final long snapshotIntervalSeconds;
+    private final Timer lookupTimer;
+    private final Counter servedLocally;
+    private final Counter servedByGenius;
+
+    private volatile SongIndex index;
+    private volatile boolean dirty;
+
+    public TypeaheadService(MeterRegistry meterRegistry,
+                            @Value("${storage.root:./data}") String storageRoot,
+                            @Value("${typeahead.max-songs:50000}") int maxSongs,
+                            @Value("${typeahead.snapshot-interval-seconds:300}") long snapshotIntervalSeconds) {
+        this.snapshotFile = Paths.get(storageRoot, "typeahead", "songs.bin").toAbsolutePath().normalize();
+        this.maxSongs = maxSongs;
+        this.snapshotIntervalSeconds = snapshotIntervalSeconds;
+        this.index = new SongIndex(maxSongs);
+        this.lookupTimer = Timer.builder("typeahead.lookup").register(meterRegistry);
+        this.servedLocally = Counter.builder("typeahead.requests").tag("source", "local").register(meterRegistry);
+        this.servedByGenius = Counter.builder("typeahead.requests").tag("source", "genius").register(meterRegistry);
+        Gauge.builder("typeahead.songs", this, service -> service.index.size())
+                .description("Songs in the local typeahead index")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(snapshotFile.getParent());
+        long started = System.nanoTime();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile), 1 << 16))) {
+            index = SongIndex.read(in, maxSongs);
+            log.info("Loaded {} typeahead songs in {}ms", index.size(), (System.nanoTime() - started) / 1_000_000);
+        } catch (NoSuchFileException e) {
+            // First start; the index fills as Genius is queried
+        } catch (IOException e) {
+            log.error("Typeahead snapshot {} could not be loaded: {}", snapshotFile, e.getMessage());
+        }
+        scheduler.scheduleWithFixedDelay(this::snapshot, snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void close() {
+        scheduler.shutdownNow();
+        snapshot();
+    }
+
+    /**
+     * Index songs in the shape GeniusService returns them (id, title, artist, imageUrl, lyricsUrl)
+     */
+    public void addAll(List<Map<String, Object>> songs) {
+        for (Map<String, Object> song : songs) {
+            add(song);
+        }
+    }
+
+    public void add(Map<String, Object> song) {
+        if (song.get("id") instanceof Number id && id.intValue() > 0) {
+            index.put(id.intValue(), asText(song.get("title")), asText(song.get("artist")),
+                    asText(song.get("imageUrl")), asText(song.get("lyricsUrl")));
+            dirty = true;
+        }
+    }
+
+    public List<Map<String, Object>> lookup(String query, int limit) {
+        long started = System.nanoTime();
+        List<Map<String, Object>> results = index.search(query, limit);
+        lookupTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return results;
+    }
+
+    /**
+     * Count a typeahead request by whether it needed Genius
+     */
+    public void recordServed(boolean fromGenius) {
+        (fromGenius ? servedByGenius : servedLocally).increment();
+    }
+
+    private synchronized void snapshot() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                index.write(out);
+            }
+            Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty = true;
+            log.error("Error writing typeahead snapshot: {}", e.getMessage());
+        }
+    }
+
+    private static String asText(Object value) {
+        return value != null ? value.toString() : null;
+    }
+}
@@ -0,0 +1,379 @@
+package com.soundvaultpro.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soundvaultpro.api.dto.ChunkReceiptDto;
+import com.soundvaultpro.api.dto.CreateUploadRequestDto;
+import com.soundvaultpro.api.dto.UploadSessionDto;
+import com.soundvaultpro.api.storage.HashingInputStream;
+import com.soundvaultpro.api.storage.StorageBackend;
+import com.soundvaultpro.api.storage.UploadBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Resumable chunked uploads. A client opens a session, sends chunks in any order and in parallel,
+ * asks which chunks arrived after an interruption, and completes the session once all are in.
+ *
+ * Each chunk is streamed from the request straight into the storage backend through a fixed-size
+ * copy buffer while its SHA-256 is computed, so heap use per upload is bounded by the number of
+ * chunks allowed in flight rather than by file size. Session state is written to disk after every
+ * chunk so uploads survive a restart.
+ *
+ * Chunks stream without holding the session lock; recording one, completing and discarding the
+ * session all take it, and a session once completed or discarded is closed for good, so a chunk
+ * that finishes streaming after an abort cannot write the session back to disk. Completion waits
+ * for no chunk: it is refused with {@link UploadBusyException} while any are still in flight.
+ */
+@Service
+@Slf4j
+public class UploadSessionService {
+
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern SAFE_ID = Pattern.compile("[A-Za-z0-9_-]{1,128}");
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "upload-session-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final StorageBackend storageBackend;
+    private final ObjectMapper objectMapper;
+    private final Path sessionsDir;
+    private final Semaphore inflightChunks;
+    private final int maxParallelChunksPerUpload;
+    private final int defaultChunkSize;
+    private final int maxChunkSize;
+    private final long maxUploadSize;
+    private final long sessionTtlMinutes;
+    private final Counter chunksReceived;
+    private final Counter chunksRejected;
+    private final DistributionSummary chunkBytes;
+
+    public UploadSessionService(
+            StorageBackend storageBackend,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${storage.root:./data}") String storageRoot,
+            @Value("${uploads.max-inflight-chunks:32}") int maxInflightChunks,
+            @Value("${uploads.max-parallel-chunks-per-upload:4}") int maxParallelChunksPerUpload,
+            @Value("${uploads.default-chunk-size:8388608}") int defaultChunkSize,
+            @Value("${uploads.max-chunk-size:33554432}") int maxChunkSize,
+            @Value("${uploads.max-upload-size:2147483648}") long maxUploadSize,
+            @Value("${uploads.session-ttl-minutes:1440}") long sessionTtlMinutes) {
+        this.storageBackend = storageBackend;
+        this.objectMapper = objectMapper;
+        this.sessionsDir = Paths.get(storageRoot, "upload-sessions").toAbsolutePath().normalize();
+        this.inflightChunks = new Semaphore(maxInflightChunks);
+        this.maxParallelChunksPerUpload = maxParallelChunksPerUpload;
+        this.defaultChunkSize = defaultChunkSize;
+        this.maxChunkSize = maxChunkSize;
+        this.maxUploadSize = maxUploadSize;
+        this.sessionTtlMinutes = sessionTtlMinutes;
+        this.chunksReceived = Counter.builder("uploads.chunks").tag("outcome", "stored").register(meterRegistry);
+        this.chunksRejected = Counter.builder("uploads.chunks").tag("outcome", "rejected").register(meterRegistry);
+        this.chunkBytes = DistributionSummary.builder("uploads.chunk.bytes").baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("uploads.inflight.chunks", inflightChunks, s -> maxInflightChunks - s.availablePermits())
+                .description("Chunks currently being streamed to storage")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void loadSessions() throws IOException {
+        Files.createDirectories(sessionsDir);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(sessionsDir, "*.json")) {
+            for (Path file : files) {
+                try {
+                    UploadSessionDto state = objectMapper.readValue(file.toFile(), UploadSessionDto.class);
+                    if (!state.isCompleted()) {
+                        sessions.put(state.getUploadId(), new Session(state, maxParallelChunksPerUpload));
+                    }
+                } catch (IOException e) {
+                    log.warn("Skipping unreadable upload session {}: {}", file.getFileName(), e.getMessage());
+                }
+            }
+        }
+        sweeper.scheduleAtFixedRate(this::expireSessions, 10, 10, TimeUnit.MINUTES);
+        log.info("Loaded {} open upload sessions", sessions.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * Open an upload session
+     *
+     * @param supabaseId The uploading user
+     * @param request File name, total size and optionally the chunk size to use
+     * @return The new session, including the chunk size and count the client must follow
+     */
+    public UploadSessionDto createSession(String supabaseId, CreateUploadRequestDto request) throws IOException {
+        checkId(supabaseId);
+        if (request.getFileName() == null || request.getFileName().isBlank()) {
+            throw new IllegalArgumentException("File name is required");
+        }
+        if (request.getTotalSize() <= 0 || request.getTotalSize() > maxUploadSize) {
+            throw new IllegalArgumentException("File size must be between 1 and " + maxUploadSize + " bytes");
+        }
+        int chunkSize = request.getChunkSize() != null ? request.getChunkSize() : defaultChunkSize;
+        if (chunkSize < 64 * 1024 || chunkSize > maxChunkSize) {
+            throw new IllegalArgumentException("Chunk size must be between 65536 and " + maxChunkSize + " bytes");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        String uploadId = UUID.randomUUID().toString().replace("-", "");
+        UploadSessionDto state = UploadSessionDto.builder()
+                .uploadId(uploadId)
+                .supabaseId(supabaseId)
+                .fileName(request.getFileName())
+                .totalSize(request.getTotalSize())
+                .chunkSize(chunkSize)
+                .chunkCount((int) ((request.getTotalSize() + chunkSize - 1) / chunkSize))
+                .receivedChunks(new ConcurrentSkipListMap<>())
+                .createdAt(now)
+                .expiresAt(now.plusMinutes(sessionTtlMinutes))
+                .build();
+        Session session = new Session(state, maxParallelChunksPerUpload);
+        sessions.put(uploadId, session);
+        persist(session);
+        return snapshot(session);
+    }
+
+    /**
+     * @return Current state of a session, listing the chunks received so far
+     */
+    public UploadSessionDto getSession(String supabaseId, String uploadId) {
+        return snapshot(find(supabaseId, uploadId));
+    }
+
+    /**
+     * Stream one chunk into storage. Chunks may arrive in any order and be retried; a retried
+     * chunk replaces the earlier copy.
+     *
+     * @param expectedSha256 Hex SHA-256 the client computed for the chunk, or null to skip the check
+     * @throws UploadBusyException if too many chunks are in flight, globally or for this upload
+     */
+    public ChunkReceiptDto putChunk(String supabaseId, String uploadId, int index, String expectedSha256, InputStream body)
+            throws IOException {
+        Session session = find(supabaseId, uploadId);
+        UploadSessionDto state = session.state;
+        if (index < 0 || index >= state.getChunkCount()) {
+            throw new IllegalArgumentException("Chunk index out of range");
+        }
+        String expected = expectedSha256 != null ? expectedSha256.toLowerCase(Locale.ROOT) : null;
+        if (expected != null && !SHA256_HEX.matcher(expected).matches()) {
+            throw new IllegalArgumentException("Chunk hash must be a hex SHA-256");
+        }
+
+        if (!session.permits.tryAcquire()) {
+            throw new UploadBusyException("Too many chunks in flight for this upload");
+        }
+        try {
+            if (session.closed) {
+                throw new NoSuchElementException("Upload session not found");
+            }
+            if (!inflightChunks.tryAcquire()) {
+                throw new UploadBusyException("Server is busy, retry the chunk shortly");
+            }
+            try {
+                HashingInputStream hashing = new HashingInputStream(body, expectedChunkLength(state, index), expected);
+                try {
+                    storageBackend.putPart(uploadId, index, hashing);
+                } catch (IOException e) {
+                    chunksRejected.increment();
+                    throw e;
+                }
+                synchronized (session) {
+                    if (session.closed) {
+                        // Completed or discarded while this chunk streamed; drop what it wrote
+                        if (!state.isCompleted()) {
+                            storageBackend.abort(uploadId);
+                        }
+                        throw new NoSuchElementException("Upload session not found");
+                    }
+                    state.getReceivedChunks().put(index, hashing.getSha256());
+                    persist(session);
+                }
+                chunksReceived.increment();
+                chunkBytes.record(hashing.getCount());
+                return ChunkReceiptDto.builder()
+                        .index(index)
+                        .size(hashing.getCount())
+                        .sha256(hashing.getSha256())
+                        .receivedCount(state.getReceivedChunks().size())
+                        .chunkCount(state.getChunkCount())
+                        .build();
+            } finally {
+                inflightChunks.release();
+            }
+        } finally {
+            session.permits.release();
+        }
+    }
+
+    /**
+     * Assemble all chunks into the final object
+     *
+     * @return The completed session with its object key
+     */
+    public UploadSessionDto completeSession(String supabaseId, String uploadId) throws IOException {
+        Session session = find(supabaseId, uploadId);
+        UploadSessionDto state = session.state;
+        // Holding every permit keeps chunks from replacing parts while they are assembled
+        if (!session.permits.tryAcquire(maxParallelChunksPerUpload)) {
+            throw new UploadBusyException("Chunks are still in flight for this upload");
+        }
+        try {
+            return complete(session, supabaseId, uploadId);
+        } finally {
+            session.permits.release(maxParallelChunksPerUpload);
+        }
+    }
+
+    private UploadSessionDto complete(Session session, String supabaseId, String uploadId) throws IOException {
+        UploadSessionDto state = session.state;
+        synchronized (session) {
+            if (state.isCompleted()) {
+                return snapshot(session);
+            }
+            if (session.closed) {
+                throw new NoSuchElementException("Upload session not found");
+            }
+            int received = state.getReceivedChunks().size();
+            if (received != state.getChunkCount()) {
+                throw new IllegalArgumentException("Upload is missing " + (state.getChunkCount() - received) + " chunks");
+            }
+            String objectKey = supabaseId + "/" + uploadId;
+            long size = storageBackend.assemble(uploadId, state.getChunkCount(), objectKey);
+            if (size != state.getTotalSize()) {
+                storageBackend.delete(objectKey);
+                throw new IOException("Assembled size " + size + " does not match declared size " + state.getTotalSize());
+            }
+            state.setObjectKey(objectKey);
+            state.setCompleted(true);
+            session.closed = true;
+            sessions.remove(uploadId);
+            Files.deleteIfExists(sessionsDir.resolve(uploadId + ".json"));
+            log.info("Completed upload {} ({} bytes, {} chunks) for user {}", uploadId, size, state.getChunkCount(), supabaseId);
+        }
+        return snapshot(session);
+    }
+
+    /**
+     * Discard a session and any chunks it received
+     */
+    public void abortSession(String supabaseId, String uploadId) throws IOException {
+        Session session = find(supabaseId, uploadId);
+        discard(session);
+    }
+
+    private void expireSessions() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Session session : sessions.values()) {
+            if (session.state.getExpiresAt().isBefore(now)) {
+                try {
+                    discard(session);
+                    log.info("Expired upload session {}", session.state.getUploadId());
+                } catch (IOException e) {
+                    log.error("Error expiring upload session {}: {}", session.state.getUploadId(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void discard(Session session) throws IOException {
+        String uploadId = session.state.getUploadId();
+        synchronized (session) {
+            if (session.closed) {
+                return;
+            }
+            session.closed = true;
+            sessions.remove(uploadId);
+            storageBackend.abort(uploadId);
+            Files.deleteIfExists(sessionsDir.resolve(uploadId + ".json"));
+        }
+    }
+
+    private Session find(String supabaseId, String uploadId) {
+        Session session = uploadId != null ? sessions.get(uploadId) : null;
+        if (session == null || !session.state.getSupabaseId().equals(supabaseId)) {
+            throw new NoSuchElementException("Upload session not found");
+        }
+        return session;
+    }
+
+    private long expectedChunkLength(UploadSessionDto state, int index) {
+        if (index < state.getChunkCount() - 1) {
+            return state.getChunkSize();
+        }
+        return state.getTotalSize() - (long) index * state.getChunkSize();
+    }
+
+    private void persist(Session session) throws IOException {
+        // Serialize under the session lock so concurrent chunks never interleave their writes
+        synchronized (session) {
+            Path file = sessionsDir.resolve(session.state.getUploadId() + ".json");
+            Path temp = sessionsDir.resolve(session.state.getUploadId() + ".json.tmp");
+            objectMapper.writeValue(temp.toFile(), session.state);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    private UploadSessionDto snapshot(Session session) {
+        UploadSessionDto state = session.state;
+        return state.toBuilder().receivedChunks(new ConcurrentSkipListMap<>(state.getReceivedChunks())).build();
+    }
+
+    private static void checkId(String id) {
+        if (id == null || !SAFE_ID.matcher(id).matches()) {
+            throw new IllegalArgumentException("Invalid user id");
+        }
+    }
+
+    private static class Session {
+        private final UploadSessionDto state;
+        private final Semaphore permits;
+        // Set once completed or discarded, under the session lock
+        private volatile boolean closed;
+
+        private Session(UploadSessionDto state, int maxParallelChunks) {
+            this.state = state;
+            this.permits = new Semaphore(maxParallelChunks);
+            if (!(state.getReceivedChunks() instanceof ConcurrentSkipListMap)) {
+                state.setReceivedChunks(new ConcurrentSkipListMap<>(
+                        state.getReceivedChunks() != null ? state.getReceivedChunks() : Map.of()));
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.soundvaultpro.api.service;
 
+import com.soundvaultpro.api.cache.InvalidationBus;
+import com.soundvaultpro.api.dto.KeyPairDto;
 import com.soundvaultpro.api.dto.SupabaseAuthDto;
 import com.soundvaultpro.api.dto.UserDto;
 import lombok.RequiredArgsConstructor;
@@ -10,9 +12,11 @@ import org.springframework.stereotype.Service;
 public class UserService {
     
     private final SupabaseService supabaseService;
+    private final ChangeFeedService changeFeedService;
+    private final InvalidationBus invalidationBus;
     
     public UserDto registerOrUpdateUser(SupabaseAuthDto authDto) {
-        return supabaseService.saveUserProfile(
+        UserDto userDto = supabaseService.saveUserProfile(
             authDto.getSupabaseId(),
             authDto.getEmail(),
             authDto.getName(),
@@ -20,13 +24,23 @@ public class UserService {
             null,  // publicKey - not set during registration
             null   // encryptedPrivateKey - not set during registration
         );
+        invalidationBus.publish(SupabaseService.PROFILES_CACHE, authDto.getSupabaseId());
+        changeFeedService.publish(authDto.getSupabaseId(), ChangeFeedService.PROFILE_UPDATED, authDto.getSupabaseId(), userDto);
+        return userDto;
     }
     
     public UserDto findBySupabaseId(String supabaseId) {
         return supabaseService.getUserProfile(supabaseId);
     }
     
+    public KeyPairDto findKeyPair(String supabaseId) {
+        return supabaseService.getUserKeys(supabaseId);
+    }
+    
     public UserDto saveKeyPair(String supabaseId, String publicKey, String encryptedPrivateKey) {
-        return supabaseService.saveUserKeys(supabaseId, publicKey, encryptedPrivateKey);
+        UserDto userDto = supabaseService.saveUserKeys(supabaseId, publicKey, encryptedPrivateKey);
+        invalidationBus.publish(SupabaseService.PROFILES_CACHE, supabaseId);
+        changeFeedService.publish(supabaseId, ChangeFeedService.PROFILE_UPDATED, supabaseId, userDto);
+        return userDto;
     }
 }
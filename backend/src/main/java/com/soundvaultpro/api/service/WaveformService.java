@@ -0,0 +1,330 @@
+package com.soundvaultpro.api.service;
+
+import com.soundvaultpro.api.dto.WaveformDto;
+import com.soundvaultpro.api.dto.WaveformUploadDto;
+import com.soundvaultpro.api.waveform.AudioDecoder;
+import com.soundvaultpro.api.waveform.ContentHasher;
+import com.soundvaultpro.api.waveform.UndecodableAudioException;
+import com.soundvaultpro.api.waveform.WaveformPeaks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Waveform peaks computed once per track content and stored as small quantized files.
+ *
+ * Peaks are keyed by content hash, so a track is decoded once however many users play it.
+ * The server downloads the track to a temporary file, checks it against the content hash and
+ * decodes it with the configured {@link AudioDecoder} on a small low-priority pool: javax.sound
+ * by default, ffmpeg for every format the library holds. Only these verified peaks are shared.
+ * For formats the decoder cannot handle (and for encrypted tracks) the client, which decodes
+ * the audio anyway, submits the finest peaks and the server builds the coarser levels; nothing
+ * ties those to the content, so they are kept for and served to the submitting user only.
+ */
+@Service
+@Slf4j
+public class WaveformService {
+
+    public enum Status { READY, PENDING, FAILED, MISSING }
+
+    private static final Pattern CONTENT_HASH = Pattern.compile("[0-9a-f]{16,128}");
+    private static final Pattern SAFE_ID = Pattern.compile("[A-Za-z0-9_-]{1,128}");
+    private static final int MAX_REMEMBERED_FAILURES = 10_000;
+    // A failed download is reported to the next poll and then retried, not remembered
+    private static final long TRANSIENT_FAILURE_MS = TimeUnit.SECONDS.toMillis(30);
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final Map<String, Boolean> pending = new ConcurrentHashMap<>();
+    // Content that cannot be decoded is remembered so it is not downloaded again on every poll
+    private final Map<String, Failure> failures = new ConcurrentHashMap<>();
+
+    private final RestTemplate restTemplate;
+    private final AudioDecoder decoder;
+    private final MetadataService metadataService;
+    private final ThreadPoolTaskExecutor waveformExecutor;
+    private final Path root;
+    private final Path shared;
+    private final Path submitted;
+    private final Path downloads;
+    private final long maxTrackBytes;
+    private final int maxBuckets;
+    private final int minBuckets;
+    private final long failureTtlMs;
+    private final Timer computeTimer;
+    private final Counter computeFailures;
+
+    public WaveformService(RestTemplate restTemplate,
+                           AudioDecoder decoder,
+                           MetadataService metadataService,
+                           @Qualifier("waveformExecutor") ThreadPoolTaskExecutor waveformExecutor,
+                           MeterRegistry meterRegistry,
+                           @Value("${storage.root:./data}") String storageRoot,
+                           @Value("${waveforms.max-buckets:8192}") int maxBuckets,
+                           @Value("${waveforms.min-buckets:128}") int minBuckets,
+                           @Value("${waveforms.max-track-bytes:1073741824}") long maxTrackBytes,
+                           @Value("${waveforms.failure-ttl-minutes:1440}") long failureTtlMinutes) throws IOException {
+        this.restTemplate = restTemplate;
+        this.decoder = decoder;
+        this.metadataService = metadataService;
+        this.waveformExecutor = waveformExecutor;
+        this.root = Paths.get(storageRoot, "waveforms").toAbsolutePath().normalize();
+        this.shared = root.resolve("shared");
+        this.submitted = root.resolve("users");
+        this.downloads = root.resolve("downloads");
+        this.maxTrackBytes = maxTrackBytes;
+        this.maxBuckets = maxBuckets;
+        this.minBuckets = minBuckets;
+        this.failureTtlMs = TimeUnit.MINUTES.toMillis(failureTtlMinutes);
+        this.computeTimer = Timer.builder("waveforms.compute").register(meterRegistry);
+        this.computeFailures = Counter.builder("waveforms.failures").register(meterRegistry);
+        Gauge.builder("waveforms.queue", waveformExecutor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .description("Waveform computations waiting for a worker")
+                .register(meterRegistry);
+        Files.createDirectories(root);
+        // Tracks a previous run was decoding when it stopped
+        FileSystemUtils.deleteRecursively(downloads);
+        Files.createDirectories(downloads);
+    }
+
+    /**
+     * @return The peaks the server computed from the content, or null if none are stored yet
+     */
+    public WaveformPeaks get(String contentHash) throws IOException {
+        return read(sharedPath(normalize(contentHash)));
+    }
+
+    /**
+     * @return The peaks the user submitted, or null if they submitted none
+     */
+    public WaveformPeaks getSubmitted(String supabaseId, String contentHash) throws IOException {
+        checkId(supabaseId);
+        return read(submittedPath(supabaseId, normalize(contentHash)));
+    }
+
+    /**
+     * Queue a computation from a temporary link unless peaks are stored or already pending
+     *
+     * @param supabaseId Optional user whose submitted peaks also count as stored
+     * @throws RejectedExecutionException if the worker queue is full
+     */
+    public Status request(String contentHash, String supabaseId, String url) {
+        String hash = normalize(contentHash);
+        if (Files.exists(sharedPath(hash))) {
+            return Status.READY;
+        }
+        if (supabaseId != null) {
+            checkId(supabaseId);
+            if (Files.exists(submittedPath(supabaseId, hash))) {
+                return Status.READY;
+            }
+        }
+        if (failure(hash) != null) {
+            return Status.FAILED;
+        }
+        if (url == null || url.isBlank()) {
+            return Status.MISSING;
+        }
+        URI uri = metadataService.validateUrl(url);
+        if (pending.putIfAbsent(hash, Boolean.TRUE) == null) {
+            try {
+                waveformExecutor.execute(() -> compute(hash, uri));
+            } catch (RejectedExecutionException e) {
+                pending.remove(hash);
+                throw e;
+            }
+        }
+        return Status.PENDING;
+    }
+
+    public String getFailure(String contentHash) {
+        Failure failure = failure(normalize(contentHash));
+        return failure != null ? failure.message : null;
+    }
+
+    /**
+     * Store peaks computed by the client for that user, replacing any they submitted before.
+     * If the server has computed peaks for the content, those are returned and nothing is stored.
+     */
+    public WaveformDto store(String supabaseId, String contentHash, WaveformUploadDto upload) throws IOException {
+        checkId(supabaseId);
+        String hash = normalize(contentHash);
+        WaveformPeaks existing = get(hash);
+        if (existing != null) {
+            return toDto(hash, existing);
+        }
+        if (upload.getPeaks() == null || upload.getPeaks().length / 2 > maxBuckets * 16) {
+            throw new IllegalArgumentException("Peaks are required, up to " + maxBuckets * 16 + " buckets");
+        }
+        WaveformPeaks peaks = WaveformPeaks.build(upload.getSampleRate(), upload.getSamplesPerBucket(),
+                upload.getPeaks(), maxBuckets, minBuckets);
+        write(submittedPath(supabaseId, hash), peaks);
+        return toDto(hash, peaks);
+    }
+
+    public WaveformDto toDto(String contentHash, WaveformPeaks peaks) {
+        List<Integer> levels = new ArrayList<>(peaks.getLevelCount());
+        for (int i = 0; i < peaks.getLevelCount(); i++) {
+            levels.add(peaks.getBuckets(i));
+        }
+        return WaveformDto.builder()
+                .contentHash(normalize(contentHash))
+                .sampleRate(peaks.getSampleRate())
+                .samplesPerBucket(peaks.getSamplesPerBucket())
+                .levels(levels)
+                .build();
+    }
+
+    private void compute(String hash, URI uri) {
+        long started = System.nanoTime();
+        try {
+            WaveformPeaks peaks;
+            Path download = Files.createTempFile(downloads, hash, ".download");
+            try {
+                restTemplate.execute(uri, HttpMethod.GET, null, response -> {
+                    copy(response.getBody(), download, hash);
+                    return null;
+                });
+                peaks = decoder.decode(download, maxBuckets, minBuckets);
+            } finally {
+                Files.deleteIfExists(download);
+            }
+            write(sharedPath(hash), peaks);
+            computeTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            log.debug("Computed waveform {} in {}ms", hash, (System.nanoTime() - started) / 1_000_000);
+        } catch (Exception e) {
+            computeFailures.increment();
+            if (failures.size() >= MAX_REMEMBERED_FAILURES) {
+                failures.clear();
+            }
+            UndecodableAudioException undecodable = undecodable(e);
+            long ttl = undecodable != null ? failureTtlMs : TRANSIENT_FAILURE_MS;
+            String message = String.valueOf((undecodable != null ? undecodable : e).getMessage());
+            failures.put(hash, new Failure(message, System.currentTimeMillis() + ttl));
+            log.warn("Waveform {} could not be computed: {}", hash, message);
+        } finally {
+            pending.remove(hash);
+        }
+    }
+
+    /**
+     * Save a download for the decoder, which may need to seek, and check it is the content asked for.
+     * Neither failure is remembered for long: until the bytes match the hash, they say nothing
+     * about the content, and a link to other bytes must not block the hash for everyone.
+     */
+    private void copy(InputStream in, Path file, String hash) throws IOException {
+        ContentHasher hasher = new ContentHasher();
+        try (OutputStream out = Files.newOutputStream(file)) {
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            long total = 0;
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                total += read;
+                if (total > maxTrackBytes) {
+                    throw new IOException("Track is larger than " + maxTrackBytes + " bytes");
+                }
+                hasher.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+            }
+        }
+        if (!hasher.matches(hash)) {
+            throw new IOException("Downloaded track does not match content hash " + hash);
+        }
+    }
+
+    private Failure failure(String hash) {
+        Failure failure = failures.get(hash);
+        if (failure != null && failure.expiresAt <= System.currentTimeMillis()) {
+            failures.remove(hash, failure);
+            return null;
+        }
+        return failure;
+    }
+
+    /**
+     * @return The decoding failure behind an exception, which RestTemplate may have wrapped, or null
+     */
+    private static UndecodableAudioException undecodable(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof UndecodableAudioException undecodable) {
+                return undecodable;
+            }
+        }
+        return null;
+    }
+
+    private static WaveformPeaks read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        return WaveformPeaks.decode(Files.readAllBytes(file));
+    }
+
+    private static void write(Path file, WaveformPeaks peaks) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), "peaks", ".tmp");
+        try {
+            Files.write(temp, peaks.encode());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path sharedPath(String hash) {
+        return shared.resolve(hash.substring(0, 2)).resolve(hash + ".svw");
+    }
+
+    private Path submittedPath(String supabaseId, String hash) {
+        return submitted.resolve(supabaseId).resolve(hash.substring(0, 2)).resolve(hash + ".svw");
+    }
+
+    private static void checkId(String supabaseId) {
+        if (supabaseId == null || !SAFE_ID.matcher(supabaseId).matches()) {
+            throw new IllegalArgumentException("Invalid user id");
+        }
+    }
+
+    private static String normalize(String contentHash) {
+        String hash = contentHash != null ? contentHash.toLowerCase(Locale.ROOT) : "";
+        if (!CONTENT_HASH.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Invalid content hash: " + contentHash);
+        }
+        return hash;
+    }
+
+    private static final class Failure {
+        private final String message;
+        private final long expiresAt;
+
+        private Failure(String message, long expiresAt) {
+            this.message = message;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
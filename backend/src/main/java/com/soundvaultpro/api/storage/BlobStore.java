@@ -0,0 +1,225 @@
+package com.soundvaultpro.api.storage;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed, reference-counted store of immutable chunks keyed by their SHA-256.
+ * A chunk is stored once no matter how many tracks or users reference it.
+ *
+ * Reference counts live in memory and are rebuilt from the manifests at startup, so there is
+ * no second source of truth to keep consistent. All changes to one hash go through
+ * {@link ConcurrentHashMap#compute}, which serializes retain, release and garbage collection
+ * of that blob without a global lock. Blobs uploaded but never referenced are removed by a
+ * periodic sweep once they are older than the orphan TTL, along with temporary files a crash
+ * left behind.
+ *
+ * The store itself does not know who may read a chunk; {@link #put} always reads and verifies the
+ * bytes, even for a chunk already stored, so callers can treat a successful put as proof that
+ * the uploader holds the content.
+ */
+@Component
+@Slf4j
+public class BlobStore {
+
+    private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+
+    private final Map<String, Integer> refCounts = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "blob-orphan-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Path root;
+    private final long orphanTtlMinutes;
+
+    public BlobStore(MeterRegistry meterRegistry,
+                     @Value("${storage.root:./data}") String storageRoot,
+                     @Value("${blobs.orphan-ttl-minutes:1440}") long orphanTtlMinutes) throws IOException {
+        this.root = Paths.get(storageRoot, "blobs").toAbsolutePath().normalize();
+        this.orphanTtlMinutes = orphanTtlMinutes;
+        Files.createDirectories(root);
+        sweeper.scheduleAtFixedRate(this::sweepOrphans, 60, 60, TimeUnit.MINUTES);
+        Gauge.builder("blobs.referenced", refCounts, Map::size)
+                .description("Distinct stored chunks referenced by at least one manifest")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    public static String normalize(String hash) {
+        String normalized = hash != null ? hash.toLowerCase(Locale.ROOT) : "";
+        if (!SHA256_HEX.matcher(normalized).matches()) {
+            throw new IllegalArgumentException("Invalid chunk hash: " + hash);
+        }
+        return normalized;
+    }
+
+    public boolean contains(String hash) {
+        return Files.exists(path(normalize(hash)));
+    }
+
+    /**
+     * Store a chunk, verifying its content matches the hash while streaming. A chunk already
+     * stored is verified all the same and then discarded.
+     *
+     * @param length Exact length of the chunk
+     * @return true if the chunk was stored, false if it was already present
+     */
+    public boolean put(String hash, long length, InputStream data) throws IOException {
+        String normalized = normalize(hash);
+        Path target = path(normalized);
+        if (Files.exists(target)) {
+            new HashingInputStream(data, length, normalized).transferTo(OutputStream.nullOutputStream());
+            return false;
+        }
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), normalized, ".tmp");
+        try {
+            Files.copy(new HashingInputStream(data, length, normalized), temp, StandardCopyOption.REPLACE_EXISTING);
+            // Identical content, so losing a race to a concurrent upload of the same chunk is harmless
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public Path path(String hash) {
+        // Two levels of fan-out keep directories small
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    public long size(String hash) throws IOException {
+        return Files.size(path(normalize(hash)));
+    }
+
+    /**
+     * Add one reference to each hash. Either all references are taken or none are.
+     *
+     * @throws NoSuchElementException if a chunk is not stored
+     */
+    public void retain(List<String> hashes) {
+        List<String> retained = new ArrayList<>(hashes.size());
+        try {
+            for (String hash : hashes) {
+                String normalized = normalize(hash);
+                refCounts.compute(normalized, (key, count) -> {
+                    if (count == null && !Files.exists(path(key))) {
+                        throw new NoSuchElementException("Chunk " + key + " is not stored");
+                    }
+                    return count == null ? 1 : count + 1;
+                });
+                retained.add(normalized);
+            }
+        } catch (RuntimeException e) {
+            unretain(retained);
+            throw e;
+        }
+    }
+
+    /**
+     * Undo {@link #retain} for a caller that aborted. Unlike {@link #release} this never deletes
+     * chunks, since they were uploaded for this caller and it may retry.
+     */
+    public void unretain(List<String> hashes) {
+        for (String hash : hashes) {
+            refCounts.computeIfPresent(normalize(hash), (key, count) -> count <= 1 ? null : count - 1);
+        }
+    }
+
+    /**
+     * Drop one reference from each hash, deleting chunks that are no longer referenced
+     */
+    public void release(List<String> hashes) {
+        for (String hash : hashes) {
+            refCounts.compute(normalize(hash), (key, count) -> {
+                if (count == null || count <= 1) {
+                    deleteQuietly(key);
+                    return null;
+                }
+                return count - 1;
+            });
+        }
+    }
+
+    public int refCount(String hash) {
+        return refCounts.getOrDefault(normalize(hash), 0);
+    }
+
+    private void sweepOrphans() {
+        Instant cutoff = Instant.now().minus(orphanTtlMinutes, ChronoUnit.MINUTES);
+        try (Stream<Path> files = Files.walk(root, 3)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".tmp")) {
+                    // Left by a put the process never finished
+                    if (isOlderThan(file, cutoff)) {
+                        deleteQuietly(file);
+                    }
+                } else if (SHA256_HEX.matcher(name).matches()) {
+                    refCounts.compute(name, (key, count) -> {
+                        if (count == null && isOlderThan(file, cutoff)) {
+                            deleteQuietly(file);
+                            log.debug("Removed unreferenced chunk {}", key);
+                        }
+                        return count;
+                    });
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Error sweeping unreferenced chunks: {}", e.getMessage());
+        }
+    }
+
+    private static boolean isOlderThan(Path file, Instant cutoff) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void deleteQuietly(String hash) {
+        deleteQuietly(path(hash));
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.error("Error deleting {}: {}", file.getFileName(), e.getMessage());
+        }
+    }
+}
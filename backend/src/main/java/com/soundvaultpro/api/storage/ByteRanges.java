@@ -0,0 +1,50 @@
+package com.soundvaultpro.api.storage;
+
+/**
+ * Parsing of HTTP Range headers for the streaming endpoints
+ */
+public final class ByteRanges {
+
+    private static final long[] WHOLE = new long[0];
+
+    private ByteRanges() {
+    }
+
+    /**
+     * Parse a Range header against a resource size
+     *
+     * @return {start, end} (inclusive) for a single satisfiable range, an empty array to serve
+     *         the whole resource (multiple ranges or an unknown unit), or null if unsatisfiable
+     */
+    public static long[] parse(String header, long size) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return WHOLE;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return WHOLE;
+        }
+        try {
+            long start;
+            long end;
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, dash));
+                end = dash == spec.length() - 1 ? size - 1 : Math.min(Long.parseLong(spec.substring(dash + 1)), size - 1);
+            }
+            if (start >= size || start > end) {
+                return null;
+            }
+            return new long[] {start, end};
+        } catch (NumberFormatException e) {
+            return WHOLE;
+        }
+    }
+}
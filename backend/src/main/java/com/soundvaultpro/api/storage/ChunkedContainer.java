@@ -0,0 +1,163 @@
+package com.soundvaultpro.api.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Layout of a chunked encrypted track. The server never sees keys or plaintext; it only needs
+ * the header to map byte ranges onto whole sealed chunks.
+ *
+ * <pre>
+ * offset  size           field
+ * 0       4              magic "SVC1"
+ * 4       1              version
+ * 5       3              reserved (zero)
+ * 8       4              plaintext chunk size
+ * 12      8              plaintext length
+ * 20      4              chunk count
+ * 24      24 * count     per-chunk nonce index
+ * ...                    sealed chunks, each chunk size + 16 bytes except the last
+ * </pre>
+ *
+ * All integers are big-endian. Because every chunk except the last has the same sealed size,
+ * the position of any chunk is computed directly from its index.
+ */
+public final class ChunkedContainer {
+
+    public static final byte[] MAGIC = "SVC1".getBytes(StandardCharsets.US_ASCII);
+    public static final int VERSION = 1;
+    public static final int FIXED_HEADER_LENGTH = 24;
+    public static final int NONCE_LENGTH = 24;
+    // NaCl box/secretbox authenticator
+    public static final int TAG_LENGTH = 16;
+
+    public static final int MIN_CHUNK_SIZE = 16 * 1024;
+    public static final int MAX_CHUNK_SIZE = 4 * 1024 * 1024;
+
+    private final int chunkSize;
+    private final long plaintextLength;
+    private final int chunkCount;
+
+    private ChunkedContainer(int chunkSize, long plaintextLength, int chunkCount) {
+        this.chunkSize = chunkSize;
+        this.plaintextLength = plaintextLength;
+        this.chunkCount = chunkCount;
+    }
+
+    /**
+     * Read and validate the fixed header from the start of a container
+     *
+     * @throws IllegalArgumentException if the header is malformed or inconsistent
+     */
+    public static ChunkedContainer read(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(FIXED_HEADER_LENGTH);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) {
+                throw new IllegalArgumentException("Container header is truncated");
+            }
+        }
+        buffer.flip();
+        return parse(buffer);
+    }
+
+    /**
+     * Parse the fixed header from a buffer positioned at its first byte
+     */
+    public static ChunkedContainer parse(ByteBuffer header) {
+        ByteBuffer buffer = header.duplicate().order(ByteOrder.BIG_ENDIAN);
+        if (buffer.remaining() < FIXED_HEADER_LENGTH) {
+            throw new IllegalArgumentException("Container header is truncated");
+        }
+        byte[] magic = new byte[MAGIC.length];
+        buffer.get(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IllegalArgumentException("Not a chunked track container");
+        }
+        int version = buffer.get() & 0xFF;
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported container version " + version);
+        }
+        buffer.position(buffer.position() + 3);
+        int chunkSize = buffer.getInt();
+        long plaintextLength = buffer.getLong();
+        int chunkCount = buffer.getInt();
+
+        if (chunkSize < MIN_CHUNK_SIZE || chunkSize > MAX_CHUNK_SIZE) {
+            throw new IllegalArgumentException("Chunk size out of range: " + chunkSize);
+        }
+        long expectedChunks = plaintextLength == 0 ? 0 : (plaintextLength + chunkSize - 1) / chunkSize;
+        if (plaintextLength < 0 || chunkCount != expectedChunks) {
+            throw new IllegalArgumentException("Chunk count does not match plaintext length");
+        }
+        return new ChunkedContainer(chunkSize, plaintextLength, chunkCount);
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public long getPlaintextLength() {
+        return plaintextLength;
+    }
+
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+    /**
+     * @return Length of the fixed header plus the nonce index, i.e. the offset of chunk 0
+     */
+    public long headerLength() {
+        return FIXED_HEADER_LENGTH + (long) NONCE_LENGTH * chunkCount;
+    }
+
+    /**
+     * @return Total size a well-formed container with this header must have
+     */
+    public long containerLength() {
+        return headerLength() + plaintextLength + (long) TAG_LENGTH * chunkCount;
+    }
+
+    public long chunkOffset(int index) {
+        return headerLength() + (long) index * (chunkSize + TAG_LENGTH);
+    }
+
+    public long sealedChunkLength(int index) {
+        if (index < chunkCount - 1) {
+            return chunkSize + TAG_LENGTH;
+        }
+        return plaintextLength - (long) index * chunkSize + TAG_LENGTH;
+    }
+
+    /**
+     * @return Index of the chunk containing a container byte offset, or -1 for the header
+     */
+    public int chunkAt(long offset) {
+        if (offset < headerLength()) {
+            return -1;
+        }
+        long index = (offset - headerLength()) / (chunkSize + TAG_LENGTH);
+        return (int) Math.min(index, chunkCount - 1);
+    }
+
+    /**
+     * Widen a byte range so it starts and ends on unit boundaries. The header with its nonce
+     * index is one unit and each sealed chunk is another, so clients never receive a partial
+     * chunk they cannot authenticate.
+     *
+     * @param start First requested byte (inclusive)
+     * @param end Last requested byte (inclusive)
+     * @return {alignedStart, alignedEnd}, both inclusive
+     */
+    public long[] align(long start, long end) {
+        int first = chunkAt(start);
+        int last = chunkAt(end);
+        long alignedStart = first < 0 ? 0 : chunkOffset(first);
+        long alignedEnd = last < 0 ? headerLength() - 1 : chunkOffset(last) + sealedChunkLength(last) - 1;
+        return new long[] {alignedStart, alignedEnd};
+    }
+}
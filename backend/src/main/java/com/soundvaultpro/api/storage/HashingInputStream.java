@@ -0,0 +1,93 @@
+package com.soundvaultpro.api.storage;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Computes a SHA-256 digest of everything read through it and enforces an exact length.
+ * When an expected digest is given it is checked at end of stream, before -1 is returned,
+ * so a storage backend copying from this stream fails instead of committing bad data.
+ */
+public class HashingInputStream extends FilterInputStream {
+
+    private final MessageDigest digest;
+    private final long expectedLength;
+    private final String expectedSha256;
+    private long count;
+    private String sha256;
+
+    /**
+     * @param expectedLength Exact number of bytes the stream must contain
+     * @param expectedSha256 Lowercase hex digest to verify, or null to only compute it
+     */
+    public HashingInputStream(InputStream in, long expectedLength, String expectedSha256) {
+        super(in);
+        this.expectedLength = expectedLength;
+        this.expectedSha256 = expectedSha256;
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] one = new byte[1];
+        int n = read(one, 0, 1);
+        return n < 0 ? -1 : one[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, (int) Math.min(len, Math.max(expectedLength - count + 1, 1)));
+        if (n < 0) {
+            finish();
+            return -1;
+        }
+        count += n;
+        if (count > expectedLength) {
+            throw new IOException("Chunk is larger than the expected " + expectedLength + " bytes");
+        }
+        digest.update(b, off, n);
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        throw new IOException("skip is not supported while hashing");
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * @return Hex SHA-256 of the bytes read, available once the stream reached its end
+     */
+    public String getSha256() {
+        return sha256;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    private void finish() throws IOException {
+        if (sha256 != null) {
+            return;
+        }
+        if (count != expectedLength) {
+            throw new IOException("Chunk has " + count + " bytes, expected " + expectedLength);
+        }
+        sha256 = HexFormat.of().formatHex(digest.digest());
+        if (expectedSha256 != null && !expectedSha256.equals(sha256)) {
+            throw new IOException("Chunk SHA-256 mismatch");
+        }
+    }
+}
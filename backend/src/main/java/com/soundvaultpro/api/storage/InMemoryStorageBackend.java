@@ -0,0 +1,74 @@
+package com.soundvaultpro.api.storage;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Heap-backed stand-in for a remote store such as Dropbox upload sessions, for local runs and
+ * tests where no real backend is available. Enable with storage.backend=memory.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "memory")
+public class InMemoryStorageBackend implements StorageBackend {
+
+    private final Map<String, Map<Integer, byte[]>> parts = new ConcurrentHashMap<>();
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+
+    @Override
+    public long putPart(String uploadId, int partNumber, InputStream data) throws IOException {
+        byte[] bytes = data.readAllBytes();
+        parts.computeIfAbsent(uploadId, id -> new ConcurrentHashMap<>()).put(partNumber, bytes);
+        return bytes.length;
+    }
+
+    @Override
+    public long assemble(String uploadId, int partCount, String key) throws IOException {
+        Map<Integer, byte[]> upload = parts.get(uploadId);
+        if (upload == null) {
+            throw new FileNotFoundException("No parts for upload " + uploadId);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < partCount; i++) {
+            byte[] part = upload.get(i);
+            if (part == null) {
+                throw new FileNotFoundException("Missing part " + i + " of upload " + uploadId);
+            }
+            out.write(part);
+        }
+        objects.put(key, out.toByteArray());
+        parts.remove(uploadId);
+        return out.size();
+    }
+
+    @Override
+    public void abort(String uploadId) {
+        parts.remove(uploadId);
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return objects.containsKey(key);
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        byte[] bytes = objects.get(key);
+        if (bytes == null) {
+            throw new FileNotFoundException(key);
+        }
+        return new ByteArrayInputStream(bytes);
+    }
+
+    @Override
+    public boolean delete(String key) {
+        return objects.remove(key) != null;
+    }
+}
@@ -0,0 +1,122 @@
+package com.soundvaultpro.api.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Pattern;
+
+/**
+ * Stores parts and objects under the local storage root. Parts are written to a temporary file
+ * and renamed into place, and assembly copies them with FileChannel.transferTo.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local", matchIfMissing = true)
+@Slf4j
+public class LocalDiskStorageBackend implements StorageBackend {
+
+    private static final Pattern SAFE_KEY = Pattern.compile("[A-Za-z0-9_-][A-Za-z0-9._/-]{0,255}");
+
+    private final Path partsRoot;
+    private final Path objectsRoot;
+
+    public LocalDiskStorageBackend(@Value("${storage.root:./data}") String storageRoot) throws IOException {
+        Path root = Paths.get(storageRoot).toAbsolutePath().normalize();
+        this.partsRoot = root.resolve("uploads");
+        this.objectsRoot = root.resolve("objects");
+        Files.createDirectories(partsRoot);
+        Files.createDirectories(objectsRoot);
+    }
+
+    @Override
+    public long putPart(String uploadId, int partNumber, InputStream data) throws IOException {
+        Path dir = partsRoot.resolve(checkKey(uploadId));
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, "part-" + partNumber + "-", ".tmp");
+        try {
+            long written = Files.copy(data, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, dir.resolve(partName(partNumber)), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return written;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public long assemble(String uploadId, int partCount, String key) throws IOException {
+        Path dir = partsRoot.resolve(checkKey(uploadId));
+        Path target = objectPath(key);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), "assemble-", ".tmp");
+        try {
+            long size = 0;
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (int i = 0; i < partCount; i++) {
+                    try (FileChannel in = FileChannel.open(dir.resolve(partName(i)), StandardOpenOption.READ)) {
+                        long length = in.size();
+                        long copied = 0;
+                        while (copied < length) {
+                            copied += in.transferTo(copied, length - copied, out);
+                        }
+                        size += length;
+                    }
+                }
+                out.force(true);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            abort(uploadId);
+            return size;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public void abort(String uploadId) throws IOException {
+        FileSystemUtils.deleteRecursively(partsRoot.resolve(checkKey(uploadId)));
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(objectPath(key));
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(objectPath(key));
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        return Files.deleteIfExists(objectPath(key));
+    }
+
+    private Path objectPath(String key) {
+        Path path = objectsRoot.resolve(checkKey(key)).normalize();
+        if (!path.startsWith(objectsRoot)) {
+            throw new IllegalArgumentException("Invalid storage key");
+        }
+        return path;
+    }
+
+    private static String checkKey(String key) {
+        if (key == null || !SAFE_KEY.matcher(key).matches() || key.contains("..")) {
+            throw new IllegalArgumentException("Invalid storage key");
+        }
+        return key;
+    }
+
+    private static String partName(int partNumber) {
+        return String.format("%06d.part", partNumber);
+    }
+}
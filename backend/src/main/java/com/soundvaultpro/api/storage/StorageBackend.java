@@ -0,0 +1,37 @@
+package com.soundvaultpro.api.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Destination for uploaded bytes. Uploads arrive as numbered parts that may be written in any
+ * order and concurrently; once all parts are present they are assembled into a single object.
+ * Implementations must only make a part visible once it has been written completely.
+ */
+public interface StorageBackend {
+
+    /**
+     * Stream one part of an upload to storage, replacing any earlier copy of the same part
+     *
+     * @return Number of bytes written
+     */
+    long putPart(String uploadId, int partNumber, InputStream data) throws IOException;
+
+    /**
+     * Concatenate parts 0..partCount-1 into the object at key and discard the parts
+     *
+     * @return Size of the assembled object
+     */
+    long assemble(String uploadId, int partCount, String key) throws IOException;
+
+    /**
+     * Discard all parts of an upload
+     */
+    void abort(String uploadId) throws IOException;
+
+    boolean exists(String key) throws IOException;
+
+    InputStream open(String key) throws IOException;
+
+    boolean delete(String key) throws IOException;
+}
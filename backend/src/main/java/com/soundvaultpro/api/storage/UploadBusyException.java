@@ -0,0 +1,12 @@
+package com.soundvaultpro.api.storage;
+
+/**
+ * Thrown when an upload chunk cannot be accepted right now because the in-flight limits are
+ * reached. Clients should retry the chunk after a short delay.
+ */
+public class UploadBusyException extends RuntimeException {
+
+    public UploadBusyException(String message) {
+        super(message);
+    }
+}
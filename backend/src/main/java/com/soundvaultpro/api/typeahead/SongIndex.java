@@ -0,0 +1,389 @@
+package com.soundvaultpro.api.typeahead;
+
+import com.soundvaultpro.api.util.LongCounterMap;
+import com.soundvaultpro.api.util.TopK;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory typeahead index of song titles and artists.
+ *
+ * Every word is indexed by its trigrams, padded with two leading spaces so that the first one
+ * and two letters of a word are grams too; a query word of any length therefore maps to grams
+ * that every word starting with it contains. Lookup walks the shortest posting list among the
+ * query's grams and checks each candidate's words directly, so it never intersects lists.
+ * Gram to posting list is a primitive map and postings are int arrays.
+ *
+ * The index holds at most maxSongs songs. When it is full the least recently seen tenth is
+ * dropped and the postings are rebuilt, so memory stays bounded without per-song unlinking.
+ */
+public class SongIndex {
+
+    private static final int MAGIC = 0x53565431; // "SVT1"
+    private static final int VERSION = 1;
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    // Candidates checked per lookup; a one-letter query may otherwise touch most of the index
+    private static final int MAX_CANDIDATES = 4096;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int maxSongs;
+
+    private final Map<Integer, Integer> slotsByGeniusId = new HashMap<>();
+    private int[] geniusIds;
+    private String[] titles;
+    private String[] artists;
+    private String[] imageUrls;
+    private String[] lyricsUrls;
+    // Normalized words of the title followed by the artist; titleWords says where the title ends
+    private String[][] words;
+    private int[] titleWords;
+    private int[] hits;
+    private long[] lastSeen;
+    private int size;
+    private long clock;
+
+    // Gram to its posting list index plus one
+    private LongCounterMap grams;
+    private int[][] postings;
+    private int[] postingSizes;
+    private int postingCount;
+
+    public SongIndex(int maxSongs) {
+        this.maxSongs = maxSongs;
+        allocate(Math.min(maxSongs, 1024));
+    }
+
+    /**
+     * Add a song or refresh one already indexed
+     */
+    public void put(int geniusId, String title, String artist, String imageUrl, String lyricsUrl) {
+        if (title == null || title.isBlank()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsByGeniusId.get(geniusId);
+            if (slot != null) {
+                hits[slot]++;
+                lastSeen[slot] = ++clock;
+                // Details responses may fill in what search hits lacked; words are unchanged
+                if (imageUrl != null && !imageUrl.isEmpty()) {
+                    imageUrls[slot] = imageUrl;
+                }
+                if (lyricsUrl != null && !lyricsUrl.isEmpty()) {
+                    lyricsUrls[slot] = lyricsUrl;
+                }
+                return;
+            }
+            if (size == maxSongs) {
+                evictOldest(Math.max(1, maxSongs / 10));
+            }
+            if (size == geniusIds.length) {
+                grow(Math.min(maxSongs, size * 2));
+            }
+            insert(geniusId, title, artist, imageUrl, lyricsUrl, 1, ++clock);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Songs whose title or artist has a word starting with each word of the query, best first:
+     * titles that start with the query, then titles that contain every query word, then the
+     * rest, each by how often Genius returned the song
+     */
+    public List<Map<String, Object>> search(String query, int limit) {
+        String[] queryWords = words(query);
+        if (queryWords.length == 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int[] shortest = null;
+            int shortestSize = Integer.MAX_VALUE;
+            for (String word : queryWords) {
+                for (long gram : grams(word)) {
+                    int posting = (int) grams.get(gram) - 1;
+                    if (posting < 0) {
+                        return List.of();
+                    }
+                    if (postingSizes[posting] < shortestSize) {
+                        shortest = postings[posting];
+                        shortestSize = postingSizes[posting];
+                    }
+                }
+            }
+            TopK top = new TopK(limit);
+            // Postings are in insertion order, so walking back checks recently added songs first
+            for (int i = shortestSize - 1; i >= Math.max(0, shortestSize - MAX_CANDIDATES); i--) {
+                int slot = shortest[i];
+                int rank = rank(slot, queryWords);
+                if (rank >= 0) {
+                    // Rank first, then popularity, then recency
+                    top.offer(slot, (long) rank << 56 | (long) Math.min(hits[slot], 0xFFFF) << 40 | (lastSeen[slot] & 0xFFFFFFFFFFL));
+                }
+            }
+            long[][] ranked = top.drainDescending();
+            List<Map<String, Object>> results = new ArrayList<>(ranked[0].length);
+            for (long slot : ranked[0]) {
+                results.add(toResult((int) slot));
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Write the songs; postings are rebuilt on load
+     */
+    public void write(DataOutputStream out) throws IOException {
+        lock.readLock().lock();
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(size);
+            for (int slot = 0; slot < size; slot++) {
+                out.writeInt(geniusIds[slot]);
+                out.writeUTF(titles[slot]);
+                out.writeUTF(nullToEmpty(artists[slot]));
+                out.writeUTF(nullToEmpty(imageUrls[slot]));
+                out.writeUTF(nullToEmpty(lyricsUrls[slot]));
+                out.writeInt(hits[slot]);
+                out.writeLong(lastSeen[slot]);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static SongIndex read(DataInputStream in, int maxSongs) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a typeahead snapshot");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported typeahead snapshot version " + version);
+        }
+        int count = in.readInt();
+        SongIndex index = new SongIndex(maxSongs);
+        index.grow(Math.max(index.geniusIds.length, Math.min(count, maxSongs)));
+        for (int i = 0; i < count; i++) {
+            int geniusId = in.readInt();
+            String title = in.readUTF();
+            String artist = in.readUTF();
+            String imageUrl = in.readUTF();
+            String lyricsUrl = in.readUTF();
+            int hits = in.readInt();
+            long lastSeen = in.readLong();
+            // A smaller limit than when the snapshot was written keeps the first songs written
+            if (index.size < maxSongs && !index.slotsByGeniusId.containsKey(geniusId)) {
+                index.insert(geniusId, title, artist, imageUrl, lyricsUrl, hits, lastSeen);
+                index.clock = Math.max(index.clock, lastSeen);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Lower-case words with accents and punctuation removed
+     */
+    public static String[] words(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        String plain = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        String cleaned = NON_WORD.matcher(plain.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+        return cleaned.isEmpty() ? new String[0] : cleaned.split(" ");
+    }
+
+    /**
+     * @return -1 if some query word starts no word of the song, otherwise higher for better matches
+     */
+    private int rank(int slot, String[] queryWords) {
+        String[] songWords = words[slot];
+        boolean allInTitle = true;
+        for (String queryWord : queryWords) {
+            int match = -1;
+            for (int i = 0; i < songWords.length; i++) {
+                if (songWords[i].startsWith(queryWord)) {
+                    match = i;
+                    // Prefer a match in the title
+                    if (i < titleWords[slot]) {
+                        break;
+                    }
+                }
+            }
+            if (match < 0) {
+                return -1;
+            }
+            allInTitle &= match < titleWords[slot];
+        }
+        if (!allInTitle) {
+            return 0;
+        }
+        // The title starts with the query: leading words equal, the last one a prefix
+        int last = queryWords.length - 1;
+        if (last >= titleWords[slot] || !songWords[last].startsWith(queryWords[last])) {
+            return 1;
+        }
+        for (int i = 0; i < last; i++) {
+            if (!songWords[i].equals(queryWords[i])) {
+                return 1;
+            }
+        }
+        return 2;
+    }
+
+    private void insert(int geniusId, String title, String artist, String imageUrl, String lyricsUrl, int seen, long lastSeenAt) {
+        int slot = size++;
+        String[] titleParts = words(title);
+        String[] artistParts = words(artist);
+        String[] all = Arrays.copyOf(titleParts, titleParts.length + artistParts.length);
+        System.arraycopy(artistParts, 0, all, titleParts.length, artistParts.length);
+        geniusIds[slot] = geniusId;
+        titles[slot] = title;
+        artists[slot] = emptyToNull(artist);
+        imageUrls[slot] = emptyToNull(imageUrl);
+        lyricsUrls[slot] = emptyToNull(lyricsUrl);
+        words[slot] = all;
+        titleWords[slot] = titleParts.length;
+        hits[slot] = seen;
+        lastSeen[slot] = lastSeenAt;
+        slotsByGeniusId.put(geniusId, slot);
+        index(slot);
+    }
+
+    private void index(int slot) {
+        LongCounterMap added = new LongCounterMap();
+        for (String word : words[slot]) {
+            for (long gram : grams(word)) {
+                // A gram repeated within the song is posted once
+                if (added.increment(gram, 1) == 1) {
+                    post(gram, slot);
+                }
+            }
+        }
+    }
+
+    private void post(long gram, int slot) {
+        int posting = (int) grams.get(gram) - 1;
+        if (posting < 0) {
+            if (postingCount == postings.length) {
+                postings = Arrays.copyOf(postings, postingCount * 2);
+                postingSizes = Arrays.copyOf(postingSizes, postingCount * 2);
+            }
+            posting = postingCount++;
+            postings[posting] = new int[4];
+            grams.increment(gram, posting + 1);
+        }
+        int[] list = postings[posting];
+        if (postingSizes[posting] == list.length) {
+            list = postings[posting] = Arrays.copyOf(list, list.length * 2);
+        }
+        list[postingSizes[posting]++] = slot;
+    }
+
+    private void evictOldest(int count) {
+        long[] order = Arrays.copyOf(lastSeen, size);
+        Arrays.sort(order);
+        long cutoff = order[count - 1];
+        int[] oldIds = geniusIds;
+        String[] oldTitles = titles;
+        String[] oldArtists = artists;
+        String[] oldImageUrls = imageUrls;
+        String[] oldLyricsUrls = lyricsUrls;
+        int[] oldHits = hits;
+        long[] oldLastSeen = lastSeen;
+        int oldSize = size;
+        allocate(oldIds.length);
+        slotsByGeniusId.clear();
+        for (int i = 0; i < oldSize; i++) {
+            if (oldLastSeen[i] > cutoff) {
+                insert(oldIds[i], oldTitles[i], oldArtists[i], oldImageUrls[i], oldLyricsUrls[i], oldHits[i], oldLastSeen[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        geniusIds = new int[capacity];
+        titles = new String[capacity];
+        artists = new String[capacity];
+        imageUrls = new String[capacity];
+        lyricsUrls = new String[capacity];
+        words = new String[capacity][];
+        titleWords = new int[capacity];
+        hits = new int[capacity];
+        lastSeen = new long[capacity];
+        size = 0;
+        grams = new LongCounterMap(4096);
+        postings = new int[4096][];
+        postingSizes = new int[4096];
+        postingCount = 0;
+    }
+
+    private void grow(int capacity) {
+        geniusIds = Arrays.copyOf(geniusIds, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        artists = Arrays.copyOf(artists, capacity);
+        imageUrls = Arrays.copyOf(imageUrls, capacity);
+        lyricsUrls = Arrays.copyOf(lyricsUrls, capacity);
+        words = Arrays.copyOf(words, capacity);
+        titleWords = Arrays.copyOf(titleWords, capacity);
+        hits = Arrays.copyOf(hits, capacity);
+        lastSeen = Arrays.copyOf(lastSeen, capacity);
+    }
+
+    private Map<String, Object> toResult(int slot) {
+        // Same shape as GeniusService search results
+        Map<String, Object> result = new HashMap<>();
+        result.put("id", geniusIds[slot]);
+        result.put("title", titles[slot]);
+        result.put("artist", nullToEmpty(artists[slot]));
+        result.put("imageUrl", nullToEmpty(imageUrls[slot]));
+        result.put("lyricsUrl", nullToEmpty(lyricsUrls[slot]));
+        return result;
+    }
+
+    /**
+     * Trigrams of the word padded with two leading spaces, each packed as three 16-bit chars
+     */
+    private static long[] grams(String word) {
+        String padded = "  " + word;
+        long[] grams = new long[padded.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = (long) padded.charAt(i) << 32 | (long) padded.charAt(i + 1) << 16 | padded.charAt(i + 2);
+        }
+        return grams;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+}
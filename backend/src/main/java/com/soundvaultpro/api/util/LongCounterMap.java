@@ -0,0 +1,203 @@
+package com.soundvaultpro.api.util;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+/**
+ * Open-addressing map from long keys to long counts, with no boxing and two parallel arrays
+ * instead of an entry object per key. Not thread-safe; callers guard it.
+ */
+public class LongCounterMap {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+    private int resizeAt;
+
+    public LongCounterMap() {
+        this(16);
+    }
+
+    public LongCounterMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Add delta to the count of key, starting from zero
+     *
+     * @return The new count
+     */
+    public long increment(long key, long delta) {
+        checkKey(key);
+        int slot = slot(key);
+        if (keys[slot] == key) {
+            return values[slot] += delta;
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        if (++size > resizeAt) {
+            rehash(keys.length << 1);
+        }
+        return delta;
+    }
+
+    public long get(long key) {
+        checkKey(key);
+        int slot = slot(key);
+        return keys[slot] == key ? values[slot] : 0;
+    }
+
+    /**
+     * @return The count the key had, or 0
+     */
+    public long remove(long key) {
+        checkKey(key);
+        int slot = slot(key);
+        if (keys[slot] != key) {
+            return 0;
+        }
+        long removed = values[slot];
+        // Shift later entries of the probe run back so lookups never stop at the hole
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int ideal = (int) mix(keys[next]) & mask;
+            if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        size--;
+        return removed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Remove every key matching the filter, compacting the table
+     */
+    public void removeIf(LongPredicate filter) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        int remaining = 0;
+        for (long key : oldKeys) {
+            if (key != EMPTY && !filter.test(key)) {
+                remaining++;
+            }
+        }
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (remaining / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY && !filter.test(oldKeys[i])) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    public void forEach(Visitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                visitor.visit(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * Write the size and then every key and count
+     */
+    public void write(DataOutputStream out) throws IOException {
+        out.writeInt(size);
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                out.writeLong(keys[i]);
+                out.writeLong(values[i]);
+            }
+        }
+    }
+
+    public static LongCounterMap read(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0) {
+            throw new IOException("Negative map size " + count);
+        }
+        LongCounterMap map = new LongCounterMap(count);
+        for (int i = 0; i < count; i++) {
+            long key = in.readLong();
+            long value = in.readLong();
+            if (key == EMPTY) {
+                throw new IOException("Invalid map key");
+            }
+            map.increment(key, value);
+        }
+        return map;
+    }
+
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(long key, long value);
+    }
+
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        int slot = (int) mix(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void insert(long key, long value) {
+        int slot = slot(key);
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static long mix(long key) {
+        // Murmur3 finalizer; spreads sequential ids and packed keys across the table
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static void checkKey(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Long.MIN_VALUE cannot be used as a key");
+        }
+    }
+}
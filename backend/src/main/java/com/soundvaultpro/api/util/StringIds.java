@@ -0,0 +1,51 @@
+package com.soundvaultpro.api.util;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns dense int ids to strings so they can be used as primitive map keys. Lookups by
+ * string are lock-free; new ids are assigned under a lock.
+ */
+public class StringIds {
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[64];
+    private int next;
+
+    public int idOf(String value) {
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(value);
+            if (id != null) {
+                return id;
+            }
+            if (next == values.length) {
+                values = Arrays.copyOf(values, next * 2);
+            }
+            values[next] = value;
+            ids.put(value, next);
+            return next++;
+        }
+    }
+
+    /**
+     * @return The id of a string seen before, or -1
+     */
+    public int find(String value) {
+        return ids.getOrDefault(value, -1);
+    }
+
+    public String valueOf(int id) {
+        String[] current = values;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    public int size() {
+        return ids.size();
+    }
+}
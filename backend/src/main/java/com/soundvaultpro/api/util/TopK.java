@@ -0,0 +1,99 @@
+package com.soundvaultpro.api.util;
+
+/**
+ * Keeps the k largest (key, count) pairs offered, using a binary min-heap over primitive arrays.
+ * Offering n pairs costs O(n log k) and no allocation per pair.
+ */
+public class TopK {
+
+    private final long[] keys;
+    private final long[] counts;
+    private int size;
+
+    public TopK(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        this.keys = new long[k];
+        this.counts = new long[k];
+    }
+
+    public static TopK of(LongCounterMap map, int k) {
+        TopK top = new TopK(k);
+        map.forEach(top::offer);
+        return top;
+    }
+
+    public void offer(long key, long count) {
+        if (size < keys.length) {
+            keys[size] = key;
+            counts[size] = count;
+            siftUp(size++);
+        } else if (count > counts[0]) {
+            keys[0] = key;
+            counts[0] = count;
+            siftDown(0);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Drain the heap into key/count arrays, largest count first. The TopK is empty afterwards.
+     *
+     * @return Two arrays: keys and their counts
+     */
+    public long[][] drainDescending() {
+        int n = size;
+        long[] sortedKeys = new long[n];
+        long[] sortedCounts = new long[n];
+        for (int i = n - 1; i >= 0; i--) {
+            sortedKeys[i] = keys[0];
+            sortedCounts[i] = counts[0];
+            size--;
+            if (size > 0) {
+                keys[0] = keys[size];
+                counts[0] = counts[size];
+                siftDown(0);
+            }
+        }
+        return new long[][] {sortedKeys, sortedCounts};
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (counts[parent] <= counts[i]) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left + 1 < size && counts[left + 1] < counts[left] ? left + 1 : left;
+            if (counts[i] <= counts[smallest]) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long key = keys[a];
+        long count = counts[a];
+        keys[a] = keys[b];
+        counts[a] = counts[b];
+        keys[b] = key;
+        counts[b] = count;
+    }
+}
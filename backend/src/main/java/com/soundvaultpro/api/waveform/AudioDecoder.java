@@ -0,0 +1,17 @@
+package com.soundvaultpro.api.waveform;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Decodes a downloaded track into waveform peaks. The implementation is chosen with
+ * {@code waveforms.decoder}.
+ */
+public interface AudioDecoder {
+
+    /**
+     * @param file The whole encoded track; decoders may seek, e.g. to an MP4 index at the end
+     * @throws UndecodableAudioException if the content cannot be decoded
+     */
+    WaveformPeaks decode(Path file, int maxBuckets, int minBuckets) throws IOException;
+}
@@ -0,0 +1,58 @@
+package com.soundvaultpro.api.waveform;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Computes, in one pass, the two hashes a track's content hash may be: a plain SHA-256 of the
+ * file, and Dropbox's content_hash, the SHA-256 of the concatenated SHA-256s of each 4 MiB block.
+ */
+public final class ContentHasher {
+
+    private static final int DROPBOX_BLOCK_SIZE = 4 * 1024 * 1024;
+
+    private final MessageDigest file = sha256();
+    private final MessageDigest blocks = sha256();
+    private final MessageDigest block = sha256();
+    private int blockLength;
+
+    public void update(byte[] data, int offset, int length) {
+        file.update(data, offset, length);
+        while (length > 0) {
+            int n = Math.min(length, DROPBOX_BLOCK_SIZE - blockLength);
+            block.update(data, offset, n);
+            blockLength += n;
+            offset += n;
+            length -= n;
+            if (blockLength == DROPBOX_BLOCK_SIZE) {
+                blocks.update(block.digest());
+                blockLength = 0;
+            }
+        }
+    }
+
+    /**
+     * Finish hashing; the hasher cannot be updated afterwards
+     *
+     * @return Whether the content read matches the given hash in either form
+     */
+    public boolean matches(String contentHash) {
+        if (blockLength > 0) {
+            blocks.update(block.digest());
+            blockLength = 0;
+        }
+        HexFormat hex = HexFormat.of();
+        String expected = contentHash.toLowerCase(Locale.ROOT);
+        return expected.equals(hex.formatHex(file.digest())) || expected.equals(hex.formatHex(blocks.digest()));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.soundvaultpro.api.waveform;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes every format the library holds (MP3, AAC/M4A, FLAC, Ogg Vorbis and Opus, WAV, ...)
+ * by running an ffmpeg process per track, which writes mono 16-bit PCM at a low sample rate to
+ * its stdout; the peaks are reduced from that stream as it arrives. ffmpeg reads the file
+ * itself, so containers with their index at the end decode too.
+ *
+ * Needs an ffmpeg binary at {@code waveforms.ffmpeg-path}; the Docker image installs one.
+ */
+@Component
+@ConditionalOnProperty(name = "waveforms.decoder", havingValue = "ffmpeg")
+@Slf4j
+public class FfmpegDecoder implements AudioDecoder {
+
+    // Plenty for a min/max envelope, and an eighth of the PCM a 44.1 kHz stereo decode produces
+    private static final int SAMPLE_RATE = 11025;
+    // Fine enough for an hour-long track to still reach the finest level after merging
+    private static final int SAMPLES_PER_BUCKET = 128;
+    private static final long EXIT_TIMEOUT_SECONDS = 10;
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final String ffmpegPath;
+
+    public FfmpegDecoder(@Value("${waveforms.ffmpeg-path:ffmpeg}") String ffmpegPath) {
+        this.ffmpegPath = ffmpegPath;
+    }
+
+    @Override
+    public WaveformPeaks decode(Path file, int maxBuckets, int minBuckets) throws IOException {
+        Path errors = Files.createTempFile(file.getParent(), "ffmpeg", ".log");
+        Process process = new ProcessBuilder(List.of(ffmpegPath,
+                "-hide_banner", "-nostdin", "-loglevel", "error",
+                "-i", file.toString(),
+                "-vn", "-ac", "1", "-ar", Integer.toString(SAMPLE_RATE),
+                "-f", "s16be", "pipe:1"))
+                .redirectError(errors.toFile())
+                .start();
+        try {
+            WaveformPeaks peaks;
+            try (InputStream pcm = new BufferedInputStream(process.getInputStream())) {
+                peaks = PeakReader.fromPcm(pcm, SAMPLE_RATE, 1, SAMPLES_PER_BUCKET, maxBuckets, minBuckets);
+            } catch (UndecodableAudioException e) {
+                // No samples usually means ffmpeg gave up; its own message says why
+                peaks = null;
+            }
+            if (!process.waitFor(EXIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new IOException("ffmpeg did not exit");
+            }
+            if (process.exitValue() != 0 || peaks == null) {
+                throw new UndecodableAudioException("Format cannot be decoded: " + errorOutput(errors));
+            }
+            return peaks;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while decoding", e);
+        } finally {
+            process.destroyForcibly();
+            Files.deleteIfExists(errors);
+        }
+    }
+
+    private static String errorOutput(Path errors) {
+        try {
+            String output = Files.readString(errors, StandardCharsets.UTF_8).strip();
+            if (output.isEmpty()) {
+                return "no audio stream";
+            }
+            return output.length() > MAX_ERROR_LENGTH ? output.substring(output.length() - MAX_ERROR_LENGTH) : output;
+        } catch (IOException e) {
+            return "ffmpeg failed";
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.soundvaultpro.api.waveform;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Decodes with javax.sound and nothing else installed: WAV, AIFF and AU only. Other formats
+ * fail as undecodable, and clients submit their own peaks for them.
+ */
+@Component
+@ConditionalOnProperty(name = "waveforms.decoder", havingValue = "javasound", matchIfMissing = true)
+public class JavaSoundDecoder implements AudioDecoder {
+
+    // Bucket size when the file does not state its length up front
+    private static final int DEFAULT_SAMPLES_PER_BUCKET = 1024;
+
+    @Override
+    public WaveformPeaks decode(Path file, int maxBuckets, int minBuckets) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return PeakReader.read(in, maxBuckets, DEFAULT_SAMPLES_PER_BUCKET, maxBuckets, minBuckets);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.soundvaultpro.api.waveform;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Streams decoded PCM through a fixed buffer and reduces it to min/max peaks, so memory use
+ * does not depend on the length of the track. {@link #read} decodes with javax.sound, which
+ * handles WAV, AIFF and AU out of the box and any other format with an installed service
+ * provider; {@link #fromPcm} takes PCM another decoder produced.
+ */
+public final class PeakReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private PeakReader() {
+    }
+
+    /**
+     * @param in Encoded audio, read to the end
+     * @param targetBuckets Wanted number of buckets when the length is known up front
+     * @param defaultSamplesPerBucket Bucket size when it is not
+     * @return The peaks
+     * @throws UndecodableAudioException if the format cannot be decoded or holds no samples
+     */
+    public static WaveformPeaks read(InputStream in, int targetBuckets, int defaultSamplesPerBucket,
+                                     int maxBuckets, int minBuckets) throws IOException {
+        AudioInputStream encoded;
+        try {
+            encoded = AudioSystem.getAudioInputStream(new BufferedInputStream(in, BUFFER_SIZE));
+        } catch (UnsupportedAudioFileException e) {
+            throw new UndecodableAudioException("Format cannot be decoded on the server; submit peaks instead", e);
+        }
+        try (encoded) {
+            AudioFormat source = encoded.getFormat();
+            AudioFormat pcm = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, source.getSampleRate(), 16,
+                    source.getChannels(), source.getChannels() * 2, source.getSampleRate(), true);
+            try (AudioInputStream decoded = AudioSystem.getAudioInputStream(pcm, encoded)) {
+                long frames = encoded.getFrameLength();
+                int samplesPerBucket = frames > 0
+                        ? (int) Math.max(1, (frames + targetBuckets - 1) / targetBuckets)
+                        : defaultSamplesPerBucket;
+                return fromPcm(decoded, Math.round(source.getSampleRate()), pcm.getChannels(), samplesPerBucket,
+                        maxBuckets, minBuckets);
+            }
+        }
+    }
+
+    /**
+     * @param pcm Signed 16-bit big-endian samples, channels interleaved, read to the end
+     * @throws UndecodableAudioException if the stream holds no samples
+     */
+    public static WaveformPeaks fromPcm(InputStream pcm, int sampleRate, int channels, int samplesPerBucket,
+                                        int maxBuckets, int minBuckets) throws IOException {
+        byte[] peaks = accumulate(pcm, channels, samplesPerBucket);
+        if (peaks.length == 0) {
+            throw new UndecodableAudioException("Audio contains no samples");
+        }
+        return WaveformPeaks.build(sampleRate, samplesPerBucket, peaks, maxBuckets, minBuckets);
+    }
+
+    private static byte[] accumulate(InputStream pcm, int channels, int samplesPerBucket) throws IOException {
+        int frameSize = channels * 2;
+        byte[] buffer = new byte[BUFFER_SIZE - BUFFER_SIZE % frameSize];
+        ByteArrayOutputStream peaks = new ByteArrayOutputStream();
+        int min = Short.MAX_VALUE;
+        int max = Short.MIN_VALUE;
+        int framesInBucket = 0;
+        int carry = 0;
+        int read;
+        while ((read = pcm.read(buffer, carry, buffer.length - carry)) > 0) {
+            int available = carry + read;
+            int whole = available - available % frameSize;
+            for (int pos = 0; pos < whole; pos += frameSize) {
+                // All channels fold into one mono envelope
+                for (int c = 0; c < channels; c++) {
+                    int sample = (short) ((buffer[pos + c * 2] << 8) | (buffer[pos + c * 2 + 1] & 0xFF));
+                    if (sample < min) min = sample;
+                    if (sample > max) max = sample;
+                }
+                if (++framesInBucket == samplesPerBucket) {
+                    peaks.write(min >> 8);
+                    peaks.write(max >> 8);
+                    min = Short.MAX_VALUE;
+                    max = Short.MIN_VALUE;
+                    framesInBucket = 0;
+                }
+            }
+            carry = available - whole;
+            // Keep a partial frame for the next read
+            System.arraycopy(buffer, whole, buffer, 0, carry);
+        }
+        if (framesInBucket > 0) {
+            peaks.write(min >> 8);
+            peaks.write(max >> 8);
+        }
+        return peaks.toByteArray();
+    }
+}
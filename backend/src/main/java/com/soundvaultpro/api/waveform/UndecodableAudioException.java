@@ -0,0 +1,19 @@
+package com.soundvaultpro.api.waveform;
+
+import java.io.IOException;
+
+/**
+ * Thrown when the bytes of a track cannot be turned into peaks, however often they are fetched:
+ * the format is not supported or the audio holds no samples. Unlike a failed download, retrying
+ * the same content does not help.
+ */
+public class UndecodableAudioException extends IOException {
+
+    public UndecodableAudioException(String message) {
+        super(message);
+    }
+
+    public UndecodableAudioException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
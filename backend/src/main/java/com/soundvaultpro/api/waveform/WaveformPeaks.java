@@ -0,0 +1,174 @@
+package com.soundvaultpro.api.waveform;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Multi-resolution min/max peaks of a track, quantized to signed bytes.
+ *
+ * Level 0 is the finest; each following level merges pairs of buckets, so level i covers
+ * {@code samplesPerBucket << i} frames per bucket. Binary layout ("SVW1", big-endian):
+ * <pre>
+ * magic "SVW1" | u8 version | u8 bits (8) | u16 level count | u32 sample rate
+ * | u32 samplesPerBucket of the first level | u32 bucket count per level
+ * | per level: bucket count x (i8 min, i8 max)
+ * </pre>
+ * A single level is served in the same layout with a level count of 1.
+ */
+public final class WaveformPeaks {
+
+    private static final byte[] MAGIC = "SVW1".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 1;
+    private static final int BITS = 8;
+    private static final int FIXED_HEADER = 16;
+
+    private final int sampleRate;
+    private final int samplesPerBucket;
+    // Interleaved min/max pairs, finest level first
+    private final List<byte[]> levels;
+
+    private WaveformPeaks(int sampleRate, int samplesPerBucket, List<byte[]> levels) {
+        this.sampleRate = sampleRate;
+        this.samplesPerBucket = samplesPerBucket;
+        this.levels = Collections.unmodifiableList(levels);
+    }
+
+    /**
+     * Build all levels from the finest peaks
+     *
+     * @param peaks Interleaved min/max pairs
+     * @param maxBuckets Levels finer than this are merged away
+     * @param minBuckets Stop adding coarser levels below this many buckets
+     */
+    public static WaveformPeaks build(int sampleRate, int samplesPerBucket, byte[] peaks, int maxBuckets, int minBuckets) {
+        if (sampleRate <= 0 || samplesPerBucket <= 0) {
+            throw new IllegalArgumentException("Sample rate and samples per bucket must be positive");
+        }
+        if (peaks.length == 0 || peaks.length % 2 != 0) {
+            throw new IllegalArgumentException("Peaks must be a non-empty list of min/max pairs");
+        }
+        byte[] level = peaks;
+        int spb = samplesPerBucket;
+        while (level.length / 2 > maxBuckets) {
+            level = merge(level);
+            spb *= 2;
+        }
+        List<byte[]> levels = new ArrayList<>();
+        levels.add(level);
+        while (level.length / 2 >= minBuckets * 2) {
+            level = merge(level);
+            levels.add(level);
+        }
+        return new WaveformPeaks(sampleRate, spb, levels);
+    }
+
+    /**
+     * Halve the resolution, keeping the extremes of each pair of buckets
+     */
+    static byte[] merge(byte[] peaks) {
+        int buckets = peaks.length / 2;
+        byte[] merged = new byte[((buckets + 1) / 2) * 2];
+        for (int i = 0; i < buckets; i += 2) {
+            byte min = peaks[i * 2];
+            byte max = peaks[i * 2 + 1];
+            if (i + 1 < buckets) {
+                min = (byte) Math.min(min, peaks[i * 2 + 2]);
+                max = (byte) Math.max(max, peaks[i * 2 + 3]);
+            }
+            merged[i] = min;
+            merged[i + 1] = max;
+        }
+        return merged;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public int getSamplesPerBucket() {
+        return samplesPerBucket;
+    }
+
+    public int getLevelCount() {
+        return levels.size();
+    }
+
+    public int getBuckets(int level) {
+        return levels.get(level).length / 2;
+    }
+
+    /**
+     * @return The coarsest level with at least width buckets, or the finest if none has
+     */
+    public int levelFor(int width) {
+        for (int i = levels.size() - 1; i >= 0; i--) {
+            if (getBuckets(i) >= width) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    public byte[] encode() {
+        return encode(0, levels.size());
+    }
+
+    public byte[] encodeLevel(int level) {
+        return encode(level, level + 1);
+    }
+
+    private byte[] encode(int from, int to) {
+        int length = FIXED_HEADER + 4 * (to - from);
+        for (int i = from; i < to; i++) {
+            length += levels.get(i).length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.put(MAGIC)
+                .put((byte) VERSION)
+                .put((byte) BITS)
+                .putShort((short) (to - from))
+                .putInt(sampleRate)
+                .putInt(samplesPerBucket << from);
+        for (int i = from; i < to; i++) {
+            buffer.putInt(getBuckets(i));
+        }
+        for (int i = from; i < to; i++) {
+            buffer.put(levels.get(i));
+        }
+        return buffer.array();
+    }
+
+    public static WaveformPeaks decode(byte[] data) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            byte[] magic = new byte[MAGIC.length];
+            buffer.get(magic);
+            int version = buffer.get();
+            int bits = buffer.get();
+            if (!Arrays.equals(magic, MAGIC) || version != VERSION || bits != BITS) {
+                throw new IllegalArgumentException("Not a waveform file");
+            }
+            int levelCount = buffer.getShort() & 0xFFFF;
+            int sampleRate = buffer.getInt();
+            int samplesPerBucket = buffer.getInt();
+            int[] buckets = new int[levelCount];
+            for (int i = 0; i < levelCount; i++) {
+                buckets[i] = buffer.getInt();
+            }
+            List<byte[]> levels = new ArrayList<>(levelCount);
+            for (int i = 0; i < levelCount; i++) {
+                byte[] level = new byte[buckets[i] * 2];
+                buffer.get(level);
+                levels.add(level);
+            }
+            return new WaveformPeaks(sampleRate, samplesPerBucket, levels);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Waveform file is truncated");
+        }
+    }
+}
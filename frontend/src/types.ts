@@ -16,6 +16,7 @@ export interface Track {
   name: string;
   path: string;
   temporaryLink: string;
+  contentHash?: string;
   encryptedKey?: string;
   iv?: string;
   metadata?: AudioMetadata;
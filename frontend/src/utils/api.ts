@@ -116,6 +116,13 @@ export const userApi = {
     return api.get(`/users/${supabaseId}`);
   },
   
+  /**
+   * Get profile, playlists and keys in a single request
+   */
+  async bootstrap(supabaseId: string) {
+    return api.get(`/bootstrap/${supabaseId}`);
+  },
+  
   /**
    * Save user encryption keys
    */
@@ -163,5 +170,499 @@ export const playlistApi = {
    */
   async deletePlaylist(playlistId: number, supabaseId: string) {
     return api.delete(`/playlists/${playlistId}?supabaseId=${supabaseId}`);
+  },
+
+  /**
+   * Add a track to a playlist; going through the API keeps similar-track suggestions current
+   */
+  async addTrack(playlistId: number, supabaseId: string, trackId: string) {
+    return api.post(`/playlists/${playlistId}/tracks?supabaseId=${supabaseId}`, { trackId });
+  },
+
+  /**
+   * Remove a track from a playlist
+   */
+  async removeTrack(playlistId: number, supabaseId: string, trackId: string) {
+    return api.delete(`/playlists/${playlistId}/tracks/${encodeURIComponent(trackId)}?supabaseId=${supabaseId}`);
+  }
+};
+
+/**
+ * Track metadata API service
+ */
+export const metadataApi = {
+  /**
+   * Read tags for many tracks in one request; the server fetches only tag and header bytes
+   */
+  async getBatch(supabaseId: string, tracks: Array<{ id: string; name: string; url: string; contentHash?: string }>) {
+    return api.post(`/metadata/batch?supabaseId=${supabaseId}`, { tracks });
+  }
+};
+
+/**
+ * Cover art thumbnail API service
+ */
+export const artworkApi = {
+  /**
+   * Thumbnail URL for an artworkHash; size is rounded up to 64, 256 or 512 by the server
+   */
+  url(artworkHash: string, size: number = 256) {
+    return `${API_URL}/artwork/${artworkHash}?size=${size}`;
+  }
+};
+
+/**
+ * One level of waveform peaks: signed 8-bit min/max pairs per bucket
+ */
+export interface WaveformLevel {
+  sampleRate: number;
+  samplesPerBucket: number;
+  peaks: Int8Array;
+}
+
+/**
+ * Parse a single-level "SVW1" waveform response
+ */
+export const parseWaveform = (buffer: ArrayBuffer): WaveformLevel => {
+  const view = new DataView(buffer);
+  const magic = String.fromCharCode(...new Uint8Array(buffer, 0, 4));
+  if (magic !== 'SVW1' || view.getUint16(6) !== 1) {
+    throw new Error('Unexpected waveform format');
+  }
+  const buckets = view.getUint32(16);
+  return {
+    sampleRate: view.getUint32(8),
+    samplesPerBucket: view.getUint32(12),
+    peaks: new Int8Array(buffer, 20, buckets * 2),
+  };
+};
+
+/**
+ * Waveform peaks API service
+ */
+export const waveformApi = {
+  /**
+   * Fetch peaks sized for a display width. Returns null while the server is still computing
+   * them; pass a temporary link so it can start. With a user id, peaks that user submitted are
+   * returned when the server has none of its own.
+   */
+  async get(contentHash: string, width: number, url?: string, supabaseId?: string): Promise<WaveformLevel | null> {
+    const params = new URLSearchParams({ width: String(Math.round(width)) });
+    if (url) params.set('url', url);
+    if (supabaseId) params.set('supabaseId', supabaseId);
+
+    const response = await fetch(`${API_URL}/waveforms/${contentHash}?${params}`);
+    if (response.status === 202 || response.status === 503) {
+      return null;
+    }
+    if (!response.ok) {
+      throw new Error(`API error: ${response.status}`);
+    }
+    return parseWaveform(await response.arrayBuffer());
+  },
+
+  /**
+   * Compute peaks from decoded audio and store them for this user, for formats the server cannot decode
+   */
+  async submit(supabaseId: string, contentHash: string, audio: AudioBuffer, buckets: number = 8192) {
+    const samplesPerBucket = Math.max(1, Math.ceil(audio.length / buckets));
+    const count = Math.ceil(audio.length / samplesPerBucket);
+    const peaks = new Int8Array(count * 2);
+    const channels = Array.from({ length: audio.numberOfChannels }, (_, c) => audio.getChannelData(c));
+    for (let b = 0; b < count; b++) {
+      let min = 1;
+      let max = -1;
+      const end = Math.min(audio.length, (b + 1) * samplesPerBucket);
+      for (const data of channels) {
+        for (let i = b * samplesPerBucket; i < end; i++) {
+          if (data[i] < min) min = data[i];
+          if (data[i] > max) max = data[i];
+        }
+      }
+      peaks[b * 2] = Math.max(-128, Math.floor(min * 128));
+      peaks[b * 2 + 1] = Math.min(127, Math.floor(max * 128));
+    }
+
+    let binary = '';
+    new Uint8Array(peaks.buffer).forEach(byte => { binary += String.fromCharCode(byte); });
+    return api.put(`/waveforms/${contentHash}?supabaseId=${supabaseId}`, {
+      sampleRate: audio.sampleRate,
+      samplesPerBucket,
+      peaks: btoa(binary),
+    });
+  }
+};
+
+/**
+ * Encrypted track storage and streaming API service
+ */
+export const trackApi = {
+  /**
+   * Upload a chunked encrypted track container
+   */
+  async upload(trackId: string, supabaseId: string, container: Uint8Array) {
+    const { data: { session } } = await supabase.auth.getSession();
+
+    const response = await fetch(`${API_URL}/tracks/${trackId}?supabaseId=${supabaseId}`, {
+      method: 'PUT',
+      headers: {
+        'Content-Type': 'application/octet-stream',
+        'Authorization': `Bearer ${session?.access_token || ''}`
+      },
+      body: container
+    });
+
+    if (!response.ok) {
+      throw new Error(`API error: ${response.status}`);
+    }
+
+    return response.json();
+  },
+
+  /**
+   * Fetch a byte range of a stored container. The server widens the range to whole chunks,
+   * so the returned start offset comes from Content-Range rather than the request.
+   */
+  async getRange(trackId: string, supabaseId: string, start: number, end: number) {
+    const { data: { session } } = await supabase.auth.getSession();
+
+    const response = await fetch(`${API_URL}/tracks/${trackId}/stream?supabaseId=${supabaseId}`, {
+      headers: {
+        'Range': `bytes=${start}-${end}`,
+        'Authorization': `Bearer ${session?.access_token || ''}`
+      }
+    });
+
+    if (!response.ok) {
+      throw new Error(`API error: ${response.status}`);
+    }
+
+    const contentRange = response.headers.get('Content-Range');
+    const match = contentRange?.match(/bytes (\d+)-(\d+)\/(\d+)/);
+    return {
+      start: match ? Number(match[1]) : 0,
+      size: match ? Number(match[3]) : Number(response.headers.get('Content-Length')),
+      data: new Uint8Array(await response.arrayBuffer())
+    };
+  },
+
+  /**
+   * Delete a stored container
+   */
+  async delete(trackId: string, supabaseId: string) {
+    return api.delete(`/tracks/${trackId}?supabaseId=${supabaseId}`);
+  }
+};
+
+const UPLOAD_PARALLEL_CHUNKS = 4;
+const UPLOAD_MAX_RETRIES = 5;
+
+const sha256Hex = async (data: ArrayBuffer): Promise<string> => {
+  const digest = await crypto.subtle.digest('SHA-256', data);
+  return Array.from(new Uint8Array(digest)).map(b => b.toString(16).padStart(2, '0')).join('');
+};
+
+/**
+ * Resumable chunked upload API service
+ */
+export const uploadApi = {
+  async createUpload(supabaseId: string, fileName: string, totalSize: number, chunkSize?: number) {
+    return api.post(`/uploads?supabaseId=${supabaseId}`, { fileName, totalSize, chunkSize });
+  },
+
+  async getUpload(uploadId: string, supabaseId: string) {
+    return api.get(`/uploads/${uploadId}?supabaseId=${supabaseId}`);
+  },
+
+  async completeUpload(uploadId: string, supabaseId: string) {
+    return api.post(`/uploads/${uploadId}/complete?supabaseId=${supabaseId}`, {});
+  },
+
+  async abortUpload(uploadId: string, supabaseId: string) {
+    return api.delete(`/uploads/${uploadId}?supabaseId=${supabaseId}`);
+  },
+
+  /**
+   * Send one chunk, retrying with backoff when the server is busy or the connection drops
+   */
+  async putChunk(uploadId: string, supabaseId: string, index: number, chunk: Blob) {
+    const data = await chunk.arrayBuffer();
+    const hash = await sha256Hex(data);
+
+    for (let attempt = 0; ; attempt++) {
+      const { data: { session } } = await supabase.auth.getSession();
+      try {
+        const response = await fetch(`${API_URL}/uploads/${uploadId}/chunks/${index}?supabaseId=${supabaseId}`, {
+          method: 'PUT',
+          headers: {
+            'Content-Type': 'application/octet-stream',
+            'X-Chunk-SHA256': hash,
+            'Authorization': `Bearer ${session?.access_token || ''}`
+          },
+          body: data
+        });
+        if (response.ok) {
+          return response.json();
+        }
+        if (response.status !== 503 || attempt >= UPLOAD_MAX_RETRIES) {
+          throw new Error(`API error: ${response.status}`);
+        }
+        const retryAfter = Number(response.headers.get('Retry-After') || '1');
+        await new Promise(resolve => setTimeout(resolve, retryAfter * 1000));
+      } catch (error) {
+        if (attempt >= UPLOAD_MAX_RETRIES || (error instanceof Error && error.message.startsWith('API error'))) {
+          throw error;
+        }
+        await new Promise(resolve => setTimeout(resolve, 500 * 2 ** attempt));
+      }
+    }
+  },
+
+  /**
+   * Upload a file in chunks, a few at a time, reading only the chunks being sent into memory.
+   * Pass the uploadId of an interrupted upload to send only the chunks the server is missing.
+   */
+  async uploadFile(file: File, supabaseId: string, onProgress?: (progress: number) => void, uploadId?: string) {
+    const sessionResponse = uploadId
+      ? await uploadApi.getUpload(uploadId, supabaseId)
+      : await uploadApi.createUpload(supabaseId, file.name, file.size);
+    const session = sessionResponse.data;
+
+    const pending: number[] = [];
+    for (let i = 0; i < session.chunkCount; i++) {
+      if (!session.receivedChunks?.[i]) pending.push(i);
+    }
+    let done = session.chunkCount - pending.length;
+    onProgress?.(Math.round((done / session.chunkCount) * 100));
+
+    const worker = async () => {
+      for (let index = pending.shift(); index !== undefined; index = pending.shift()) {
+        const chunk = file.slice(index * session.chunkSize, (index + 1) * session.chunkSize);
+        await uploadApi.putChunk(session.uploadId, supabaseId, index, chunk);
+        done++;
+        onProgress?.(Math.round((done / session.chunkCount) * 100));
+      }
+    };
+    await Promise.all(Array.from({ length: UPLOAD_PARALLEL_CHUNKS }, worker));
+
+    return uploadApi.completeUpload(session.uploadId, supabaseId);
+  }
+};
+
+const DEDUP_CHUNK_SIZE = 4 * 1024 * 1024;
+
+/**
+ * Content-addressed track storage API service
+ */
+export const blobApi = {
+  async findMissing(supabaseId: string, hashes: string[]): Promise<string[]> {
+    const response = await api.post(`/blobs/missing?supabaseId=${supabaseId}`, { hashes });
+    return response.data;
+  },
+
+  async putChunk(supabaseId: string, hash: string, chunk: ArrayBuffer) {
+    const { data: { session } } = await supabase.auth.getSession();
+
+    const response = await fetch(`${API_URL}/blobs/${hash}?supabaseId=${supabaseId}`, {
+      method: 'PUT',
+      headers: {
+        'Content-Type': 'application/octet-stream',
+        'Authorization': `Bearer ${session?.access_token || ''}`
+      },
+      body: chunk
+    });
+
+    if (!response.ok) {
+      throw new Error(`API error: ${response.status}`);
+    }
+
+    return response.json();
+  },
+
+  /**
+   * Store a file, sending only the chunks the server does not already hold
+   */
+  async uploadDeduplicated(file: File, trackId: string, supabaseId: string, onProgress?: (progress: number) => void) {
+    const hashes: string[] = [];
+    for (let offset = 0; offset < file.size; offset += DEDUP_CHUNK_SIZE) {
+      hashes.push(await sha256Hex(await file.slice(offset, offset + DEDUP_CHUNK_SIZE).arrayBuffer()));
+    }
+
+    const missing = new Set(await blobApi.findMissing(supabaseId, hashes));
+    let sent = 0;
+    for (let i = 0; i < hashes.length; i++) {
+      if (!missing.has(hashes[i])) continue;
+      // A file can repeat a chunk; upload it once
+      missing.delete(hashes[i]);
+      await blobApi.putChunk(supabaseId, hashes[i], await file.slice(i * DEDUP_CHUNK_SIZE, (i + 1) * DEDUP_CHUNK_SIZE).arrayBuffer());
+      sent++;
+      onProgress?.(Math.round((sent / hashes.length) * 100));
+    }
+    onProgress?.(100);
+
+    return api.put(`/manifests/${trackId}?supabaseId=${supabaseId}`, {
+      fileName: file.name,
+      size: file.size,
+      chunkSize: DEDUP_CHUNK_SIZE,
+      chunks: hashes
+    });
+  }
+};
+
+/**
+ * Server-side library catalog API service
+ */
+export const libraryApi = {
+  /**
+   * Apply Dropbox changes since the last sync to the server-side catalog
+   */
+  async sync(supabaseId: string, dropboxToken: string) {
+    const { data: { session } } = await supabase.auth.getSession();
+
+    const response = await fetch(`${API_URL}/library/sync?supabaseId=${supabaseId}`, {
+      method: 'POST',
+      headers: {
+        'Authorization': `Bearer ${session?.access_token || ''}`,
+        'X-Dropbox-Token': dropboxToken
+      }
+    });
+
+    if (!response.ok) {
+      throw new Error(`API error: ${response.status}`);
+    }
+
+    return response.json();
+  },
+
+  /**
+   * Get one page of the library, sorted and optionally filtered
+   */
+  async getPage(supabaseId: string, options: {
+    q?: string;
+    extension?: string;
+    sort?: 'name' | 'title' | 'artist' | 'album' | 'modified' | 'size';
+    order?: 'asc' | 'desc';
+    page?: number;
+    size?: number;
+  } = {}) {
+    const params = new URLSearchParams({ supabaseId });
+    Object.entries(options).forEach(([key, value]) => {
+      if (value !== undefined && value !== '') params.set(key, String(value));
+    });
+    return api.get(`/library?${params}`);
+  }
+};
+
+// Plays are buffered and sent in batches instead of one request per play
+const HISTORY_FLUSH_SIZE = 50;
+const HISTORY_FLUSH_INTERVAL = 30000; // ms
+
+interface PlayEvent {
+  trackId: string;
+  title?: string;
+  artist?: string;
+  playedAt: string;
+  listenedMs: number;
+}
+
+let pendingPlays: { supabaseId: string; event: PlayEvent }[] = [];
+let historyTimer: ReturnType<typeof setTimeout> | null = null;
+
+/**
+ * Listening history API service
+ */
+export const historyApi = {
+  /**
+   * Queue a play; queued plays are sent together every 30 seconds or 50 plays
+   */
+  record(supabaseId: string, event: PlayEvent) {
+    pendingPlays.push({ supabaseId, event });
+    if (pendingPlays.length >= HISTORY_FLUSH_SIZE) {
+      void historyApi.flush();
+    } else if (!historyTimer) {
+      historyTimer = setTimeout(() => void historyApi.flush(), HISTORY_FLUSH_INTERVAL);
+    }
+  },
+
+  /**
+   * Send queued plays now; plays that fail to send are queued again
+   */
+  async flush() {
+    if (historyTimer) {
+      clearTimeout(historyTimer);
+      historyTimer = null;
+    }
+    const queued = pendingPlays;
+    pendingPlays = [];
+    const byUser = new Map<string, PlayEvent[]>();
+    queued.forEach(({ supabaseId, event }) => {
+      byUser.set(supabaseId, [...(byUser.get(supabaseId) ?? []), event]);
+    });
+    for (const [supabaseId, events] of byUser) {
+      try {
+        await api.post(`/history/events?supabaseId=${supabaseId}`, { events });
+      } catch (error) {
+        console.error('Failed to send plays, will retry:', error);
+        events.forEach(event => pendingPlays.push({ supabaseId, event }));
+        if (!historyTimer) {
+          historyTimer = setTimeout(() => void historyApi.flush(), HISTORY_FLUSH_INTERVAL);
+        }
+      }
+    }
+  },
+
+  async getStats(supabaseId: string, period: 'day' | 'week' | 'month' | 'all' = 'week', limit: number = 10) {
+    return api.get(`/history/stats?supabaseId=${supabaseId}&period=${period}&limit=${limit}`);
+  }
+};
+
+/**
+ * Similar tracks API service
+ */
+export const recommendationApi = {
+  /**
+   * Tracks that often share the user's playlists with the given track, best first
+   */
+  async getSimilar(supabaseId: string, trackId: string, limit: number = 10) {
+    return api.get(`/recommendations/similar/${encodeURIComponent(trackId)}?supabaseId=${supabaseId}&limit=${limit}`);
+  }
+};
+
+export type QueueOp =
+  | { type: 'insert'; index: number; trackIds: string[] }
+  | { type: 'remove'; index: number; count?: number }
+  | { type: 'move'; index: number; toIndex: number; count?: number }
+  | { type: 'seek'; index?: number; positionMs?: number };
+
+/**
+ * Play queue sync API service
+ */
+export const queueApi = {
+  /**
+   * Ops since a version, or the whole queue when since is omitted or too old
+   */
+  async get(supabaseId: string, since?: number) {
+    const query = since !== undefined ? `&since=${since}` : '';
+    return api.get(`/queue?supabaseId=${supabaseId}${query}`);
+  },
+
+  /**
+   * Send ops made against baseVersion. A 409 response carries the missing ops in its data;
+   * apply them, rebase the pending ops and send again.
+   */
+  async sendOps(supabaseId: string, baseVersion: number, ops: QueueOp[]) {
+    return api.post(`/queue/ops?supabaseId=${supabaseId}`, { baseVersion, ops });
+  }
+};
+
+/**
+ * Song search API service
+ */
+export const songSearchApi = {
+  /**
+   * Suggestions while typing; answered from the server's local index, so it is safe to call per keystroke
+   */
+  async typeahead(q: string, limit: number = 10) {
+    return api.get(`/genius/typeahead?q=${encodeURIComponent(q)}&limit=${limit}`);
   }
 };
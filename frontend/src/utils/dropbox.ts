@@ -156,7 +156,7 @@ export const createDropboxClient = (): Dropbox | null => {
 
 const processFiles = async (
   client: Dropbox,
-  entries: Array<{ ".tag": string; path_display?: string; name: string }>,
+  entries: Array<{ ".tag": string; path_display?: string; name: string; content_hash?: string }>,
   setPagination: boolean = true
 ): Promise<Track[]> => {
   const tracks: Track[] = [];
@@ -201,6 +201,7 @@ const processFiles = async (
         name,
         path,
         temporaryLink: linkResponse.result.link,
+        contentHash: entry.content_hash,
         encryptedKey: "",
         iv: "",
       });
@@ -30,4 +30,118 @@ export const decryptFile = (encrypted: Uint8Array, key: Uint8Array, secretKey: U
   if (!decrypted) throw new Error('Failed to decrypt file');
   
   return decrypted;
-};
\ No newline at end of file
+};
+// Chunked container ("SVC1"): fixed-size chunks sealed independently so playback can start
+// and seek without downloading or decrypting the whole file. Layout (big-endian):
+// magic(4) version(1) reserved(3) chunkSize(4) plaintextLength(8) chunkCount(4)
+// nonce index (24 bytes per chunk), then sealed chunks of chunkSize + 16 bytes (last may be shorter).
+export const CONTAINER_MAGIC = 'SVC1';
+export const CONTAINER_VERSION = 1;
+export const CONTAINER_FIXED_HEADER = 24;
+export const DEFAULT_CHUNK_SIZE = 256 * 1024;
+
+export interface ContainerHeader {
+  chunkSize: number;
+  plaintextLength: number;
+  chunkCount: number;
+  headerLength: number;
+  nonces: Uint8Array[];
+}
+
+export const encryptFileChunked = async (
+  file: File,
+  publicKey: Uint8Array,
+  chunkSize: number = DEFAULT_CHUNK_SIZE
+): Promise<{ encrypted: Uint8Array, key: Uint8Array }> => {
+  const fileKey = randomBytes(box.secretKeyLength);
+  const sharedKey = box.before(publicKey, fileKey);
+
+  const chunkCount = Math.ceil(file.size / chunkSize);
+  const headerLength = CONTAINER_FIXED_HEADER + box.nonceLength * chunkCount;
+  const encrypted = new Uint8Array(headerLength + file.size + box.overheadLength * chunkCount);
+  const view = new DataView(encrypted.buffer);
+
+  encrypted.set(new TextEncoder().encode(CONTAINER_MAGIC), 0);
+  view.setUint8(4, CONTAINER_VERSION);
+  view.setUint32(8, chunkSize);
+  view.setBigUint64(12, BigInt(file.size));
+  view.setUint32(20, chunkCount);
+
+  let offset = headerLength;
+  for (let i = 0; i < chunkCount; i++) {
+    // Read one chunk at a time so the whole plaintext is never held in memory at once
+    const plain = new Uint8Array(await file.slice(i * chunkSize, (i + 1) * chunkSize).arrayBuffer());
+    const nonce = randomBytes(box.nonceLength);
+    const sealed = box.after(plain, nonce, sharedKey);
+    encrypted.set(nonce, CONTAINER_FIXED_HEADER + i * box.nonceLength);
+    encrypted.set(sealed, offset);
+    offset += sealed.length;
+  }
+
+  return {
+    encrypted,
+    key: fileKey
+  };
+};
+
+export const parseContainerHeader = (header: Uint8Array): ContainerHeader => {
+  const view = new DataView(header.buffer, header.byteOffset, header.byteLength);
+  if (new TextDecoder().decode(header.slice(0, 4)) !== CONTAINER_MAGIC || view.getUint8(4) !== CONTAINER_VERSION) {
+    throw new Error('Not a chunked track container');
+  }
+  const chunkSize = view.getUint32(8);
+  const plaintextLength = Number(view.getBigUint64(12));
+  const chunkCount = view.getUint32(20);
+  const headerLength = CONTAINER_FIXED_HEADER + box.nonceLength * chunkCount;
+  if (header.length < headerLength) {
+    throw new Error('Container header is truncated');
+  }
+
+  const nonces: Uint8Array[] = [];
+  for (let i = 0; i < chunkCount; i++) {
+    const start = CONTAINER_FIXED_HEADER + i * box.nonceLength;
+    nonces.push(header.slice(start, start + box.nonceLength));
+  }
+  return { chunkSize, plaintextLength, chunkCount, headerLength, nonces };
+};
+
+// Byte range (inclusive) of the sealed chunks covering a plaintext position range
+export const chunkByteRange = (header: ContainerHeader, firstChunk: number, lastChunk: number): [number, number] => {
+  const sealedSize = header.chunkSize + box.overheadLength;
+  const last = Math.min(lastChunk, header.chunkCount - 1);
+  const lastLength = last === header.chunkCount - 1
+    ? header.plaintextLength - last * header.chunkSize + box.overheadLength
+    : sealedSize;
+  return [header.headerLength + firstChunk * sealedSize, header.headerLength + last * sealedSize + lastLength - 1];
+};
+
+export const chunkForPosition = (header: ContainerHeader, plaintextPosition: number): number =>
+  Math.min(Math.floor(plaintextPosition / header.chunkSize), header.chunkCount - 1);
+
+export const deriveChunkKey = (key: Uint8Array, secretKey: Uint8Array): Uint8Array => box.before(key, secretKey);
+
+// Decrypt consecutive sealed chunks starting at firstChunk, as returned by the stream endpoint
+export const decryptChunks = (
+  sealed: Uint8Array,
+  firstChunk: number,
+  header: ContainerHeader,
+  chunkKey: Uint8Array
+): Uint8Array => {
+  const sealedSize = header.chunkSize + box.overheadLength;
+  const parts: Uint8Array[] = [];
+  let total = 0;
+  for (let offset = 0, index = firstChunk; offset < sealed.length; offset += sealedSize, index++) {
+    const plain = box.open.after(sealed.subarray(offset, offset + sealedSize), header.nonces[index], chunkKey);
+    if (!plain) throw new Error(`Failed to decrypt chunk ${index}`);
+    parts.push(plain);
+    total += plain.length;
+  }
+
+  const result = new Uint8Array(total);
+  let position = 0;
+  for (const part of parts) {
+    result.set(part, position);
+    position += part.length;
+  }
+  return result;
+};
@@ -1,6 +1,8 @@
 import * as mmb from 'music-metadata-browser';
 import { Track } from '../types';
 import { usePlayerStore } from '../store/playerStore';
+import { artworkApi, metadataApi } from './api';
+import { getSession } from './supabase';
 
 export interface Picture {
   data: string;
@@ -15,10 +17,14 @@ export interface AudioMetadata {
   album?: string;
   year?: string;
   genre?: string;
+  duration?: number;
   picture?: Picture;
 }
 
-// Rate limiting configuration
+// Tracks per server-side batch request (matches metadata.max-batch-size)
+const SERVER_BATCH_SIZE = 200;
+
+// Rate limiting configuration for the client-side fallback
 const CONCURRENT_REQUESTS = 3;
 const REQUEST_DELAY = 500; // ms between requests
 
@@ -58,11 +64,74 @@ const getBase64Picture = (picture: mmb.IPicture): Picture => {
   };
 };
 
+// Small server-side thumbnail instead of the full embedded image
+const artworkPicture = (artworkHash: string): Picture => ({
+  data: artworkApi.url(artworkHash, 256),
+  format: 'image/jpeg',
+  type: 'Front Cover',
+  description: 'Album Art',
+});
+
 // Helper function to delay execution
 const delay = (ms: number) => new Promise(resolve => setTimeout(resolve, ms));
 
-// Process tracks in batches with rate limiting
+// Resolve metadata on the server, which reads only the tag and header bytes of each file.
+// Falls back to parsing in the browser if the backend is unreachable.
 export const processMetadata = async (tracks: Track[]): Promise<AudioMetadata[]> => {
+  const playerStore = usePlayerStore.getState();
+  const pending = tracks.filter(track => !playerStore.metadataCache.has(track.id));
+
+  try {
+    // Server-side results are cached per user
+    const session = await getSession();
+    if (!session) {
+      throw new Error('Not signed in');
+    }
+    for (let i = 0; i < pending.length; i += SERVER_BATCH_SIZE) {
+      const batch = pending.slice(i, i + SERVER_BATCH_SIZE);
+      const response = await metadataApi.getBatch(session.user.id, batch.map(track => ({
+        id: track.id,
+        name: track.name,
+        url: track.temporaryLink,
+        contentHash: track.contentHash,
+      })));
+      if (!response.success) {
+        throw new Error(response.message || 'Failed to read metadata');
+      }
+      for (const result of response.data) {
+        const track = batch.find(t => t.id === result.id);
+        if (!track) continue;
+        playerStore.setMetadata(track.id, result.metadata ? {
+          title: result.metadata.title,
+          artist: result.metadata.artist,
+          album: result.metadata.album,
+          year: result.metadata.year,
+          genre: result.metadata.genre,
+          duration: result.metadata.durationSeconds ?? undefined,
+          picture: result.metadata.artworkHash
+            ? artworkPicture(result.metadata.artworkHash)
+            : defaultPicture,
+        } : defaultMetadataFor(track));
+      }
+    }
+    return tracks.map(track => playerStore.metadataCache.get(track.id) ?? defaultMetadataFor(track));
+  } catch (error) {
+    console.error('Server-side metadata failed, parsing in the browser:', error);
+    return processMetadataLocally(tracks);
+  }
+};
+
+const defaultMetadataFor = (track: Track): AudioMetadata => ({
+  title: track.name,
+  artist: 'Unknown Artist',
+  album: 'Unknown Album',
+  year: '',
+  genre: '',
+  picture: defaultPicture,
+});
+
+// Process tracks in batches with rate limiting
+const processMetadataLocally = async (tracks: Track[]): Promise<AudioMetadata[]> => {
   const results: AudioMetadata[] = [];
   const batches = [];
   
@@ -140,14 +209,7 @@ export const getMetadata = async (track: Track): Promise<AudioMetadata> => {
     }
 
     // Return default metadata on error
-    const defaultMetadata: AudioMetadata = {
-      title: track.name,
-      artist: 'Unknown Artist',
-      album: 'Unknown Album',
-      year: '',
-      genre: '',
-      picture: defaultPicture,
-    };
+    const defaultMetadata = defaultMetadataFor(track);
 
     playerStore.setMetadata(track.id, defaultMetadata);
     return defaultMetadata;